@@ -0,0 +1,522 @@
+package edu.mills.cs64.final_project;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+
+
+/**
+ * A directory of rendered audits, addressed by the content of the
+ * transcript file, the version of the catalog and the report format.
+ * A transcript file whose bytes are unchanged since the last run
+ * against the same catalog can be written straight from the cache
+ * without being parsed or audited, however many students it holds. The course codes that were not in the
+ * catalog are kept with the audit and reported again on every hit, so
+ * an unchanged transcript is still diagnosed.
+ * <p>
+ * Each entry is a file named after its key and laid out as follows,
+ * in big-endian order:
+ * <pre>
+ *     int     magic "MAUD"
+ *     short   version
+ *     long    hash of the transcript bytes
+ *     int     length of the transcript in bytes
+ *     long    catalog version
+ *     int     number of transcripts audited
+ *     int     number of malformed records reported
+ *     int     length of the audit in bytes
+ *     byte[]  the audit, in UTF-8
+ *     int     number of unknown course codes, then each:
+ *         UTF     the code
+ *         UTF     where it was first seen
+ *         long    number of occurrences
+ *     int     CRC-32 of everything above
+ * </pre>
+ * An entry that does not match its key or fails its checksum is
+ * deleted and treated as a miss. Entries are written to a temporary
+ * file and moved into place, so a reader never sees half an entry;
+ * changes to the same entry are counted toward the size one at a time.
+ * When the cache grows past its size limit the least recently used
+ * entries are deleted.
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+public class AuditCache
+{
+	private static final int MAGIC = 0x4D415544;   // "MAUD"
+	private static final short VERSION = 3;
+	private static final int TRAILER_SIZE = 4;
+	private static final String TEMP_SUFFIX = ".tmp";
+	// How far below the limit eviction brings the cache, as a fraction.
+	private static final double EVICTION_TARGET = 0.9;
+	private static final long C1 = 0x87c37b91114253d5L;
+	private static final long C2 = 0x4cf5ad432745937fL;
+	private static final int LOCK_STRIPES = 64;
+
+	private File directory;
+	private long maxBytes;
+	private AtomicLong size = new AtomicLong();
+	private LongAdder hits = new LongAdder();
+	private LongAdder misses = new LongAdder();
+	private LongAdder rejected = new LongAdder();
+	private LongAdder evictions = new LongAdder();
+	// Guards replacing or deleting an entry and counting the change in
+	// size, by entry name.
+	private Object[] locks = new Object[LOCK_STRIPES];
+
+	/**
+	 * Opens a cache in a directory, creating the directory if needed.
+	 * Temporary files left by an interrupted run are deleted.
+	 *
+	 * @param directory the directory
+	 * @param maxBytes the size the entries may grow to
+	 * @throws IOException if the directory cannot be created or listed
+	 * @throws IllegalArgumentException if maxBytes is not positive
+	 */
+	public AuditCache(String directory, long maxBytes) throws IOException
+	{
+		if (maxBytes <= 0) {
+			throw new IllegalArgumentException("Cache size must be positive: " + maxBytes);
+		}
+		this.directory = new File(directory);
+		this.maxBytes = maxBytes;
+		for (int i = 0; i < locks.length; i++) {
+			locks[i] = new Object();
+		}
+		if (!this.directory.isDirectory() && !this.directory.mkdirs()) {
+			throw new IOException("Unable to create " + directory);
+		}
+		for (File file : listFiles()) {
+			if (file.getName().endsWith(TEMP_SUFFIX)) {
+				file.delete();
+			} else {
+				size.addAndGet(file.length());
+			}
+		}
+		evictIfFull();
+	}
+
+	/**
+	 * Gets the cached audit of a transcript file, and records the
+	 * unknown course codes found when it was audited.
+	 *
+	 * @param transcript the bytes of the transcript file
+	 * @param catalog the catalog the audit is against
+	 * @param format the format of the audit
+	 * @param unknownCourses where to record the unknown codes, or null
+	 * @return the audit, or null if it is not cached
+	 */
+	public Audit get(byte[] transcript, CourseCatalog catalog, ReportFormat format,
+			UnknownCourses unknownCourses)
+	{
+		long hash = hash(transcript, 0, transcript.length);
+		File file = entryFile(hash, catalog, format);
+		byte[] entry;
+		try {
+			entry = Files.readAllBytes(file.toPath());
+		} catch (IOException e) {
+			// Usually the entry does not exist.
+			misses.increment();
+			Metrics.AUDIT_CACHE_MISSES.increment();
+			return null;
+		}
+		Audit audit = decode(entry, hash, transcript.length, catalog.getVersion(),
+				unknownCourses);
+		if (audit == null) {
+			rejected.increment();
+			Metrics.AUDIT_CACHE_REJECTED.increment();
+			delete(file);
+			misses.increment();
+			Metrics.AUDIT_CACHE_MISSES.increment();
+			return null;
+		}
+		// Keep recently used entries from being evicted.
+		file.setLastModified(System.currentTimeMillis());
+		hits.increment();
+		Metrics.AUDIT_CACHE_HITS.increment();
+		return audit;
+	}
+
+	/**
+	 * Caches the audit of a transcript file.
+	 *
+	 * @param transcript the bytes of the transcript file
+	 * @param catalog the catalog the audit is against
+	 * @param format the format of the audit
+	 * @param audit the audit
+	 * @param unknownCourses the unknown course codes found in the
+	 *     file, or null if there were none
+	 * @throws IOException if the entry cannot be written
+	 */
+	public void put(byte[] transcript, CourseCatalog catalog, ReportFormat format,
+			Audit audit, UnknownCourses unknownCourses) throws IOException
+	{
+		long hash = hash(transcript, 0, transcript.length);
+		byte[] text = audit.text.getBytes(StandardCharsets.UTF_8);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(text.length + 64);
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(MAGIC);
+		out.writeShort(VERSION);
+		out.writeLong(hash);
+		out.writeInt(transcript.length);
+		out.writeLong(catalog.getVersion());
+		out.writeInt(audit.transcripts);
+		out.writeInt(audit.failures);
+		out.writeInt(text.length);
+		out.write(text);
+		List<UnknownCourses.Entry> codes = unknownCourses == null
+				? Collections.<UnknownCourses.Entry>emptyList() : unknownCourses.getEntries();
+		out.writeInt(codes.size());
+		for (UnknownCourses.Entry code : codes) {
+			out.writeUTF(code.getCode());
+			out.writeUTF(code.getFirstSource());
+			out.writeLong(code.getCount());
+		}
+		CRC32 crc = new CRC32();
+		crc.update(bytes.toByteArray());
+		out.writeInt((int) crc.getValue());
+		byte[] entry = bytes.toByteArray();
+
+		File file = entryFile(hash, catalog, format);
+		File temp = new File(directory, file.getName() + "." + Thread.currentThread().getId()
+				+ TEMP_SUFFIX);
+		try {
+			Files.write(temp.toPath(), entry);
+			synchronized (lockFor(file)) {
+				long replaced = file.length();
+				Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+				size.addAndGet(entry.length - replaced);
+			}
+		} finally {
+			temp.delete();
+		}
+		evictIfFull();
+	}
+
+	/**
+	 * Checks an entry against its key and checksum, extracts the audit
+	 * and records its unknown course codes.
+	 *
+	 * @param entry the bytes of the entry
+	 * @param hash the hash of the transcript
+	 * @param length the length of the transcript
+	 * @param version the catalog version
+	 * @param unknownCourses where to record the unknown codes, or null
+	 * @return the audit, or null if the entry is damaged or is for a
+	 *     different key
+	 */
+	private static Audit decode(byte[] entry, long hash, int length, long version,
+			UnknownCourses unknownCourses)
+	{
+		if (entry.length < TRAILER_SIZE) {
+			return null;
+		}
+		CRC32 crc = new CRC32();
+		crc.update(entry, 0, entry.length - TRAILER_SIZE);
+		if (ByteBuffer.wrap(entry).getInt(entry.length - TRAILER_SIZE) != (int) crc.getValue()) {
+			return null;
+		}
+		DataInputStream in = new DataInputStream(
+				new ByteArrayInputStream(entry, 0, entry.length - TRAILER_SIZE));
+		try {
+			if (in.readInt() != MAGIC || in.readShort() != VERSION || in.readLong() != hash
+					|| in.readInt() != length || in.readLong() != version) {
+				return null;
+			}
+			int transcripts = in.readInt();
+			int failures = in.readInt();
+			int textLength = in.readInt();
+			if (transcripts < 0 || failures < 0 || textLength < 0 || textLength > in.available()) {
+				return null;
+			}
+			byte[] text = new byte[textLength];
+			in.readFully(text);
+			int count = in.readInt();
+			// Each code takes at least two empty strings and a count.
+			if (count < 0 || count > in.available() / 12) {
+				return null;
+			}
+			String[] codes = new String[count * 2];
+			long[] counts = new long[count];
+			for (int i = 0; i < counts.length; i++) {
+				codes[2 * i] = in.readUTF();
+				codes[2 * i + 1] = in.readUTF();
+				counts[i] = in.readLong();
+			}
+			if (in.available() != 0) {
+				return null;
+			}
+			// Recorded only once the whole entry is known to be good.
+			for (int i = 0; unknownCourses != null && i < counts.length; i++) {
+				unknownCourses.record(codes[2 * i], codes[2 * i + 1], counts[i]);
+			}
+			return new Audit(new String(text, StandardCharsets.UTF_8), transcripts, failures);
+		} catch (IOException e) {
+			// A field runs past the end of the entry.
+			return null;
+		}
+	}
+
+	/**
+	 * Gets the file for an entry.
+	 *
+	 * @param hash the hash of the transcript
+	 * @param catalog the catalog
+	 * @param format the report format
+	 * @return the file
+	 */
+	private File entryFile(long hash, CourseCatalog catalog, ReportFormat format)
+	{
+		return new File(directory, String.format("%016x-%016x.%s", hash, catalog.getVersion(),
+				format.name().toLowerCase(Locale.ROOT)));
+	}
+
+	/**
+	 * Deletes the least recently used entries if the cache is over its
+	 * size limit, until it is comfortably under.
+	 */
+	private synchronized void evictIfFull()
+	{
+		if (size.get() <= maxBytes) {
+			return;
+		}
+		File[] files = listFiles();
+		final long[] modified = new long[files.length];
+		Integer[] order = new Integer[files.length];
+		for (int i = 0; i < files.length; i++) {
+			// Read the times up front; sorting on keys that change is unsafe.
+			modified[i] = files[i].lastModified();
+			order[i] = i;
+		}
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer i, Integer j) {
+				return Long.compare(modified[i], modified[j]);
+			}
+		});
+		long target = (long) (maxBytes * EVICTION_TARGET);
+		for (int i = 0; i < order.length && size.get() > target; i++) {
+			File file = files[order[i]];
+			if (file.getName().endsWith(TEMP_SUFFIX)) {
+				continue;
+			}
+			if (delete(file)) {
+				evictions.increment();
+				Metrics.AUDIT_CACHE_EVICTIONS.increment();
+			}
+		}
+	}
+
+	/**
+	 * Deletes an entry and counts the change in size.
+	 *
+	 * @param file the entry
+	 * @return true if it was deleted
+	 */
+	private boolean delete(File file)
+	{
+		synchronized (lockFor(file)) {
+			long length = file.length();
+			if (!file.delete()) {
+				return false;
+			}
+			size.addAndGet(-length);
+			return true;
+		}
+	}
+
+	/**
+	 * Gets the lock guarding changes to an entry.
+	 *
+	 * @param file the entry
+	 * @return the lock
+	 */
+	private Object lockFor(File file)
+	{
+		return locks[(file.getName().hashCode() & Integer.MAX_VALUE) % LOCK_STRIPES];
+	}
+
+	/**
+	 * Lists the files in the cache directory.
+	 *
+	 * @return the files
+	 */
+	private File[] listFiles()
+	{
+		File[] files = directory.listFiles();
+		return files == null ? new File[0] : files;
+	}
+
+	/**
+	 * Computes a 64-bit hash of bytes, eight at a time, with the
+	 * MurmurHash3 mixing functions.
+	 *
+	 * @param bytes the bytes
+	 * @param offset the index of the first byte
+	 * @param length the number of bytes
+	 * @return the hash
+	 */
+	static long hash(byte[] bytes, int offset, int length)
+	{
+		ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, length).order(ByteOrder.LITTLE_ENDIAN);
+		long h = length;
+		while (buffer.remaining() >= 8) {
+			h ^= mixKey(buffer.getLong());
+			h = Long.rotateLeft(h, 27) * 5 + 0x52dce729;
+		}
+		long tail = 0;
+		for (int shift = 0; buffer.hasRemaining(); shift += 8) {
+			tail |= (buffer.get() & 0xFFL) << shift;
+		}
+		h ^= mixKey(tail);
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		return h ^ (h >>> 33);
+	}
+
+	private static long mixKey(long k)
+	{
+		k *= C1;
+		k = Long.rotateLeft(k, 31);
+		return k * C2;
+	}
+
+	/**
+	 * Gets the number of lookups that found an audit.
+	 *
+	 * @return the number of hits
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * Gets the number of lookups that found no usable audit.
+	 *
+	 * @return the number of misses
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * Gets the number of entries deleted because they were damaged.
+	 *
+	 * @return the number of rejected entries
+	 */
+	public long getRejected() {
+		return rejected.sum();
+	}
+
+	/**
+	 * Gets the number of entries deleted to keep under the size limit.
+	 *
+	 * @return the number of evictions
+	 */
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	/**
+	 * Gets the fraction of lookups that found an audit.
+	 *
+	 * @return the hit rate, from 0 to 1, or 0 if there were no lookups
+	 */
+	public double getHitRate() {
+		long hits = getHits();
+		long total = hits + getMisses();
+		return total == 0 ? 0 : (double) hits / total;
+	}
+
+	/**
+	 * Gets the total size of the entries.
+	 *
+	 * @return the size in bytes
+	 */
+	public long getSize() {
+		return size.get();
+	}
+
+	/**
+	 * Overrides the toString method.
+	 *
+	 * @return the hit, miss, rejection and eviction counts and the size
+	 */
+	@Override
+	public String toString()
+	{
+		return String.format("audit cache: %d hits, %d misses (%.1f%% hit rate), "
+				+ "%d rejected, %d evicted, %d bytes", getHits(), getMisses(),
+				getHitRate() * 100, getRejected(), getEvictions(), getSize());
+	}
+
+	/**
+	 * The cached audit of a transcript file.
+	 */
+	public static class Audit
+	{
+		private String text;
+		private int transcripts;
+		private int failures;
+
+		/**
+		 * Constructs an audit to cache.
+		 *
+		 * @param text the rendered audits of the file
+		 * @param transcripts the number of transcripts audited
+		 * @param failures the number of malformed records reported
+		 */
+		public Audit(CharSequence text, int transcripts, int failures)
+		{
+			this.text = text.toString();
+			this.transcripts = transcripts;
+			this.failures = failures;
+		}
+
+		/**
+		 * Gets the rendered audits.
+		 *
+		 * @return the text
+		 */
+		public String getText() {
+			return text;
+		}
+
+		/**
+		 * Gets the number of transcripts audited.
+		 *
+		 * @return the number of transcripts
+		 */
+		public int getTranscripts() {
+			return transcripts;
+		}
+
+		/**
+		 * Gets the number of malformed records reported in the text.
+		 *
+		 * @return the number of failures
+		 */
+		public int getFailures() {
+			return failures;
+		}
+	}
+}
@@ -0,0 +1,663 @@
+package edu.mills.cs64.final_project;
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+
+/**
+ * Degree-audit rules read from a file, which can express more than the
+ * single credit threshold of a {@link CoreRequirement}. Each non-blank
+ * line that does not start with # is a rule: a name, a colon, and
+ * comma-separated clauses.
+ * <pre>
+ *     # Nine credits of breadth, at most one course per department
+ *     BREADTH: 9 credits, requirement CA RGP IP, 1 per department
+ *     CS_CORE: 4 courses, department CS, grade C
+ *     RECENT_QL: 6 credits, requirement QL, after 2014
+ * </pre>
+ * The clauses are:
+ * <ul>
+ * <li>N credits, or N courses: how much is needed to satisfy the rule;
+ * every rule has exactly one</li>
+ * <li>requirement CODE ...: only courses meeting one of the listed
+ * core requirements count</li>
+ * <li>department DEPT ...: only courses in one of the listed
+ * departments count</li>
+ * <li>grade G: only grades of G or better count</li>
+ * <li>after YEAR, before YEAR: only courses taken in a later, or
+ * earlier, year count; YEAR is from 0 to {@value #MAX_YEAR}</li>
+ * <li>N per department: at most N courses from any one department
+ * count, in transcript order</li>
+ * </ul>
+ * A course repeated on a transcript counts each time, as it does for
+ * core requirements.
+ * <p>
+ * Rules are not interpreted record by record. {@link #compile} turns
+ * them into tables over a catalog: for each course, grade and year, a
+ * mask of the rules it can count toward. Evaluating a grade record is
+ * then three table lookups and an AND, and an {@link Evaluator} reuses
+ * its tallies, so evaluation allocates nothing. At most
+ * {@value #MAX_RULES} rules fit in a mask.
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+public class AuditRules
+{
+	/**
+	 * The largest number of rules in a rule set.
+	 */
+	public static final int MAX_RULES = 64;
+
+	/**
+	 * The latest year an after or before clause may name.
+	 */
+	public static final int MAX_YEAR = 9999;
+
+	private static final String GRADES = "ABCDF";
+	// Indexed by the grade letter minus 'A'; E is never a legal grade.
+	private static final int GRADE_TABLE_SIZE = 'F' - 'A' + 1;
+
+	private List<Rule> rules;
+
+	/**
+	 * Constructs a rule set.
+	 *
+	 * @param rules the rules, in order
+	 */
+	private AuditRules(List<Rule> rules)
+	{
+		this.rules = rules;
+	}
+
+	/**
+	 * Reads a rule set from a file.
+	 *
+	 * @param filename the name of the rule file
+	 * @return the rules
+	 * @throws FileNotFoundException if the file cannot be found
+	 * @throws IllegalArgumentException if a rule is malformed, two rules
+	 *     have the same name or there are more than {@value #MAX_RULES}
+	 * @throws UncheckedIOException if the file cannot be read
+	 */
+	public static AuditRules load(String filename) throws FileNotFoundException
+	{
+		List<Rule> rules = new ArrayList<Rule>();
+		Set<String> names = new HashSet<String>();
+		BufferedReader reader = new BufferedReader(new FileReader(filename));
+		int lineNumber = 0;
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+				line = line.trim();
+				if (line.isEmpty() || line.startsWith("#")) {
+					continue;
+				}
+				Rule rule = parseRule(line, filename, lineNumber);
+				if (!names.add(rule.name)) {
+					throw formatError(filename, lineNumber, "duplicate rule " + rule.name);
+				}
+				if (rules.size() == MAX_RULES) {
+					throw formatError(filename, lineNumber, "more than " + MAX_RULES + " rules");
+				}
+				rules.add(rule);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			try {
+				reader.close();
+			} catch (IOException e) {
+				System.err.println(e.toString());
+			}
+		}
+		return new AuditRules(rules);
+	}
+
+	/**
+	 * Gets the rule set equivalent to the core requirements: one rule
+	 * per {@link CoreRequirement}, in order, needing its credits from
+	 * courses that meet it.
+	 *
+	 * @return the rules
+	 */
+	public static AuditRules core()
+	{
+		List<Rule> rules = new ArrayList<Rule>();
+		for (CoreRequirement cr : CoreRequirement.values()) {
+			Rule rule = new Rule(cr.name());
+			rule.threshold = cr.getCredits();
+			rule.requirementsMask = cr.getMask();
+			rules.add(rule);
+		}
+		return new AuditRules(rules);
+	}
+
+	/**
+	 * Parses a rule line.
+	 *
+	 * @param line the line, trimmed
+	 * @param filename the name of the file, for error messages
+	 * @param lineNumber the line number, for error messages
+	 * @return the rule
+	 * @throws IllegalArgumentException if the line is malformed
+	 */
+	private static Rule parseRule(String line, String filename, int lineNumber)
+	{
+		int colon = line.indexOf(':');
+		if (colon <= 0) {
+			throw formatError(filename, lineNumber, "expected NAME: CLAUSES but found \""
+					+ line + "\"");
+		}
+		Rule rule = new Rule(line.substring(0, colon).trim());
+		for (String clause : line.substring(colon + 1).split(",")) {
+			String[] words = clause.trim().split("\\s+");
+			String keyword = words[0];
+			if (words.length == 2 && (words[1].equals("credits") || words[1].equals("credit")
+					|| words[1].equals("courses") || words[1].equals("course"))) {
+				if (rule.threshold >= 0) {
+					throw formatError(filename, lineNumber, "more than one threshold");
+				}
+				rule.threshold = parseInt(words[0], filename, lineNumber);
+				rule.countsCourses = words[1].startsWith("course");
+			} else if (words.length == 3 && words[1].equals("per")
+					&& words[2].equals("department")) {
+				rule.perDepartment = parseInt(words[0], filename, lineNumber);
+				if (rule.perDepartment == 0) {
+					throw formatError(filename, lineNumber, "per department limit must be positive");
+				}
+			} else if (words.length > 1 && (keyword.equals("requirement")
+					|| keyword.equals("requirements"))) {
+				for (int i = 1; i < words.length; i++) {
+					try {
+						rule.requirementsMask |= CoreRequirement.valueOf(words[i]).getMask();
+					} catch (IllegalArgumentException e) {
+						throw formatError(filename, lineNumber, "unknown core requirement \""
+								+ words[i] + "\"");
+					}
+				}
+			} else if (words.length > 1 && (keyword.equals("department")
+					|| keyword.equals("departments"))) {
+				rule.departments = new HashSet<String>(
+						Arrays.asList(words).subList(1, words.length));
+			} else if (words.length == 2 && keyword.equals("grade")) {
+				if (!GradeRecord.isLegalGrade(words[1])) {
+					throw formatError(filename, lineNumber, "unknown grade \"" + words[1] + "\"");
+				}
+				rule.minGrade = words[1].charAt(0);
+			} else if (words.length == 2 && keyword.equals("after")) {
+				rule.fromYear = parseYear(words[1], filename, lineNumber) + 1;
+			} else if (words.length == 2 && keyword.equals("before")) {
+				rule.toYear = parseYear(words[1], filename, lineNumber) - 1;
+			} else {
+				throw formatError(filename, lineNumber, "unknown clause \"" + clause.trim() + "\"");
+			}
+		}
+		if (rule.threshold < 0) {
+			throw formatError(filename, lineNumber, "rule " + rule.name
+					+ " needs N credits or N courses");
+		}
+		return rule;
+	}
+
+	/**
+	 * Parses a non-negative number in a rule.
+	 *
+	 * @param word the number
+	 * @param filename the name of the file, for error messages
+	 * @param lineNumber the line number, for error messages
+	 * @return the number
+	 * @throws IllegalArgumentException if the word is not a number
+	 */
+	private static int parseInt(String word, String filename, int lineNumber)
+	{
+		try {
+			int value = Integer.parseInt(word);
+			if (value >= 0) {
+				return value;
+			}
+		} catch (NumberFormatException e) {
+			// Reported below.
+		}
+		throw formatError(filename, lineNumber, "expected a number but found \"" + word + "\"");
+	}
+
+	/**
+	 * Parses the year in an after or before clause.
+	 *
+	 * @param word the year
+	 * @param filename the name of the file, for error messages
+	 * @param lineNumber the line number, for error messages
+	 * @return the year
+	 * @throws IllegalArgumentException if the word is not a year from 0
+	 *     to {@link #MAX_YEAR}
+	 */
+	private static int parseYear(String word, String filename, int lineNumber)
+	{
+		int year = parseInt(word, filename, lineNumber);
+		if (year > MAX_YEAR) {
+			throw formatError(filename, lineNumber, "year " + year + " is after " + MAX_YEAR);
+		}
+		return year;
+	}
+
+	/**
+	 * Creates an exception describing a malformed line.
+	 *
+	 * @param filename the name of the file
+	 * @param lineNumber the number of the malformed line
+	 * @param message what was wrong with the line
+	 * @return the exception to throw
+	 */
+	private static IllegalArgumentException formatError(String filename, int lineNumber,
+			String message) {
+		return new IllegalArgumentException(filename + " line " + lineNumber + ": " + message);
+	}
+
+	/**
+	 * Gets the number of rules.
+	 *
+	 * @return the number of rules
+	 */
+	public int size() {
+		return rules.size();
+	}
+
+	/**
+	 * Gets the name of a rule.
+	 *
+	 * @param rule the position of the rule, which is also its bit in
+	 *     the masks returned by {@link Evaluator#evaluate(List)}
+	 * @return the name
+	 */
+	public String getName(int rule) {
+		return rules.get(rule).name;
+	}
+
+	/**
+	 * Gets the credits or courses needed to satisfy a rule.
+	 *
+	 * @param rule the position of the rule
+	 * @return the threshold
+	 */
+	public int getThreshold(int rule) {
+		return rules.get(rule).threshold;
+	}
+
+	/**
+	 * Compiles these rules into tables over a catalog. The result is
+	 * immutable and can be shared by evaluators on many threads.
+	 *
+	 * @param catalog the catalog of the transcripts to evaluate
+	 * @return the compiled rules
+	 */
+	public Compiled compile(CourseCatalog catalog)
+	{
+		return new Compiled(this, catalog);
+	}
+
+	/**
+	 * A rule as written in the file.
+	 */
+	private static class Rule
+	{
+		private String name;
+		private int threshold = -1;
+		private boolean countsCourses;
+		private int requirementsMask;
+		private Set<String> departments;
+		private char minGrade = 'F';
+		private int fromYear = Integer.MIN_VALUE;
+		private int toYear = Integer.MAX_VALUE;
+		private int perDepartment;
+
+		private Rule(String name)
+		{
+			this.name = name;
+		}
+
+		/**
+		 * Tells whether a course can count toward this rule, whatever
+		 * the grade and year.
+		 *
+		 * @param course the course
+		 * @return true if it can
+		 */
+		private boolean accepts(Course course)
+		{
+			return (requirementsMask == 0 || (course.getRequirementsMask() & requirementsMask) != 0)
+					&& (departments == null || departments.contains(course.getDepartment()));
+		}
+	}
+
+	/**
+	 * Rules compiled into tables over one catalog.
+	 */
+	public static class Compiled
+	{
+		private AuditRules rules;
+		private CourseCatalog catalog;
+		// For each course position, grade and year slot, the rules it
+		// can count toward. Year slot k holds the years from boundary
+		// k - 1 up to boundary k.
+		private long[] courseRules;
+		private long[] gradeRules = new long[GRADE_TABLE_SIZE];
+		private long[] yearRules;
+		private int[] yearBoundaries;
+		// For each course position, its credits and department index.
+		private int[] courseCredits;
+		private int[] courseDepartments;
+		private int departmentCount;
+		private long coursesMask;
+		private long perDepartmentMask;
+		private int[] thresholds;
+		private int[] perDepartment;
+		// For each rule with a per department limit, its block of
+		// department counters.
+		private int[] counterBase;
+		private int counterCount;
+
+		private Compiled(AuditRules rules, CourseCatalog catalog)
+		{
+			this.rules = rules;
+			this.catalog = catalog;
+			List<Rule> list = rules.rules;
+			int size = catalog.size();
+			courseRules = new long[size];
+			courseCredits = new int[size];
+			courseDepartments = new int[size];
+			Map<String, Integer> departments = new HashMap<String, Integer>();
+			for (int i = 0; i < size; i++) {
+				Course course = catalog.getCourse(i);
+				courseCredits[i] = course.getCredits();
+				Integer department = departments.get(course.getDepartment());
+				if (department == null) {
+					department = departments.size();
+					departments.put(course.getDepartment(), department);
+				}
+				courseDepartments[i] = department;
+				for (int r = 0; r < list.size(); r++) {
+					if (list.get(r).accepts(course)) {
+						courseRules[i] |= 1L << r;
+					}
+				}
+			}
+			departmentCount = departments.size();
+
+			thresholds = new int[list.size()];
+			perDepartment = new int[list.size()];
+			counterBase = new int[list.size()];
+			int counters = 0;
+			TreeSet<Integer> boundaries = new TreeSet<Integer>();
+			for (int r = 0; r < list.size(); r++) {
+				Rule rule = list.get(r);
+				long bit = 1L << r;
+				thresholds[r] = rule.threshold;
+				if (rule.countsCourses) {
+					coursesMask |= bit;
+				}
+				if (rule.perDepartment > 0) {
+					perDepartmentMask |= bit;
+					perDepartment[r] = rule.perDepartment;
+					counterBase[r] = counters;
+					counters += departmentCount;
+				}
+				for (int g = 0; g <= GRADES.indexOf(rule.minGrade); g++) {
+					gradeRules[GRADES.charAt(g) - 'A'] |= bit;
+				}
+				if (rule.fromYear != Integer.MIN_VALUE) {
+					boundaries.add(rule.fromYear);
+				}
+				if (rule.toYear != Integer.MAX_VALUE) {
+					boundaries.add(rule.toYear + 1);
+				}
+			}
+			counterCount = counters;
+
+			// Years before the first boundary share slot 0, and years
+			// from the last boundary on share the last slot, so the
+			// table grows with the number of boundaries, not the years
+			// between them.
+			yearBoundaries = new int[boundaries.size()];
+			int b = 0;
+			for (int boundary : boundaries) {
+				yearBoundaries[b++] = boundary;
+			}
+			yearRules = new long[yearBoundaries.length + 1];
+			for (int slot = 0; slot < yearRules.length; slot++) {
+				int year = slot == 0 ? Integer.MIN_VALUE : yearBoundaries[slot - 1];
+				for (int r = 0; r < list.size(); r++) {
+					Rule rule = list.get(r);
+					if (year >= rule.fromYear && year <= rule.toYear) {
+						yearRules[slot] |= 1L << r;
+					}
+				}
+			}
+		}
+
+		/**
+		 * Gets the rules that were compiled.
+		 *
+		 * @return the rules
+		 */
+		public AuditRules getRules() {
+			return rules;
+		}
+
+		/**
+		 * Gets the catalog the rules were compiled over.
+		 *
+		 * @return the catalog
+		 */
+		public CourseCatalog getCatalog() {
+			return catalog;
+		}
+
+		/**
+		 * Creates an evaluator of these rules. An evaluator reuses its
+		 * tallies and must only be used by one thread at a time.
+		 *
+		 * @return the evaluator
+		 */
+		public Evaluator newEvaluator() {
+			return new Evaluator(this);
+		}
+	}
+
+	/**
+	 * Evaluates compiled rules against grade records, one transcript
+	 * at a time.
+	 */
+	public static class Evaluator
+	{
+		private Compiled compiled;
+		private int[] tallies;
+		// Department counters for rules with a per department limit,
+		// valid only where the stamp matches the current evaluation.
+		private int[] counts;
+		private int[] stamps;
+		private int evaluation;
+
+		private Evaluator(Compiled compiled)
+		{
+			this.compiled = compiled;
+			tallies = new int[compiled.thresholds.length];
+			counts = new int[compiled.counterCount];
+			stamps = new int[compiled.counterCount];
+		}
+
+		/**
+		 * Evaluates the rules against a transcript.
+		 *
+		 * @param transcript the transcript
+		 * @return a mask with the bit of each satisfied rule set
+		 */
+		public long evaluate(Transcript transcript)
+		{
+			begin();
+			for (int i = 0, n = transcript.getGradeRecordCount(); i < n; i++) {
+				add(transcript.getGradeRecord(i));
+			}
+			return satisfied();
+		}
+
+		/**
+		 * Evaluates the rules against one student's grade records.
+		 * Records of courses not in the compiled catalog are ignored.
+		 *
+		 * @param records the grade records, in transcript order
+		 * @return a mask with the bit of each satisfied rule set
+		 */
+		public long evaluate(List<GradeRecord> records)
+		{
+			begin();
+			for (int i = 0, n = records.size(); i < n; i++) {
+				add(records.get(i));
+			}
+			return satisfied();
+		}
+
+		/**
+		 * Clears the tallies and department counters for a new student.
+		 */
+		private void begin()
+		{
+			Arrays.fill(tallies, 0);
+			if (++evaluation == 0) {
+				Arrays.fill(stamps, 0);
+				evaluation = 1;
+			}
+		}
+
+		/**
+		 * Counts a grade record toward each rule it can count toward.
+		 *
+		 * @param record the grade record
+		 */
+		private void add(GradeRecord record)
+		{
+			Compiled c = compiled;
+			int position = c.catalog.indexOf(record.getCourse());
+			if (position < 0) {
+				return;
+			}
+			int slot = Arrays.binarySearch(c.yearBoundaries, record.getYear());
+			slot = slot >= 0 ? slot + 1 : -slot - 1;
+			long mask = c.courseRules[position] & c.yearRules[slot]
+					& c.gradeRules[record.getGrade().charAt(0) - 'A'];
+			while (mask != 0) {
+				int rule = Long.numberOfTrailingZeros(mask);
+				long bit = mask & -mask;
+				mask ^= bit;
+				if ((c.perDepartmentMask & bit) != 0) {
+					int counter = c.counterBase[rule] + c.courseDepartments[position];
+					if (stamps[counter] != evaluation) {
+						stamps[counter] = evaluation;
+						counts[counter] = 0;
+					}
+					if (counts[counter] == c.perDepartment[rule]) {
+						continue;
+					}
+					counts[counter]++;
+				}
+				tallies[rule] += (c.coursesMask & bit) != 0 ? 1 : c.courseCredits[position];
+			}
+		}
+
+		/**
+		 * Checks the tallies against the thresholds.
+		 *
+		 * @return a mask with the bit of each satisfied rule set
+		 */
+		private long satisfied()
+		{
+			long satisfied = 0;
+			for (int rule = 0; rule < tallies.length; rule++) {
+				if (tallies[rule] >= compiled.thresholds[rule]) {
+					satisfied |= 1L << rule;
+				}
+			}
+			return satisfied;
+		}
+
+		/**
+		 * Gets the credits or courses counted toward a rule by the last
+		 * evaluation.
+		 *
+		 * @param rule the position of the rule
+		 * @return the tally
+		 */
+		public int getTally(int rule) {
+			return tallies[rule];
+		}
+	}
+
+	/**
+	 * Evaluates a rule file against every transcript in a binary
+	 * collection and prints how many students satisfy each rule.
+	 *
+	 * @param args the courses file, the rules file and the binary
+	 *     transcript collection
+	 */
+	public static void main(String[] args)
+	{
+		if (args.length < 3) {
+			System.err.println("Usage: AuditRules COURSES_FILE RULES_FILE TRANSCRIPTS.bin");
+			return;
+		}
+		try {
+			CourseCatalog catalog = CourseCatalog.load(args[0]);
+			AuditRules rules = load(args[1]);
+			Evaluator evaluator = rules.compile(catalog).newEvaluator();
+			BinaryTranscripts transcripts = BinaryTranscripts.open(args[2]);
+			int[] satisfied = new int[rules.size()];
+			long start = System.nanoTime();
+			for (int i = 0; i < transcripts.size(); i++) {
+				long mask = evaluator.evaluate(transcripts.getTranscript(i, catalog));
+				for (int rule = 0; rule < satisfied.length; rule++) {
+					if ((mask & (1L << rule)) != 0) {
+						satisfied[rule]++;
+					}
+				}
+			}
+			long elapsed = System.nanoTime() - start;
+			for (int rule = 0; rule < satisfied.length; rule++) {
+				System.out.println(String.format("%-12s %8d of %d", rules.getName(rule),
+						satisfied[rule], transcripts.size()));
+			}
+			System.err.println(String.format("%d transcripts decoded and evaluated in %.2f s",
+					transcripts.size(), elapsed / 1e9));
+		} catch (IOException e) {
+			System.err.println(e.toString());
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+		}
+	}
+
+	/**
+	 * Overrides the toString method.
+	 *
+	 * @return the rule names and thresholds
+	 */
+	@Override
+	public String toString()
+	{
+		List<String> parts = new ArrayList<String>();
+		for (Rule rule : rules) {
+			parts.add(rule.name + ": " + rule.threshold
+					+ (rule.countsCourses ? " courses" : " credits"));
+		}
+		return parts.toString();
+	}
+}
@@ -0,0 +1,539 @@
+package edu.mills.cs64.final_project;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+
+/**
+ * A local HTTP service for looking up courses and auditing transcripts,
+ * built on the JDK's own HTTP server. The endpoints are:
+ * <ul>
+ * <li>GET /course?name=CS+64 &ndash; the course, as JSON</li>
+ * <li>GET /requirements &ndash; each core requirement with its title,
+ * credits and number of courses, as JSON</li>
+ * <li>GET /requirements?code=QL &ndash; the short names of the courses
+ * meeting a requirement, as JSON</li>
+ * <li>GET /search?q=art&amp;requirement=CA,IP&amp;department=ARTH&amp;credits=3&amp;limit=20
+ * &ndash; the courses matching a {@link CourseSearch}, with facet
+ * counts, as JSON. Every parameter is optional.</li>
+ * <li>POST /audit?format=json &ndash; audits each transcript in the
+ * request body, in the format read by {@link TranscriptReader}, and
+ * streams the results in a {@link ReportFormat} (text, csv or json;
+ * json by default). A malformed transcript is reported in the output
+ * and the rest of the batch continues.</li>
+ * <li>GET /metrics &ndash; {@link Metrics} in the Prometheus text
+ * format</li>
+ * </ul>
+ * Each request works against the catalog snapshot that is current
+ * when it starts, so a reload in the middle of a batch does not mix
+ * catalogs.
+ * <p>
+ * Requests run on virtual threads when the JVM provides them, and on
+ * a fixed pool of platform threads otherwise.
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+public class AuditServer
+{
+	private static final int BACKLOG = 4096;
+	private static final int PLATFORM_THREADS_PER_CPU = 8;
+	private static final int BUFFER_SIZE = 8192;
+	private static final int DEFAULT_SEARCH_LIMIT = 20;
+	private static final int MAX_SEARCH_LIMIT = 1000;
+
+	private HttpServer server;
+	private ExecutorService executor;
+
+	/**
+	 * Constructs a server listening on the given port. The server does
+	 * not accept requests until {@link #start()} is called.
+	 *
+	 * @param port the port, or 0 for any free port
+	 * @throws IOException if the port cannot be bound
+	 */
+	public AuditServer(int port) throws IOException
+	{
+		server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+		server.createContext("/course", new CourseHandler());
+		server.createContext("/requirements", new RequirementsHandler());
+		server.createContext("/search", new SearchHandler());
+		server.createContext("/audit", new AuditHandler());
+		server.createContext("/metrics", new MetricsHandler());
+		executor = newExecutor();
+		server.setExecutor(executor);
+	}
+
+	/**
+	 * Creates an executor that runs each task on a new virtual thread,
+	 * or a fixed pool of platform threads if virtual threads are not
+	 * available in this JVM.
+	 *
+	 * @return the executor
+	 */
+	static ExecutorService newExecutor()
+	{
+		try {
+			// Looked up reflectively so the code also runs on JVMs
+			// without virtual threads.
+			return (ExecutorService) Executors.class
+					.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return Executors.newFixedThreadPool(
+					Runtime.getRuntime().availableProcessors() * PLATFORM_THREADS_PER_CPU);
+		}
+	}
+
+	/**
+	 * Starts accepting requests.
+	 */
+	public void start()
+	{
+		server.start();
+	}
+
+	/**
+	 * Stops the server, waiting for requests in progress to finish.
+	 *
+	 * @param delaySeconds the longest time to wait
+	 */
+	public void stop(int delaySeconds)
+	{
+		server.stop(delaySeconds);
+		executor.shutdown();
+	}
+
+	/**
+	 * Gets the port the server is listening on.
+	 *
+	 * @return the port
+	 */
+	public int getPort()
+	{
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * Parses the query string of a request.
+	 *
+	 * @param exchange the exchange
+	 * @return the parameters by name
+	 */
+	private static Map<String, String> parameters(HttpExchange exchange)
+	{
+		Map<String, String> parameters = new HashMap<String, String>();
+		String query = exchange.getRequestURI().getRawQuery();
+		if (query == null) {
+			return parameters;
+		}
+		for (String pair : query.split("&")) {
+			int equals = pair.indexOf('=');
+			String name = equals < 0 ? pair : pair.substring(0, equals);
+			String value = equals < 0 ? "" : pair.substring(equals + 1);
+			try {
+				parameters.put(URLDecoder.decode(name, "UTF-8"), URLDecoder.decode(value, "UTF-8"));
+			} catch (IOException e) {
+				// UTF-8 is always supported.
+				throw new IllegalStateException(e);
+			}
+		}
+		return parameters;
+	}
+
+	/**
+	 * Sends a complete response.
+	 *
+	 * @param exchange the exchange
+	 * @param status the HTTP status
+	 * @param contentType the content type
+	 * @param body the body
+	 * @throws IOException if the response cannot be sent
+	 */
+	private static void send(HttpExchange exchange, int status, String contentType,
+			CharSequence body) throws IOException
+	{
+		byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=utf-8");
+		exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+		if (bytes.length > 0) {
+			exchange.getResponseBody().write(bytes);
+		}
+		exchange.close();
+	}
+
+	/**
+	 * A handler that checks the method, finds the current catalog and
+	 * turns failures into error responses.
+	 */
+	private abstract static class Handler implements HttpHandler
+	{
+		private String method;
+
+		private Handler(String method)
+		{
+			this.method = method;
+		}
+
+		@Override
+		public void handle(HttpExchange exchange) throws IOException
+		{
+			try {
+				if (!exchange.getRequestMethod().equals(method)) {
+					exchange.getResponseHeaders().set("Allow", method);
+					send(exchange, 405, "text/plain", "Use " + method + "\n");
+					return;
+				}
+				handle(exchange, CourseCatalog.getCurrent());
+			} catch (IllegalStateException e) {
+				fail(exchange, 503, e);
+			} catch (IllegalArgumentException e) {
+				fail(exchange, 400, e);
+			} finally {
+				exchange.close();
+			}
+		}
+
+		/**
+		 * Sends an error response, unless the headers of another
+		 * response were already sent, in which case the error can only
+		 * be logged and the response cut short.
+		 *
+		 * @param exchange the exchange
+		 * @param status the HTTP status
+		 * @param error the error
+		 * @throws IOException if the response cannot be sent
+		 */
+		private static void fail(HttpExchange exchange, int status, RuntimeException error)
+				throws IOException
+		{
+			if (exchange.getResponseCode() != -1) {
+				System.err.println("Failed after sending " + exchange.getRequestURI() + ": "
+						+ error);
+				return;
+			}
+			send(exchange, status, "text/plain", error.getMessage() + "\n");
+		}
+
+		/**
+		 * Handles a request with the right method.
+		 *
+		 * @param exchange the exchange
+		 * @param catalog the catalog snapshot for the request
+		 * @throws IOException if the response cannot be sent
+		 * @throws IllegalArgumentException if the request is invalid
+		 */
+		abstract void handle(HttpExchange exchange, CourseCatalog catalog) throws IOException;
+	}
+
+	/**
+	 * Looks up a course.
+	 */
+	private static class CourseHandler extends Handler
+	{
+		private CourseHandler()
+		{
+			super("GET");
+		}
+
+		@Override
+		void handle(HttpExchange exchange, CourseCatalog catalog) throws IOException
+		{
+			String name = parameters(exchange).get("name");
+			if (name == null) {
+				throw new IllegalArgumentException("Missing parameter: name");
+			}
+			Course course = catalog.getCourse(name);
+			if (course == null) {
+				send(exchange, 404, "text/plain", "No such course: " + name + "\n");
+				return;
+			}
+			StringBuilder json = new StringBuilder("{\"course\":");
+			ReportFormat.appendJson(course.getShortName(), json);
+			json.append(",\"name\":");
+			ReportFormat.appendJson(course.getName(), json);
+			json.append(",\"credits\":");
+			ReportFormat.appendInt(course.getCredits(), json);
+			json.append(",\"requirements\":[");
+			CoreRequirement[] met = course.getRequirementsMet();
+			for (int i = 0; i < met.length; i++) {
+				json.append(i == 0 ? "\"" : ",\"").append(met[i].name()).append('"');
+			}
+			json.append("],\"prerequisites\":[");
+			List<Course> prerequisites = catalog.getPrerequisites(course);
+			for (int i = 0; i < prerequisites.size(); i++) {
+				if (i > 0) {
+					json.append(',');
+				}
+				ReportFormat.appendJson(prerequisites.get(i).getShortName(), json);
+			}
+			json.append("],\"terms\":[");
+			boolean first = true;
+			for (Term term : Term.fromMask(course.getTermsMask())) {
+				json.append(first ? "\"" : ",\"").append(term.name()).append('"');
+				first = false;
+			}
+			json.append("]}\n");
+			send(exchange, 200, "application/json", json);
+		}
+	}
+
+	/**
+	 * Lists requirements, or the courses meeting one.
+	 */
+	private static class RequirementsHandler extends Handler
+	{
+		private RequirementsHandler()
+		{
+			super("GET");
+		}
+
+		@Override
+		void handle(HttpExchange exchange, CourseCatalog catalog) throws IOException
+		{
+			String code = parameters(exchange).get("code");
+			StringBuilder json = new StringBuilder();
+			if (code == null) {
+				json.append('[');
+				for (CoreRequirement cr : CoreRequirement.values()) {
+					json.append(cr.ordinal() == 0 ? "{" : ",{").append("\"code\":\"")
+						.append(cr.name()).append("\",\"title\":");
+					ReportFormat.appendJson(cr.getTitle(), json);
+					json.append(",\"credits\":");
+					ReportFormat.appendInt(cr.getCredits(), json);
+					json.append(",\"courses\":");
+					ReportFormat.appendInt(catalog.getCoursesMeetingRequirements(cr).size(), json);
+					json.append('}');
+				}
+				json.append("]\n");
+			} else {
+				CoreRequirement cr;
+				try {
+					cr = CoreRequirement.valueOf(code);
+				} catch (IllegalArgumentException e) {
+					throw new IllegalArgumentException("Unknown core requirement: " + code);
+				}
+				List<Course> courses = catalog.getCoursesMeetingRequirements(cr);
+				json.append('[');
+				for (int i = 0; i < courses.size(); i++) {
+					if (i > 0) {
+						json.append(',');
+					}
+					ReportFormat.appendJson(courses.get(i).getShortName(), json);
+				}
+				json.append("]\n");
+			}
+			send(exchange, 200, "application/json", json);
+		}
+	}
+
+	/**
+	 * Searches the catalog.
+	 */
+	private static class SearchHandler extends Handler
+	{
+		private SearchHandler()
+		{
+			super("GET");
+		}
+
+		@Override
+		void handle(HttpExchange exchange, CourseCatalog catalog) throws IOException
+		{
+			Map<String, String> parameters = parameters(exchange);
+			String text = parameters.containsKey("q") ? parameters.get("q") : "";
+			int requirementsMask = 0;
+			if (parameters.containsKey("requirement")) {
+				for (String code : parameters.get("requirement").split(",")) {
+					try {
+						requirementsMask |= CoreRequirement.valueOf(code.trim()).getMask();
+					} catch (IllegalArgumentException e) {
+						throw new IllegalArgumentException("Unknown core requirement: " + code);
+					}
+				}
+			}
+			int credits = intParameter(parameters, "credits", 0);
+			int limit = intParameter(parameters, "limit", DEFAULT_SEARCH_LIMIT);
+			if (limit < 0 || limit > MAX_SEARCH_LIMIT) {
+				throw new IllegalArgumentException("Limit out of range: " + limit);
+			}
+			CourseSearch.Result result = catalog.getSearch().search(text, requirementsMask,
+					parameters.get("department"), credits, limit);
+
+			StringBuilder json = new StringBuilder("{\"total\":");
+			ReportFormat.appendInt(result.getTotal(), json);
+			json.append(",\"corrected\":").append(result.isCorrected()).append(",\"courses\":[");
+			List<Course> courses = result.getCourses();
+			for (int i = 0; i < courses.size(); i++) {
+				Course course = courses.get(i);
+				json.append(i == 0 ? "{" : ",{").append("\"course\":");
+				ReportFormat.appendJson(course.getShortName(), json);
+				json.append(",\"name\":");
+				ReportFormat.appendJson(course.getName(), json);
+				json.append(",\"credits\":");
+				ReportFormat.appendInt(course.getCredits(), json);
+				json.append('}');
+			}
+			json.append("],\"requirements\":");
+			appendCounts(result.getRequirementCounts(), json);
+			json.append(",\"departments\":");
+			appendCounts(result.getDepartmentCounts(), json);
+			json.append(",\"credits\":");
+			appendCounts(result.getCreditCounts(), json);
+			json.append("}\n");
+			send(exchange, 200, "application/json", json);
+		}
+
+		/**
+		 * Gets a whole-number parameter.
+		 *
+		 * @throws IllegalArgumentException if the parameter is not a number
+		 */
+		private static int intParameter(Map<String, String> parameters, String name,
+				int defaultValue) throws IllegalArgumentException
+		{
+			String value = parameters.get(name);
+			if (value == null) {
+				return defaultValue;
+			}
+			try {
+				return Integer.parseInt(value);
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("Invalid " + name + ": " + value);
+			}
+		}
+
+		/**
+		 * Appends facet counts as a JSON object.
+		 */
+		private static void appendCounts(Map<?, Integer> counts, StringBuilder json)
+				throws IOException
+		{
+			json.append('{');
+			boolean first = true;
+			for (Map.Entry<?, Integer> entry : counts.entrySet()) {
+				if (!first) {
+					json.append(',');
+				}
+				ReportFormat.appendJson(entry.getKey().toString(), json);
+				json.append(':');
+				ReportFormat.appendInt(entry.getValue(), json);
+				first = false;
+			}
+			json.append('}');
+		}
+	}
+
+	/**
+	 * Audits a batch of transcripts, streaming the results.
+	 */
+	private static class AuditHandler extends Handler
+	{
+		private AuditHandler()
+		{
+			super("POST");
+		}
+
+		@Override
+		void handle(HttpExchange exchange, CourseCatalog catalog) throws IOException
+		{
+			String name = parameters(exchange).get("format");
+			ReportFormat format = name == null ? ReportFormat.JSON : ReportFormat.forName(name);
+			exchange.getResponseHeaders().set("Content-Type", (format == ReportFormat.JSON
+					? "application/x-ndjson" : format == ReportFormat.CSV ? "text/csv"
+					: "text/plain") + "; charset=utf-8");
+			// The length is not known in advance, so the body is chunked.
+			exchange.sendResponseHeaders(200, 0);
+			InputStream in = exchange.getRequestBody();
+			Writer out = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(),
+					StandardCharsets.UTF_8), BUFFER_SIZE);
+			TranscriptReader reader = new TranscriptReader(in, "request", catalog);
+			// Once the headers are sent, a failure can only be reported
+			// in the body.
+			try {
+				while (true) {
+					long offset = reader.getOffset();
+					Transcript transcript;
+					try {
+						transcript = reader.read();
+					} catch (IllegalArgumentException e) {
+						format.writeFailure("request record at byte " + offset, e, out);
+						continue;
+					}
+					if (transcript == null) {
+						break;
+					}
+					format.writeAudit(transcript, out);
+					if (format == ReportFormat.TEXT) {
+						out.write("\n\n");
+					}
+				}
+			} catch (IllegalStateException | IllegalArgumentException e) {
+				format.writeFailure("request", e, out);
+				if (format == ReportFormat.TEXT) {
+					out.write("\n");
+				}
+			} finally {
+				reader.close();
+				out.close();
+			}
+		}
+	}
+
+	/**
+	 * Reports metrics.
+	 */
+	private static class MetricsHandler extends Handler
+	{
+		private MetricsHandler()
+		{
+			super("GET");
+		}
+
+		@Override
+		void handle(HttpExchange exchange, CourseCatalog catalog) throws IOException
+		{
+			StringBuilder text = new StringBuilder();
+			Metrics.writePrometheus(text);
+			send(exchange, 200, "text/plain; version=0.0.4", text);
+		}
+	}
+
+	/**
+	 * Runs the server until it is killed, watching the catalog file
+	 * for changes.
+	 *
+	 * @param args the courses file and optionally the port, 8080 by
+	 *     default
+	 */
+	public static void main(String[] args)
+	{
+		if (args.length < 1) {
+			System.err.println("Usage: AuditServer COURSES_FILE [PORT]");
+			return;
+		}
+		int port = args.length > 1 ? Integer.parseInt(args[1]) : 8080;
+		try {
+			Course.loadCourses(args[0]);
+			CourseCatalog.watch(args[0]);
+			AuditServer server = new AuditServer(port);
+			server.start();
+			System.err.println("Listening on port " + server.getPort());
+		} catch (IOException e) {
+			System.err.println(e.toString());
+		}
+	}
+}
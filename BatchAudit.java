@@ -0,0 +1,563 @@
+package edu.mills.cs64.final_project;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+
+/**
+ * Audits many transcripts at once against the catalog loaded by
+ * {@link Course#loadCourses(String)}. Transcripts are parsed and
+ * audited on a fixed pool of worker threads, and the results are
+ * written to a single output as they complete.
+ * <p>
+ * At most a bounded number of transcripts are in flight at any time,
+ * so a slow output does not let parsed transcripts pile up in memory.
+ * A file may hold several students, in the format read by
+ * {@link TranscriptReader}, and each is audited. A transcript that
+ * cannot be read or parsed is reported in the output and does not stop
+ * the rest of its file or of the batch.
+ * <p>
+ * Audits are written in a {@link ReportFormat}. In the text format each
+ * audit is headed by a "=== FILE" line; the CSV and JSON formats
+ * identify records by student id and can be concatenated as is.
+ * <p>
+ * With an {@link AuditCache}, transcript files whose bytes have not
+ * changed since an earlier run against the same catalog are copied
+ * from the cache instead of being parsed and audited, with every
+ * student they hold.
+ * <p>
+ * Course codes that are not in the catalog are collected in an
+ * {@link UnknownCourses} report, so the transcripts can be fixed
+ * instead of silently losing the records. The codes are cached with
+ * each audit and reported again when it is copied from the cache.
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+public class BatchAudit
+{
+	private static final int IN_FLIGHT_PER_THREAD = 4;
+	private static final int COPY_BUFFER_SIZE = 8192;
+	private static final long DEFAULT_CACHE_BYTES = 1L << 30;
+	private int threads;
+	private ReportFormat format;
+	private AuditCache cache;
+
+	/**
+	 * Constructs a batch audit that uses the given number of
+	 * worker threads.
+	 *
+	 * @param threads the number of worker threads
+	 * @throws IllegalArgumentException if threads is not positive
+	 */
+	public BatchAudit(int threads) throws IllegalArgumentException
+	{
+		this(threads, ReportFormat.TEXT);
+	}
+
+	/**
+	 * Constructs a batch audit that uses the given number of
+	 * worker threads and writes audits in the given format.
+	 *
+	 * @param threads the number of worker threads
+	 * @param format the format of the audits
+	 * @throws IllegalArgumentException if threads is not positive
+	 */
+	public BatchAudit(int threads, ReportFormat format) throws IllegalArgumentException
+	{
+		if (threads <= 0) {
+			throw new IllegalArgumentException("Thread count must be positive: " + threads);
+		}
+		this.threads = threads;
+		this.format = format;
+	}
+
+	/**
+	 * Constructs a batch audit that uses the given number of
+	 * worker threads, writes audits in the given format and reuses
+	 * audits from a cache.
+	 *
+	 * @param threads the number of worker threads
+	 * @param format the format of the audits
+	 * @param cache the cache of audits from earlier runs
+	 * @throws IllegalArgumentException if threads is not positive
+	 */
+	public BatchAudit(int threads, ReportFormat format, AuditCache cache)
+			throws IllegalArgumentException
+	{
+		this(threads, format);
+		this.cache = cache;
+	}
+
+	/**
+	 * Lists the transcript files named by the given file. If it is a
+	 * directory, every regular file in it is a transcript. Otherwise it
+	 * is a manifest listing one transcript path per line; blank lines
+	 * are ignored.
+	 *
+	 * @param source a directory of transcripts or a manifest file
+	 * @return the transcript files, in name or manifest order
+	 * @throws IOException if the manifest cannot be read
+	 */
+	public static List<File> listTranscripts(File source) throws IOException
+	{
+		List<File> files = new ArrayList<File>();
+		if (source.isDirectory()) {
+			File[] children = source.listFiles();
+			if (children == null) {
+				throw new IOException("Unable to list directory " + source);
+			}
+			Arrays.sort(children);
+			for (File child : children) {
+				if (child.isFile()) {
+					files.add(child);
+				}
+			}
+		} else {
+			BufferedReader reader = new BufferedReader(new FileReader(source));
+			try {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					line = line.trim();
+					if (!line.isEmpty()) {
+						files.add(new File(line));
+					}
+				}
+			} finally {
+				reader.close();
+			}
+		}
+		return files;
+	}
+
+	/**
+	 * Audits the given transcripts, writing each student's requirement
+	 * tallies and recommendations to the output in completion order.
+	 * Every transcript is audited against the catalog current when the
+	 * run starts, even if another is published during the run.
+	 *
+	 * @param files the transcript files
+	 * @param out where to write the audits
+	 * @return a summary of the run
+	 * @throws IOException if the output cannot be written
+	 * @throws InterruptedException if interrupted while waiting for workers
+	 * @throws IllegalStateException if courses have not yet been loaded
+	 */
+	public Report run(List<File> files, Writer out) throws IOException, InterruptedException
+	{
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		CompletionService<Result> completion = new ExecutorCompletionService<Result>(pool);
+		int maxInFlight = threads * IN_FLIGHT_PER_THREAD;
+		long[] latencies = new long[files.size()];
+		int samples = 0;
+		int completed = 0;
+		int transcripts = 0;
+		int failures = 0;
+		int inFlight = 0;
+		char[] buffer = new char[COPY_BUFFER_SIZE];
+		long start = System.nanoTime();
+		UnknownCourses unknownCourses = new UnknownCourses();
+		CourseCatalog catalog = CourseCatalog.getCurrent();
+
+		try {
+			int next = 0;
+			while (completed < files.size()) {
+				while (next < files.size() && inFlight < maxInFlight) {
+					completion.submit(new AuditTask(files.get(next++), catalog, format, cache,
+							unknownCourses));
+					inFlight++;
+				}
+				Result result = completion.take().get();
+				inFlight--;
+				completed++;
+				if (samples + result.samples > latencies.length) {
+					latencies = Arrays.copyOf(latencies,
+							Math.max(samples + result.samples, latencies.length * 2));
+				}
+				System.arraycopy(result.latencies, 0, latencies, samples, result.samples);
+				samples += result.samples;
+				transcripts += result.transcripts;
+				failures += result.failures;
+				write(result.audit, buffer, out);
+			}
+			out.flush();
+		} catch (ExecutionException e) {
+			// AuditTask catches everything it can recover from.
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			pool.shutdownNow();
+		}
+
+		return new Report(files.size(), transcripts, failures, System.nanoTime() - start,
+				Arrays.copyOf(latencies, samples), unknownCourses);
+	}
+
+	/**
+	 * Copies rendered text to the output without making a string of it.
+	 *
+	 * @param text the text
+	 * @param buffer a buffer to copy through
+	 * @param out where to write
+	 * @throws IOException if the output cannot be written
+	 */
+	private static void write(StringBuilder text, char[] buffer, Writer out) throws IOException
+	{
+		for (int start = 0; start < text.length(); start += buffer.length) {
+			int end = Math.min(text.length(), start + buffer.length);
+			text.getChars(start, end, buffer, 0);
+			out.write(buffer, 0, end - start);
+		}
+	}
+
+	/**
+	 * Audits and renders the transcripts in a single file on a worker
+	 * thread.
+	 */
+	private static class AuditTask implements Callable<Result>
+	{
+		private File file;
+		private CourseCatalog catalog;
+		private ReportFormat format;
+		private AuditCache cache;
+		private UnknownCourses unknownCourses;
+		// The unknown codes in this file alone, so they can be cached
+		// with its audit.
+		private UnknownCourses found = new UnknownCourses();
+		private int transcripts;
+		private int failures;
+		// How long each transcript, or the whole file if it failed,
+		// took to audit.
+		private long[] latencies = new long[1];
+		private int samples;
+
+		private AuditTask(File file, CourseCatalog catalog, ReportFormat format, AuditCache cache,
+				UnknownCourses unknownCourses)
+		{
+			this.file = file;
+			this.catalog = catalog;
+			this.format = format;
+			this.cache = cache;
+			this.unknownCourses = unknownCourses;
+		}
+
+		@Override
+		public Result call() throws IOException
+		{
+			long start = System.nanoTime();
+			StringBuilder audit = new StringBuilder(1024);
+			if (format == ReportFormat.TEXT) {
+				audit.append("=== ").append(file.getPath()).append('\n');
+			}
+			int headerLength = audit.length();
+			try {
+				if (cache == null) {
+					auditAll(new TranscriptReader(file.getPath(), 0, catalog), audit);
+				} else {
+					audit(audit);
+				}
+			} catch (Exception e) {
+				transcripts = 0;
+				failures = 1;
+				samples = 0;
+				audit.setLength(headerLength);
+				format.writeFailure(file.getPath(), e, audit);
+				sample(System.nanoTime() - start);
+			}
+			unknownCourses.addAll(found);
+			if (format == ReportFormat.TEXT) {
+				audit.append("\n\n");
+			}
+			return new Result(audit, transcripts, failures, latencies, samples);
+		}
+
+		/**
+		 * Records how long a transcript took to audit.
+		 *
+		 * @param nanos the time in nanoseconds
+		 */
+		private void sample(long nanos)
+		{
+			if (samples == latencies.length) {
+				latencies = Arrays.copyOf(latencies, samples * 2);
+			}
+			latencies[samples++] = nanos;
+		}
+
+		/**
+		 * Audits the transcripts through the cache. A file that is
+		 * cached counts as many transcripts and failures as when it was
+		 * audited, and its time is shared evenly among them.
+		 *
+		 * @param audit where to write the audits
+		 * @throws IOException if the transcripts cannot be read
+		 * @throws IllegalArgumentException if the file holds no transcript
+		 */
+		private void audit(StringBuilder audit) throws IOException
+		{
+			long start = System.nanoTime();
+			byte[] bytes = Files.readAllBytes(file.toPath());
+			AuditCache.Audit cached = cache.get(bytes, catalog, format, found);
+			if (cached != null) {
+				audit.append(cached.getText());
+				transcripts = cached.getTranscripts();
+				failures = cached.getFailures();
+				int count = Math.max(1, transcripts + failures);
+				long nanos = (System.nanoTime() - start) / count;
+				for (int i = 0; i < count; i++) {
+					sample(nanos);
+				}
+				return;
+			}
+			int auditStart = audit.length();
+			auditAll(new TranscriptReader(new ByteArrayInputStream(bytes), file.getPath(),
+					catalog), audit);
+			try {
+				cache.put(bytes, catalog, format, new AuditCache.Audit(
+						audit.subSequence(auditStart, audit.length()), transcripts, failures),
+						found);
+			} catch (IOException e) {
+				// The audit is still good; it will be redone next time.
+				System.err.println(e.toString());
+			}
+		}
+
+		/**
+		 * Audits every transcript a reader holds, in order, recording
+		 * unknown course codes and the time each took, and closes the
+		 * reader. A malformed record is reported in place of its audit,
+		 * and the records after it are still audited.
+		 *
+		 * @param reader the reader
+		 * @param audit where to write the audits
+		 * @throws IOException if the transcripts cannot be read
+		 * @throws IllegalArgumentException if the file holds no transcript
+		 */
+		private void auditAll(TranscriptReader reader, StringBuilder audit) throws IOException
+		{
+			try {
+				reader.setUnknownCourses(found);
+				while (true) {
+					long start = System.nanoTime();
+					Transcript transcript;
+					try {
+						transcript = reader.read();
+					} catch (IllegalArgumentException e) {
+						separate(audit);
+						failures++;
+						format.writeFailure(file.getPath(), e, audit);
+						sample(System.nanoTime() - start);
+						continue;
+					}
+					if (transcript == null) {
+						break;
+					}
+					separate(audit);
+					transcripts++;
+					format.writeAudit(transcript, audit);
+					sample(System.nanoTime() - start);
+				}
+			} finally {
+				reader.close();
+			}
+			if (transcripts + failures == 0) {
+				throw new IllegalArgumentException(file.getPath() + " holds no transcript");
+			}
+		}
+
+		/**
+		 * Separates the next audit from the one before it, if any, in
+		 * the text format; the other formats end each audit with a
+		 * line break.
+		 *
+		 * @param audit where the audits are written
+		 */
+		private void separate(StringBuilder audit)
+		{
+			if (format == ReportFormat.TEXT && transcripts + failures > 0) {
+				audit.append("\n\n");
+			}
+		}
+	}
+
+	/**
+	 * The outcome of auditing one file.
+	 */
+	private static class Result
+	{
+		private StringBuilder audit;
+		private int transcripts;
+		private int failures;
+		private long[] latencies;
+		private int samples;
+
+		private Result(StringBuilder audit, int transcripts, int failures, long[] latencies,
+				int samples)
+		{
+			this.audit = audit;
+			this.transcripts = transcripts;
+			this.failures = failures;
+			this.latencies = latencies;
+			this.samples = samples;
+		}
+	}
+
+	/**
+	 * A throughput and latency summary of a batch run.
+	 */
+	public static class Report
+	{
+		private int files;
+		private int transcripts;
+		private int failures;
+		private long elapsedNanos;
+		private long[] latencies;
+		private UnknownCourses unknownCourses;
+
+		private Report(int files, int transcripts, int failures, long elapsedNanos,
+				long[] latencies, UnknownCourses unknownCourses)
+		{
+			this.unknownCourses = unknownCourses;
+			this.files = files;
+			this.transcripts = transcripts;
+			this.failures = failures;
+			this.elapsedNanos = elapsedNanos;
+			this.latencies = latencies.clone();
+			Arrays.sort(this.latencies);
+		}
+
+		/**
+		 * Gets the number of files processed.
+		 *
+		 * @return the number of files
+		 */
+		public int getFiles() {
+			return files;
+		}
+
+		/**
+		 * Gets the number of transcripts audited.
+		 *
+		 * @return the number of transcripts
+		 */
+		public int getTranscripts() {
+			return transcripts;
+		}
+
+		/**
+		 * Gets the number of transcripts, or whole files, that could
+		 * not be audited.
+		 *
+		 * @return the number of failures
+		 */
+		public int getFailures() {
+			return failures;
+		}
+
+		/**
+		 * Gets the course codes in the transcripts that are not in the
+		 * catalog.
+		 *
+		 * @return the unknown codes
+		 */
+		public UnknownCourses getUnknownCourses() {
+			return unknownCourses;
+		}
+
+		/**
+		 * Gets the number of files audited per second.
+		 *
+		 * @return the throughput
+		 */
+		public double getFilesPerSecond() {
+			return elapsedNanos == 0 ? 0 : files * 1e9 / elapsedNanos;
+		}
+
+		/**
+		 * Gets a latency percentile for auditing a single transcript,
+		 * or a file that could not be read at all.
+		 *
+		 * @param percentile the percentile, from 0 to 100
+		 * @return the latency in milliseconds
+		 */
+		public double getLatencyMillis(double percentile) {
+			if (latencies.length == 0) {
+				return 0;
+			}
+			int index = (int) Math.ceil(percentile / 100 * latencies.length) - 1;
+			index = Math.max(0, Math.min(latencies.length - 1, index));
+			return latencies[index] / 1e6;
+		}
+
+		/**
+		 * Overrides the toString method.
+		 *
+		 * @return the counts, throughput and p50/p99 latencies
+		 */
+		@Override
+		public String toString()
+		{
+			return String.format("%d transcripts in %d files (%d failed) in %.1f s: "
+					+ "%.1f files/sec, p50 %.3f ms, p99 %.3f ms per transcript", transcripts,
+					files, failures, elapsedNanos / 1e9, getFilesPerSecond(),
+					getLatencyMillis(50), getLatencyMillis(99));
+		}
+	}
+
+	/**
+	 * Audits a directory or manifest of transcripts from the command line.
+	 * The audits are written to standard output and the report, with
+	 * any unknown course codes, to standard error.
+	 *
+	 * @param args the courses file, the directory or manifest, and
+	 *     optionally the number of worker threads, the format
+	 *     (text, csv or json) and an audit cache directory
+	 */
+	public static void main(String[] args)
+	{
+		if (args.length < 2) {
+			System.err.println("Usage: BatchAudit COURSES_FILE DIRECTORY|MANIFEST "
+					+ "[THREADS [text|csv|json [CACHE_DIRECTORY]]]");
+			return;
+		}
+		int threads = args.length > 2 ? Integer.parseInt(args[2])
+				: Runtime.getRuntime().availableProcessors();
+		ReportFormat format = args.length > 3 ? ReportFormat.forName(args[3]) : ReportFormat.TEXT;
+		try {
+			Course.loadCourses(args[0]);
+			List<File> files = listTranscripts(new File(args[1]));
+			Writer out = new BufferedWriter(new OutputStreamWriter(System.out));
+			AuditCache cache = args.length > 4
+					? new AuditCache(args[4], DEFAULT_CACHE_BYTES) : null;
+			Report report = new BatchAudit(threads, format, cache).run(files, out);
+			System.err.println(report);
+			if (!report.getUnknownCourses().isEmpty()) {
+				Writer err = new OutputStreamWriter(System.err);
+				report.getUnknownCourses().writeReport(CourseCatalog.getCurrent(), err);
+				err.flush();
+			}
+			if (cache != null) {
+				System.err.println(cache);
+			}
+		} catch (IOException e) {
+			System.err.println(e.toString());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			System.err.println("Batch audit interrupted.");
+		}
+	}
+}
@@ -0,0 +1,491 @@
+package edu.mills.cs64.final_project;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+
+/**
+ * A course catalog stored in a compact binary file. Unlike the text
+ * format read by {@link CourseCatalog#load(String)}, the binary file
+ * is memory-mapped and individual courses are decoded only when they
+ * are looked up.
+ * <p>
+ * The file consists of a header, a table of department codes, a table
+ * of fixed-width course records sorted by department and number, the
+ * catalog order of the records, the aliases, and a pool of strings:
+ * <pre>
+ *     int     magic ("MCAT")
+ *     short   version
+ *     short   (reserved)
+ *     int     number of departments
+ *     int     number of courses
+ *     int     number of aliases
+ *     int     offset of the string pool
+ *     int[]   string pool offset of each department code, sorted
+ *     record[] courses, each {@value #RECORD_SIZE} bytes:
+ *         short  department index
+ *         short  credits
+ *         int    number
+ *         int    string pool offset of the name
+ *         short  requirements mask
+ *         short  terms mask, or 0 if offered every term
+ *         int    string pool offset of the prerequisites, separated
+ *                by commas, or -1 if there are none
+ *     int[]   record index of each course, in catalog order
+ *     alias[] aliases, in catalog order, each 8 bytes:
+ *         int    string pool offset of the alias
+ *         int    record index of the course it stands for
+ *     strings, each a short length followed by UTF-8 bytes
+ * </pre>
+ * The records are sorted so that a course can be found by binary
+ * search; the order table lets {@link #toCatalog()} rebuild the
+ * catalog in its original order, so that it has the same
+ * {@link CourseCatalog#getVersion()} as the catalog written.
+ * <p>
+ * A text catalog can be converted with {@link #main(String[])}.
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+public class BinaryCatalog
+{
+	static final int MAGIC = 0x4D434154;
+	static final short VERSION = 2;
+	static final int HEADER_SIZE = 24;
+	static final int RECORD_SIZE = 20;
+	private static final String[] NO_PREREQUISITES = new String[0];
+
+	private MappedByteBuffer buffer;
+	private String[] departments;
+	private int courseCount;
+	private int recordsOffset;
+	private int orderOffset;
+	private Map<String, Integer> aliases = new LinkedHashMap<String, Integer>();
+	private int poolOffset;
+
+	/**
+	 * Constructs a reader over a mapped catalog file.
+	 *
+	 * @param buffer the mapped file
+	 * @param filename the name of the file, for error messages
+	 * @throws IllegalArgumentException if the file is not a binary
+	 *     catalog of a supported version
+	 */
+	private BinaryCatalog(MappedByteBuffer buffer, String filename)
+	{
+		this.buffer = buffer;
+		if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+			throw new IllegalArgumentException(filename + " is not a binary course catalog");
+		}
+		if (buffer.getShort(4) != VERSION) {
+			throw new IllegalArgumentException(filename + " has unsupported version "
+					+ buffer.getShort(4));
+		}
+		int departmentCount = buffer.getInt(8);
+		courseCount = buffer.getInt(12);
+		int aliasCount = buffer.getInt(16);
+		poolOffset = buffer.getInt(20);
+		recordsOffset = HEADER_SIZE + 4 * departmentCount;
+		orderOffset = recordsOffset + courseCount * RECORD_SIZE;
+		int aliasesOffset = orderOffset + 4 * courseCount;
+		if (recordsOffset + (long) courseCount * (RECORD_SIZE + 4) + 8L * aliasCount > poolOffset
+				|| poolOffset > buffer.limit()) {
+			throw new IllegalArgumentException(filename + " is truncated");
+		}
+		// Department codes are few and are needed by every lookup.
+		departments = new String[departmentCount];
+		for (int i = 0; i < departmentCount; i++) {
+			departments[i] = readString(buffer.getInt(HEADER_SIZE + 4 * i)).intern();
+		}
+		// So are aliases, compared with courses.
+		for (int i = 0; i < aliasCount; i++) {
+			int position = aliasesOffset + 8 * i;
+			aliases.put(readString(buffer.getInt(position)), buffer.getInt(position + 4));
+		}
+	}
+
+	/**
+	 * Maps a binary catalog file for reading.
+	 *
+	 * @param filename the name of the binary catalog file
+	 * @return the catalog reader
+	 * @throws FileNotFoundException if the file cannot be found
+	 * @throws IOException if the file cannot be mapped
+	 * @throws IllegalArgumentException if the file is not a binary catalog
+	 */
+	public static BinaryCatalog open(String filename) throws IOException
+	{
+		RandomAccessFile file = new RandomAccessFile(filename, "r");
+		try {
+			FileChannel channel = file.getChannel();
+			// The mapping stays valid after the channel is closed.
+			return new BinaryCatalog(channel.map(FileChannel.MapMode.READ_ONLY, 0,
+					channel.size()), filename);
+		} finally {
+			file.close();
+		}
+	}
+
+	/**
+	 * Writes a catalog in the binary format.
+	 *
+	 * @param catalog the catalog to write
+	 * @param filename the name of the file to create
+	 * @throws IOException if the file cannot be written
+	 * @throws IllegalArgumentException if there are too many
+	 *     departments or a course's credits do not fit in a short
+	 */
+	public static void write(CourseCatalog catalog, String filename) throws IOException
+	{
+		List<Course> courses = new ArrayList<Course>(catalog.getCourses());
+		Collections.sort(courses, new Comparator<Course>() {
+			@Override
+			public int compare(Course c1, Course c2) {
+				int byDepartment = c1.getDepartment().compareTo(c2.getDepartment());
+				if (byDepartment != 0) {
+					return byDepartment;
+				}
+				return Integer.compare(c1.getNumber(), c2.getNumber());
+			}
+		});
+
+		StringPool pool = new StringPool();
+		Map<String, Integer> departmentIndexes = new TreeMap<String, Integer>();
+		for (Course c : courses) {
+			departmentIndexes.put(c.getDepartment(), 0);
+		}
+		int[] departmentOffsets = new int[departmentIndexes.size()];
+		int index = 0;
+		for (Map.Entry<String, Integer> entry : departmentIndexes.entrySet()) {
+			entry.setValue(index);
+			departmentOffsets[index++] = pool.add(entry.getKey());
+		}
+		int[] nameOffsets = new int[courses.size()];
+		int[] prerequisiteOffsets = new int[courses.size()];
+		for (int i = 0; i < courses.size(); i++) {
+			int credits = courses.get(i).getCredits();
+			if (credits != (short) credits) {
+				throw new IllegalArgumentException("Credits out of range: " + credits + " for "
+						+ courses.get(i).getShortName());
+			}
+			nameOffsets[i] = pool.add(courses.get(i).getName());
+			String[] prerequisites = courses.get(i).getPrerequisites();
+			// Short names cannot hold commas; the text format splits on them.
+			prerequisiteOffsets[i] = prerequisites.length == 0 ? -1
+					: pool.add(String.join(",", prerequisites));
+		}
+		if (departmentOffsets.length > Short.MAX_VALUE) {
+			throw new IllegalArgumentException("Too many departments: " + departmentOffsets.length);
+		}
+
+		int[] recordIndexes = new int[courses.size()];
+		for (int i = 0; i < courses.size(); i++) {
+			recordIndexes[catalog.indexOf(courses.get(i))] = i;
+		}
+		Map<String, Course> aliases = catalog.getAliases();
+		int[] aliasOffsets = new int[aliases.size()];
+		int[] aliasRecords = new int[aliases.size()];
+		index = 0;
+		for (Map.Entry<String, Course> alias : aliases.entrySet()) {
+			aliasOffsets[index] = pool.add(alias.getKey());
+			aliasRecords[index++] = recordIndexes[catalog.indexOf(alias.getValue())];
+		}
+
+		int poolOffset = HEADER_SIZE + 4 * departmentOffsets.length
+				+ (RECORD_SIZE + 4) * courses.size() + 8 * aliasOffsets.length;
+		DataOutputStream out = StringPool.create(filename);
+		try {
+			out.writeInt(MAGIC);
+			out.writeShort(VERSION);
+			out.writeShort(0);
+			out.writeInt(departmentOffsets.length);
+			out.writeInt(courses.size());
+			out.writeInt(aliasOffsets.length);
+			out.writeInt(poolOffset);
+			for (int offset : departmentOffsets) {
+				out.writeInt(offset);
+			}
+			for (int i = 0; i < courses.size(); i++) {
+				Course c = courses.get(i);
+				out.writeShort(departmentIndexes.get(c.getDepartment()));
+				out.writeShort(c.getCredits());
+				out.writeInt(c.getNumber());
+				out.writeInt(nameOffsets[i]);
+				out.writeShort(c.getRequirementsMask());
+				out.writeShort(c.getTermsMask() == Term.ALL_MASK ? 0 : c.getTermsMask());
+				out.writeInt(prerequisiteOffsets[i]);
+			}
+			for (int recordIndex : recordIndexes) {
+				out.writeInt(recordIndex);
+			}
+			for (int i = 0; i < aliasOffsets.length; i++) {
+				out.writeInt(aliasOffsets[i]);
+				out.writeInt(aliasRecords[i]);
+			}
+			pool.writeTo(out);
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Gets the number of courses in this catalog.
+	 *
+	 * @return the number of courses
+	 */
+	public int size() {
+		return courseCount;
+	}
+
+	/**
+	 * Looks up a course, decoding only its record.
+	 *
+	 * @param shortName the short name of the course, as would be
+	 *     returned by {@link Course#getShortName()}, or an alias of it
+	 * @return the course, or null if it cannot be found
+	 */
+	public Course getCourse(String shortName)
+	{
+		Integer aliased = aliases.get(shortName);
+		if (aliased != null) {
+			return readCourse(aliased);
+		}
+		int space = shortName.lastIndexOf(' ');
+		if (space <= 0) {
+			return null;
+		}
+		int number;
+		try {
+			number = Integer.parseInt(shortName.substring(space + 1));
+		} catch (NumberFormatException e) {
+			return null;
+		}
+		return getCourse(shortName.substring(0, space), number);
+	}
+
+	/**
+	 * Looks up a course, decoding only its record.
+	 *
+	 * @param department the department of the course
+	 * @param number the number of the course
+	 * @return the course, or null if it cannot be found
+	 */
+	public Course getCourse(String department, int number)
+	{
+		int departmentIndex = findDepartment(department);
+		if (departmentIndex < 0) {
+			return null;
+		}
+		int low = 0;
+		int high = courseCount - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			int position = recordsOffset + middle * RECORD_SIZE;
+			int compare = buffer.getShort(position) - departmentIndex;
+			if (compare == 0) {
+				compare = Integer.compare(buffer.getInt(position + 4), number);
+			}
+			if (compare < 0) {
+				low = middle + 1;
+			} else if (compare > 0) {
+				high = middle - 1;
+			} else {
+				return readCourse(middle);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Decodes every course into an in-memory catalog, in the order of
+	 * the catalog that was written.
+	 *
+	 * @return the catalog
+	 */
+	public CourseCatalog toCatalog()
+	{
+		List<Course> courses = new ArrayList<Course>(courseCount);
+		Course[] records = new Course[courseCount];
+		for (int i = 0; i < courseCount; i++) {
+			int record = buffer.getInt(orderOffset + 4 * i);
+			records[record] = readCourse(record);
+			courses.add(records[record]);
+		}
+		Map<String, String> aliasNames = new LinkedHashMap<String, String>();
+		for (Map.Entry<String, Integer> alias : aliases.entrySet()) {
+			aliasNames.put(alias.getKey(), records[alias.getValue()].getShortName());
+		}
+		return new CourseCatalog(courses, aliasNames);
+	}
+
+	/**
+	 * Finds the index of a department code.
+	 *
+	 * @param department the department code
+	 * @return the index, or a negative number if there is no such department
+	 */
+	private int findDepartment(String department)
+	{
+		int low = 0;
+		int high = departments.length - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			int compare = departments[middle].compareTo(department);
+			if (compare < 0) {
+				low = middle + 1;
+			} else if (compare > 0) {
+				high = middle - 1;
+			} else {
+				return middle;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Decodes a course record.
+	 *
+	 * @param index the index of the record
+	 * @return the course
+	 */
+	private Course readCourse(int index)
+	{
+		int position = recordsOffset + index * RECORD_SIZE;
+		String department = departments[buffer.getShort(position)];
+		int credits = buffer.getShort(position + 2);
+		int number = buffer.getInt(position + 4);
+		String name = readString(buffer.getInt(position + 8));
+		int mask = buffer.getShort(position + 12);
+		CoreRequirement[] requirementsMet = CoreRequirement.fromMask(mask)
+				.toArray(new CoreRequirement[0]);
+		int termsMask = buffer.getShort(position + 14);
+		int prerequisitesOffset = buffer.getInt(position + 16);
+		String[] prerequisites = prerequisitesOffset < 0 ? NO_PREREQUISITES
+				: readString(prerequisitesOffset).split(",");
+		return new Course(department, number, name, credits, requirementsMet,
+				prerequisites, termsMask == 0 ? Term.ALL_MASK : termsMask);
+	}
+
+	/**
+	 * Reads a string from the string pool.
+	 *
+	 * @param offset the offset of the string within the pool
+	 * @return the string
+	 */
+	private String readString(int offset)
+	{
+		return StringPool.read(buffer, poolOffset + offset);
+	}
+
+	/**
+	 * Converts a text catalog to the binary format.
+	 *
+	 * @param args the text catalog file and the binary file to create
+	 */
+	public static void main(String[] args)
+	{
+		if (args.length != 2) {
+			System.err.println("Usage: BinaryCatalog COURSES_FILE BINARY_FILE");
+			return;
+		}
+		try {
+			CourseCatalog catalog = CourseCatalog.load(args[0]);
+			write(catalog, args[1]);
+			System.out.println("Wrote " + catalog.size() + " courses to " + args[1]);
+		} catch (IOException e) {
+			System.err.println(e.toString());
+		}
+	}
+
+	/**
+	 * The string section of a binary file. Each distinct string is
+	 * stored once, as a short length followed by its UTF-8 bytes.
+	 */
+	static class StringPool
+	{
+		private Map<String, Integer> offsets = new HashMap<String, Integer>();
+		private ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		private DataOutputStream out = new DataOutputStream(bytes);
+
+		/**
+		 * Adds a string to the pool unless it is already there.
+		 *
+		 * @param s the string
+		 * @return the offset of the string within the pool
+		 * @throws IOException never, since the pool is in memory
+		 */
+		int add(String s) throws IOException
+		{
+			Integer offset = offsets.get(s);
+			if (offset == null) {
+				byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+				if (utf8.length > 0xFFFF) {
+					throw new IllegalArgumentException("String too long: " + s);
+				}
+				offset = out.size();
+				out.writeShort(utf8.length);
+				out.write(utf8);
+				offsets.put(s, offset);
+			}
+			return offset;
+		}
+
+		/**
+		 * Writes the pool.
+		 *
+		 * @param target where to write the pool
+		 * @throws IOException if the pool cannot be written
+		 */
+		void writeTo(DataOutputStream target) throws IOException
+		{
+			bytes.writeTo(target);
+		}
+
+		/**
+		 * Reads a string written by a pool.
+		 *
+		 * @param buffer the buffer holding the pool
+		 * @param position the absolute position of the string
+		 * @return the string
+		 */
+		static String read(ByteBuffer buffer, int position)
+		{
+			int length = buffer.getShort(position) & 0xFFFF;
+			byte[] utf8 = new byte[length];
+			ByteBuffer view = buffer.duplicate();
+			view.position(position + 2);
+			view.get(utf8);
+			return new String(utf8, StandardCharsets.UTF_8);
+		}
+
+		/**
+		 * Opens a buffered output stream for a new binary file.
+		 *
+		 * @param filename the name of the file to create
+		 * @return the stream
+		 * @throws IOException if the file cannot be created
+		 */
+		static DataOutputStream create(String filename) throws IOException
+		{
+			return new DataOutputStream(new BufferedOutputStream(
+					new FileOutputStream(new File(filename))));
+		}
+	}
+}
@@ -0,0 +1,287 @@
+package edu.mills.cs64.final_project;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+
+/**
+ * A collection of transcripts stored in a compact binary file. The
+ * file is memory-mapped, and a student's transcript is decoded only
+ * when it is looked up.
+ * <p>
+ * The file consists of a header, a table of fixed-width student
+ * records sorted by id, a table of fixed-width grade rows and a pool
+ * of strings in the format described by {@link BinaryCatalog}:
+ * <pre>
+ *     int     magic ("MTRN")
+ *     short   version
+ *     short   (reserved)
+ *     int     number of students
+ *     int     number of grade rows
+ *     int     offset of the string pool
+ *     record[] students, each {@value #STUDENT_SIZE} bytes:
+ *         int    string pool offset of the id
+ *         int    string pool offset of the first name
+ *         int    string pool offset of the last name
+ *         int    index of the student's first grade row
+ *         int    number of grade rows
+ *     record[] grade rows, each {@value #ROW_SIZE} bytes:
+ *         int    string pool offset of the course short name
+ *         short  year
+ *         byte   grade
+ *         byte   (reserved)
+ *     strings
+ * </pre>
+ * Courses are stored by short name, so a collection can be read
+ * against any catalog that contains them. Transcript files can be
+ * converted with {@link #main(String[])}.
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+public class BinaryTranscripts
+{
+	static final int MAGIC = 0x4D54524E;
+	static final short VERSION = 1;
+	static final int HEADER_SIZE = 20;
+	static final int STUDENT_SIZE = 20;
+	static final int ROW_SIZE = 8;
+
+	private MappedByteBuffer buffer;
+	private int studentCount;
+	private int rowsOffset;
+	private int poolOffset;
+
+	/**
+	 * Constructs a reader over a mapped transcript collection.
+	 *
+	 * @param buffer the mapped file
+	 * @param filename the name of the file, for error messages
+	 * @throws IllegalArgumentException if the file is not a transcript
+	 *     collection of a supported version
+	 */
+	private BinaryTranscripts(MappedByteBuffer buffer, String filename)
+	{
+		this.buffer = buffer;
+		if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+			throw new IllegalArgumentException(filename + " is not a binary transcript collection");
+		}
+		if (buffer.getShort(4) != VERSION) {
+			throw new IllegalArgumentException(filename + " has unsupported version "
+					+ buffer.getShort(4));
+		}
+		studentCount = buffer.getInt(8);
+		int rowCount = buffer.getInt(12);
+		poolOffset = buffer.getInt(16);
+		rowsOffset = HEADER_SIZE + STUDENT_SIZE * studentCount;
+		if (rowsOffset + (long) rowCount * ROW_SIZE > poolOffset || poolOffset > buffer.limit()) {
+			throw new IllegalArgumentException(filename + " is truncated");
+		}
+	}
+
+	/**
+	 * Maps a binary transcript collection for reading.
+	 *
+	 * @param filename the name of the file
+	 * @return the reader
+	 * @throws FileNotFoundException if the file cannot be found
+	 * @throws IOException if the file cannot be mapped
+	 * @throws IllegalArgumentException if the file is not a transcript
+	 *     collection
+	 */
+	public static BinaryTranscripts open(String filename) throws IOException
+	{
+		RandomAccessFile file = new RandomAccessFile(filename, "r");
+		try {
+			FileChannel channel = file.getChannel();
+			return new BinaryTranscripts(channel.map(FileChannel.MapMode.READ_ONLY, 0,
+					channel.size()), filename);
+		} finally {
+			file.close();
+		}
+	}
+
+	/**
+	 * Writes transcripts in the binary format. If several transcripts
+	 * have the same id, only one of them can be looked up by id.
+	 *
+	 * @param transcripts the transcripts to write
+	 * @param filename the name of the file to create
+	 * @throws IOException if the file cannot be written
+	 * @throws IllegalArgumentException if a year does not fit in a short
+	 */
+	public static void write(List<Transcript> transcripts, String filename) throws IOException
+	{
+		List<Transcript> sorted = new ArrayList<Transcript>(transcripts);
+		Collections.sort(sorted, new Comparator<Transcript>() {
+			@Override
+			public int compare(Transcript t1, Transcript t2) {
+				return t1.getId().compareTo(t2.getId());
+			}
+		});
+
+		BinaryCatalog.StringPool pool = new BinaryCatalog.StringPool();
+		int[][] students = new int[sorted.size()][];
+		List<int[]> rows = new ArrayList<int[]>();
+		for (int i = 0; i < sorted.size(); i++) {
+			Transcript t = sorted.get(i);
+			students[i] = new int[] { pool.add(t.getId()), pool.add(t.getFirstName()),
+					pool.add(t.getLastName()), rows.size(), t.getGradeRecords().size() };
+			for (GradeRecord gr : t.getGradeRecords()) {
+				int year = gr.getYear();
+				if (year != (short) year) {
+					throw new IllegalArgumentException("Year out of range: " + year);
+				}
+				rows.add(new int[] { pool.add(gr.getCourse().getShortName()), year,
+						gr.getGrade().charAt(0) });
+			}
+		}
+
+		int poolOffset = HEADER_SIZE + STUDENT_SIZE * students.length + ROW_SIZE * rows.size();
+		DataOutputStream out = BinaryCatalog.StringPool.create(filename);
+		try {
+			out.writeInt(MAGIC);
+			out.writeShort(VERSION);
+			out.writeShort(0);
+			out.writeInt(students.length);
+			out.writeInt(rows.size());
+			out.writeInt(poolOffset);
+			for (int[] student : students) {
+				for (int field : student) {
+					out.writeInt(field);
+				}
+			}
+			for (int[] row : rows) {
+				out.writeInt(row[0]);
+				out.writeShort(row[1]);
+				out.writeByte(row[2]);
+				out.writeByte(0);
+			}
+			pool.writeTo(out);
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Gets the number of transcripts in this collection.
+	 *
+	 * @return the number of transcripts
+	 */
+	public int size() {
+		return studentCount;
+	}
+
+	/**
+	 * Looks up a student's transcript, decoding only that student's
+	 * records. Grade records whose course is not in the catalog are
+	 * left out, as when reading a transcript file.
+	 *
+	 * @param id the student's Mills id
+	 * @param catalog the catalog to look courses up in
+	 * @return the transcript, or null if there is no such student
+	 */
+	public Transcript getTranscript(String id, CourseCatalog catalog)
+	{
+		int low = 0;
+		int high = studentCount - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			int compare = readString(buffer.getInt(HEADER_SIZE + middle * STUDENT_SIZE))
+					.compareTo(id);
+			if (compare < 0) {
+				low = middle + 1;
+			} else if (compare > 0) {
+				high = middle - 1;
+			} else {
+				return getTranscript(middle, catalog);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Decodes the transcript at a position in the collection, which
+	 * is ordered by id.
+	 *
+	 * @param index the position, from 0 to {@link #size()} - 1
+	 * @param catalog the catalog to look courses up in
+	 * @return the transcript
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 */
+	public Transcript getTranscript(int index, CourseCatalog catalog)
+	{
+		if (index < 0 || index >= studentCount) {
+			throw new IndexOutOfBoundsException("No transcript " + index);
+		}
+		int position = HEADER_SIZE + index * STUDENT_SIZE;
+		Transcript transcript = new Transcript(readString(buffer.getInt(position)),
+				readString(buffer.getInt(position + 4)), readString(buffer.getInt(position + 8)),
+				catalog);
+		int firstRow = buffer.getInt(position + 12);
+		int rowCount = buffer.getInt(position + 16);
+		for (int row = firstRow; row < firstRow + rowCount; row++) {
+			int rowPosition = rowsOffset + row * ROW_SIZE;
+			Course course = catalog.getCourse(readString(buffer.getInt(rowPosition)));
+			if (course != null) {
+				int year = buffer.getShort(rowPosition + 4);
+				String grade = String.valueOf((char) buffer.get(rowPosition + 6));
+				transcript.addGradeRecord(new GradeRecord(course, year, grade));
+			}
+		}
+		return transcript;
+	}
+
+	/**
+	 * Reads a string from the string pool.
+	 *
+	 * @param offset the offset of the string within the pool
+	 * @return the string
+	 */
+	private String readString(int offset)
+	{
+		return BinaryCatalog.StringPool.read(buffer, poolOffset + offset);
+	}
+
+	/**
+	 * Converts transcript files to a binary transcript collection.
+	 *
+	 * @param args the courses file, a directory or manifest of
+	 *     transcripts as accepted by {@link BatchAudit}, and the
+	 *     binary file to create
+	 */
+	public static void main(String[] args)
+	{
+		if (args.length != 3) {
+			System.err.println("Usage: BinaryTranscripts COURSES_FILE DIRECTORY|MANIFEST BINARY_FILE");
+			return;
+		}
+		try {
+			Course.loadCourses(args[0]);
+			List<Transcript> transcripts = new ArrayList<Transcript>();
+			for (File file : BatchAudit.listTranscripts(new File(args[1]))) {
+				TranscriptReader reader = new TranscriptReader(file.getPath());
+				try {
+					for (Transcript transcript = reader.read(); transcript != null;
+							transcript = reader.read()) {
+						transcripts.add(transcript);
+					}
+				} finally {
+					reader.close();
+				}
+			}
+			write(transcripts, args[2]);
+			System.out.println("Wrote " + transcripts.size() + " transcripts to " + args[2]);
+		} catch (IOException e) {
+			System.err.println(e.toString());
+		}
+	}
+}
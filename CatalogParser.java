@@ -0,0 +1,561 @@
+package edu.mills.cs64.final_project;
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Reads the course records of a catalog file, in the format described
+ * in {@link CourseCatalog#load(String)}, for that method.
+ * <p>
+ * The file is read through a {@link FileChannel} into one reusable
+ * byte buffer, and every field is parsed where it lies in the buffer,
+ * so no string is made for a line unless the course keeps it. A
+ * record makes only its name, its {@link Course} and the course's
+ * short name, plus the names on any PREREQUISITES or ALIASES line.
+ * Department names are shared by all the courses in a department, and
+ * the requirements met are shared by all the courses meeting the same
+ * requirements. The buffer grows to hold the longest line, so lines
+ * may be any length. The file is read as UTF-8.
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+class CatalogParser implements Closeable
+{
+	private static final int BUFFER_SIZE = 1 << 16;
+	private static final int MAX_DIGITS = 9;
+	private static final String PREREQUISITES_PREFIX = "PREREQUISITES:";
+	private static final String TERMS_PREFIX = "TERMS:";
+	private static final String ALIASES_PREFIX = "ALIASES:";
+	private static final String[] NO_PREREQUISITES = new String[0];
+	private static final CoreRequirement[] REQUIREMENTS = CoreRequirement.values();
+	private static final Term[] TERMS = Term.values();
+
+	private String filename;
+	private FileChannel channel;
+	private byte[] bytes = new byte[BUFFER_SIZE];
+	private ByteBuffer buffer = ByteBuffer.wrap(bytes);
+	private int limit;
+	private boolean endOfFile;
+	// The current line is bytes[lineStart, lineEnd), without its
+	// terminator; the next line starts at next.
+	private int lineStart;
+	private int lineEnd;
+	private int next;
+	private boolean pushedBack;
+	private int lineNumber;
+	// The requirements met, shared by every course with the same mask.
+	private CoreRequirement[][] requirementSets =
+			new CoreRequirement[CoreRequirement.ALL_MASK + 1][];
+	// An open-addressing table of the department names seen so far.
+	private byte[][] departmentKeys = new byte[64][];
+	private String[] departments = new String[64];
+	private int departmentCount;
+
+	/**
+	 * Constructs a parser for a catalog file.
+	 *
+	 * @param filename the name of the file
+	 * @throws FileNotFoundException if the file cannot be found
+	 */
+	CatalogParser(String filename) throws FileNotFoundException
+	{
+		this.filename = filename;
+		channel = new FileInputStream(filename).getChannel();
+	}
+
+	/**
+	 * Gets the number of the last line read.
+	 *
+	 * @return the line number, starting from 1
+	 */
+	int getLineNumber() {
+		return lineNumber;
+	}
+
+	/**
+	 * Reads the next course record and the lines that follow it.
+	 *
+	 * @param aliases where to put the names on an ALIASES line, each
+	 *     mapped to the short name of the course
+	 * @return the course, or null at the end of the file
+	 * @throws IOException if the file cannot be read
+	 * @throws IllegalArgumentException if the record is malformed or
+	 *     an alias is already in aliases
+	 */
+	Course readCourse(Map<String, String> aliases) throws IOException
+	{
+		do {
+			if (!nextLine()) {
+				return null;
+			}
+		} while (lineStart == lineEnd);
+		int space = lineEnd - 1;
+		while (space >= lineStart && bytes[space] != ' ') {
+			space--;
+		}
+		if (space <= lineStart) {
+			throw formatError(lineNumber, "expected DEPARTMENT NUMBER but found \""
+					+ line() + "\"");
+		}
+		String department = department(lineStart, space);
+		int number = parseInt(space + 1, lineEnd);
+
+		requireLine();
+		String name = line();
+		requireLine();
+		int credits = parseInt(lineStart, lineEnd);
+		requireLine();
+		CoreRequirement[] requirementsMet = parseRequirements();
+
+		String[] prerequisites = NO_PREREQUISITES;
+		int termsMask = Term.ALL_MASK;
+		while (nextLine()) {
+			if (startsWith(PREREQUISITES_PREFIX)) {
+				prerequisites = parseNames(PREREQUISITES_PREFIX.length());
+			} else if (startsWith(TERMS_PREFIX)) {
+				termsMask = parseTerms();
+			} else if (startsWith(ALIASES_PREFIX)) {
+				String shortName = department + " " + number;
+				for (String alias : parseNames(ALIASES_PREFIX.length())) {
+					String previous = aliases.put(alias, shortName);
+					if (previous != null) {
+						throw formatError(lineNumber, "alias " + alias
+								+ " is already an alias of " + previous);
+					}
+				}
+			} else {
+				pushedBack = true;
+				break;
+			}
+		}
+		return new Course(department, number, name, credits, requirementsMet, prerequisites,
+				termsMask);
+	}
+
+	/**
+	 * Moves to the next line, which must exist within a record.
+	 *
+	 * @throws IOException if the file cannot be read
+	 * @throws IllegalArgumentException if the file ends mid-record
+	 */
+	private void requireLine() throws IOException
+	{
+		if (!nextLine()) {
+			throw formatError(lineNumber + 1, "unexpected end of file within a record");
+		}
+	}
+
+	/**
+	 * Moves to the next line, or back to the current one if it was
+	 * pushed back, reading more of the file as needed.
+	 *
+	 * @return false at the end of the file
+	 * @throws IOException if the file cannot be read
+	 */
+	private boolean nextLine() throws IOException
+	{
+		if (pushedBack) {
+			pushedBack = false;
+			return true;
+		}
+		int scan = next;
+		int end;
+		while ((end = indexOf((byte) '\n', scan, limit)) < 0 && !endOfFile) {
+			int scanned = limit - next;
+			fill();
+			scan = next + scanned;
+		}
+		if (end < 0) {
+			if (next == limit) {
+				return false;
+			}
+			end = limit;
+		}
+		lineStart = next;
+		lineEnd = end;
+		next = Math.min(end + 1, limit);
+		if (lineEnd > lineStart && bytes[lineEnd - 1] == '\r') {
+			lineEnd--;
+		}
+		lineNumber++;
+		return true;
+	}
+
+	/**
+	 * Moves the unread bytes to the front of the buffer, growing it if
+	 * they fill it, and reads more of the file after them.
+	 *
+	 * @throws IOException if the file cannot be read
+	 */
+	private void fill() throws IOException
+	{
+		if (next > 0) {
+			System.arraycopy(bytes, next, bytes, 0, limit - next);
+			limit -= next;
+			next = 0;
+		}
+		if (limit == bytes.length) {
+			bytes = Arrays.copyOf(bytes, bytes.length * 2);
+			buffer = ByteBuffer.wrap(bytes);
+		}
+		buffer.limit(bytes.length);
+		buffer.position(limit);
+		int n = channel.read(buffer);
+		if (n < 0) {
+			endOfFile = true;
+		} else {
+			limit += n;
+		}
+	}
+
+	/**
+	 * Finds a byte in part of the buffer.
+	 *
+	 * @param b the byte
+	 * @param start the index to start at
+	 * @param end the index to stop before
+	 * @return the index of the byte, or -1 if it is not there
+	 */
+	private int indexOf(byte b, int start, int end)
+	{
+		for (int i = start; i < end; i++) {
+			if (bytes[i] == b) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Tells whether part of the buffer holds the given ASCII text.
+	 *
+	 * @param text the text
+	 * @param start the index of the first byte
+	 * @param end the index after the last byte
+	 * @return true if it does
+	 */
+	private boolean matches(String text, int start, int end)
+	{
+		if (text.length() != end - start) {
+			return false;
+		}
+		for (int i = start; i < end; i++) {
+			if (bytes[i] != text.charAt(i - start)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Tells whether the current line starts with the given prefix.
+	 *
+	 * @param prefix the prefix, in ASCII
+	 * @return true if it does
+	 */
+	private boolean startsWith(String prefix)
+	{
+		return lineEnd - lineStart >= prefix.length()
+				&& matches(prefix, lineStart, lineStart + prefix.length());
+	}
+
+	/**
+	 * Gets the current line as a string.
+	 *
+	 * @return the line
+	 */
+	private String line()
+	{
+		return new String(bytes, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Gets the department name in part of the buffer, making a string
+	 * only the first time the department is seen.
+	 *
+	 * @param start the index of the first byte
+	 * @param end the index after the last byte
+	 * @return the department name
+	 */
+	private String department(int start, int end)
+	{
+		int mask = departmentKeys.length - 1;
+		int slot = hash(bytes, start, end) & mask;
+		byte[] key;
+		while ((key = departmentKeys[slot]) != null) {
+			if (key.length == end - start) {
+				int i = 0;
+				while (i < key.length && key[i] == bytes[start + i]) {
+					i++;
+				}
+				if (i == key.length) {
+					return departments[slot];
+				}
+			}
+			slot = (slot + 1) & mask;
+		}
+		if (departmentCount * 2 >= departmentKeys.length) {
+			growDepartments();
+			return department(start, end);
+		}
+		key = Arrays.copyOfRange(bytes, start, end);
+		departmentKeys[slot] = key;
+		departments[slot] = new String(key, StandardCharsets.UTF_8);
+		departmentCount++;
+		return departments[slot];
+	}
+
+	/**
+	 * Doubles the size of the department table.
+	 */
+	private void growDepartments()
+	{
+		byte[][] oldKeys = departmentKeys;
+		String[] oldDepartments = departments;
+		departmentKeys = new byte[oldKeys.length * 2][];
+		departments = new String[oldKeys.length * 2];
+		int mask = departmentKeys.length - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != null) {
+				int slot = hash(oldKeys[i], 0, oldKeys[i].length) & mask;
+				while (departmentKeys[slot] != null) {
+					slot = (slot + 1) & mask;
+				}
+				departmentKeys[slot] = oldKeys[i];
+				departments[slot] = oldDepartments[i];
+			}
+		}
+	}
+
+	/**
+	 * Hashes part of a byte array.
+	 *
+	 * @param b the array
+	 * @param start the index of the first byte
+	 * @param end the index after the last byte
+	 * @return the hash
+	 */
+	private static int hash(byte[] b, int start, int end)
+	{
+		int h = 0;
+		for (int i = start; i < end; i++) {
+			h = 31 * h + b[i];
+		}
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Parses a non-negative decimal integer from part of the current
+	 * line, ignoring trailing spaces.
+	 *
+	 * @param start the index of the first digit
+	 * @param end the index after the last digit
+	 * @return the parsed value
+	 * @throws IllegalArgumentException if the range is not a number
+	 */
+	private int parseInt(int start, int end)
+	{
+		while (end > start && bytes[end - 1] == ' ') {
+			end--;
+		}
+		if (start >= end || end - start > MAX_DIGITS) {
+			throw formatError(lineNumber, "expected a number but found \"" + line() + "\"");
+		}
+		int value = 0;
+		for (int i = start; i < end; i++) {
+			int digit = bytes[i] - '0';
+			if (digit < 0 || digit > 9) {
+				throw formatError(lineNumber, "expected a number but found \"" + line() + "\"");
+			}
+			value = value * 10 + digit;
+		}
+		return value;
+	}
+
+	/**
+	 * Parses the current line as a comma-separated list of core
+	 * requirements. The result is shared with every other course
+	 * meeting the same requirements, and lists them in declaration
+	 * order whatever their order on the line; a requirement listed
+	 * twice is met once.
+	 *
+	 * @return the requirements listed on the line
+	 * @throws IllegalArgumentException if a token is not a requirement
+	 *     or the list is empty
+	 */
+	private CoreRequirement[] parseRequirements()
+	{
+		int mask = 0;
+		int count = 0;
+		int start = lineStart;
+		while (start < lineEnd) {
+			int end = indexOf((byte) ',', start, lineEnd);
+			if (end < 0) {
+				end = lineEnd;
+			}
+			int tokenStart = start;
+			int tokenEnd = end;
+			while (tokenStart < tokenEnd && bytes[tokenStart] == ' ') {
+				tokenStart++;
+			}
+			while (tokenEnd > tokenStart && bytes[tokenEnd - 1] == ' ') {
+				tokenEnd--;
+			}
+			CoreRequirement match = null;
+			for (CoreRequirement cr : REQUIREMENTS) {
+				if (matches(cr.name(), tokenStart, tokenEnd)) {
+					match = cr;
+					break;
+				}
+			}
+			if (match == null) {
+				throw formatError(lineNumber, "unknown core requirement \"" + new String(bytes,
+						tokenStart, tokenEnd - tokenStart, StandardCharsets.UTF_8) + "\"");
+			}
+			if (++count > REQUIREMENTS.length) {
+				throw formatError(lineNumber, "too many core requirements");
+			}
+			mask |= match.getMask();
+			start = end + 1;
+		}
+		if (count == 0) {
+			throw formatError(lineNumber, "course must meet at least one requirement");
+		}
+		CoreRequirement[] set = requirementSets[mask];
+		if (set == null) {
+			set = CoreRequirement.fromMask(mask).toArray(new CoreRequirement[0]);
+			requirementSets[mask] = set;
+		}
+		return set;
+	}
+
+	/**
+	 * Parses the current line as a TERMS line.
+	 *
+	 * @return the mask of terms listed on the line
+	 * @throws IllegalArgumentException if a token is not a term or the
+	 *     list is empty
+	 */
+	private int parseTerms()
+	{
+		int mask = 0;
+		int start = lineStart + TERMS_PREFIX.length();
+		while (start <= lineEnd) {
+			int end = indexOf((byte) ',', start, lineEnd);
+			if (end < 0) {
+				end = lineEnd;
+			}
+			int tokenStart = trimStart(start, end);
+			int tokenEnd = trimEnd(tokenStart, end);
+			if (tokenStart < tokenEnd) {
+				Term match = null;
+				for (Term term : TERMS) {
+					if (matches(term.name(), tokenStart, tokenEnd)) {
+						match = term;
+						break;
+					}
+				}
+				if (match == null) {
+					throw formatError(lineNumber, "unknown term \"" + new String(bytes, tokenStart,
+							tokenEnd - tokenStart, StandardCharsets.UTF_8) + "\"");
+				}
+				mask |= match.getMask();
+			}
+			start = end + 1;
+		}
+		if (mask == 0) {
+			throw formatError(lineNumber, "expected at least one term");
+		}
+		return mask;
+	}
+
+	/**
+	 * Parses the current line as a PREREQUISITES or ALIASES line.
+	 *
+	 * @param prefixLength the length of the line's prefix
+	 * @return the short names listed on the line
+	 */
+	private String[] parseNames(int prefixLength)
+	{
+		List<String> names = new ArrayList<String>();
+		int start = lineStart + prefixLength;
+		while (start <= lineEnd) {
+			int end = indexOf((byte) ',', start, lineEnd);
+			if (end < 0) {
+				end = lineEnd;
+			}
+			int tokenStart = trimStart(start, end);
+			int tokenEnd = trimEnd(tokenStart, end);
+			if (tokenStart < tokenEnd) {
+				names.add(new String(bytes, tokenStart, tokenEnd - tokenStart,
+						StandardCharsets.UTF_8));
+			}
+			start = end + 1;
+		}
+		return names.toArray(new String[names.size()]);
+	}
+
+	/**
+	 * Skips white space at the start of part of the buffer, as
+	 * {@link String#trim()} does.
+	 *
+	 * @param start the index of the first byte
+	 * @param end the index after the last byte
+	 * @return the index of the first byte that is not white space
+	 */
+	private int trimStart(int start, int end)
+	{
+		while (start < end && (bytes[start] & 0xff) <= ' ') {
+			start++;
+		}
+		return start;
+	}
+
+	/**
+	 * Skips white space at the end of part of the buffer, as
+	 * {@link String#trim()} does.
+	 *
+	 * @param start the index of the first byte
+	 * @param end the index after the last byte
+	 * @return the index after the last byte that is not white space
+	 */
+	private int trimEnd(int start, int end)
+	{
+		while (end > start && (bytes[end - 1] & 0xff) <= ' ') {
+			end--;
+		}
+		return end;
+	}
+
+	/**
+	 * Creates an exception describing a malformed line.
+	 *
+	 * @param lineNumber the number of the malformed line
+	 * @param message what was wrong with the line
+	 * @return the exception to throw
+	 */
+	private IllegalArgumentException formatError(int lineNumber, String message) {
+		return new IllegalArgumentException(filename + " line " + lineNumber + ": " + message);
+	}
+
+	/**
+	 * Closes the file.
+	 *
+	 * @throws IOException if it cannot be closed
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		channel.close();
+	}
+}
@@ -0,0 +1,407 @@
+package edu.mills.cs64.final_project;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.IntStream;
+
+
+/**
+ * How far a cohort of students is from meeting each core requirement,
+ * and how many seats each course can expect as a result.
+ * <p>
+ * For each requirement, students are counted by the credits they still
+ * need, from 0 (met) to the credits the requirement calls for. For the
+ * projection, each student with an unmet requirement is assumed to take
+ * one of the courses that would be recommended for it, chosen with
+ * equal likelihood. Only courses offered in the projected term are
+ * candidates. A course's expected demand is the sum of these
+ * likelihoods over all students and requirements, so a course meeting
+ * two of a student's unmet requirements counts toward both.
+ * <p>
+ * Like {@link GradeStatistics}, demand is accumulated one transcript at
+ * a time and can be merged, so a large cohort is analyzed in a single
+ * parallel pass with {@link #of(Collection, CourseCatalog, Term)}. Each
+ * transcript costs time in proportion to its grade records, not to the
+ * size of the catalog: a student's likelihood for a requirement is
+ * added once to a per-requirement total, and subtracted again for just
+ * the courses the student has already taken.
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+public class CohortDemand
+{
+	private static final int DEFAULT_ROWS = 20;
+
+	private CourseCatalog catalog;
+	private Term term;
+	// The number of candidate courses for each requirement.
+	private int[] candidates;
+	private long students;
+	// Students by requirement and credits still needed.
+	private long[][] deficits;
+	// The likelihood any student gives to each candidate course of a
+	// requirement, summed over students.
+	private double[] requirementDemand;
+	// The likelihood given to courses already taken, which is not
+	// really demand, summed over students by catalog position.
+	private double[] takenDemand;
+
+	/**
+	 * Constructs an empty analysis.
+	 *
+	 * @param catalog the catalog the transcripts are against
+	 * @param term the term to project demand for, or null to consider
+	 *     every course regardless of when it is offered
+	 */
+	public CohortDemand(CourseCatalog catalog, Term term)
+	{
+		this.catalog = catalog;
+		this.term = term;
+		CoreRequirement[] all = CoreRequirement.values();
+		candidates = new int[all.length];
+		deficits = new long[all.length][];
+		for (CoreRequirement cr : all) {
+			deficits[cr.ordinal()] = new long[cr.getCredits() + 1];
+			for (Course course : catalog.getCoursesMeetingRequirements(cr)) {
+				if (isCandidate(course)) {
+					candidates[cr.ordinal()]++;
+				}
+			}
+		}
+		requirementDemand = new double[all.length];
+		takenDemand = new double[catalog.size()];
+	}
+
+	/**
+	 * Checks whether a course is offered in the projected term.
+	 */
+	private boolean isCandidate(Course course)
+	{
+		return term == null || course.isOfferedIn(term);
+	}
+
+	/**
+	 * Adds a student's transcript to the analysis.
+	 *
+	 * @param transcript the transcript
+	 */
+	public void add(Transcript transcript)
+	{
+		students++;
+		int unmet = transcript.getUnmetRequirementsMask();
+		for (CoreRequirement cr : CoreRequirement.values()) {
+			int needed = Math.max(0, cr.getCredits() - transcript.getCreditsMet(cr));
+			deficits[cr.ordinal()][needed]++;
+		}
+		if (unmet == 0) {
+			return;
+		}
+
+		// Count the distinct candidates already taken for each unmet
+		// requirement; they are not recommended again.
+		List<GradeRecord> records = transcript.getGradeRecords();
+		int[] positions = new int[records.size()];
+		int distinct = 0;
+		int[] taken = new int[candidates.length];
+		for (GradeRecord gr : records) {
+			Course course = gr.getCourse();
+			int position = catalog.indexOf(course);
+			if (position < 0 || !isCandidate(course) || contains(positions, distinct, position)) {
+				continue;
+			}
+			positions[distinct++] = position;
+			int mask = course.getRequirementsMask() & unmet;
+			for (CoreRequirement cr : CoreRequirement.values()) {
+				if ((mask & cr.getMask()) != 0) {
+					taken[cr.ordinal()]++;
+				}
+			}
+		}
+
+		double[] likelihood = new double[candidates.length];
+		for (CoreRequirement cr : CoreRequirement.values()) {
+			int r = cr.ordinal();
+			int choices = candidates[r] - taken[r];
+			if ((unmet & cr.getMask()) != 0 && choices > 0) {
+				likelihood[r] = 1.0 / choices;
+				requirementDemand[r] += likelihood[r];
+			}
+		}
+		for (int i = 0; i < distinct; i++) {
+			int mask = catalog.getCourse(positions[i]).getRequirementsMask() & unmet;
+			for (CoreRequirement cr : CoreRequirement.values()) {
+				if ((mask & cr.getMask()) != 0) {
+					takenDemand[positions[i]] += likelihood[cr.ordinal()];
+				}
+			}
+		}
+	}
+
+	private static boolean contains(int[] values, int count, int value)
+	{
+		for (int i = 0; i < count; i++) {
+			if (values[i] == value) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Adds another analysis of the same catalog and term to this one.
+	 *
+	 * @param other the other analysis
+	 * @return this analysis
+	 * @throws IllegalArgumentException if the other analysis is of a
+	 *     different catalog or term
+	 */
+	public CohortDemand merge(CohortDemand other) throws IllegalArgumentException
+	{
+		if (other.catalog != catalog || other.term != term) {
+			throw new IllegalArgumentException("Cannot merge analyses of different catalogs or terms");
+		}
+		students += other.students;
+		for (int r = 0; r < deficits.length; r++) {
+			for (int c = 0; c < deficits[r].length; c++) {
+				deficits[r][c] += other.deficits[r][c];
+			}
+			requirementDemand[r] += other.requirementDemand[r];
+		}
+		for (int i = 0; i < takenDemand.length; i++) {
+			takenDemand[i] += other.takenDemand[i];
+		}
+		return this;
+	}
+
+	/**
+	 * Analyzes many transcripts, splitting the work across threads and
+	 * merging the partial results.
+	 *
+	 * @param transcripts the transcripts
+	 * @param catalog the catalog the transcripts are against
+	 * @param term the term to project demand for, or null for any
+	 * @return the analysis
+	 */
+	public static CohortDemand of(Collection<Transcript> transcripts,
+			final CourseCatalog catalog, final Term term)
+	{
+		return transcripts.parallelStream().collect(() -> new CohortDemand(catalog, term),
+				CohortDemand::add, CohortDemand::merge);
+	}
+
+	/**
+	 * Analyzes every transcript in a binary collection, decoding and
+	 * discarding them in parallel so the whole cohort is never in
+	 * memory at once.
+	 *
+	 * @param transcripts the collection
+	 * @param catalog the catalog to read the transcripts against
+	 * @param term the term to project demand for, or null for any
+	 * @return the analysis
+	 */
+	public static CohortDemand of(final BinaryTranscripts transcripts,
+			final CourseCatalog catalog, final Term term)
+	{
+		return IntStream.range(0, transcripts.size()).parallel()
+				.mapToObj(i -> transcripts.getTranscript(i, catalog))
+				.collect(() -> new CohortDemand(catalog, term), CohortDemand::add,
+						CohortDemand::merge);
+	}
+
+	/**
+	 * Gets the number of students analyzed.
+	 *
+	 * @return the number of students
+	 */
+	public long getStudents() {
+		return students;
+	}
+
+	/**
+	 * Gets the number of students by the credits they still need
+	 * toward a requirement.
+	 *
+	 * @param cr the core requirement
+	 * @return the counts, indexed by credits needed from 0 to
+	 *     {@link CoreRequirement#getCredits()}
+	 */
+	public long[] getDeficitHistogram(CoreRequirement cr) {
+		return deficits[cr.ordinal()].clone();
+	}
+
+	/**
+	 * Gets the number of students who have not met a requirement.
+	 *
+	 * @param cr the core requirement
+	 * @return the number of students
+	 */
+	public long getStudentsShort(CoreRequirement cr) {
+		return students - deficits[cr.ordinal()][0];
+	}
+
+	/**
+	 * Gets the total credits the students still need toward a
+	 * requirement.
+	 *
+	 * @param cr the core requirement
+	 * @return the credits
+	 */
+	public long getCreditsShort(CoreRequirement cr) {
+		long credits = 0;
+		long[] histogram = deficits[cr.ordinal()];
+		for (int c = 1; c < histogram.length; c++) {
+			credits += c * histogram[c];
+		}
+		return credits;
+	}
+
+	/**
+	 * Gets the expected number of students who will take a course.
+	 *
+	 * @param course a course in the catalog
+	 * @return the expected demand, or 0 if the course is not a candidate
+	 */
+	public double getDemand(Course course) {
+		int position = catalog.indexOf(course);
+		if (position < 0 || !isCandidate(course)) {
+			return 0;
+		}
+		double demand = -takenDemand[position];
+		int mask = course.getRequirementsMask();
+		for (CoreRequirement cr : CoreRequirement.values()) {
+			if ((mask & cr.getMask()) != 0) {
+				demand += requirementDemand[cr.ordinal()];
+			}
+		}
+		// Rounding in the subtraction can leave a tiny negative value.
+		return Math.max(0, demand);
+	}
+
+	/**
+	 * Gets the courses with the highest expected demand.
+	 *
+	 * @param limit the most courses to return
+	 * @return the courses, highest demand first, with ties in catalog
+	 *     order
+	 */
+	public List<Course> getRankedCourses(int limit)
+	{
+		final double[] demand = new double[catalog.size()];
+		List<Integer> ranked = new ArrayList<Integer>();
+		for (int i = 0; i < demand.length; i++) {
+			demand[i] = getDemand(catalog.getCourse(i));
+			if (demand[i] > 0) {
+				ranked.add(i);
+			}
+		}
+		Collections.sort(ranked, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer i, Integer j) {
+				int byDemand = Double.compare(demand[j], demand[i]);
+				return byDemand != 0 ? byDemand : i - j;
+			}
+		});
+		List<Course> courses = new ArrayList<Course>(Math.min(limit, ranked.size()));
+		for (int i = 0; i < ranked.size() && i < limit; i++) {
+			courses.add(catalog.getCourse(ranked.get(i)));
+		}
+		return courses;
+	}
+
+	/**
+	 * Writes the analysis as two tables: requirements ranked by the
+	 * number of students short of them, with the credits short and the
+	 * deficit histogram, then the courses with the highest expected
+	 * demand.
+	 *
+	 * @param rows the number of courses to list
+	 * @param out where to write the tables
+	 * @throws IOException if out throws it
+	 */
+	public void writeTable(int rows, Appendable out) throws IOException
+	{
+		List<CoreRequirement> requirements = new ArrayList<CoreRequirement>();
+		Collections.addAll(requirements, CoreRequirement.values());
+		Collections.sort(requirements, new Comparator<CoreRequirement>() {
+			@Override
+			public int compare(CoreRequirement cr1, CoreRequirement cr2) {
+				return Long.compare(getStudentsShort(cr2), getStudentsShort(cr1));
+			}
+		});
+		out.append(String.format("%d students%s%n", students,
+				term == null ? "" : ", projected for " + term));
+		out.append(String.format("%-5s %10s %7s %12s  %s%n", "REQ", "STUDENTS", "SHORT",
+				"CREDITS", "STUDENTS BY CREDITS NEEDED (0, 1, ...)"));
+		for (CoreRequirement cr : requirements) {
+			StringBuilder histogram = new StringBuilder();
+			for (long count : deficits[cr.ordinal()]) {
+				histogram.append(histogram.length() == 0 ? "" : " ").append(count);
+			}
+			out.append(String.format("%-5s %10d %6.1f%% %12d  %s%n", cr.name(),
+					getStudentsShort(cr), students == 0 ? 0 : 100.0 * getStudentsShort(cr) / students,
+					getCreditsShort(cr), histogram));
+		}
+		out.append(String.format("%n%-5s %-10s %10s  %s%n", "RANK", "COURSE", "SEATS", "NAME"));
+		int rank = 1;
+		for (Course course : getRankedCourses(rows)) {
+			out.append(String.format("%-5d %-10s %10.1f  %s%n", rank++, course.getShortName(),
+					getDemand(course), course.getName()));
+		}
+	}
+
+	/**
+	 * Overrides the toString method.
+	 *
+	 * @return the tables written by {@link #writeTable(int, Appendable)}
+	 *     with the top {@value #DEFAULT_ROWS} courses
+	 */
+	@Override
+	public String toString()
+	{
+		StringBuilder builder = new StringBuilder();
+		try {
+			writeTable(DEFAULT_ROWS, builder);
+		} catch (IOException e) {
+			// StringBuilder does not throw.
+			throw new UncheckedIOException(e);
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Analyzes a cohort from the command line and prints the tables.
+	 *
+	 * @param args the courses file, a binary transcript collection
+	 *     written by {@link BinaryTranscripts}, and optionally the term
+	 *     to project for and the number of courses to list
+	 */
+	public static void main(String[] args)
+	{
+		if (args.length < 2) {
+			System.err.println("Usage: CohortDemand COURSES_FILE TRANSCRIPTS_FILE [TERM [ROWS]]");
+			return;
+		}
+		try {
+			CourseCatalog catalog = CourseCatalog.load(args[0]);
+			Term term = args.length > 2 ? Term.valueOf(args[2].toUpperCase(Locale.ROOT)) : null;
+			int rows = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_ROWS;
+			long start = System.nanoTime();
+			CohortDemand demand = of(BinaryTranscripts.open(args[1]), catalog, term);
+			long elapsed = System.nanoTime() - start;
+			StringBuilder table = new StringBuilder();
+			demand.writeTable(rows, table);
+			System.out.print(table);
+			System.out.println(String.format("Analyzed in %.2f s", elapsed / 1e9));
+		} catch (IOException e) {
+			System.err.println(e.toString());
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+		}
+	}
+}
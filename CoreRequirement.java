@@ -1,5 +1,7 @@
 package edu.mills.cs64.final_project;
 
+import java.util.EnumSet;
+
 /**
  * Core requirements for General Education at Mills. 
  * 
@@ -17,6 +19,11 @@ public enum CoreRequirement {
 	CE("Community Engagement", 2),
 	CIE("Creativity, Innovation, and Experimentation", 3);
 
+	/**
+	 * A mask with the bit of every core requirement set.
+	 */
+	public static final int ALL_MASK = (1 << values().length) - 1;
+
 	private String title;
 	private int credits;
 
@@ -48,4 +55,30 @@ public enum CoreRequirement {
 	protected String getTitle() {
 		return title;
 	}
+
+	/**
+	 * Gets the bit that represents this requirement in a requirement
+	 * mask, such as those returned by {@link Course#getRequirementsMask()}. 
+	 * 
+	 * @return the mask with only this requirement's bit set
+	 */
+	public int getMask() {
+		return 1 << ordinal();
+	}
+
+	/**
+	 * Gets the requirements whose bits are set in a requirement mask. 
+	 * 
+	 * @param mask a requirement mask
+	 * @return the requirements in the mask 
+	 */
+	public static EnumSet<CoreRequirement> fromMask(int mask) {
+		EnumSet<CoreRequirement> requirements = EnumSet.noneOf(CoreRequirement.class);
+		for (CoreRequirement cr : values()) {
+			if ((mask & cr.getMask()) != 0) {
+				requirements.add(cr);
+			}
+		}
+		return requirements;
+	}
 }
@@ -1,11 +1,8 @@
 package edu.mills.cs64.final_project;
-import java.io.File;
 import java.io.FileNotFoundException;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Hashtable;
+import java.io.UncheckedIOException;
 import java.util.List;
-import java.util.Scanner;
+import java.util.Map;
 
 
 /**
@@ -19,17 +16,21 @@ import java.util.Scanner;
  */
 public class Course
 {
+	private static final String[] NO_PREREQUISITES = new String[0];
+
 	private String department;
+	private String shortName;
 	private int number;
 	private String name;
 	private int credits;
 	private CoreRequirement[] requirementsMet;
-	private static Hashtable<String, Course> courses;
-	private static final String COURSES_FILE = "courses.txt";
-	private static Hashtable<CoreRequirement, List<Course>> coursesMeetingRequirements;
+	private int requirementsMask;
+	private String[] prerequisites;
+	private int termsMask;
 
 	/**
-	 * Constructs a new Course with the given information.
+	 * Constructs a new Course with the given information. The course
+	 * has no prerequisites and is offered every term.
 	 * 
 	 * 
 	 * @param department the department 
@@ -38,87 +39,62 @@ public class Course
 	 * @param credits the number of credits
 	 * @param requirementsMet the list of requirements met 
 	 */
-	private Course(String department, int number, String name, int credits,
+	Course(String department, int number, String name, int credits,
 			CoreRequirement[] requirementsMet) {
+		this(department, number, name, credits, requirementsMet, NO_PREREQUISITES,
+				Term.ALL_MASK);
+	}
+
+	/**
+	 * Constructs a new Course with the given information.
+	 * 
+	 * @param department the department 
+	 * @param number the course number
+	 * @param name the course name
+	 * @param credits the number of credits
+	 * @param requirementsMet the list of requirements met 
+	 * @param prerequisites the short names of the courses that must
+	 *     be taken first
+	 * @param termsMask the terms in which the course is offered, as a
+	 *     mask of {@link Term#getMask()} bits
+	 */
+	Course(String department, int number, String name, int credits,
+			CoreRequirement[] requirementsMet, String[] prerequisites, int termsMask) {
 		this.department = department;
 		this.number = number;
+		this.shortName = department + " " + number;
 		this.name = name;
 		this.credits = credits;
 		this.requirementsMet = requirementsMet;
+		for (CoreRequirement cr : requirementsMet) {
+			requirementsMask |= cr.getMask();
+		}
+		this.prerequisites = prerequisites;
+		this.termsMask = termsMask;
 	}
 
 
 	/**
 	 * Loads course information from the specified file, after
 	 * which the information can be retrieved by calling 
-	 * {@link #getCourse(String)}.
-	 * <p>
-	 * The file should consist of records in the following
-	 * format:
-	 * <pre>
-	 *     DEPARTMENT NUMBER
-	 *     NAME
-	 *     CREDITS
-	 *     REQUIREMENTS MET (comma-separated list)
-	 * </pre>
-	 * Here is a sample file:
-	 * <pre>
-	 *     CS 64
-	 *     Computer Concepts and Intermediate Programming
-	 *     4
-	 *     QL
-	 *     ARTH 18
-	 *     Introduction to Western Art
-	 *     3
-	 *     CA, CIE, IP
-	 * </pre>
-	 * All courses in the file must meet at least one requirement.
+	 * {@link #getCourse(String)}. The file format is described
+	 * in {@link CourseCatalog#load(String)}.
 	 * <p>
-	 * Results are undefined if the file is not in the proper format.
-	 * (In other words, there is no error checking and recovery.)
+	 * The new courses replace any previously loaded, all at once;
+	 * if the file cannot be loaded, the previous courses remain.
 	 * 
 	 * @param filename the name of the file with course information
 	 * @throws FileNotFoundException if the file cannot be found
+	 * @throws IllegalArgumentException if the file is not in the
+	 *     proper format
+	 * @throws UncheckedIOException if the file cannot be read
 	 */
 	public static void loadCourses(String filename) throws FileNotFoundException
 	{
-		courses = new Hashtable<String, Course>();
-		coursesMeetingRequirements = new Hashtable<CoreRequirement, List<Course>>();
-		List<Course> courseList;			
-		File inputFile = new File(COURSES_FILE);
-		Scanner scanner = new Scanner(inputFile);
-		while (scanner.hasNextLine()) {
-			String[] splitLine1 = scanner.nextLine().split(" ");
-			String department = splitLine1[0];
-			int number = Integer.parseInt(splitLine1[1]);
-			String name = scanner.nextLine();
-			int credits = Integer.parseInt(scanner.nextLine());
-			String[] splitLine4 = scanner.nextLine().split(", ");
-			CoreRequirement[] requirementsMet = new CoreRequirement[splitLine4.length];
-			for (int i = 0; i < requirementsMet.length; i++)
-			{
-				requirementsMet[i] = CoreRequirement.valueOf(splitLine4[i]);
-			}
-			Course course = new Course(department, number, name, credits, requirementsMet);
-			courses.put(course.getShortName(), course);
-
-			for (CoreRequirement cr : requirementsMet) {
-				if (coursesMeetingRequirements.containsKey(cr)) {
-					courseList = coursesMeetingRequirements.get(cr);
-					courseList.add(course);
-				}
-				else {
-					courseList = new ArrayList<Course>();
-					courseList.add(course);
-				}
-				coursesMeetingRequirements.put(cr, courseList);
-			}
-		}
-		scanner.close();
+		CourseCatalog.publish(CourseCatalog.load(filename));
 	} 
 
 
-
 	/**
 	 * Gets a course that was previously loaded through a call
 	 * to {@link #loadCourses(String)}.
@@ -132,29 +108,21 @@ public class Course
 	public static Course getCourse(String shortName) 
 			throws IllegalStateException
 	{
-		try {
-			Course course = courses.get(shortName);
-			if (course != null) {
-				return course;
-			} else {
-				return null;
-			}
-		} catch (IllegalStateException e) {
-			System.err.println(e.toString());
-			return null;
-		}
+		return CourseCatalog.getCurrent().getCourse(shortName);
 	}
 
 	/**
 	 * Gets a list of courses that meets the provided 
 	 * Core Requirement.
 	 * 
-	 * @param the core requirement
+	 * @param cr the core requirement
 	 * @return list of courses that meet CoreRequirement
+	 * @throws IllegalStateException if courses have not yet been
+	 *     loaded
 	 */
 	public static List<Course> getCoursesMeetingRequirements(CoreRequirement cr) { 
 		if (cr != null) {
-			return coursesMeetingRequirements.get(cr);
+			return CourseCatalog.getCurrent().getCoursesMeetingRequirements(cr);
 		}
 		return null;
 	}
@@ -169,7 +137,7 @@ public class Course
 	 */
 	public String getShortName()
 	{
-		return department + " " + number;
+		return shortName;
 	}
 
 	/**
@@ -218,13 +186,65 @@ public class Course
 	}
 
 	/**
-	 * Gets the hashtable with a core requirement as the key
+	 * Gets the core requirements met by this course as a mask in which
+	 * the bit {@link CoreRequirement#getMask()} is set for each
+	 * requirement met. 
+	 * 
+	 * @return the mask of requirements met by this course
+	 */
+	public int getRequirementsMask() {
+		return requirementsMask;
+	}
+
+	/**
+	 * Checks whether this course meets the given core requirement. 
+	 * 
+	 * @param cr the core requirement
+	 * @return true if this course meets the requirement, false otherwise
+	 */
+	public boolean meetsRequirement(CoreRequirement cr) {
+		return (requirementsMask & cr.getMask()) != 0;
+	}
+
+	/**
+	 * Gets the short names of the courses that must be taken before
+	 * this one. Use {@link CourseCatalog#getPrerequisites(Course)} to
+	 * get the courses themselves.
+	 * 
+	 * @return the short names of the prerequisites
+	 */
+	public String[] getPrerequisites() {
+		return prerequisites;
+	}
+
+	/**
+	 * Gets the terms in which this course is offered as a mask in which
+	 * the bit {@link Term#getMask()} is set for each term.
+	 * 
+	 * @return the mask of terms
+	 */
+	public int getTermsMask() {
+		return termsMask;
+	}
+
+	/**
+	 * Checks whether this course is offered in the given term.
+	 * 
+	 * @param term the term
+	 * @return true if the course is offered in the term, false otherwise
+	 */
+	public boolean isOfferedIn(Term term) {
+		return (termsMask & term.getMask()) != 0;
+	}
+
+	/**
+	 * Gets the map with a core requirement as the key
 	 * and a list of courses as values. 
 	 * 
 	 * @return the courses that meet each core requirement 
 	 */
-	public Hashtable<CoreRequirement, List<Course>> getcoursesMeetingRequirements() {
-		return coursesMeetingRequirements;
+	public Map<CoreRequirement, List<Course>> getcoursesMeetingRequirements() {
+		return CourseCatalog.getCurrent().getCoursesMeetingRequirements();
 	}
 
 	/**
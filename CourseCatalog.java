@@ -0,0 +1,585 @@
+package edu.mills.cs64.final_project;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * An immutable snapshot of the course catalog. The snapshot in use is
+ * published through {@link #publish(CourseCatalog)} and read through
+ * {@link #getCurrent()}; {@link Course#loadCourses(String)} does both.
+ * <p>
+ * Because a snapshot never changes once built, lookups take no locks,
+ * and a reader holding a snapshot keeps seeing the same catalog even
+ * if a new one is published in the middle of its work. The catalog
+ * file can be watched with {@link #watch(String)} so that edits are
+ * loaded and published without restarting.
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+public class CourseCatalog
+{
+	private static final long RELOAD_DELAY_MILLIS = 200;
+	private static final int[] NO_PREREQUISITE_INDEXES = new int[0];
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+	private static volatile CourseCatalog current;
+
+	private List<Course> courses;
+	private CourseIndex index;
+	// An open-addressing table from course identity to position, which
+	// avoids boxing and node hops on the per-record indexOf path.
+	private Course[] positionKeys;
+	private int[] positionValues;
+	private Map<String, Course> aliases;
+	private Map<CoreRequirement, List<Course>> coursesMeetingRequirements;
+	private long version;
+	// The catalog positions of each course's prerequisites.
+	private int[][] prerequisites;
+	private Map<Recommendation.Profile, Recommendation> recommendationCache =
+			Recommendation.newCache();
+	private volatile CourseSearch search;
+
+	/**
+	 * Constructs a catalog of the given courses. If two courses have
+	 * the same short name, the later one replaces the earlier.
+	 *
+	 * @param courseList the courses, in catalog order
+	 * @throws IllegalArgumentException if the prerequisites form a cycle
+	 */
+	CourseCatalog(List<Course> courseList)
+	{
+		this(courseList, Collections.<String, String>emptyMap());
+	}
+
+	/**
+	 * Constructs a catalog of the given courses that can also be looked
+	 * up by other names. If two courses have the same short name, the
+	 * later one replaces the earlier.
+	 *
+	 * @param courseList the courses, in catalog order
+	 * @param aliasNames the short name of the course each alias stands
+	 *     for; aliases of courses not in the list are ignored
+	 * @throws IllegalArgumentException if the prerequisites form a cycle
+	 *     or an alias is the short name of a course
+	 */
+	CourseCatalog(List<Course> courseList, Map<String, String> aliasNames)
+	{
+		Map<String, Course> byShortName = new HashMap<String, Course>(courseList.size() * 2);
+		for (Course course : courseList) {
+			byShortName.put(course.getShortName(), course);
+		}
+		List<Course> unique = new ArrayList<Course>(byShortName.size());
+		Map<CoreRequirement, List<Course>> byRequirement =
+				new EnumMap<CoreRequirement, List<Course>>(CoreRequirement.class);
+		for (CoreRequirement cr : CoreRequirement.values()) {
+			byRequirement.put(cr, new ArrayList<Course>());
+		}
+		for (Course course : courseList) {
+			if (byShortName.get(course.getShortName()) != course) {
+				continue;
+			}
+			unique.add(course);
+			for (CoreRequirement cr : course.getRequirementsMet()) {
+				byRequirement.get(cr).add(course);
+			}
+		}
+		for (CoreRequirement cr : CoreRequirement.values()) {
+			byRequirement.put(cr, Collections.unmodifiableList(byRequirement.get(cr)));
+		}
+		int capacity = Integer.highestOneBit(Math.max(1, unique.size()) * 2 - 1) << 1;
+		positionKeys = new Course[capacity];
+		positionValues = new int[capacity];
+		for (int i = 0; i < unique.size(); i++) {
+			int slot = System.identityHashCode(unique.get(i)) & (capacity - 1);
+			while (positionKeys[slot] != null) {
+				slot = (slot + 1) & (capacity - 1);
+			}
+			positionKeys[slot] = unique.get(i);
+			positionValues[slot] = i;
+		}
+		courses = Collections.unmodifiableList(unique);
+		Map<String, Course> aliases = new LinkedHashMap<String, Course>();
+		for (Map.Entry<String, String> alias : aliasNames.entrySet()) {
+			if (byShortName.containsKey(alias.getKey())) {
+				throw new IllegalArgumentException("Alias " + alias.getKey()
+						+ " is the name of a course");
+			}
+			Course course = byShortName.get(alias.getValue());
+			if (course != null) {
+				aliases.put(alias.getKey(), course);
+			}
+		}
+		this.aliases = Collections.unmodifiableMap(aliases);
+		index = new CourseIndex(unique, aliases);
+		prerequisites = new int[unique.size()][];
+		for (int i = 0; i < unique.size(); i++) {
+			String[] names = unique.get(i).getPrerequisites();
+			if (names.length == 0) {
+				prerequisites[i] = NO_PREREQUISITE_INDEXES;
+				continue;
+			}
+			int[] resolved = new int[names.length];
+			int count = 0;
+			for (String name : names) {
+				int position = indexOf(byShortName.get(name));
+				if (position >= 0 && position != i) {
+					resolved[count++] = position;
+				}
+			}
+			prerequisites[i] = Arrays.copyOf(resolved, count);
+		}
+		checkAcyclic();
+		coursesMeetingRequirements = Collections.unmodifiableMap(byRequirement);
+		version = FNV_OFFSET_BASIS;
+		for (Course course : unique) {
+			version = hash(version, course.getShortName());
+			version = hash(version, course.getName());
+			version = (version ^ course.getCredits()) * FNV_PRIME;
+			version = (version ^ course.getRequirementsMask()) * FNV_PRIME;
+			version = (version ^ course.getTermsMask()) * FNV_PRIME;
+			for (String name : course.getPrerequisites()) {
+				version = hash(version, name);
+			}
+		}
+		for (Map.Entry<String, Course> alias : aliases.entrySet()) {
+			version = hash(version, alias.getKey());
+			version = hash(version, alias.getValue().getShortName());
+		}
+	}
+
+	/**
+	 * Checks that no course is, through its prerequisites, a
+	 * prerequisite of itself.
+	 *
+	 * @throws IllegalArgumentException if there is a cycle
+	 */
+	private void checkAcyclic() throws IllegalArgumentException
+	{
+		// 0: not visited, 1: on the current path, 2: done.
+		byte[] state = new byte[prerequisites.length];
+		int[] stack = new int[prerequisites.length];
+		int[] next = new int[prerequisites.length];
+		for (int root = 0; root < prerequisites.length; root++) {
+			if (state[root] != 0) {
+				continue;
+			}
+			int depth = 0;
+			stack[0] = root;
+			next[0] = 0;
+			state[root] = 1;
+			while (depth >= 0) {
+				int course = stack[depth];
+				if (next[depth] == prerequisites[course].length) {
+					state[course] = 2;
+					depth--;
+					continue;
+				}
+				int prerequisite = prerequisites[course][next[depth]++];
+				if (state[prerequisite] == 1) {
+					throw new IllegalArgumentException("Prerequisite cycle through "
+							+ courses.get(prerequisite).getShortName());
+				}
+				if (state[prerequisite] == 0) {
+					state[prerequisite] = 1;
+					stack[++depth] = prerequisite;
+					next[depth] = 0;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds the characters of a string to a 64-bit FNV-1a hash.
+	 *
+	 * @param hash the hash so far
+	 * @param s the string
+	 * @return the new hash
+	 */
+	private static long hash(long hash, String s)
+	{
+		for (int i = 0; i < s.length(); i++) {
+			hash = (hash ^ s.charAt(i)) * FNV_PRIME;
+		}
+		// Separate this string from the next.
+		return (hash ^ 0xFFFF) * FNV_PRIME;
+	}
+
+	/**
+	 * Gets the catalog most recently published.
+	 *
+	 * @return the current catalog
+	 * @throws IllegalStateException if no catalog has been published
+	 */
+	public static CourseCatalog getCurrent() throws IllegalStateException
+	{
+		CourseCatalog catalog = current;
+		if (catalog == null) {
+			throw new IllegalStateException("Courses have not been loaded");
+		}
+		return catalog;
+	}
+
+	/**
+	 * Makes the given catalog the current one. Readers that already
+	 * hold the previous catalog are unaffected.
+	 *
+	 * @param catalog the new catalog
+	 */
+	public static void publish(CourseCatalog catalog)
+	{
+		if (catalog == null) {
+			throw new NullPointerException("catalog");
+		}
+		current = catalog;
+	}
+
+	/**
+	 * Loads a catalog from the specified file. The catalog is not
+	 * published; see {@link #publish(CourseCatalog)}.
+	 * <p>
+	 * The file should consist of records in the following
+	 * format:
+	 * <pre>
+	 *     DEPARTMENT NUMBER
+	 *     NAME
+	 *     CREDITS
+	 *     REQUIREMENTS MET (comma-separated list)
+	 * </pre>
+	 * Here is a sample file:
+	 * <pre>
+	 *     CS 64
+	 *     Computer Concepts and Intermediate Programming
+	 *     4
+	 *     QL
+	 *     ARTH 18
+	 *     Introduction to Western Art
+	 *     3
+	 *     CA, CIE, IP
+	 * </pre>
+	 * All courses in the file must meet at least one requirement.
+	 * <p>
+	 * A record may be followed by any of these lines:
+	 * <pre>
+	 *     PREREQUISITES: CS 63, MATH 1
+	 *     TERMS: FALL, SPRING
+	 *     ALIASES: CS 164, MATH 64
+	 * </pre>
+	 * Prerequisites are short names of other courses in the file, which
+	 * may come before or after the record; names not in the catalog are
+	 * ignored. Terms are names of {@link Term}s. A course with no TERMS
+	 * line is offered every term. Aliases are other codes that stand for
+	 * the course, such as cross-listings and retired codes, and are
+	 * resolved by {@link #getCourse(String)}; an alias may not be the
+	 * short name of a course or another course's alias.
+	 * <p>
+	 * The file is read as UTF-8 by a {@link CatalogParser}, which
+	 * parses each field in place in its byte buffer. If a record is
+	 * malformed, an exception naming the offending line is thrown.
+	 * 
+	 * @param filename the name of the file with course information
+	 * @return the catalog
+	 * @throws FileNotFoundException if the file cannot be found
+	 * @throws IllegalArgumentException if the file is not in the
+	 *     proper format
+	 * @throws UncheckedIOException if the file cannot be read
+	 */
+	public static CourseCatalog load(String filename) throws FileNotFoundException
+	{
+		long start = Metrics.start();
+		List<Course> courseList = new ArrayList<Course>();
+		Map<String, String> aliases = new LinkedHashMap<String, String>();
+
+		CatalogParser parser = new CatalogParser(filename);
+		try {
+			Course course;
+			while ((course = parser.readCourse(aliases)) != null) {
+				courseList.add(course);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(filename + " line " + parser.getLineNumber() + ": "
+					+ e.getMessage(), e);
+		} finally {
+			try {
+				parser.close();
+			} catch (IOException e) {
+				System.err.println(e.toString());
+			}
+		}
+
+		CourseCatalog catalog = new CourseCatalog(courseList, aliases);
+		Metrics.CATALOG_LOAD.stop(start);
+		return catalog;
+	}
+
+	/**
+	 * Starts a daemon thread that reloads and publishes the catalog
+	 * whenever the given file is created or modified. If a reload
+	 * fails, the error is reported and the current catalog stays in
+	 * place.
+	 *
+	 * @param filename the name of the catalog file to watch
+	 * @return the watching thread, which stops when interrupted
+	 * @throws IOException if the file's directory cannot be watched
+	 */
+	public static Thread watch(final String filename) throws IOException
+	{
+		final Path file = new File(filename).getAbsoluteFile().toPath();
+		final WatchService watcher = FileSystems.getDefault().newWatchService();
+		file.getParent().register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+				StandardWatchEventKinds.ENTRY_MODIFY);
+
+		Thread thread = new Thread("Course catalog watcher") {
+			@Override
+			public void run()
+			{
+				try {
+					while (!isInterrupted()) {
+						WatchKey key = watcher.take();
+						boolean changed = false;
+						for (WatchEvent<?> event : key.pollEvents()) {
+							if (file.getFileName().equals(event.context())) {
+								changed = true;
+							}
+						}
+						key.reset();
+						if (changed) {
+							// Let the writer finish before reading.
+							Thread.sleep(RELOAD_DELAY_MILLIS);
+							reload(filename);
+						}
+					}
+				} catch (InterruptedException e) {
+					// Asked to stop.
+				} catch (ClosedWatchServiceException e) {
+					// Asked to stop.
+				} finally {
+					try {
+						watcher.close();
+					} catch (IOException e) {
+						System.err.println(e.toString());
+					}
+				}
+			}
+		};
+		thread.setDaemon(true);
+		thread.start();
+		return thread;
+	}
+
+	/**
+	 * Loads and publishes the catalog, reporting rather than
+	 * propagating any failure.
+	 *
+	 * @param filename the name of the catalog file
+	 */
+	private static void reload(String filename)
+	{
+		try {
+			CourseCatalog catalog = load(filename);
+			// Build the search index before readers can see the catalog.
+			catalog.getSearch();
+			publish(catalog);
+		} catch (FileNotFoundException e) {
+			System.err.println("Unable to reload " + filename + ": " + e);
+		} catch (RuntimeException e) {
+			System.err.println("Unable to reload " + filename + ": " + e);
+		}
+	}
+
+	/**
+	 * Gets a course in this catalog.
+	 *
+	 * @param shortName the short name of the course, as would be
+	 *     returned by {@link Course#getShortName()}, or an alias of it
+	 * @return the course, or null if it cannot be found
+	 */
+	public Course getCourse(String shortName) {
+		Course course = index.get(shortName);
+		Metrics.COURSE_LOOKUPS.increment();
+		if (course == null) {
+			Metrics.COURSE_LOOKUP_MISSES.increment();
+		}
+		return course;
+	}
+
+	/**
+	 * Gets a course in this catalog.
+	 *
+	 * @param department the department of the course
+	 * @param number the number of the course
+	 * @return the course, or null if it cannot be found
+	 */
+	public Course getCourse(String department, int number) {
+		return index.get(department, number);
+	}
+
+	/**
+	 * Gets the courses in this catalog that meet a core requirement.
+	 *
+	 * @param cr the core requirement
+	 * @return the courses meeting the requirement, in catalog order
+	 */
+	public List<Course> getCoursesMeetingRequirements(CoreRequirement cr) {
+		return coursesMeetingRequirements.get(cr);
+	}
+
+	/**
+	 * Gets the lists of courses meeting each core requirement.
+	 *
+	 * @return the courses that meet each core requirement
+	 */
+	public Map<CoreRequirement, List<Course>> getCoursesMeetingRequirements() {
+		return coursesMeetingRequirements;
+	}
+
+	/**
+	 * Gets all courses in this catalog.
+	 *
+	 * @return the courses, in catalog order
+	 */
+	public List<Course> getCourses() {
+		return courses;
+	}
+
+	/**
+	 * Gets the other names by which courses in this catalog can be
+	 * looked up, such as cross-listings and retired codes.
+	 *
+	 * @return the courses, by alias
+	 */
+	public Map<String, Course> getAliases() {
+		return aliases;
+	}
+
+	/**
+	 * Gets a course by its position in this catalog.
+	 *
+	 * @param index the position, from 0 to {@link #size()} - 1
+	 * @return the course
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 */
+	public Course getCourse(int index) {
+		return courses.get(index);
+	}
+
+	/**
+	 * Gets the position of a course in this catalog. Positions are
+	 * dense, so they can be used as compact course ids.
+	 *
+	 * @param course the course
+	 * @return the position, or -1 if the course is not in this catalog
+	 */
+	public int indexOf(Course course) {
+		if (course == null) {
+			return -1;
+		}
+		int mask = positionKeys.length - 1;
+		int slot = System.identityHashCode(course) & mask;
+		Course key;
+		while ((key = positionKeys[slot]) != null) {
+			if (key == course) {
+				return positionValues[slot];
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * Gets a hash of the contents of this catalog. Catalogs with the
+	 * same courses, in the same order, have the same version wherever
+	 * they were loaded from.
+	 *
+	 * @return the version
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Gets the courses that must be taken before a course.
+	 *
+	 * @param course a course in this catalog
+	 * @return the prerequisites that are in this catalog, or an empty
+	 *     list if the course is not in this catalog
+	 */
+	public List<Course> getPrerequisites(Course course) {
+		int position = indexOf(course);
+		if (position < 0) {
+			return Collections.emptyList();
+		}
+		List<Course> result = new ArrayList<Course>(prerequisites[position].length);
+		for (int prerequisite : prerequisites[position]) {
+			result.add(courses.get(prerequisite));
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the catalog positions of the courses that must be taken
+	 * before the course at a position. The array must not be modified.
+	 *
+	 * @param position the position of a course
+	 * @return the positions of its prerequisites
+	 */
+	int[] getPrerequisiteIndexes(int position) {
+		return prerequisites[position];
+	}
+
+	/**
+	 * Gets the search index of this catalog, building it on first use.
+	 * Catalogs reloaded by {@link #watch(String)} have their index built
+	 * before they are published.
+	 *
+	 * @return the search index
+	 */
+	public CourseSearch getSearch() {
+		CourseSearch result = search;
+		if (result == null) {
+			synchronized (this) {
+				result = search;
+				if (result == null) {
+					result = new CourseSearch(this);
+					search = result;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the number of courses in this catalog.
+	 *
+	 * @return the number of courses
+	 */
+	public int size() {
+		return courses.size();
+	}
+
+	/**
+	 * Gets the cache of recommendations computed against this catalog.
+	 *
+	 * @return the recommendation cache
+	 */
+	Map<Recommendation.Profile, Recommendation> getRecommendationCache() {
+		return recommendationCache;
+	}
+}
@@ -0,0 +1,193 @@
+package edu.mills.cs64.final_project;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * A lookup table from course short names to courses that does not
+ * allocate on lookup. Each short name is packed into a single long,
+ * holding up to {@value #MAX_DEPARTMENT_LENGTH} ASCII characters of
+ * department and the course number, and the longs are kept in an
+ * open-addressing table. Courses whose names do not fit are kept in
+ * an ordinary map instead. Other names for courses, such as
+ * cross-listings and retired codes, are indexed the same way.
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+class CourseIndex
+{
+	static final int MAX_DEPARTMENT_LENGTH = 5;
+	private static final int CHAR_BITS = 7;
+	private static final int NUMBER_BITS = 28;
+	private static final long NO_KEY = 0;
+
+	private long[] keys;
+	private Course[] values;
+	private int mask;
+	private Map<String, Course> unpacked = new HashMap<String, Course>();
+
+	/**
+	 * Constructs an index of the given courses, which must have
+	 * distinct short names.
+	 *
+	 * @param courses the courses
+	 */
+	CourseIndex(List<Course> courses)
+	{
+		this(courses, Collections.<String, Course>emptyMap());
+	}
+
+	/**
+	 * Constructs an index of the given courses, which must have
+	 * distinct short names, and of other names for them. No alias may
+	 * be the short name of a course.
+	 *
+	 * @param courses the courses
+	 * @param aliases the courses by other names
+	 */
+	CourseIndex(List<Course> courses, Map<String, Course> aliases)
+	{
+		int entries = courses.size() + aliases.size();
+		int capacity = Integer.highestOneBit(Math.max(4, entries * 2) - 1) << 1;
+		keys = new long[capacity];
+		values = new Course[capacity];
+		mask = capacity - 1;
+		for (Course course : courses) {
+			long key = pack(course.getDepartment(), 0, course.getDepartment().length(),
+					course.getNumber());
+			if (key == NO_KEY) {
+				unpacked.put(course.getShortName(), course);
+			} else {
+				int slot = find(key);
+				keys[slot] = key;
+				values[slot] = course;
+			}
+		}
+		for (Map.Entry<String, Course> alias : aliases.entrySet()) {
+			long key = key(alias.getKey());
+			if (key == NO_KEY) {
+				unpacked.put(alias.getKey(), alias.getValue());
+			} else {
+				int slot = find(key);
+				keys[slot] = key;
+				values[slot] = alias.getValue();
+			}
+		}
+	}
+
+	/**
+	 * Looks up a course by short name.
+	 *
+	 * @param shortName the short name, as would be returned by
+	 *     {@link Course#getShortName()}
+	 * @return the course, or null if it is not in the index
+	 */
+	Course get(String shortName)
+	{
+		long key = key(shortName);
+		if (key != NO_KEY) {
+			return values[find(key)];
+		}
+		return unpacked.get(shortName);
+	}
+
+	/**
+	 * Packs a short name into a key.
+	 *
+	 * @param shortName the short name
+	 * @return the key, or {@link #NO_KEY} if the name is not a
+	 *     department and number that fit
+	 */
+	private static long key(String shortName)
+	{
+		int space = shortName.lastIndexOf(' ');
+		int digits = shortName.length() - space - 1;
+		// Numbers are written without leading zeros, so "CS 064" is
+		// not "CS 64".
+		if (space <= 0 || digits <= 0 || digits > 9
+				|| (shortName.charAt(space + 1) == '0' && digits > 1)) {
+			return NO_KEY;
+		}
+		int number = 0;
+		for (int i = space + 1; i < shortName.length(); i++) {
+			char c = shortName.charAt(i);
+			if (c < '0' || c > '9') {
+				return NO_KEY;
+			}
+			number = number * 10 + (c - '0');
+		}
+		return pack(shortName, 0, space, number);
+	}
+
+	/**
+	 * Looks up a course by department and number.
+	 *
+	 * @param department the department
+	 * @param number the number
+	 * @return the course, or null if it is not in the index
+	 */
+	Course get(String department, int number)
+	{
+		long key = pack(department, 0, department.length(), number);
+		if (key != NO_KEY) {
+			return values[find(key)];
+		}
+		return unpacked.get(department + " " + number);
+	}
+
+	/**
+	 * Finds the slot holding a key, or the empty slot where it would go.
+	 *
+	 * @param key the key
+	 * @return the slot
+	 */
+	private int find(long key)
+	{
+		int slot = mix(key) & mask;
+		while (keys[slot] != NO_KEY && keys[slot] != key) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Spreads the bits of a key for use as a table index.
+	 *
+	 * @param key the key
+	 * @return the hash
+	 */
+	private static int mix(long key)
+	{
+		key *= 0x9E3779B97F4A7C15L;
+		return (int) (key ^ (key >>> 32));
+	}
+
+	/**
+	 * Packs a department and number into a key.
+	 *
+	 * @param s a string holding the department
+	 * @param start the index of the department within the string
+	 * @param end the index after the department
+	 * @param number the course number
+	 * @return the key, or {@link #NO_KEY} if they do not fit
+	 */
+	private static long pack(String s, int start, int end, int number)
+	{
+		if (end <= start || end - start > MAX_DEPARTMENT_LENGTH
+				|| number < 0 || number >= 1 << NUMBER_BITS) {
+			return NO_KEY;
+		}
+		long key = 0;
+		for (int i = start; i < end; i++) {
+			char c = s.charAt(i);
+			if (c == 0 || c >= 1 << CHAR_BITS) {
+				return NO_KEY;
+			}
+			key = (key << CHAR_BITS) | c;
+		}
+		return (key << NUMBER_BITS) | number;
+	}
+}
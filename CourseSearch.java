@@ -0,0 +1,498 @@
+package edu.mills.cs64.final_project;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+
+/**
+ * A full-text index over the courses of one catalog, with faceted
+ * filtering by core requirement, department and credits.
+ * <p>
+ * Course names, departments and numbers are split into lower-case
+ * tokens of letters and digits. Each query token matches every indexed
+ * token it is a prefix of, so "art" finds "Art History" and "Artistic
+ * Practice". A token of at least {@value #MIN_TYPO_LENGTH} letters that
+ * matches nothing is retried allowing one typo (a wrong, missing, extra
+ * or swapped letter). A course matches a query if it matches every
+ * token.
+ * <p>
+ * Matches and facets are bitsets over catalog positions, one bit per
+ * course, so filtering is a word-by-word AND and a facet count is the
+ * number of bits in an AND. The index is built once per catalog
+ * snapshot; see {@link CourseCatalog#getSearch()}.
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+public class CourseSearch
+{
+	private static final int MIN_TYPO_LENGTH = 4;
+
+	private CourseCatalog catalog;
+	private int words;
+	// The indexed tokens, sorted, and the catalog positions of the
+	// courses containing each one, in ascending order.
+	private String[] tokens;
+	private int[][] postings;
+	// The positions in tokens of those tokens containing a letter, which
+	// are the only ones matched with typos.
+	private int[] wordTokens;
+	private long[][] requirementBits;
+	private Map<String, long[]> departmentBits = new TreeMap<String, long[]>();
+	private Map<Integer, long[]> creditBits = new TreeMap<Integer, long[]>();
+
+	/**
+	 * Builds the index of a catalog.
+	 *
+	 * @param catalog the catalog
+	 */
+	CourseSearch(CourseCatalog catalog)
+	{
+		this.catalog = catalog;
+		int n = catalog.size();
+		words = (n + 63) >>> 6;
+		Map<String, int[]> counts = new HashMap<String, int[]>();
+		List<String[]> courseTokens = new ArrayList<String[]>(n);
+		requirementBits = new long[CoreRequirement.values().length][words];
+		for (int i = 0; i < n; i++) {
+			Course course = catalog.getCourse(i);
+			List<String> list = tokenize(course.getName());
+			list.addAll(tokenize(course.getShortName()));
+			// Count each token once per course. Names are short, so a
+			// linear check for repeats is cheapest.
+			for (int j = list.size() - 1; j > 0; j--) {
+				if (list.subList(0, j).contains(list.get(j))) {
+					list.remove(j);
+				}
+			}
+			String[] unique = list.toArray(new String[list.size()]);
+			courseTokens.add(unique);
+			for (String token : unique) {
+				int[] count = counts.get(token);
+				if (count == null) {
+					counts.put(token, new int[] { 1 });
+				} else {
+					count[0]++;
+				}
+			}
+			int mask = course.getRequirementsMask();
+			for (CoreRequirement cr : CoreRequirement.values()) {
+				if ((mask & cr.getMask()) != 0) {
+					set(requirementBits[cr.ordinal()], i);
+				}
+			}
+			set(bits(departmentBits, course.getDepartment()), i);
+			set(bits(creditBits, course.getCredits()), i);
+		}
+
+		tokens = counts.keySet().toArray(new String[counts.size()]);
+		Arrays.sort(tokens);
+		postings = new int[tokens.length][];
+		Map<String, Integer> tokenIndexes = new HashMap<String, Integer>(tokens.length * 2);
+		int[] wordTokens = new int[tokens.length];
+		int wordCount = 0;
+		for (int t = 0; t < tokens.length; t++) {
+			postings[t] = new int[counts.get(tokens[t])[0]];
+			tokenIndexes.put(tokens[t], t);
+			if (hasLetter(tokens[t])) {
+				wordTokens[wordCount++] = t;
+			}
+		}
+		this.wordTokens = Arrays.copyOf(wordTokens, wordCount);
+		int[] filled = new int[tokens.length];
+		for (int i = 0; i < n; i++) {
+			for (String token : courseTokens.get(i)) {
+				int t = tokenIndexes.get(token);
+				postings[t][filled[t]++] = i;
+			}
+		}
+	}
+
+	/**
+	 * Gets the bitset for a facet value, adding an empty one if needed.
+	 */
+	private <K> long[] bits(Map<K, long[]> facet, K key)
+	{
+		long[] bits = facet.get(key);
+		if (bits == null) {
+			bits = new long[words];
+			facet.put(key, bits);
+		}
+		return bits;
+	}
+
+	/**
+	 * Searches for courses.
+	 *
+	 * @param text the words to search for; if empty, every course
+	 *     matches
+	 * @param requirementsMask a mask of the requirements a course must
+	 *     all meet, as returned by {@link CoreRequirement#getMask()}, or
+	 *     0 for any
+	 * @param department the department a course must be in, ignoring
+	 *     case, or null for any
+	 * @param credits the credits a course must have, or 0 for any
+	 * @param limit the most courses to return
+	 * @return the matching courses and the facet counts
+	 */
+	public Result search(String text, int requirementsMask, String department, int credits,
+			int limit)
+	{
+		long start = Metrics.start();
+		long[] matches = new long[words];
+		Arrays.fill(matches, -1L);
+		int n = catalog.size();
+		if ((n & 63) != 0) {
+			matches[words - 1] = (1L << n) - 1;
+		}
+		boolean corrected = false;
+		long[] scratch = new long[words];
+		for (String token : tokenize(text)) {
+			Arrays.fill(scratch, 0);
+			if (!matchPrefix(token, scratch)) {
+				corrected |= matchTypo(token, scratch);
+			}
+			and(matches, scratch);
+		}
+		// Each facet is filtered separately so that it can be counted
+		// against the matches of the other filters alone.
+		long[] requirementFilter = null;
+		for (CoreRequirement cr : CoreRequirement.values()) {
+			if ((requirementsMask & cr.getMask()) != 0) {
+				if (requirementFilter == null) {
+					requirementFilter = requirementBits[cr.ordinal()].clone();
+				} else {
+					and(requirementFilter, requirementBits[cr.ordinal()]);
+				}
+			}
+		}
+		long[] departmentFilter = department == null ? null
+				: facet(departmentBits, department.toUpperCase(Locale.ROOT));
+		long[] creditFilter = credits == 0 ? null : facet(creditBits, credits);
+		Result result = new Result(matches, requirementFilter, departmentFilter, creditFilter,
+				corrected, limit);
+		Metrics.COURSE_SEARCH.stop(start);
+		return result;
+	}
+
+	/**
+	 * Gets the bitset for a facet value.
+	 *
+	 * @return the bitset, or one with no bits set if no course has the
+	 *     value
+	 */
+	private <K> long[] facet(Map<K, long[]> facet, K key)
+	{
+		long[] bits = facet.get(key);
+		return bits == null ? new long[words] : bits;
+	}
+
+	/**
+	 * Sets the bits of the courses with a token that starts with a
+	 * query token.
+	 *
+	 * @param token the query token
+	 * @param bits the bitset to add to
+	 * @return true if any indexed token matched
+	 */
+	private boolean matchPrefix(String token, long[] bits)
+	{
+		int t = Arrays.binarySearch(tokens, token);
+		if (t < 0) {
+			t = -t - 1;
+		}
+		boolean found = false;
+		for (; t < tokens.length && tokens[t].startsWith(token); t++) {
+			add(postings[t], bits);
+			found = true;
+		}
+		return found;
+	}
+
+	/**
+	 * Sets the bits of the courses with a token that starts with a
+	 * query token, allowing one typo.
+	 *
+	 * @param token the query token
+	 * @param bits the bitset to add to
+	 * @return true if any indexed token matched
+	 */
+	private boolean matchTypo(String token, long[] bits)
+	{
+		if (token.length() < MIN_TYPO_LENGTH || !hasLetter(token)) {
+			return false;
+		}
+		boolean found = false;
+		for (int t : wordTokens) {
+			if (isNearPrefix(token, tokens[t])) {
+				add(postings[t], bits);
+				found = true;
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Checks whether a query is within one edit of a prefix of a
+	 * token. An edit is a substitution, an insertion, a deletion or a
+	 * swap of adjacent characters.
+	 *
+	 * @param query the query token
+	 * @param token the indexed token
+	 * @return true if some prefix of the token is at most one edit
+	 *     from the query
+	 */
+	static boolean isNearPrefix(String query, String token)
+	{
+		int n = query.length();
+		int i = 0;
+		while (i < n && i < token.length() && query.charAt(i) == token.charAt(i)) {
+			i++;
+		}
+		if (i == n) {
+			return true;
+		}
+		return matchesAt(query, i + 1, token, i + 1)     // substitution
+				|| matchesAt(query, i + 1, token, i)     // extra character
+				|| matchesAt(query, i, token, i + 1)     // missing character
+				|| (i + 1 < n && i + 1 < token.length()  // swap
+						&& query.charAt(i) == token.charAt(i + 1)
+						&& query.charAt(i + 1) == token.charAt(i)
+						&& matchesAt(query, i + 2, token, i + 2));
+	}
+
+	/**
+	 * Checks whether the rest of a query from one index appears in a
+	 * token from another.
+	 */
+	private static boolean matchesAt(String query, int q, String token, int t)
+	{
+		int length = query.length() - q;
+		return t + length <= token.length() && query.regionMatches(q, token, t, length);
+	}
+
+	/**
+	 * Splits text into lower-case tokens of letters and digits.
+	 *
+	 * @param text the text
+	 * @return the tokens
+	 */
+	static List<String> tokenize(String text)
+	{
+		text = text.toLowerCase(Locale.ROOT);
+		List<String> tokens = new ArrayList<String>();
+		int start = -1;
+		for (int i = 0; i <= text.length(); i++) {
+			boolean inToken = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+			if (inToken && start < 0) {
+				start = i;
+			} else if (!inToken && start >= 0) {
+				tokens.add(text.substring(start, i));
+				start = -1;
+			}
+		}
+		return tokens;
+	}
+
+	private static boolean hasLetter(String token)
+	{
+		for (int i = 0; i < token.length(); i++) {
+			if (Character.isLetter(token.charAt(i))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static void set(long[] bits, int position)
+	{
+		bits[position >>> 6] |= 1L << position;
+	}
+
+	private static void add(int[] positions, long[] bits)
+	{
+		for (int position : positions) {
+			bits[position >>> 6] |= 1L << position;
+		}
+	}
+
+	private static void and(long[] bits, long[] other)
+	{
+		for (int i = 0; i < bits.length; i++) {
+			bits[i] &= other[i];
+		}
+	}
+
+	/**
+	 * Gets the text matches restricted by some facet filters.
+	 *
+	 * @param matches the courses matching the text
+	 * @param filters the filters, any of which may be null for none
+	 * @return a new bitset
+	 */
+	private static long[] filter(long[] matches, long[]... filters)
+	{
+		long[] bits = matches.clone();
+		for (long[] filter : filters) {
+			if (filter != null) {
+				and(bits, filter);
+			}
+		}
+		return bits;
+	}
+
+	private static int andCardinality(long[] bits, long[] other)
+	{
+		int count = 0;
+		for (int i = 0; i < bits.length; i++) {
+			count += Long.bitCount(bits[i] & other[i]);
+		}
+		return count;
+	}
+
+	/**
+	 * The courses matching a search, with the number of them having
+	 * each requirement, department and number of credits. Each facet is
+	 * counted with every filter but its own, so that a search filtered
+	 * by one department still counts the courses in the others.
+	 */
+	public class Result
+	{
+		private int total;
+		private boolean corrected;
+		private List<Course> courses;
+		private Map<CoreRequirement, Integer> requirementCounts =
+				new EnumMap<CoreRequirement, Integer>(CoreRequirement.class);
+		private Map<String, Integer> departmentCounts = new TreeMap<String, Integer>();
+		private Map<Integer, Integer> creditCounts = new TreeMap<Integer, Integer>();
+
+		private Result(long[] textMatches, long[] requirementFilter, long[] departmentFilter,
+				long[] creditFilter, boolean corrected, int limit)
+		{
+			this.corrected = corrected;
+			long[] matches = filter(textMatches, requirementFilter, departmentFilter, creditFilter);
+			List<Course> courses = new ArrayList<Course>(Math.max(0, Math.min(limit, 64)));
+			for (int w = 0; w < matches.length; w++) {
+				long word = matches[w];
+				total += Long.bitCount(word);
+				while (word != 0 && courses.size() < limit) {
+					courses.add(catalog.getCourse((w << 6) + Long.numberOfTrailingZeros(word)));
+					word &= word - 1;
+				}
+			}
+			this.courses = Collections.unmodifiableList(courses);
+			long[] base = requirementFilter == null ? matches
+					: filter(textMatches, departmentFilter, creditFilter);
+			for (CoreRequirement cr : CoreRequirement.values()) {
+				int count = andCardinality(base, requirementBits[cr.ordinal()]);
+				if (count > 0) {
+					requirementCounts.put(cr, count);
+				}
+			}
+			base = departmentFilter == null ? matches
+					: filter(textMatches, requirementFilter, creditFilter);
+			for (Map.Entry<String, long[]> entry : departmentBits.entrySet()) {
+				int count = andCardinality(base, entry.getValue());
+				if (count > 0) {
+					departmentCounts.put(entry.getKey(), count);
+				}
+			}
+			base = creditFilter == null ? matches
+					: filter(textMatches, requirementFilter, departmentFilter);
+			for (Map.Entry<Integer, long[]> entry : creditBits.entrySet()) {
+				int count = andCardinality(base, entry.getValue());
+				if (count > 0) {
+					creditCounts.put(entry.getKey(), count);
+				}
+			}
+		}
+
+		/**
+		 * Gets the matching courses, in catalog order, up to the limit
+		 * of the search.
+		 *
+		 * @return the courses
+		 */
+		public List<Course> getCourses() {
+			return courses;
+		}
+
+		/**
+		 * Gets the number of matching courses, which may be more than
+		 * were returned.
+		 *
+		 * @return the number of matches
+		 */
+		public int getTotal() {
+			return total;
+		}
+
+		/**
+		 * Checks whether a query token matched only by allowing a typo.
+		 *
+		 * @return true if the search was corrected, false otherwise
+		 */
+		public boolean isCorrected() {
+			return corrected;
+		}
+
+		/**
+		 * Gets the number of matching courses meeting each requirement,
+		 * ignoring the requirements filter. Requirements met by no match
+		 * are left out.
+		 *
+		 * @return the counts
+		 */
+		public Map<CoreRequirement, Integer> getRequirementCounts() {
+			return Collections.unmodifiableMap(requirementCounts);
+		}
+
+		/**
+		 * Gets the number of matching courses in each department,
+		 * ignoring the department filter. Departments with no match are
+		 * left out.
+		 *
+		 * @return the counts, by department
+		 */
+		public Map<String, Integer> getDepartmentCounts() {
+			return Collections.unmodifiableMap(departmentCounts);
+		}
+
+		/**
+		 * Gets the number of matching courses with each number of
+		 * credits, ignoring the credits filter. Credit values with no
+		 * match are left out.
+		 *
+		 * @return the counts, by credits
+		 */
+		public Map<Integer, Integer> getCreditCounts() {
+			return Collections.unmodifiableMap(creditCounts);
+		}
+
+		/**
+		 * Overrides the toString method.
+		 *
+		 * @return the number of matches and the courses returned
+		 */
+		@Override
+		public String toString()
+		{
+			StringBuilder builder = new StringBuilder();
+			builder.append(total).append(total == 1 ? " course" : " courses");
+			if (corrected) {
+				builder.append(" (allowing a typo)");
+			}
+			for (Course course : courses) {
+				builder.append("\n").append(course.getShortName()).append(": ")
+					.append(course.getName());
+			}
+			return builder.toString();
+		}
+	}
+}
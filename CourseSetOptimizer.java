@@ -0,0 +1,418 @@
+package edu.mills.cs64.final_project;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * Finds the sets of courses with the fewest total credits that would
+ * make up every remaining credit deficit on a transcript. Unlike
+ * {@link Transcript#recommendCourses()}, which lists the courses for
+ * each requirement separately, this takes into account that one course
+ * may count toward several requirements at once.
+ * <p>
+ * The search is a branch-and-bound over the courses in the catalog.
+ * It stops when the time budget runs out and returns the best sets
+ * found so far; {@link Result#isComplete()} tells whether they are
+ * known to be optimal.
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+public class CourseSetOptimizer
+{
+	private static final int NODES_PER_CLOCK_CHECK = 1024;
+	private static final int REQUIREMENTS = CoreRequirement.values().length;
+
+	private int maxResults;
+	private long timeBudgetMillis;
+
+	/**
+	 * Constructs an optimizer.
+	 *
+	 * @param maxResults the number of course sets to return
+	 * @param timeBudgetMillis how long the search may run, in milliseconds
+	 * @throws IllegalArgumentException if maxResults is not positive or
+	 *     the time budget is negative
+	 */
+	public CourseSetOptimizer(int maxResults, long timeBudgetMillis)
+			throws IllegalArgumentException
+	{
+		if (maxResults <= 0 || timeBudgetMillis < 0) {
+			throw new IllegalArgumentException("Invalid optimizer settings: "
+					+ maxResults + " results, " + timeBudgetMillis + " ms");
+		}
+		this.maxResults = maxResults;
+		this.timeBudgetMillis = timeBudgetMillis;
+	}
+
+	/**
+	 * Finds the cheapest course sets that satisfy every requirement
+	 * the transcript has not yet met. Courses already on the transcript
+	 * are never included.
+	 *
+	 * @param transcript the transcript
+	 * @return the course sets found, cheapest first
+	 */
+	public Result optimize(Transcript transcript)
+	{
+		int[] deficits = new int[REQUIREMENTS];
+		for (CoreRequirement cr : CoreRequirement.values()) {
+			deficits[cr.ordinal()] = Math.max(0, cr.getCredits() - transcript.getCreditsMet(cr));
+		}
+		Set<Course> taken = new LinkedHashSet<Course>();
+		for (GradeRecord gr : transcript.getGradeRecords()) {
+			taken.add(gr.getCourse());
+		}
+		return new Search(deficits, candidates(transcript.getCatalog(), deficits, taken)).run();
+	}
+
+	/**
+	 * Collects the courses worth considering. Courses that meet exactly
+	 * the same unmet requirements for the same credits are
+	 * interchangeable, so only as many of each kind are kept as could
+	 * appear in the returned sets. Courses with prerequisites are kept
+	 * apart from those without, and are tried after them, so that the
+	 * sets found first are the quickest to take.
+	 *
+	 * @param catalog the catalog to choose from
+	 * @param deficits the credits still needed for each requirement
+	 * @param taken the courses already taken
+	 * @return the candidate courses, most useful per credit first
+	 */
+	private List<Course> candidates(CourseCatalog catalog, final int[] deficits,
+			Set<Course> taken)
+	{
+		int unmetMask = 0;
+		for (CoreRequirement cr : CoreRequirement.values()) {
+			if (deficits[cr.ordinal()] > 0) {
+				unmetMask |= cr.getMask();
+			}
+		}
+
+		Map<Long, Integer> kinds = new HashMap<Long, Integer>();
+		List<Course> candidates = new ArrayList<Course>();
+		Set<Course> seen = new LinkedHashSet<Course>();
+		for (CoreRequirement cr : CoreRequirement.fromMask(unmetMask)) {
+			for (Course c : catalog.getCoursesMeetingRequirements(cr)) {
+				if (taken.contains(c) || !seen.add(c) || c.getCredits() <= 0) {
+					continue;
+				}
+				int mask = c.getRequirementsMask() & unmetMask;
+				int copiesUseful = 0;
+				for (CoreRequirement met : CoreRequirement.fromMask(mask)) {
+					int copies = (deficits[met.ordinal()] + c.getCredits() - 1) / c.getCredits();
+					copiesUseful = Math.max(copiesUseful, copies);
+				}
+				long hasPrerequisites = c.getPrerequisites().length == 0 ? 0 : 1;
+				Long kind = ((long) mask << 32) | ((long) c.getCredits() << 1) | hasPrerequisites;
+				Integer count = kinds.get(kind);
+				int kept = count == null ? 0 : count;
+				if (kept < copiesUseful + maxResults - 1) {
+					kinds.put(kind, kept + 1);
+					candidates.add(c);
+				}
+			}
+		}
+
+		Collections.sort(candidates, new Comparator<Course>() {
+			@Override
+			public int compare(Course c1, Course c2) {
+				double u1 = usefulCredits(c1, deficits) / (double) c1.getCredits();
+				double u2 = usefulCredits(c2, deficits) / (double) c2.getCredits();
+				if (u1 != u2) {
+					return u1 > u2 ? -1 : 1;
+				}
+				if (c1.getPrerequisites().length != c2.getPrerequisites().length) {
+					return c1.getPrerequisites().length - c2.getPrerequisites().length;
+				}
+				return c1.getCredits() - c2.getCredits();
+			}
+		});
+		return candidates;
+	}
+
+	/**
+	 * Counts how many needed credits a course would contribute.
+	 *
+	 * @param course the course
+	 * @param deficits the credits still needed for each requirement
+	 * @return the total reduction in deficits
+	 */
+	private static int usefulCredits(Course course, int[] deficits)
+	{
+		int useful = 0;
+		for (CoreRequirement cr : course.getRequirementsMet()) {
+			useful += Math.min(course.getCredits(), deficits[cr.ordinal()]);
+		}
+		return useful;
+	}
+
+	/**
+	 * The state of a single optimization run. Each level of the search
+	 * picks the unmet requirement with the fewest remaining candidates
+	 * and branches on which of those candidates to take. A candidate
+	 * that has been tried at a level is excluded from its later
+	 * siblings, so every course set is visited at most once.
+	 */
+	private class Search
+	{
+		private int[] deficits;
+		private Course[] candidates;
+		// byRequirement[r] lists the indexes of candidates meeting r.
+		private int[][] byRequirement;
+		private boolean[] excluded;
+		// available[r] and count[r] are the credits toward r and the
+		// number of candidates meeting r that are not yet excluded.
+		private int[] available = new int[REQUIREMENTS];
+		private int[] count = new int[REQUIREMENTS];
+		// The most unmet requirements that any one candidate meets.
+		private int maxMet = 1;
+		private List<Course> chosen = new ArrayList<Course>();
+		private List<CourseSet> best = new ArrayList<CourseSet>();
+		private long deadline;
+		private long nodes;
+		private boolean timedOut;
+
+		private Search(int[] deficits, List<Course> candidates)
+		{
+			this.deficits = deficits;
+			this.candidates = candidates.toArray(new Course[candidates.size()]);
+			excluded = new boolean[this.candidates.length];
+			for (Course c : this.candidates) {
+				maxMet = Math.max(maxMet, c.getRequirementsMet().length);
+				for (CoreRequirement cr : c.getRequirementsMet()) {
+					available[cr.ordinal()] += c.getCredits();
+					count[cr.ordinal()]++;
+				}
+			}
+			byRequirement = new int[REQUIREMENTS][];
+			for (int r = 0; r < REQUIREMENTS; r++) {
+				byRequirement[r] = new int[count[r]];
+			}
+			int[] filled = new int[REQUIREMENTS];
+			for (int i = 0; i < this.candidates.length; i++) {
+				for (CoreRequirement cr : this.candidates[i].getRequirementsMet()) {
+					byRequirement[cr.ordinal()][filled[cr.ordinal()]++] = i;
+				}
+			}
+		}
+
+		private Result run()
+		{
+			deadline = System.nanoTime() + timeBudgetMillis * 1000000L;
+			search(0);
+			return new Result(best, !timedOut);
+		}
+
+		private void search(int credits)
+		{
+			if (timedOut) {
+				return;
+			}
+			if (++nodes % NODES_PER_CLOCK_CHECK == 0 && System.nanoTime() > deadline) {
+				timedOut = true;
+				return;
+			}
+
+			int largestDeficit = 0;
+			int totalDeficit = 0;
+			int branchOn = -1;
+			for (int r = 0; r < REQUIREMENTS; r++) {
+				if (deficits[r] == 0) {
+					continue;
+				}
+				if (deficits[r] > available[r]) {
+					return;
+				}
+				largestDeficit = Math.max(largestDeficit, deficits[r]);
+				totalDeficit += deficits[r];
+				if (branchOn < 0 || count[r] < count[branchOn]) {
+					branchOn = r;
+				}
+			}
+			if (branchOn < 0) {
+				record(credits);
+				return;
+			}
+			// Each credit taken reduces any one deficit by at most one,
+			// and the total deficit by at most maxMet.
+			int lowerBound = Math.max(largestDeficit, (totalDeficit + maxMet - 1) / maxMet);
+			if (best.size() == maxResults
+					&& credits + lowerBound >= best.get(best.size() - 1).getCredits()) {
+				return;
+			}
+
+			int[] saved = deficits.clone();
+			int[] indexes = byRequirement[branchOn];
+			int[] tried = new int[indexes.length];
+			int triedCount = 0;
+			for (int i = 0; i < indexes.length && deficits[branchOn] <= available[branchOn]; i++) {
+				int index = indexes[i];
+				if (excluded[index]) {
+					continue;
+				}
+				Course course = candidates[index];
+				exclude(index, true);
+				tried[triedCount++] = index;
+				for (CoreRequirement cr : course.getRequirementsMet()) {
+					int r = cr.ordinal();
+					deficits[r] = Math.max(0, deficits[r] - course.getCredits());
+				}
+				chosen.add(course);
+				search(credits + course.getCredits());
+				chosen.remove(chosen.size() - 1);
+				System.arraycopy(saved, 0, deficits, 0, REQUIREMENTS);
+				if (timedOut) {
+					break;
+				}
+			}
+			// Put the candidates tried at this level back in play.
+			for (int i = 0; i < triedCount; i++) {
+				exclude(tried[i], false);
+			}
+		}
+
+		private void exclude(int index, boolean exclude)
+		{
+			Course course = candidates[index];
+			excluded[index] = exclude;
+			int sign = exclude ? -1 : 1;
+			for (CoreRequirement cr : course.getRequirementsMet()) {
+				available[cr.ordinal()] += sign * course.getCredits();
+				count[cr.ordinal()] += sign;
+			}
+		}
+
+		private void record(int credits)
+		{
+			CourseSet set = new CourseSet(new ArrayList<Course>(chosen), credits);
+			int position = best.size();
+			while (position > 0 && best.get(position - 1).compareTo(set) > 0) {
+				position--;
+			}
+			if (position < maxResults) {
+				best.add(position, set);
+				if (best.size() > maxResults) {
+					best.remove(best.size() - 1);
+				}
+			}
+		}
+	}
+
+	/**
+	 * A set of courses that together satisfy the remaining requirements.
+	 */
+	public static class CourseSet implements Comparable<CourseSet>
+	{
+		private List<Course> courses;
+		private int credits;
+
+		private CourseSet(List<Course> courses, int credits)
+		{
+			this.courses = Collections.unmodifiableList(courses);
+			this.credits = credits;
+		}
+
+		/**
+		 * Gets the courses in this set.
+		 *
+		 * @return the courses
+		 */
+		public List<Course> getCourses() {
+			return courses;
+		}
+
+		/**
+		 * Gets the total credits of the courses in this set.
+		 *
+		 * @return the total credits
+		 */
+		public int getCredits() {
+			return credits;
+		}
+
+		@Override
+		public int compareTo(CourseSet other)
+		{
+			if (credits != other.credits) {
+				return credits - other.credits;
+			}
+			return courses.size() - other.courses.size();
+		}
+
+		/**
+		 * Overrides the toString method.
+		 *
+		 * @return the total credits followed by the courses' short names
+		 */
+		@Override
+		public String toString()
+		{
+			StringBuilder builder = new StringBuilder();
+			builder.append(credits).append(" credits:");
+			for (Course c : courses) {
+				builder.append(" ").append(c.getShortName());
+			}
+			return builder.toString();
+		}
+	}
+
+	/**
+	 * The outcome of an optimization run.
+	 */
+	public static class Result
+	{
+		private List<CourseSet> courseSets;
+		private boolean complete;
+
+		private Result(List<CourseSet> courseSets, boolean complete)
+		{
+			this.courseSets = Collections.unmodifiableList(courseSets);
+			this.complete = complete;
+		}
+
+		/**
+		 * Gets the course sets found, cheapest first. The list is empty
+		 * if the catalog cannot satisfy the remaining requirements.
+		 *
+		 * @return the course sets
+		 */
+		public List<CourseSet> getCourseSets() {
+			return courseSets;
+		}
+
+		/**
+		 * Checks whether the search finished within its time budget, in
+		 * which case the course sets are the cheapest possible.
+		 *
+		 * @return true if the search was exhaustive, false otherwise
+		 */
+		public boolean isComplete() {
+			return complete;
+		}
+
+		/**
+		 * Overrides the toString method.
+		 *
+		 * @return one course set per line
+		 */
+		@Override
+		public String toString()
+		{
+			StringBuilder builder = new StringBuilder();
+			for (CourseSet set : courseSets) {
+				builder.append("\n").append(set);
+			}
+			if (!complete) {
+				builder.append("\n").append("(time budget exhausted; best found so far)");
+			}
+			return builder.toString();
+		}
+	}
+}
@@ -0,0 +1,219 @@
+package edu.mills.cs64.final_project;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Random;
+
+
+/**
+ * Generates synthetic course catalogs and transcripts in the text
+ * formats read by {@link CourseCatalog#load(String)} and
+ * {@link Transcript#Transcript(String)}, for benchmarking and load
+ * testing. The same seed always produces the same data.
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+public class DataGenerator
+{
+	private static final String[] DEPARTMENTS = {
+		"ARTH", "BIO", "CHEM", "CS", "DNC", "ECON", "ENG", "ETHS", "FREN", "GOV",
+		"HIST", "MATH", "MUS", "PHIL", "PHYS", "PSYC", "SOC", "SPAN", "THEA", "WGSS"
+	};
+	private static final String[] LEVELS = {
+		"Introduction to", "Topics in", "Advanced", "Seminar in", "Foundations of",
+		"Research in", "Studies in", "Intermediate"
+	};
+	private static final String[] TOPICS = {
+		"Art History", "Renaissance Art", "Painting", "Sculpture", "Photography", "Film",
+		"Cell Biology", "Genetics", "Ecology", "Organic Chemistry", "Biochemistry",
+		"Data Structures", "Algorithms", "Computer Systems", "Choreography", "Dance Theory",
+		"Microeconomics", "Labor Economics", "Poetry", "The Novel", "Creative Writing",
+		"Ethnic Studies", "Migration", "French Literature", "Political Theory",
+		"Urban Politics", "Labor History", "Modern Europe", "Calculus", "Linear Algebra",
+		"Statistics", "Music Theory", "Jazz", "Ethics", "Logic", "Quantum Mechanics",
+		"Thermodynamics", "Cognition", "Social Psychology", "Social Inequality",
+		"Spanish Literature", "Modern Drama", "Gender and Sexuality"
+	};
+	private static final String GRADES = "ABCDF";
+	private static final int FIRST_YEAR = 2010;
+	private static final int YEARS = 10;
+	private static final double PREREQUISITE_PROBABILITY = 0.3;
+	private static final double SINGLE_TERM_PROBABILITY = 0.4;
+
+	private Random random;
+	private double requirementDensity;
+
+	/**
+	 * Constructs a generator.
+	 *
+	 * @param seed the random seed
+	 * @param requirementDensity the probability, from 0 to 1, that a
+	 *     course meets each requirement beyond the first
+	 * @throws IllegalArgumentException if the density is out of range
+	 */
+	public DataGenerator(long seed, double requirementDensity) throws IllegalArgumentException
+	{
+		if (requirementDensity < 0 || requirementDensity > 1) {
+			throw new IllegalArgumentException("Density out of range: " + requirementDensity);
+		}
+		random = new Random(seed);
+		this.requirementDensity = requirementDensity;
+	}
+
+	/**
+	 * Gets the short name of the generated course with the given index.
+	 * Course numbers are unique across departments.
+	 *
+	 * @param index the index of the course
+	 * @return the short name
+	 */
+	public static String shortName(int index)
+	{
+		return DEPARTMENTS[index % DEPARTMENTS.length] + " " + (index + 1);
+	}
+
+	/**
+	 * Writes a catalog of the given number of courses. Some courses
+	 * have a prerequisite in the same department or are offered in
+	 * only one term.
+	 *
+	 * @param filename the name of the file to create
+	 * @param courses the number of courses
+	 * @throws IOException if the file cannot be written
+	 */
+	public void writeCatalog(String filename, int courses) throws IOException
+	{
+		CoreRequirement[] all = CoreRequirement.values();
+		Writer out = new BufferedWriter(new FileWriter(filename));
+		try {
+			for (int i = 0; i < courses; i++) {
+				out.write(shortName(i));
+				out.write("\n" + LEVELS[random.nextInt(LEVELS.length)] + " "
+						+ TOPICS[random.nextInt(TOPICS.length)] + "\n");
+				out.write(Integer.toString(1 + random.nextInt(4)));
+				out.write("\n");
+				int first = random.nextInt(all.length);
+				out.write(all[first].name());
+				for (int r = 1; r < all.length; r++) {
+					if (random.nextDouble() < requirementDensity) {
+						out.write(", ");
+						out.write(all[(first + r) % all.length].name());
+					}
+				}
+				out.write("\n");
+				// Only earlier courses are prerequisites, so there are
+				// no cycles.
+				if (i >= DEPARTMENTS.length && random.nextDouble() < PREREQUISITE_PROBABILITY) {
+					int steps = 1 + random.nextInt(i / DEPARTMENTS.length);
+					out.write("PREREQUISITES: ");
+					out.write(shortName(i - steps * DEPARTMENTS.length));
+					out.write("\n");
+				}
+				if (random.nextDouble() < SINGLE_TERM_PROBABILITY) {
+					Term[] terms = Term.values();
+					out.write("TERMS: ");
+					out.write(terms[random.nextInt(terms.length)].name());
+					out.write("\n");
+				}
+			}
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Writes one transcript for a student.
+	 *
+	 * @param filename the name of the file to create
+	 * @param student the student number, used for the id and name
+	 * @param records the number of grade records
+	 * @param courses the number of courses in the catalog
+	 * @throws IOException if the file cannot be written
+	 */
+	public void writeTranscript(String filename, int student, int records, int courses)
+			throws IOException
+	{
+		Writer out = new BufferedWriter(new FileWriter(filename));
+		try {
+			writeStudent(out, student, records, courses);
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Writes one student's transcript records.
+	 *
+	 * @param out where to write
+	 * @param student the student number, used for the id and name
+	 * @param records the number of grade records
+	 * @param courses the number of courses in the catalog
+	 * @throws IOException if the records cannot be written
+	 */
+	void writeStudent(Writer out, int student, int records, int courses) throws IOException
+	{
+		out.write(String.format("B%08d\nStudent%d\nSurname%d\n", student, student, student));
+		for (int i = 0; i < records; i++) {
+			out.write(shortName(random.nextInt(courses)));
+			out.write("\n");
+			out.write(Integer.toString(FIRST_YEAR + random.nextInt(YEARS)));
+			out.write("\n");
+			out.write(GRADES.charAt(random.nextInt(GRADES.length())));
+			out.write("\n");
+		}
+	}
+
+	/**
+	 * Writes a directory of transcripts, one student per file.
+	 *
+	 * @param directory the directory to create them in
+	 * @param transcripts the number of transcripts
+	 * @param records the number of grade records per transcript
+	 * @param courses the number of courses in the catalog
+	 * @throws IOException if the files cannot be written
+	 */
+	public void writeTranscripts(String directory, int transcripts, int records, int courses)
+			throws IOException
+	{
+		File dir = new File(directory);
+		if (!dir.isDirectory() && !dir.mkdirs()) {
+			throw new IOException("Unable to create " + directory);
+		}
+		for (int i = 0; i < transcripts; i++) {
+			writeTranscript(new File(dir, "transcript" + i + ".txt").getPath(), i, records, courses);
+		}
+	}
+
+	/**
+	 * Generates a catalog and a directory of transcripts.
+	 *
+	 * @param args the catalog file, the number of courses, and
+	 *     optionally the transcript directory, the number of
+	 *     transcripts, the records per transcript, the requirement
+	 *     density and the seed
+	 */
+	public static void main(String[] args)
+	{
+		if (args.length < 2) {
+			System.err.println("Usage: DataGenerator COURSES_FILE COURSES "
+					+ "[DIRECTORY TRANSCRIPTS [RECORDS [DENSITY [SEED]]]]");
+			return;
+		}
+		int courses = Integer.parseInt(args[1]);
+		int records = args.length > 4 ? Integer.parseInt(args[4]) : 12;
+		double density = args.length > 5 ? Double.parseDouble(args[5]) : 0.1;
+		long seed = args.length > 6 ? Long.parseLong(args[6]) : 1;
+		try {
+			DataGenerator generator = new DataGenerator(seed, density);
+			generator.writeCatalog(args[0], courses);
+			if (args.length > 3) {
+				generator.writeTranscripts(args[2], Integer.parseInt(args[3]), records, courses);
+			}
+		} catch (IOException e) {
+			System.err.println(e.toString());
+		}
+	}
+}
@@ -0,0 +1,393 @@
+package edu.mills.cs64.final_project;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * Plans the terms in which to take courses so as to finish the core
+ * requirements on a transcript as soon as possible, taking at most a
+ * given number of credits each term and respecting prerequisites and
+ * the terms in which courses are offered.
+ * <p>
+ * Planning happens in two steps. {@link CourseSetOptimizer} first
+ * proposes the cheapest sets of courses that would meet the remaining
+ * requirements. For each set, the prerequisites not yet taken are
+ * added, and the courses are scheduled in topological order, term by
+ * term, giving priority to courses with the longest chains of courses
+ * that depend on them. The set that finishes in the fewest terms wins,
+ * with ties going to fewer credits.
+ * <p>
+ * Minimizing terms under a credit cap is NP-hard in general, so the
+ * schedule for a set is a good one rather than a guaranteed shortest.
+ * Planning stops at the time limit and returns the best plan found so
+ * far.
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+public class DegreePlanner
+{
+	private static final int CANDIDATE_SETS = 16;
+
+	private int maxCreditsPerTerm;
+	private long timeLimitMillis;
+
+	/**
+	 * Constructs a planner.
+	 *
+	 * @param maxCreditsPerTerm the most credits to take in one term
+	 * @param timeLimitMillis how long planning may take, in milliseconds
+	 * @throws IllegalArgumentException if the credit cap is not
+	 *     positive or the time limit is negative
+	 */
+	public DegreePlanner(int maxCreditsPerTerm, long timeLimitMillis)
+			throws IllegalArgumentException
+	{
+		if (maxCreditsPerTerm <= 0 || timeLimitMillis < 0) {
+			throw new IllegalArgumentException("Invalid planner settings: "
+					+ maxCreditsPerTerm + " credits per term, " + timeLimitMillis + " ms");
+		}
+		this.maxCreditsPerTerm = maxCreditsPerTerm;
+		this.timeLimitMillis = timeLimitMillis;
+	}
+
+	/**
+	 * Plans the remaining terms for a transcript. Courses on the
+	 * transcript count as taken, both toward requirements and as
+	 * prerequisites.
+	 *
+	 * @param transcript the transcript
+	 * @param firstTerm the first term to plan
+	 * @return the plan, or null if the catalog cannot meet the remaining
+	 *     requirements
+	 */
+	public Plan plan(Transcript transcript, Term firstTerm)
+	{
+		long start = System.nanoTime();
+		long deadline = start + timeLimitMillis * 1000000L;
+		CourseSetOptimizer.Result sets = new CourseSetOptimizer(CANDIDATE_SETS,
+				timeLimitMillis / 2).optimize(transcript);
+
+		CourseCatalog catalog = transcript.getCatalog();
+		boolean[] taken = new boolean[catalog.size()];
+		for (GradeRecord gr : transcript.getGradeRecords()) {
+			int position = catalog.indexOf(gr.getCourse());
+			if (position >= 0) {
+				taken[position] = true;
+			}
+		}
+		Scheduler scheduler = new Scheduler(catalog, taken, firstTerm);
+
+		Plan best = null;
+		boolean complete = sets.isComplete();
+		for (CourseSetOptimizer.CourseSet set : sets.getCourseSets()) {
+			if (best != null && System.nanoTime() > deadline) {
+				complete = false;
+				break;
+			}
+			Plan plan = scheduler.schedule(set.getCourses());
+			if (best == null || plan.compareTo(best) < 0) {
+				best = plan;
+			}
+		}
+		if (best != null) {
+			best.complete = complete;
+		}
+		return best;
+	}
+
+	/**
+	 * Schedules sets of courses for one transcript. The prerequisites
+	 * each course still needs are remembered, since the candidate sets
+	 * have most of their courses in common.
+	 */
+	private class Scheduler
+	{
+		private CourseCatalog catalog;
+		private boolean[] taken;
+		private Term firstTerm;
+		// The untaken prerequisites of a course, transitively, in
+		// topological order, keyed by catalog position.
+		private Map<Integer, int[]> closures = new HashMap<Integer, int[]>();
+		// Scratch marks, compared against the current stamp so that
+		// they need not be cleared between uses.
+		private int[] marks;
+		private int stamp;
+
+		private Scheduler(CourseCatalog catalog, boolean[] taken, Term firstTerm)
+		{
+			this.catalog = catalog;
+			this.taken = taken;
+			this.firstTerm = firstTerm;
+			marks = new int[catalog.size()];
+		}
+
+		/**
+		 * Schedules a set of courses and their untaken prerequisites.
+		 *
+		 * @param courses the courses that meet the requirements
+		 * @return the plan
+		 */
+		private Plan schedule(List<Course> courses)
+		{
+			// Collect the courses to take, prerequisites first.
+			List<Integer> order = new ArrayList<Integer>();
+			stamp++;
+			for (Course course : courses) {
+				int position = catalog.indexOf(course);
+				for (int prerequisite : closure(position)) {
+					add(prerequisite, order);
+				}
+				add(position, order);
+			}
+			int n = order.size();
+			Map<Integer, Integer> local = new HashMap<Integer, Integer>(n * 2);
+			for (int i = 0; i < n; i++) {
+				local.put(order.get(i), i);
+			}
+
+			// Each course's prerequisites within the plan, and the length
+			// of the longest chain of courses that depend on it.
+			int[][] needs = new int[n][];
+			int[] height = new int[n];
+			for (int i = 0; i < n; i++) {
+				int[] prerequisites = catalog.getPrerequisiteIndexes(order.get(i));
+				int[] within = new int[prerequisites.length];
+				int count = 0;
+				for (int prerequisite : prerequisites) {
+					Integer j = local.get(prerequisite);
+					if (j != null) {
+						within[count++] = j;
+					}
+				}
+				needs[i] = count == within.length ? within : Arrays.copyOf(within, count);
+			}
+			for (int i = n - 1; i >= 0; i--) {
+				height[i] = Math.max(height[i], 1);
+				for (int j : needs[i]) {
+					height[j] = Math.max(height[j], height[i] + 1);
+				}
+			}
+
+			// List scheduling, term by term.
+			int[] termOf = new int[n];
+			Arrays.fill(termOf, -1);
+			List<List<Course>> terms = new ArrayList<List<Course>>();
+			int scheduled = 0;
+			int credits = 0;
+			Term term = firstTerm;
+			while (scheduled < n) {
+				int t = terms.size();
+				List<Integer> ready = new ArrayList<Integer>();
+				for (int i = 0; i < n; i++) {
+					if (termOf[i] < 0 && isReady(i, needs, termOf, t)
+							&& catalog.getCourse(order.get(i)).isOfferedIn(term)) {
+						ready.add(i);
+					}
+				}
+				Collections.sort(ready, new Comparator<Integer>() {
+					@Override
+					public int compare(Integer i, Integer j) {
+						if (height[i] != height[j]) {
+							return height[j] - height[i];
+						}
+						return catalog.getCourse(order.get(j)).getCredits()
+								- catalog.getCourse(order.get(i)).getCredits();
+					}
+				});
+				List<Course> thisTerm = new ArrayList<Course>();
+				int termCredits = 0;
+				for (int i : ready) {
+					Course course = catalog.getCourse(order.get(i));
+					// A course larger than the cap may be taken on its own.
+					if (termCredits + course.getCredits() <= maxCreditsPerTerm
+							|| thisTerm.isEmpty()) {
+						thisTerm.add(course);
+						termCredits += course.getCredits();
+						termOf[i] = t;
+						scheduled++;
+					}
+					if (termCredits >= maxCreditsPerTerm) {
+						break;
+					}
+				}
+				terms.add(thisTerm);
+				credits += termCredits;
+				term = term.next();
+			}
+			return new Plan(firstTerm, terms, credits);
+		}
+
+		/**
+		 * Checks whether a course's prerequisites are all scheduled
+		 * before a term.
+		 */
+		private boolean isReady(int i, int[][] needs, int[] termOf, int term)
+		{
+			for (int j : needs[i]) {
+				if (termOf[j] < 0 || termOf[j] >= term) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Adds a course to the plan unless it is already there.
+		 */
+		private void add(int position, List<Integer> order)
+		{
+			if (marks[position] != stamp) {
+				marks[position] = stamp;
+				order.add(position);
+			}
+		}
+
+		/**
+		 * Gets the untaken prerequisites of a course, transitively, in
+		 * topological order.
+		 *
+		 * @param position the catalog position of the course
+		 * @return the positions of the prerequisites
+		 */
+		private int[] closure(int position)
+		{
+			int[] closure = closures.get(position);
+			if (closure == null) {
+				List<Integer> order = new ArrayList<Integer>();
+				Set<Integer> seen = new HashSet<Integer>();
+				for (int prerequisite : catalog.getPrerequisiteIndexes(position)) {
+					if (!taken[prerequisite]) {
+						for (int p : closure(prerequisite)) {
+							if (seen.add(p)) {
+								order.add(p);
+							}
+						}
+						if (seen.add(prerequisite)) {
+							order.add(prerequisite);
+						}
+					}
+				}
+				closure = new int[order.size()];
+				for (int i = 0; i < closure.length; i++) {
+					closure[i] = order.get(i);
+				}
+				closures.put(position, closure);
+			}
+			return closure;
+		}
+	}
+
+	/**
+	 * A schedule of courses over consecutive terms.
+	 */
+	public static class Plan implements Comparable<Plan>
+	{
+		private Term firstTerm;
+		private List<List<Course>> terms;
+		private int credits;
+		private boolean complete;
+
+		private Plan(Term firstTerm, List<List<Course>> terms, int credits)
+		{
+			this.firstTerm = firstTerm;
+			this.terms = new ArrayList<List<Course>>(terms.size());
+			for (List<Course> courses : terms) {
+				this.terms.add(Collections.unmodifiableList(courses));
+			}
+			this.credits = credits;
+		}
+
+		/**
+		 * Gets the number of terms in this plan. A term may be empty if
+		 * nothing that could be taken yet is offered in it.
+		 *
+		 * @return the number of terms, or 0 if nothing is left to take
+		 */
+		public int getTermCount() {
+			return terms.size();
+		}
+
+		/**
+		 * Gets the term of the year in which a planned term falls.
+		 *
+		 * @param index the index of the planned term, from 0
+		 * @return the term
+		 */
+		public Term getTerm(int index) {
+			Term term = firstTerm;
+			for (int i = 0; i < index % Term.values().length; i++) {
+				term = term.next();
+			}
+			return term;
+		}
+
+		/**
+		 * Gets the courses to take in a planned term.
+		 *
+		 * @param index the index of the planned term, from 0
+		 * @return the courses
+		 */
+		public List<Course> getCourses(int index) {
+			return terms.get(index);
+		}
+
+		/**
+		 * Gets the total credits of the courses in this plan.
+		 *
+		 * @return the total credits
+		 */
+		public int getCredits() {
+			return credits;
+		}
+
+		/**
+		 * Checks whether planning finished within its time limit, having
+		 * considered every candidate course set.
+		 *
+		 * @return true if planning was exhaustive, false otherwise
+		 */
+		public boolean isComplete() {
+			return complete;
+		}
+
+		@Override
+		public int compareTo(Plan other)
+		{
+			if (terms.size() != other.terms.size()) {
+				return terms.size() - other.terms.size();
+			}
+			return credits - other.credits;
+		}
+
+		/**
+		 * Overrides the toString method.
+		 *
+		 * @return one line per term listing its courses
+		 */
+		@Override
+		public String toString()
+		{
+			StringBuilder builder = new StringBuilder();
+			builder.append(terms.size()).append(" terms, ").append(credits).append(" credits");
+			for (int i = 0; i < terms.size(); i++) {
+				builder.append("\n").append("Term ").append(i + 1).append(" (")
+					.append(getTerm(i)).append("):");
+				for (Course c : terms.get(i)) {
+					builder.append(" ").append(c.getShortName());
+				}
+			}
+			if (!complete) {
+				builder.append("\n").append("(time limit reached; best found so far)");
+			}
+			return builder.toString();
+		}
+	}
+}
@@ -2,18 +2,32 @@ package edu.mills.cs64.final_project;
 
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 
+import javax.swing.DefaultListModel;
 import javax.swing.GroupLayout;
 import javax.swing.JButton;
 import javax.swing.JFileChooser;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JProgressBar;
 import javax.swing.JScrollPane;
 import javax.swing.JTextArea;
 import javax.swing.LayoutStyle;
+import javax.swing.ListSelectionModel;
 import javax.swing.SwingConstants;
+import javax.swing.SwingWorker;
+import javax.swing.event.ListSelectionEvent;
+import javax.swing.event.ListSelectionListener;
 
 /**
  * Provides a GUI for getting information about transcripts and
@@ -29,6 +43,9 @@ public class GUI
 {
   private static final String COURSES_FILE = "courses.txt";
   private Transcript currentTranscript;
+  private SwingWorker<?, ?> currentWorker;
+  private FolderWorker folderWorker;
+  private SwingWorker<?, ?> progressWorker;
   
   // GUI constants
   private static final int WIDTH = 600;
@@ -44,6 +61,11 @@ public class GUI
   private static final String LOAD_TRANSCRIPT = "Load Transcript";
   private static final String RECOMMEND_COURSES = "Recommend Courses";
   private static final String EXIT = "Exit";
+  private static final String CANCEL = "Cancel";
+  // Number of characters appended to the transcript area at a time.
+  private static final int CHUNK_SIZE = 4096;
+  // Number of files added to the student list at a time.
+  private static final int LIST_BATCH_SIZE = 256;
 
   // GUI components
   private JFrame frame;
@@ -53,6 +75,10 @@ public class GUI
   private JButton loadTranscriptButton; // click on to load a transcript
   private JButton exitButton;           // click on to exit
   private JButton recommendCoursesButton;
+  private JButton cancelButton;         // click on to stop the current task
+  private JProgressBar progressBar;     // progress of the current task
+  private DefaultListModel<File> studentListModel;
+  private JList<File> studentList;      // transcripts in an opened folder
 
   private GUI()
   {
@@ -70,15 +96,27 @@ public class GUI
     recommendCoursesButton = new JButton(RECOMMEND_COURSES);
 	recommendCoursesButton.setVisible(false);
     exitButton = new JButton(EXIT);
+    cancelButton = new JButton(CANCEL);
+    cancelButton.setVisible(false);
+    progressBar = new JProgressBar(0, 100);
+    progressBar.setVisible(false);
     feedbackArea = new JTextArea();
     transcriptArea = new JTextArea();
+    studentListModel = new DefaultListModel<File>();
+    studentList = new JList<File>(studentListModel);
+    studentList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+    // Let the list size cells without measuring every file name.
+    studentList.setPrototypeCellValue(new File("transcript00000.txt"));
     JScrollPane feedbackPane = new JScrollPane(feedbackArea);
     JScrollPane transcriptPane = new JScrollPane(transcriptArea);
+    JScrollPane studentPane = new JScrollPane(studentList);
 
     // Add listeners.
     loadTranscriptButton.addActionListener(new LoadTranscriptButtonHandler());
     exitButton.addActionListener(new ExitButtonHandler());
     recommendCoursesButton.addActionListener(new RecommendCoursesButtonHandler());
+    cancelButton.addActionListener(new CancelButtonHandler());
+    studentList.addListSelectionListener(new StudentListHandler());
 
     // Lay out components.
     GroupLayout layout = new GroupLayout(frame.getContentPane());
@@ -89,6 +127,9 @@ public class GUI
             .addComponent(loadTranscriptButton)
             .addComponent(recommendCoursesButton)
             .addComponent(exitButton)
+            .addComponent(progressBar)
+            .addComponent(cancelButton)
+            .addComponent(studentPane)
             .addComponent(feedbackPane))
         .addComponent(transcriptPane));
     frame.getContentPane().setLayout(layout);
@@ -103,8 +144,13 @@ public class GUI
                     GroupLayout.DEFAULT_SIZE, MAX_VERTICAL_GAP)
                 .addComponent(recommendCoursesButton)
                 .addComponent(exitButton)
+                .addPreferredGap(LayoutStyle.ComponentPlacement.RELATED,
+                    GroupLayout.DEFAULT_SIZE, MAX_VERTICAL_GAP)
+                .addComponent(progressBar)
+                .addComponent(cancelButton)
                 .addPreferredGap(LayoutStyle.ComponentPlacement.UNRELATED,
                     GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                .addComponent(studentPane)
                 .addComponent(feedbackPane))
             .addComponent(transcriptPane)));         
   }
@@ -128,6 +174,12 @@ public class GUI
     private JFileChooser fileChooser = 
         new JFileChooser(System.getProperty("user.dir"));
 
+    public LoadTranscriptButtonHandler()
+    {
+      // A folder opens every transcript in it.
+      fileChooser.setFileSelectionMode(JFileChooser.FILES_AND_DIRECTORIES);
+    }
+
     @Override
     public void actionPerformed(ActionEvent ae)
     {
@@ -138,18 +190,13 @@ public class GUI
     		feedbackArea.append("Load transcript operation cancelled.\n");
     		break;
     	case JFileChooser.APPROVE_OPTION:
-    		try {
-    			File file = fileChooser.getSelectedFile();
-    			currentTranscript = new Transcript(file);
-    			transcriptArea.append(currentTranscript.toString());
-    			feedbackArea.append("You have successfully loaded a transcript.\n" 
-    					+ "Filepath: " + fileChooser.getSelectedFile().getAbsolutePath());
-    			recommendCoursesButton.setVisible(true);
-    			break;
-    		} catch (FileNotFoundException e) {
-    			feedbackArea.append("File not found. " + e.toString());
-    			return;
+    		File file = fileChooser.getSelectedFile();
+    		if (file.isDirectory()) {
+    			startFolderWorker(file);
+    		} else {
+    			startWorker(new TranscriptWorker(file));
     		}
+    		break;
     	case JFileChooser.ERROR_OPTION:
     		feedbackArea.append("Error with load transcript dialog.");
     		break;
@@ -164,10 +211,304 @@ public class GUI
 
 		@Override
 		public void actionPerformed(ActionEvent ae) {
-			transcriptArea.append("\n\n" + currentTranscript.recommendCourses());
+			if (currentTranscript != null) {
+				startWorker(new RecommendWorker(currentTranscript));
+			}
 		}
 	}
 
+  public class CancelButtonHandler implements ActionListener {
+
+    @Override
+    public void actionPerformed(ActionEvent ae) {
+      if (currentWorker != null) {
+        currentWorker.cancel(true);
+      }
+      if (folderWorker != null) {
+        folderWorker.cancel(true);
+      }
+    }
+  }
+
+  public class StudentListHandler implements ListSelectionListener {
+
+    @Override
+    public void valueChanged(ListSelectionEvent e) {
+      File file = studentList.getSelectedValue();
+      if (!e.getValueIsAdjusting() && file != null) {
+        startWorker(new TranscriptWorker(file));
+      }
+    }
+  }
+
+  /**
+   * Cancels any transcript task in progress and starts a new one on a
+   * background thread, showing its progress. A folder still being
+   * listed carries on.
+   * 
+   * @param worker the task
+   */
+  private void startWorker(SwingWorker<?, ?> worker)
+  {
+    if (currentWorker != null) {
+      currentWorker.cancel(true);
+    }
+    currentWorker = worker;
+    showProgress(worker);
+    worker.execute();
+  }
+
+  /**
+   * Cancels any folder being listed, empties the student list and
+   * starts listing a folder on a background thread, showing its
+   * progress. The list is emptied only after the previous listing is
+   * cancelled, so none of its files are added afterwards.
+   * 
+   * @param folder the folder
+   */
+  private void startFolderWorker(File folder)
+  {
+    if (folderWorker != null) {
+      folderWorker.cancel(true);
+    }
+    studentListModel.clear();
+    folderWorker = new FolderWorker(folder);
+    showProgress(folderWorker);
+    folderWorker.execute();
+  }
+
+  /**
+   * Shows the progress of a task that is about to start.
+   * 
+   * @param worker the task
+   */
+  private void showProgress(final SwingWorker<?, ?> worker)
+  {
+    progressWorker = worker;
+    progressBar.setValue(0);
+    progressBar.setIndeterminate(true);
+    progressBar.setVisible(true);
+    cancelButton.setVisible(true);
+    worker.addPropertyChangeListener(new PropertyChangeListener() {
+      @Override
+      public void propertyChange(PropertyChangeEvent event) {
+        if ("progress".equals(event.getPropertyName()) && worker == progressWorker) {
+          progressBar.setIndeterminate(false);
+          progressBar.setValue((Integer) event.getNewValue());
+        }
+      }
+    });
+  }
+
+  /**
+   * Forgets a task that finished and hides the progress display if no
+   * other task is running.
+   * 
+   * @param worker the task that finished
+   */
+  private void finishWorker(SwingWorker<?, ?> worker)
+  {
+    if (worker == currentWorker) {
+      currentWorker = null;
+    }
+    if (worker == folderWorker) {
+      folderWorker = null;
+    }
+    if (worker == progressWorker) {
+      progressWorker = currentWorker != null ? currentWorker : folderWorker;
+      progressBar.setIndeterminate(true);
+    }
+    if (currentWorker == null && folderWorker == null) {
+      progressBar.setVisible(false);
+      cancelButton.setVisible(false);
+    }
+  }
+
+  /**
+   * A background task whose text output is streamed into the
+   * transcript area in chunks.
+   */
+  private abstract class TextWorker<T> extends SwingWorker<T, String>
+  {
+    /**
+     * Publishes text a chunk at a time, stopping if cancelled.
+     * 
+     * @param text the text to append to the transcript area
+     */
+    protected void publishText(String text)
+    {
+      for (int start = 0; start < text.length() && !isCancelled(); start += CHUNK_SIZE) {
+        publish(text.substring(start, Math.min(text.length(), start + CHUNK_SIZE)));
+        setProgress((int) (100L * start / text.length()));
+      }
+    }
+
+    @Override
+    protected void process(List<String> chunks)
+    {
+      // A task that finished before it could be cancelled may still
+      // deliver chunks after the next one has cleared the area.
+      if (isCancelled() || this != currentWorker) {
+        return;
+      }
+      for (String chunk : chunks) {
+        transcriptArea.append(chunk);
+      }
+    }
+  }
+
+  /**
+   * Reads and audits a transcript.
+   */
+  private class TranscriptWorker extends TextWorker<Transcript>
+  {
+    private File file;
+
+    private TranscriptWorker(File file)
+    {
+      this.file = file;
+      transcriptArea.setText("");
+      recommendCoursesButton.setVisible(false);
+    }
+
+    @Override
+    protected Transcript doInBackground() throws FileNotFoundException
+    {
+      Transcript transcript = new Transcript(file);
+      publishText(transcript.toString());
+      return transcript;
+    }
+
+    @Override
+    protected void done()
+    {
+      if (this != currentWorker) {
+        // Replaced by a newer task, which reports for itself.
+        return;
+      }
+      finishWorker(this);
+      try {
+        currentTranscript = get();
+        feedbackArea.append("You have successfully loaded a transcript.\n" 
+            + "Filepath: " + file.getAbsolutePath() + "\n");
+        recommendCoursesButton.setVisible(true);
+      } catch (CancellationException e) {
+        feedbackArea.append("Load transcript operation cancelled.\n");
+      } catch (InterruptedException e) {
+        feedbackArea.append("Load transcript operation interrupted.\n");
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof FileNotFoundException) {
+          feedbackArea.append("File not found. " + e.getCause().toString() + "\n");
+        } else {
+          feedbackArea.append("Error loading transcript. " + e.getCause() + "\n");
+        }
+      }
+    }
+  }
+
+  /**
+   * Recommends courses for a transcript.
+   */
+  private class RecommendWorker extends TextWorker<Void>
+  {
+    private Transcript transcript;
+
+    private RecommendWorker(Transcript transcript)
+    {
+      this.transcript = transcript;
+    }
+
+    @Override
+    protected Void doInBackground()
+    {
+      publishText("\n\n" + transcript.recommendCourses());
+      return null;
+    }
+
+    @Override
+    protected void done()
+    {
+      if (this != currentWorker) {
+        return;
+      }
+      finishWorker(this);
+      try {
+        get();
+      } catch (CancellationException e) {
+        feedbackArea.append("Recommend courses operation cancelled.\n");
+      } catch (InterruptedException e) {
+        feedbackArea.append("Recommend courses operation interrupted.\n");
+      } catch (ExecutionException e) {
+        feedbackArea.append("Error recommending courses. " + e.getCause() + "\n");
+      }
+    }
+  }
+
+  /**
+   * Lists the transcripts in a folder. Files are added to the student
+   * list in batches; none is read until it is selected.
+   */
+  private class FolderWorker extends SwingWorker<Integer, File>
+  {
+    private File folder;
+
+    private FolderWorker(File folder)
+    {
+      this.folder = folder;
+    }
+
+    @Override
+    protected Integer doInBackground() throws IOException
+    {
+      File[] files = folder.listFiles();
+      if (files == null) {
+        throw new IOException("Unable to list " + folder);
+      }
+      Arrays.sort(files);
+      int count = 0;
+      for (int i = 0; i < files.length && !isCancelled(); i++) {
+        if (files[i].isFile()) {
+          publish(files[i]);
+          count++;
+        }
+        if (i % LIST_BATCH_SIZE == 0) {
+          setProgress((int) (100L * i / files.length));
+        }
+      }
+      return count;
+    }
+
+    @Override
+    protected void process(List<File> files)
+    {
+      if (isCancelled() || this != folderWorker) {
+        return;
+      }
+      for (File file : files) {
+        studentListModel.addElement(file);
+      }
+    }
+
+    @Override
+    protected void done()
+    {
+      if (this != folderWorker) {
+        return;
+      }
+      finishWorker(this);
+      try {
+        feedbackArea.append("Opened " + get() + " transcripts in "
+            + folder.getAbsolutePath() + ".\nSelect one to view it.\n");
+      } catch (CancellationException e) {
+        feedbackArea.append("Open folder operation cancelled.\n");
+      } catch (InterruptedException e) {
+        feedbackArea.append("Open folder operation interrupted.\n");
+      } catch (ExecutionException e) {
+        feedbackArea.append("Error opening folder. " + e.getCause() + "\n");
+      }
+    }
+  }
+
   public static void main(String[] args)
   {
     try {
@@ -177,6 +518,12 @@ public class GUI
       System.err.println("Unable to load required file " + COURSES_FILE);
       return;
     }
+    try {
+      // Pick up edits to the catalog without restarting.
+      CourseCatalog.watch(COURSES_FILE);
+    } catch (IOException e) {
+      System.err.println("Unable to watch " + COURSES_FILE + ": " + e);
+    }
     GUI gui = new GUI();
     gui.setVisibility(true);
   }
@@ -32,7 +32,30 @@ public class GradeRecord {
 		else {
 			this.course = course;
 			this.year = year;
-			this.grade = grade; 
+			this.grade = canonicalGrade(grade);
+		}
+	}
+
+	/**
+	 * Gets the shared string for a legal grade, so that millions of
+	 * records hold five strings between them instead of one each.
+	 * 
+	 * @param grade a legal grade
+	 * @return the equal string constant
+	 */
+	private static String canonicalGrade(String grade)
+	{
+		switch (grade.charAt(0)) {
+		case 'A':
+			return "A";
+		case 'B':
+			return "B";
+		case 'C':
+			return "C";
+		case 'D':
+			return "D";
+		default:
+			return "F";
 		}
 	}
 
@@ -43,7 +66,7 @@ public class GradeRecord {
 	 * @param grade a potential grade
 	 * @return true if it is a legal grade, false otherwise
 	 */
-	private static boolean isLegalGrade(String grade)
+	static boolean isLegalGrade(String grade)
 	{
 		if (grade.equals("A") || grade.equals("B") || grade.equals("C") || 
 				grade.equals("D") || grade.equals("F")) {
@@ -79,6 +102,27 @@ public class GradeRecord {
 		return grade;
 	}
 
+	/**
+	 * Gets the grade points earned per credit: 4 for an A, 3 for a B,
+	 * 2 for a C, 1 for a D and 0 for an F.
+	 * 
+	 * @return the grade points 
+	 */
+	public int getGradePoints() {
+		switch (grade.charAt(0)) {
+		case 'A':
+			return 4;
+		case 'B':
+			return 3;
+		case 'C':
+			return 2;
+		case 'D':
+			return 1;
+		default:
+			return 0;
+		}
+	}
+
 	/**
 	 * Overrides the toString method.
 	 * 
@@ -0,0 +1,286 @@
+package edu.mills.cs64.final_project;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+
+/**
+ * Grade point averages and grade distributions over a set of grade
+ * records. Statistics are accumulated one record at a time, can be
+ * updated when a record is removed, and can be merged, so a large
+ * student body can be summarized in a single parallel pass with
+ * {@link #of(Collection)}.
+ * <p>
+ * Each year is treated as a term. Averages are weighted by course
+ * credits, using the points from {@link GradeRecord#getGradePoints()}.
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+public class GradeStatistics
+{
+	/**
+	 * The legal grades, in the order used by distributions.
+	 */
+	public static final String GRADES = "ABCDF";
+
+	private long points;
+	private long credits;
+	// For each year, the points and credits earned that year.
+	private Map<Integer, long[]> byYear = new TreeMap<Integer, long[]>();
+	private Map<String, long[]> byDepartment = new HashMap<String, long[]>();
+	private long[][] byRequirement = new long[CoreRequirement.values().length][GRADES.length()];
+
+	/**
+	 * Adds a grade record to these statistics.
+	 *
+	 * @param gradeRecord the grade record
+	 */
+	public void add(GradeRecord gradeRecord)
+	{
+		update(gradeRecord, 1);
+	}
+
+	/**
+	 * Removes a grade record previously added to these statistics.
+	 *
+	 * @param gradeRecord the grade record
+	 */
+	public void remove(GradeRecord gradeRecord)
+	{
+		update(gradeRecord, -1);
+	}
+
+	/**
+	 * Adds every grade record of a transcript to these statistics.
+	 *
+	 * @param transcript the transcript
+	 */
+	public void addAll(Transcript transcript)
+	{
+		for (GradeRecord gr : transcript.getGradeRecords()) {
+			add(gr);
+		}
+	}
+
+	/**
+	 * Adds or removes a grade record.
+	 *
+	 * @param gradeRecord the grade record
+	 * @param sign 1 to add the record, -1 to remove it
+	 */
+	private void update(GradeRecord gradeRecord, int sign)
+	{
+		Course course = gradeRecord.getCourse();
+		long recordCredits = sign * course.getCredits();
+		long recordPoints = recordCredits * gradeRecord.getGradePoints();
+		points += recordPoints;
+		credits += recordCredits;
+
+		long[] year = byYear.get(gradeRecord.getYear());
+		if (year == null) {
+			year = new long[2];
+			byYear.put(gradeRecord.getYear(), year);
+		}
+		year[0] += recordPoints;
+		year[1] += recordCredits;
+
+		int grade = GRADES.indexOf(gradeRecord.getGrade());
+		long[] department = byDepartment.get(course.getDepartment());
+		if (department == null) {
+			department = new long[GRADES.length()];
+			byDepartment.put(course.getDepartment(), department);
+		}
+		department[grade] += sign;
+		for (CoreRequirement cr : course.getRequirementsMet()) {
+			byRequirement[cr.ordinal()][grade] += sign;
+		}
+	}
+
+	/**
+	 * Adds all the records summarized by other statistics to these.
+	 *
+	 * @param other the other statistics
+	 * @return these statistics
+	 */
+	public GradeStatistics merge(GradeStatistics other)
+	{
+		points += other.points;
+		credits += other.credits;
+		for (Map.Entry<Integer, long[]> entry : other.byYear.entrySet()) {
+			long[] year = byYear.get(entry.getKey());
+			if (year == null) {
+				byYear.put(entry.getKey(), entry.getValue().clone());
+			} else {
+				year[0] += entry.getValue()[0];
+				year[1] += entry.getValue()[1];
+			}
+		}
+		for (Map.Entry<String, long[]> entry : other.byDepartment.entrySet()) {
+			long[] department = byDepartment.get(entry.getKey());
+			if (department == null) {
+				byDepartment.put(entry.getKey(), entry.getValue().clone());
+			} else {
+				for (int g = 0; g < department.length; g++) {
+					department[g] += entry.getValue()[g];
+				}
+			}
+		}
+		for (int r = 0; r < byRequirement.length; r++) {
+			for (int g = 0; g < GRADES.length(); g++) {
+				byRequirement[r][g] += other.byRequirement[r][g];
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * Summarizes the grade records of many transcripts, splitting the
+	 * work across threads and merging the partial results.
+	 *
+	 * @param transcripts the transcripts
+	 * @return the statistics
+	 */
+	public static GradeStatistics of(Collection<Transcript> transcripts)
+	{
+		return transcripts.parallelStream().collect(GradeStatistics::new,
+				GradeStatistics::addAll, GradeStatistics::merge);
+	}
+
+	/**
+	 * Computes the percentile rank of each student's cumulative GPA:
+	 * the percentage of students with a lower GPA, counting half of
+	 * those with the same GPA. Students with no credits are left out.
+	 *
+	 * @param transcripts the transcripts of the student body
+	 * @return the percentile rank of each student, by id
+	 */
+	public static Map<String, Double> percentileRanks(Collection<Transcript> transcripts)
+	{
+		List<Transcript> graded = new ArrayList<Transcript>();
+		for (Transcript t : transcripts) {
+			if (!Double.isNaN(t.getGpa())) {
+				graded.add(t);
+			}
+		}
+		double[] gpas = graded.parallelStream().mapToDouble(Transcript::getGpa).toArray();
+		double[] sorted = gpas.clone();
+		Arrays.parallelSort(sorted);
+
+		Map<String, Double> ranks = new HashMap<String, Double>(graded.size() * 2);
+		for (int i = 0; i < gpas.length; i++) {
+			int below = lowerBound(sorted, gpas[i]);
+			int equal = lowerBound(sorted, Math.nextUp(gpas[i])) - below;
+			ranks.put(graded.get(i).getId(), 100.0 * (below + equal / 2.0) / sorted.length);
+		}
+		return ranks;
+	}
+
+	/**
+	 * Finds the number of values in a sorted array less than a key.
+	 *
+	 * @param sorted the sorted values
+	 * @param key the key
+	 * @return the number of values less than the key
+	 */
+	private static int lowerBound(double[] sorted, double key)
+	{
+		int low = 0;
+		int high = sorted.length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (sorted[middle] < key) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Gets the cumulative GPA over all records.
+	 *
+	 * @return the GPA, or NaN if there are no credits
+	 */
+	public double getCumulativeGpa() {
+		return credits == 0 ? Double.NaN : (double) points / credits;
+	}
+
+	/**
+	 * Gets the GPA over the records of one year.
+	 *
+	 * @param year the year
+	 * @return the GPA, or NaN if there are no credits that year
+	 */
+	public double getTermGpa(int year) {
+		long[] term = byYear.get(year);
+		return term == null || term[1] == 0 ? Double.NaN : (double) term[0] / term[1];
+	}
+
+	/**
+	 * Gets the GPA for each year with credits.
+	 *
+	 * @return the GPA of each year, in year order
+	 */
+	public Map<Integer, Double> getTermGpas() {
+		Map<Integer, Double> gpas = new TreeMap<Integer, Double>();
+		for (Integer year : byYear.keySet()) {
+			if (byYear.get(year)[1] != 0) {
+				gpas.put(year, getTermGpa(year));
+			}
+		}
+		return gpas;
+	}
+
+	/**
+	 * Gets the number of each grade given in a department.
+	 *
+	 * @param department the department
+	 * @return the counts, in the order of {@link #GRADES}
+	 */
+	public long[] getDepartmentDistribution(String department) {
+		long[] counts = byDepartment.get(department);
+		return counts == null ? new long[GRADES.length()] : counts.clone();
+	}
+
+	/**
+	 * Gets the number of each grade given in courses meeting a core
+	 * requirement.
+	 *
+	 * @param cr the core requirement
+	 * @return the counts, in the order of {@link #GRADES}
+	 */
+	public long[] getRequirementDistribution(CoreRequirement cr) {
+		return byRequirement[cr.ordinal()].clone();
+	}
+
+	/**
+	 * Gets the total credits over all records.
+	 *
+	 * @return the credits
+	 */
+	public long getCredits() {
+		return credits;
+	}
+
+	/**
+	 * Overrides the toString method.
+	 *
+	 * @return the cumulative and term GPAs
+	 */
+	@Override
+	public String toString()
+	{
+		StringBuilder builder = new StringBuilder();
+		builder.append(String.format("Cumulative GPA: %.2f (%d credits)", getCumulativeGpa(), credits));
+		for (Map.Entry<Integer, Double> entry : getTermGpas().entrySet()) {
+			builder.append(String.format("\n%d: %.2f", entry.getKey(), entry.getValue()));
+		}
+		return builder.toString();
+	}
+}
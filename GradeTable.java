@@ -0,0 +1,266 @@
+package edu.mills.cs64.final_project;
+import java.util.Arrays;
+
+
+/**
+ * A compact store of grade rows for large numbers of students. Rather
+ * than keeping a {@link GradeRecord} object per row, each column is
+ * held in a primitive array: the course as its position in a
+ * {@link CourseCatalog}, the year as a short and the grade as a byte.
+ * Grade records are created only when {@link #getGradeRecord(int)} is
+ * called, and aggregate queries run directly on the columns.
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+public class GradeTable
+{
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private CourseCatalog catalog;
+	// Per-course columns of the catalog, indexed by course id.
+	private int[] courseCredits;
+	private int[] courseMasks;
+
+	private int[] courseIds;
+	private short[] years;
+	private byte[] grades;
+	private int size;
+
+	/**
+	 * Constructs an empty table of grades for courses in the given
+	 * catalog.
+	 *
+	 * @param catalog the catalog
+	 */
+	public GradeTable(CourseCatalog catalog)
+	{
+		this(catalog, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructs an empty table of grades for courses in the given
+	 * catalog, with room for the given number of rows.
+	 *
+	 * @param catalog the catalog
+	 * @param initialCapacity the number of rows to allocate
+	 */
+	public GradeTable(CourseCatalog catalog, int initialCapacity)
+	{
+		this.catalog = catalog;
+		courseCredits = new int[catalog.size()];
+		courseMasks = new int[catalog.size()];
+		for (int i = 0; i < catalog.size(); i++) {
+			Course course = catalog.getCourse(i);
+			courseCredits[i] = course.getCredits();
+			courseMasks[i] = course.getRequirementsMask();
+		}
+		initialCapacity = Math.max(1, initialCapacity);
+		courseIds = new int[initialCapacity];
+		years = new short[initialCapacity];
+		grades = new byte[initialCapacity];
+	}
+
+	/**
+	 * Adds a row to this table.
+	 *
+	 * @param course the course, which must be in this table's catalog
+	 * @param year the year the course was taken
+	 * @param grade the grade earned
+	 * @throws IllegalArgumentException if the course is not in the
+	 *     catalog, the year does not fit in a short or the grade is
+	 *     not legal
+	 */
+	public void add(Course course, int year, String grade) throws IllegalArgumentException
+	{
+		int courseId = catalog.indexOf(course);
+		if (courseId < 0) {
+			throw new IllegalArgumentException("Course not in catalog: " + course);
+		}
+		if (year < Short.MIN_VALUE || year > Short.MAX_VALUE) {
+			throw new IllegalArgumentException("Year out of range: " + year);
+		}
+		if (!GradeRecord.isLegalGrade(grade)) {
+			throw new IllegalArgumentException("Illegal grade: " + grade);
+		}
+		if (size == courseIds.length) {
+			int capacity = size + (size >> 1) + 1;
+			courseIds = Arrays.copyOf(courseIds, capacity);
+			years = Arrays.copyOf(years, capacity);
+			grades = Arrays.copyOf(grades, capacity);
+		}
+		courseIds[size] = courseId;
+		years[size] = (short) year;
+		grades[size] = (byte) grade.charAt(0);
+		size++;
+	}
+
+	/**
+	 * Adds a grade record to this table.
+	 *
+	 * @param gradeRecord the grade record
+	 * @throws IllegalArgumentException if the course is not in the
+	 *     catalog or the year does not fit in a short
+	 */
+	public void add(GradeRecord gradeRecord) throws IllegalArgumentException
+	{
+		add(gradeRecord.getCourse(), gradeRecord.getYear(), gradeRecord.getGrade());
+	}
+
+	/**
+	 * Adds every grade record of a transcript to this table.
+	 *
+	 * @param transcript the transcript
+	 * @throws IllegalArgumentException if a course is not in the catalog
+	 */
+	public void addAll(Transcript transcript) throws IllegalArgumentException
+	{
+		for (GradeRecord gr : transcript.getGradeRecords()) {
+			add(gr);
+		}
+	}
+
+	/**
+	 * Gets the number of rows in this table.
+	 *
+	 * @return the number of rows
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the catalog whose course positions this table stores.
+	 *
+	 * @return the catalog
+	 */
+	public CourseCatalog getCatalog() {
+		return catalog;
+	}
+
+	/**
+	 * Gets the course id of a row, which is the course's position in
+	 * the catalog.
+	 *
+	 * @param row the row
+	 * @return the course id
+	 */
+	public int getCourseId(int row) {
+		checkRow(row);
+		return courseIds[row];
+	}
+
+	/**
+	 * Gets the year of a row.
+	 *
+	 * @param row the row
+	 * @return the year the course was taken
+	 */
+	public int getYear(int row) {
+		checkRow(row);
+		return years[row];
+	}
+
+	/**
+	 * Gets the grade of a row.
+	 *
+	 * @param row the row
+	 * @return the grade letter
+	 */
+	public char getGrade(int row) {
+		checkRow(row);
+		return (char) grades[row];
+	}
+
+	/**
+	 * Creates a grade record for a row.
+	 *
+	 * @param row the row
+	 * @return a new grade record with the row's contents
+	 */
+	public GradeRecord getGradeRecord(int row)
+	{
+		checkRow(row);
+		return new GradeRecord(catalog.getCourse(courseIds[row]), years[row],
+				String.valueOf((char) grades[row]));
+	}
+
+	/**
+	 * Sums, for each core requirement, the credits of all rows whose
+	 * course meets it.
+	 *
+	 * @return the credits, indexed by {@link CoreRequirement#ordinal()}
+	 */
+	public long[] getCreditsByRequirement()
+	{
+		return getCreditsByRequirement(0, size);
+	}
+
+	/**
+	 * Sums, for each core requirement, the credits of the rows in a
+	 * range whose course meets it.
+	 *
+	 * @param fromRow the first row, inclusive
+	 * @param toRow the last row, exclusive
+	 * @return the credits, indexed by {@link CoreRequirement#ordinal()}
+	 * @throws IndexOutOfBoundsException if the range is not within the table
+	 */
+	public long[] getCreditsByRequirement(int fromRow, int toRow)
+	{
+		checkRange(fromRow, toRow);
+		long[] credits = new long[CoreRequirement.values().length];
+		for (int row = fromRow; row < toRow; row++) {
+			int courseId = courseIds[row];
+			int mask = courseMasks[courseId];
+			int courseCredit = courseCredits[courseId];
+			while (mask != 0) {
+				credits[Integer.numberOfTrailingZeros(mask)] += courseCredit;
+				mask &= mask - 1;
+			}
+		}
+		return credits;
+	}
+
+	/**
+	 * Counts the rows with each grade.
+	 *
+	 * @return the counts, indexed by letter from 'A' (so that the
+	 *     count of grade g is at index g - 'A')
+	 */
+	public long[] getGradeCounts()
+	{
+		long[] counts = new long['F' - 'A' + 1];
+		for (int row = 0; row < size; row++) {
+			counts[grades[row] - 'A']++;
+		}
+		return counts;
+	}
+
+	/**
+	 * Checks that a row exists.
+	 *
+	 * @param row the row
+	 * @throws IndexOutOfBoundsException if it does not
+	 */
+	private void checkRow(int row)
+	{
+		if (row < 0 || row >= size) {
+			throw new IndexOutOfBoundsException("No row " + row + " in table of " + size);
+		}
+	}
+
+	/**
+	 * Checks that a range of rows is within the table.
+	 *
+	 * @param fromRow the first row, inclusive
+	 * @param toRow the last row, exclusive
+	 * @throws IndexOutOfBoundsException if it is not
+	 */
+	private void checkRange(int fromRow, int toRow)
+	{
+		if (fromRow < 0 || toRow > size || fromRow > toRow) {
+			throw new IndexOutOfBoundsException("Rows " + fromRow + " to " + toRow
+					+ " not in table of " + size);
+		}
+	}
+}
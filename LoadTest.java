@@ -0,0 +1,214 @@
+package edu.mills.cs64.final_project;
+import java.io.FileNotFoundException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+
+/**
+ * Drives an {@link AuditServer} with many concurrent requests and
+ * reports the throughput and latency percentiles. The requests are an
+ * even mix of course lookups, requirement listings and single-student
+ * audits, built from the courses in the same catalog file the server
+ * was started with.
+ * <p>
+ * Each concurrent request needs its own connection, so the server and
+ * the load test should run in separate JVMs when testing thousands of
+ * concurrent requests, to stay within the open file limit.
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+public class LoadTest
+{
+	private static final int RECORDS_PER_AUDIT = 12;
+	private static final int FIRST_YEAR = 2010;
+	private static final String GRADES = "ABCDF";
+
+	private URI base;
+	private List<Course> courses;
+	private Random random = new Random(1);
+
+	/**
+	 * Constructs a load test.
+	 *
+	 * @param base the base URL of the server, such as http://localhost:8080
+	 * @param catalog the catalog to pick courses from
+	 */
+	public LoadTest(String base, CourseCatalog catalog)
+	{
+		this.base = URI.create(base);
+		courses = catalog.getCourses();
+	}
+
+	/**
+	 * Sends requests, keeping a fixed number in flight.
+	 *
+	 * @param concurrency the number of requests in flight
+	 * @param requests the total number of requests
+	 * @return a summary of the run
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public Result run(int concurrency, int requests) throws InterruptedException
+	{
+		HttpClient client = HttpClient.newHttpClient();
+		final Semaphore inFlight = new Semaphore(concurrency);
+		final CountDownLatch done = new CountDownLatch(requests);
+		final long[] latencies = new long[requests];
+		final AtomicInteger errors = new AtomicInteger();
+		long start = System.nanoTime();
+		for (int i = 0; i < requests; i++) {
+			HttpRequest request = nextRequest(i);
+			inFlight.acquire();
+			final int index = i;
+			final long sent = System.nanoTime();
+			client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete(
+					new BiConsumer<HttpResponse<Void>, Throwable>() {
+						@Override
+						public void accept(HttpResponse<Void> response, Throwable error) {
+							latencies[index] = System.nanoTime() - sent;
+							if (error != null || response.statusCode() != 200) {
+								errors.incrementAndGet();
+							}
+							inFlight.release();
+							done.countDown();
+						}
+					});
+		}
+		done.await();
+		return new Result(requests, errors.get(), System.nanoTime() - start, latencies);
+	}
+
+	/**
+	 * Builds the next request of the mix.
+	 *
+	 * @param i the number of the request
+	 * @return the request
+	 */
+	private HttpRequest nextRequest(int i)
+	{
+		switch (i % 3) {
+		case 0:
+			Course course = courses.get(random.nextInt(courses.size()));
+			return HttpRequest.newBuilder(base.resolve("/course?name="
+					+ course.getShortName().replace(' ', '+'))).build();
+		case 1:
+			CoreRequirement[] all = CoreRequirement.values();
+			return HttpRequest.newBuilder(base.resolve("/requirements?code="
+					+ all[random.nextInt(all.length)].name())).build();
+		default:
+			StringBuilder body = new StringBuilder();
+			body.append("B").append(i).append("\nLoad\nTest\n");
+			for (int r = 0; r < RECORDS_PER_AUDIT; r++) {
+				body.append(courses.get(random.nextInt(courses.size())).getShortName())
+					.append('\n').append(FIRST_YEAR + random.nextInt(10)).append('\n')
+					.append(GRADES.charAt(random.nextInt(GRADES.length()))).append('\n');
+			}
+			return HttpRequest.newBuilder(base.resolve("/audit?format=json"))
+					.POST(HttpRequest.BodyPublishers.ofString(body.toString())).build();
+		}
+	}
+
+	/**
+	 * A throughput and latency summary of a load test.
+	 */
+	public static class Result
+	{
+		private int requests;
+		private int errors;
+		private long elapsedNanos;
+		private long[] latencies;
+
+		private Result(int requests, int errors, long elapsedNanos, long[] latencies)
+		{
+			this.requests = requests;
+			this.errors = errors;
+			this.elapsedNanos = elapsedNanos;
+			this.latencies = latencies.clone();
+			Arrays.sort(this.latencies);
+		}
+
+		/**
+		 * Gets the number of requests that failed or did not return 200.
+		 *
+		 * @return the number of errors
+		 */
+		public int getErrors() {
+			return errors;
+		}
+
+		/**
+		 * Gets the number of requests completed per second.
+		 *
+		 * @return the throughput
+		 */
+		public double getRequestsPerSecond() {
+			return elapsedNanos == 0 ? 0 : requests * 1e9 / elapsedNanos;
+		}
+
+		/**
+		 * Gets a latency percentile.
+		 *
+		 * @param percentile the percentile, from 0 to 100
+		 * @return the latency in milliseconds
+		 */
+		public double getLatencyMillis(double percentile) {
+			if (latencies.length == 0) {
+				return 0;
+			}
+			int index = (int) Math.ceil(percentile / 100 * latencies.length) - 1;
+			index = Math.max(0, Math.min(latencies.length - 1, index));
+			return latencies[index] / 1e6;
+		}
+
+		/**
+		 * Overrides the toString method.
+		 *
+		 * @return the counts, throughput and latency percentiles
+		 */
+		@Override
+		public String toString()
+		{
+			return String.format("%d requests (%d errors) in %.1f s: %.1f requests/sec, "
+					+ "p50 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms", requests, errors,
+					elapsedNanos / 1e9, getRequestsPerSecond(), getLatencyMillis(50),
+					getLatencyMillis(99), getLatencyMillis(99.9), getLatencyMillis(100));
+		}
+	}
+
+	/**
+	 * Runs a load test from the command line.
+	 *
+	 * @param args the courses file the server uses, the server's base
+	 *     URL, and optionally the concurrency (10000 by default) and
+	 *     the number of requests (100000 by default)
+	 */
+	public static void main(String[] args)
+	{
+		if (args.length < 2) {
+			System.err.println("Usage: LoadTest COURSES_FILE URL [CONCURRENCY [REQUESTS]]");
+			return;
+		}
+		int concurrency = args.length > 2 ? Integer.parseInt(args[2]) : 10000;
+		int requests = args.length > 3 ? Integer.parseInt(args[3]) : 100000;
+		try {
+			LoadTest test = new LoadTest(args[1], CourseCatalog.load(args[0]));
+			// A short warmup so the server's code is compiled.
+			test.run(Math.min(concurrency, 100), Math.min(requests, 2000));
+			System.out.println(test.run(concurrency, requests));
+		} catch (FileNotFoundException e) {
+			System.err.println(e.toString());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			System.err.println("Load test interrupted.");
+		}
+	}
+}
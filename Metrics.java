@@ -0,0 +1,410 @@
+package edu.mills.cs64.final_project;
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Counters and latency histograms for the hot paths: loading the
+ * catalog, looking up courses, parsing transcripts and recommending
+ * courses. Metrics are only recorded when the system property
+ * {@value #ENABLED_PROPERTY} is "true"; otherwise every recording
+ * method returns at once on a constant test, which the JIT compiles
+ * away.
+ * <p>
+ * Histograms keep counts in log-linear buckets, eight per power of
+ * two, so any latency is recorded to within 12.5% without allocating.
+ * All metrics can be written in the Prometheus text exposition format
+ * with {@link #writePrometheus(Appendable)}. If the system property
+ * {@value #FILE_PROPERTY} names a file, they are also written there
+ * when the JVM exits.
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+public final class Metrics
+{
+	/**
+	 * The system property that turns metrics on.
+	 */
+	public static final String ENABLED_PROPERTY = "studentrecords.metrics";
+
+	/**
+	 * The system property naming a file to write metrics to on exit.
+	 */
+	public static final String FILE_PROPERTY = "studentrecords.metrics.file";
+
+	/**
+	 * Whether metrics are recorded.
+	 */
+	public static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+
+	private static final List<Metric> REGISTRY = new ArrayList<Metric>();
+
+	static final Timer CATALOG_LOAD = timer("catalog_load_seconds",
+			"Time to load a course catalog from a text file.");
+	static final Counter COURSE_LOOKUPS = counter("course_lookups_total",
+			"Course lookups by short name.");
+	static final Counter COURSE_LOOKUP_MISSES = counter("course_lookup_misses_total",
+			"Course lookups by short name that found no course.");
+	static final Timer TRANSCRIPT_PARSE = timer("transcript_parse_seconds",
+			"Time to parse one transcript.");
+	static final Counter UNKNOWN_COURSE_RECORDS = counter(
+			"transcript_unknown_course_records_total",
+			"Grade records dropped because their course is not in the catalog.");
+	static final Timer RECOMMEND = timer("recommend_seconds",
+			"Time to get a recommendation for a transcript.");
+	static final Timer COURSE_SEARCH = timer("course_search_seconds",
+			"Time to search the course index.");
+	static final Counter RECOMMENDATION_CACHE_HITS = counter(
+			"recommendation_cache_hits_total", "Recommendations found in the catalog's cache.");
+	static final Counter RECOMMENDATION_CACHE_MISSES = counter(
+			"recommendation_cache_misses_total", "Recommendations computed afresh.");
+	static final Counter AUDIT_CACHE_HITS = counter("audit_cache_hits_total",
+			"Audits read from the on-disk audit cache.");
+	static final Counter AUDIT_CACHE_MISSES = counter("audit_cache_misses_total",
+			"Audits not found in the on-disk audit cache.");
+	static final Counter AUDIT_CACHE_REJECTED = counter("audit_cache_rejected_total",
+			"Audit cache entries deleted because they failed their integrity check.");
+	static final Counter AUDIT_CACHE_EVICTIONS = counter("audit_cache_evictions_total",
+			"Audit cache entries deleted to keep the cache under its size limit.");
+
+	static {
+		String filename = System.getProperty(FILE_PROPERTY);
+		if (ENABLED && filename != null) {
+			Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						dump(filename);
+					} catch (IOException e) {
+						System.err.println(e.toString());
+					}
+				}
+			}, "metrics-dump"));
+		}
+	}
+
+	private Metrics()
+	{
+	}
+
+	/**
+	 * Gets the time at which an operation starts, for passing to
+	 * {@link Timer#stop(long)}.
+	 *
+	 * @return the current time in nanoseconds, or 0 if metrics are
+	 *     disabled
+	 */
+	public static long start() {
+		return ENABLED ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * Registers a new counter.
+	 *
+	 * @param name the metric name
+	 * @param help a description of the metric
+	 * @return the counter
+	 */
+	public static Counter counter(String name, String help)
+	{
+		Counter counter = new Counter(name, help);
+		register(counter);
+		return counter;
+	}
+
+	/**
+	 * Registers a new latency histogram.
+	 *
+	 * @param name the metric name, which should end in "_seconds"
+	 * @param help a description of the metric
+	 * @return the histogram
+	 */
+	public static Timer timer(String name, String help)
+	{
+		Timer timer = new Timer(name, help);
+		register(timer);
+		return timer;
+	}
+
+	/**
+	 * Adds a metric to the registry.
+	 *
+	 * @param metric the metric
+	 * @throws IllegalArgumentException if a metric of that name exists
+	 */
+	private static void register(Metric metric) throws IllegalArgumentException
+	{
+		synchronized (REGISTRY) {
+			for (Metric m : REGISTRY) {
+				if (m.name.equals(metric.name)) {
+					throw new IllegalArgumentException("Duplicate metric: " + metric.name);
+				}
+			}
+			REGISTRY.add(metric);
+		}
+	}
+
+	/**
+	 * Writes every metric in the Prometheus text exposition format.
+	 *
+	 * @param out where to write
+	 * @throws IOException if the output cannot be written
+	 */
+	public static void writePrometheus(Appendable out) throws IOException
+	{
+		List<Metric> metrics;
+		synchronized (REGISTRY) {
+			metrics = new ArrayList<Metric>(REGISTRY);
+		}
+		for (Metric metric : metrics) {
+			out.append("# HELP ").append(metric.name).append(' ').append(metric.help)
+				.append("\n# TYPE ").append(metric.name).append(' ').append(metric.type())
+				.append('\n');
+			metric.writeSamples(out);
+		}
+	}
+
+	/**
+	 * Writes every metric to a file in the Prometheus text format.
+	 *
+	 * @param filename the name of the file
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void dump(String filename) throws IOException
+	{
+		Writer out = new BufferedWriter(new FileWriter(filename));
+		try {
+			writePrometheus(out);
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * A named metric.
+	 */
+	private abstract static class Metric
+	{
+		private String name;
+		private String help;
+
+		private Metric(String name, String help)
+		{
+			this.name = name;
+			this.help = help;
+		}
+
+		abstract String type();
+
+		abstract void writeSamples(Appendable out) throws IOException;
+	}
+
+	/**
+	 * A count that only goes up.
+	 */
+	public static final class Counter extends Metric
+	{
+		private LongAdder count = new LongAdder();
+
+		private Counter(String name, String help)
+		{
+			super(name, help);
+		}
+
+		/**
+		 * Adds one to the count.
+		 */
+		public void increment() {
+			if (ENABLED) {
+				count.increment();
+			}
+		}
+
+		/**
+		 * Adds to the count.
+		 *
+		 * @param n the amount to add
+		 */
+		public void add(long n) {
+			if (ENABLED) {
+				count.add(n);
+			}
+		}
+
+		/**
+		 * Gets the count.
+		 *
+		 * @return the count
+		 */
+		public long get() {
+			return count.sum();
+		}
+
+		@Override
+		String type() {
+			return "counter";
+		}
+
+		@Override
+		void writeSamples(Appendable out) throws IOException {
+			out.append(super.name).append(' ').append(Long.toString(get())).append('\n');
+		}
+	}
+
+	/**
+	 * A histogram of latencies.
+	 */
+	public static final class Timer extends Metric
+	{
+		private static final int SUB_BUCKET_BITS = 3;
+		private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+		// Powers of two of nanoseconds reported as Prometheus buckets:
+		// from about 1 microsecond to about 69 seconds.
+		private static final int MIN_EXPORTED_POWER = 10;
+		private static final int MAX_EXPORTED_POWER = 36;
+
+		private AtomicLongArray counts = new AtomicLongArray(64 * SUB_BUCKETS);
+		private LongAdder sum = new LongAdder();
+
+		private Timer(String name, String help)
+		{
+			super(name, help);
+		}
+
+		/**
+		 * Records the time since an operation started.
+		 *
+		 * @param start the value returned by {@link Metrics#start()}
+		 *     when the operation started
+		 */
+		public void stop(long start) {
+			if (ENABLED) {
+				record(System.nanoTime() - start);
+			}
+		}
+
+		/**
+		 * Records a latency.
+		 *
+		 * @param nanos the latency in nanoseconds
+		 */
+		public void record(long nanos) {
+			if (ENABLED) {
+				nanos = Math.max(0, nanos);
+				counts.incrementAndGet(bucket(nanos));
+				sum.add(nanos);
+			}
+		}
+
+		/**
+		 * Gets the bucket holding a value: values below
+		 * {@link #SUB_BUCKETS} have a bucket each, and each higher
+		 * power of two is split into {@link #SUB_BUCKETS} buckets.
+		 */
+		private static int bucket(long value)
+		{
+			if (value < SUB_BUCKETS) {
+				return (int) value;
+			}
+			int power = 63 - Long.numberOfLeadingZeros(value);
+			int sub = (int) (value >>> (power - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+			return power * SUB_BUCKETS + sub;
+		}
+
+		/**
+		 * Gets the largest value in a bucket.
+		 */
+		private static long upperBound(int bucket)
+		{
+			if (bucket < SUB_BUCKETS) {
+				return bucket;
+			}
+			int power = bucket / SUB_BUCKETS;
+			int sub = bucket % SUB_BUCKETS;
+			return ((long) (SUB_BUCKETS + sub + 1) << (power - SUB_BUCKET_BITS)) - 1;
+		}
+
+		/**
+		 * Gets the number of latencies recorded.
+		 *
+		 * @return the count
+		 */
+		public long getCount() {
+			long count = 0;
+			for (int i = 0; i < counts.length(); i++) {
+				count += counts.get(i);
+			}
+			return count;
+		}
+
+		/**
+		 * Gets a latency percentile, to within the bucket resolution.
+		 *
+		 * @param percentile the percentile, from 0 to 100
+		 * @return the latency in nanoseconds, or 0 if none are recorded
+		 */
+		public long getPercentileNanos(double percentile) {
+			long[] snapshot = snapshot();
+			long total = 0;
+			for (long c : snapshot) {
+				total += c;
+			}
+			long rank = (long) Math.ceil(percentile / 100 * total);
+			long seen = 0;
+			for (int i = 0; i < snapshot.length; i++) {
+				seen += snapshot[i];
+				if (seen >= rank && seen > 0) {
+					return upperBound(i);
+				}
+			}
+			return 0;
+		}
+
+		private long[] snapshot()
+		{
+			long[] snapshot = new long[counts.length()];
+			for (int i = 0; i < snapshot.length; i++) {
+				snapshot[i] = counts.get(i);
+			}
+			return snapshot;
+		}
+
+		@Override
+		String type() {
+			return "histogram";
+		}
+
+		@Override
+		void writeSamples(Appendable out) throws IOException {
+			long[] snapshot = snapshot();
+			long cumulative = 0;
+			int bucket = 0;
+			for (int power = MIN_EXPORTED_POWER; power <= MAX_EXPORTED_POWER; power++) {
+				// Buckets below index power * SUB_BUCKETS hold values
+				// below 2^power.
+				for (; bucket < power * SUB_BUCKETS; bucket++) {
+					cumulative += snapshot[bucket];
+				}
+				out.append(super.name).append("_bucket{le=\"")
+					.append(Double.toString((1L << power) / 1e9)).append("\"} ")
+					.append(Long.toString(cumulative)).append('\n');
+			}
+			for (; bucket < snapshot.length; bucket++) {
+				cumulative += snapshot[bucket];
+			}
+			out.append(super.name).append("_bucket{le=\"+Inf\"} ")
+				.append(Long.toString(cumulative)).append('\n')
+				.append(super.name).append("_sum ").append(Double.toString(sum.sum() / 1e9))
+				.append('\n')
+				.append(super.name).append("_count ").append(Long.toString(cumulative))
+				.append('\n');
+		}
+	}
+}
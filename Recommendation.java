@@ -0,0 +1,222 @@
+package edu.mills.cs64.final_project;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * Courses recommended to satisfy the core requirements that a
+ * transcript has not yet met. Recommendations are obtained through
+ * {@link Transcript#getRecommendation()}.
+ * <p>
+ * Recommendations are computed from the per-requirement course lists
+ * of a {@link CourseCatalog} and are cached in that catalog by
+ * coverage profile: the unmet requirements together with the courses
+ * already taken that would otherwise have been recommended. Students
+ * with the same profile share one immutable recommendation.
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+public class Recommendation
+{
+	private static final int CACHE_SIZE = 1024;
+	private static final Comparator<Course> BY_SHORT_NAME = new Comparator<Course>() {
+		@Override
+		public int compare(Course c1, Course c2) {
+			return c1.getShortName().compareTo(c2.getShortName());
+		}
+	};
+
+	private int unmetMask;
+	private Map<CoreRequirement, List<Course>> coursesByRequirement;
+	// Rendered on first use; recommendations are shared and immutable.
+	private volatile String text;
+
+	/**
+	 * Constructs a recommendation for the given unmet requirements,
+	 * excluding courses already taken.
+	 *
+	 * @param catalog the catalog to recommend from
+	 * @param unmetMask the mask of unmet requirements
+	 * @param taken the courses already taken
+	 */
+	private Recommendation(CourseCatalog catalog, int unmetMask, Course[] taken)
+	{
+		this.unmetMask = unmetMask;
+		coursesByRequirement = new EnumMap<CoreRequirement, List<Course>>(CoreRequirement.class);
+		for (CoreRequirement cr : CoreRequirement.fromMask(unmetMask)) {
+			List<Course> courses = new ArrayList<Course>();
+			for (Course c : catalog.getCoursesMeetingRequirements(cr)) {
+				if (Arrays.binarySearch(taken, c, BY_SHORT_NAME) < 0) {
+					courses.add(c);
+				}
+			}
+			coursesByRequirement.put(cr, Collections.unmodifiableList(courses));
+		}
+		coursesByRequirement = Collections.unmodifiableMap(coursesByRequirement);
+	}
+
+	/**
+	 * Gets the recommendation for a student with the given unmet
+	 * requirements who has taken the given courses.
+	 *
+	 * @param catalog the catalog to recommend from
+	 * @param unmetMask the mask of unmet requirements
+	 * @param coursesTaken the courses already taken
+	 * @return the recommendation
+	 */
+	static Recommendation recommend(CourseCatalog catalog, int unmetMask,
+			Set<Course> coursesTaken)
+	{
+		// Only taken courses that meet an unmet requirement can change
+		// the result, so the rest are left out of the cache key.
+		List<Course> relevant = new ArrayList<Course>();
+		for (Course c : coursesTaken) {
+			if ((c.getRequirementsMask() & unmetMask) != 0) {
+				relevant.add(c);
+			}
+		}
+		Course[] taken = relevant.toArray(new Course[relevant.size()]);
+		Arrays.sort(taken, BY_SHORT_NAME);
+		Profile profile = new Profile(unmetMask, taken);
+
+		Map<Profile, Recommendation> cache = catalog.getRecommendationCache();
+		Recommendation recommendation;
+		synchronized (cache) {
+			recommendation = cache.get(profile);
+		}
+		if (recommendation != null) {
+			Metrics.RECOMMENDATION_CACHE_HITS.increment();
+		} else {
+			Metrics.RECOMMENDATION_CACHE_MISSES.increment();
+			recommendation = new Recommendation(catalog, unmetMask, taken);
+			synchronized (cache) {
+				cache.put(profile, recommendation);
+			}
+		}
+		return recommendation;
+	}
+
+	/**
+	 * Creates an empty cache that evicts the least recently used
+	 * recommendation once it holds {@link #CACHE_SIZE} entries.
+	 *
+	 * @return the cache
+	 */
+	static Map<Profile, Recommendation> newCache()
+	{
+		return new LinkedHashMap<Profile, Recommendation>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Profile, Recommendation> eldest) {
+				return size() > CACHE_SIZE;
+			}
+		};
+	}
+
+	/**
+	 * Gets the requirements that are not yet met.
+	 *
+	 * @return the unmet requirements
+	 */
+	public Set<CoreRequirement> getUnmetRequirements() {
+		return coursesByRequirement.keySet();
+	}
+
+	/**
+	 * Gets the unmet requirements as a mask in which the bit
+	 * {@link CoreRequirement#getMask()} is set for each one.
+	 *
+	 * @return the mask of unmet requirements
+	 */
+	public int getUnmetRequirementsMask() {
+		return unmetMask;
+	}
+
+	/**
+	 * Gets the recommended courses for a requirement.
+	 *
+	 * @param cr the core requirement
+	 * @return the courses not yet taken that meet the requirement, or
+	 *     an empty list if the requirement is already met
+	 */
+	public List<Course> getCourses(CoreRequirement cr) {
+		List<Course> courses = coursesByRequirement.get(cr);
+		if (courses == null) {
+			return Collections.emptyList();
+		}
+		return courses;
+	}
+
+	/**
+	 * Checks whether all requirements are met.
+	 *
+	 * @return true if there is nothing left to recommend, false otherwise
+	 */
+	public boolean isEmpty() {
+		return unmetMask == 0;
+	}
+
+	/**
+	 * Overrides the toString method.
+	 *
+	 * @return each unmet requirement followed by the courses that
+	 * would satisfy it, or a statement that all are met
+	 */
+	@Override
+	public String toString()
+	{
+		if (text == null) {
+			StringBuilder builder = new StringBuilder();
+			try {
+				ReportFormat.writeText(this, builder);
+			} catch (IOException e) {
+				// StringBuilder does not throw.
+				throw new UncheckedIOException(e);
+			}
+			text = builder.toString();
+		}
+		return text;
+	}
+
+	/**
+	 * A cache key describing a student's coverage profile.
+	 */
+	static class Profile
+	{
+		private int unmetMask;
+		private Course[] taken;
+
+		private Profile(int unmetMask, Course[] taken)
+		{
+			this.unmetMask = unmetMask;
+			this.taken = taken;
+		}
+
+		@Override
+		public boolean equals(Object o)
+		{
+			if (!(o instanceof Profile)) {
+				return false;
+			}
+			Profile other = (Profile) o;
+			return unmetMask == other.unmetMask && Arrays.equals(taken, other.taken);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return 31 * unmetMask + Arrays.hashCode(taken);
+		}
+	}
+}
@@ -0,0 +1,445 @@
+package edu.mills.cs64.final_project;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+
+/**
+ * Formats in which transcript audits can be written. Reports are
+ * written straight to an {@link Appendable}, such as a
+ * {@link java.io.Writer} or a {@link StringBuilder}, without building
+ * intermediate strings, so many reports can be streamed to a file or
+ * socket cheaply.
+ * <p>
+ * A full audit is the transcript followed by its recommendations:
+ * <ul>
+ * <li>{@link #TEXT} is the human-readable form returned by
+ * {@link Transcript#toString()} and {@link Transcript#recommendCourses()}.</li>
+ * <li>{@link #CSV} writes one row per fact, tagged by its first column:
+ * <pre>
+ * record,ID,COURSE,YEAR,GRADE,REQUIREMENTS
+ * requirement,ID,REQUIREMENT,CREDITS_EARNED,CREDITS_REQUIRED
+ * recommendation,ID,REQUIREMENT,COURSE
+ * error,SOURCE,MESSAGE
+ * </pre>
+ * where REQUIREMENTS is the space-separated codes met by the course.</li>
+ * <li>{@link #JSON} writes one object per line, so that a batch is
+ * a stream of JSON lines.</li>
+ * </ul>
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+public enum ReportFormat
+{
+	TEXT {
+		@Override
+		public void writeTranscript(Transcript transcript, Appendable out) throws IOException
+		{
+			out.append("Transcript for ").append(transcript.getFirstName()).append(' ')
+				.append(transcript.getLastName()).append("\nid: ").append(transcript.getId());
+			for (GradeRecord gr : transcript.getGradeRecords()) {
+				out.append('\n');
+				appendCourse(gr.getCourse(), out);
+				out.append(' ');
+				appendInt(gr.getYear(), out);
+				out.append(": ").append(gr.getGrade()).append(" *");
+				for (CoreRequirement cr : gr.getCourse().getRequirementsMet()) {
+					out.append(cr.name()).append(' ');
+				}
+			}
+			out.append("\n\nCore requirements: ");
+			for (CoreRequirement cr : CoreRequirement.values()) {
+				out.append('\n').append(cr.getTitle()).append(" (").append(cr.name()).append("): ");
+				appendInt(transcript.getCreditsMet(cr), out);
+				out.append('/');
+				appendInt(cr.getCredits(), out);
+			}
+		}
+
+		@Override
+		public void writeRecommendation(Transcript transcript, Appendable out)
+				throws IOException
+		{
+			// Recommendations are shared between students and keep their
+			// rendered text, so it is copied rather than rebuilt.
+			out.append(transcript.getRecommendation().toString());
+		}
+
+		@Override
+		public void writeAudit(Transcript transcript, Appendable out) throws IOException
+		{
+			writeTranscript(transcript, out);
+			out.append('\n');
+			writeRecommendation(transcript, out);
+		}
+
+		@Override
+		public void writeFailure(String source, Exception error, Appendable out)
+				throws IOException
+		{
+			out.append("FAILED: ").append(error.toString());
+		}
+	},
+
+	CSV {
+		@Override
+		public void writeTranscript(Transcript transcript, Appendable out) throws IOException
+		{
+			for (GradeRecord gr : transcript.getGradeRecords()) {
+				out.append("record,");
+				appendCsv(transcript.getId(), out);
+				out.append(',').append(gr.getCourse().getShortName()).append(',');
+				appendInt(gr.getYear(), out);
+				out.append(',').append(gr.getGrade()).append(',');
+				CoreRequirement[] met = gr.getCourse().getRequirementsMet();
+				for (int i = 0; i < met.length; i++) {
+					if (i > 0) {
+						out.append(' ');
+					}
+					out.append(met[i].name());
+				}
+				out.append('\n');
+			}
+			for (CoreRequirement cr : CoreRequirement.values()) {
+				out.append("requirement,");
+				appendCsv(transcript.getId(), out);
+				out.append(',').append(cr.name()).append(',');
+				appendInt(transcript.getCreditsMet(cr), out);
+				out.append(',');
+				appendInt(cr.getCredits(), out);
+				out.append('\n');
+			}
+		}
+
+		@Override
+		public void writeRecommendation(Transcript transcript, Appendable out)
+				throws IOException
+		{
+			Recommendation recommendation = transcript.getRecommendation();
+			for (CoreRequirement cr : recommendation.getUnmetRequirements()) {
+				for (Course c : recommendation.getCourses(cr)) {
+					out.append("recommendation,");
+					appendCsv(transcript.getId(), out);
+					out.append(',').append(cr.name()).append(',').append(c.getShortName())
+						.append('\n');
+				}
+			}
+		}
+
+		@Override
+		public void writeAudit(Transcript transcript, Appendable out) throws IOException
+		{
+			writeTranscript(transcript, out);
+			writeRecommendation(transcript, out);
+		}
+
+		@Override
+		public void writeFailure(String source, Exception error, Appendable out)
+				throws IOException
+		{
+			out.append("error,");
+			appendCsv(source, out);
+			out.append(',');
+			appendCsv(error.toString(), out);
+			out.append('\n');
+		}
+	},
+
+	JSON {
+		@Override
+		public void writeTranscript(Transcript transcript, Appendable out) throws IOException
+		{
+			writeStudent(transcript, out);
+			out.append("}\n");
+		}
+
+		@Override
+		public void writeRecommendation(Transcript transcript, Appendable out)
+				throws IOException
+		{
+			out.append("{\"id\":");
+			appendJson(transcript.getId(), out);
+			out.append(',');
+			writeRecommendations(transcript.getRecommendation(), out);
+			out.append("}\n");
+		}
+
+		@Override
+		public void writeAudit(Transcript transcript, Appendable out) throws IOException
+		{
+			writeStudent(transcript, out);
+			out.append(',');
+			writeRecommendations(transcript.getRecommendation(), out);
+			out.append("}\n");
+		}
+
+		@Override
+		public void writeFailure(String source, Exception error, Appendable out)
+				throws IOException
+		{
+			out.append("{\"source\":");
+			appendJson(source, out);
+			out.append(",\"error\":");
+			appendJson(error.toString(), out);
+			out.append("}\n");
+		}
+
+		/**
+		 * Writes the student, records and requirements of a transcript
+		 * as an unterminated JSON object.
+		 */
+		private void writeStudent(Transcript transcript, Appendable out) throws IOException
+		{
+			out.append("{\"id\":");
+			appendJson(transcript.getId(), out);
+			out.append(",\"firstName\":");
+			appendJson(transcript.getFirstName(), out);
+			out.append(",\"lastName\":");
+			appendJson(transcript.getLastName(), out);
+			out.append(",\"records\":[");
+			List<GradeRecord> records = transcript.getGradeRecords();
+			for (int i = 0; i < records.size(); i++) {
+				GradeRecord gr = records.get(i);
+				out.append(i == 0 ? "{" : ",{").append("\"course\":");
+				appendJson(gr.getCourse().getShortName(), out);
+				out.append(",\"year\":");
+				appendInt(gr.getYear(), out);
+				out.append(",\"grade\":\"").append(gr.getGrade()).append("\",\"requirements\":[");
+				CoreRequirement[] met = gr.getCourse().getRequirementsMet();
+				for (int j = 0; j < met.length; j++) {
+					out.append(j == 0 ? "\"" : ",\"").append(met[j].name()).append('"');
+				}
+				out.append("]}");
+			}
+			out.append("],\"requirements\":{");
+			for (CoreRequirement cr : CoreRequirement.values()) {
+				out.append(cr.ordinal() == 0 ? "\"" : ",\"").append(cr.name())
+					.append("\":{\"earned\":");
+				appendInt(transcript.getCreditsMet(cr), out);
+				out.append(",\"required\":");
+				appendInt(cr.getCredits(), out);
+				out.append('}');
+			}
+			out.append('}');
+		}
+
+		/**
+		 * Writes a recommendation as a "recommendations" member.
+		 */
+		private void writeRecommendations(Recommendation recommendation, Appendable out)
+				throws IOException
+		{
+			out.append("\"recommendations\":{");
+			boolean first = true;
+			for (CoreRequirement cr : recommendation.getUnmetRequirements()) {
+				out.append(first ? "\"" : ",\"").append(cr.name()).append("\":[");
+				first = false;
+				List<Course> courses = recommendation.getCourses(cr);
+				for (int i = 0; i < courses.size(); i++) {
+					if (i > 0) {
+						out.append(',');
+					}
+					appendJson(courses.get(i).getShortName(), out);
+				}
+				out.append(']');
+			}
+			out.append('}');
+		}
+	};
+
+	/**
+	 * Writes a transcript: the student, grade records and credits
+	 * earned toward each requirement.
+	 *
+	 * @param transcript the transcript
+	 * @param out where to write
+	 * @throws IOException if the output cannot be written
+	 */
+	public abstract void writeTranscript(Transcript transcript, Appendable out)
+			throws IOException;
+
+	/**
+	 * Writes the courses recommended to satisfy a transcript's remaining
+	 * requirements.
+	 *
+	 * @param transcript the transcript
+	 * @param out where to write
+	 * @throws IOException if the output cannot be written
+	 */
+	public abstract void writeRecommendation(Transcript transcript, Appendable out)
+			throws IOException;
+
+	/**
+	 * Writes a transcript followed by its recommendations.
+	 *
+	 * @param transcript the transcript
+	 * @param out where to write
+	 * @throws IOException if the output cannot be written
+	 */
+	public abstract void writeAudit(Transcript transcript, Appendable out) throws IOException;
+
+	/**
+	 * Writes a note that a transcript could not be audited.
+	 *
+	 * @param source where the transcript came from, such as its file name
+	 * @param error what went wrong
+	 * @param out where to write
+	 * @throws IOException if the output cannot be written
+	 */
+	public abstract void writeFailure(String source, Exception error, Appendable out)
+			throws IOException;
+
+	/**
+	 * Writes an audit into a string.
+	 *
+	 * @param transcript the transcript
+	 * @return the audit
+	 */
+	public String format(Transcript transcript)
+	{
+		StringBuilder builder = new StringBuilder();
+		try {
+			writeAudit(transcript, builder);
+		} catch (IOException e) {
+			// StringBuilder does not throw.
+			throw new UncheckedIOException(e);
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Gets the format with the given name, ignoring case.
+	 *
+	 * @param name the name, such as "csv"
+	 * @return the format
+	 * @throws IllegalArgumentException if there is no such format
+	 */
+	public static ReportFormat forName(String name) throws IllegalArgumentException
+	{
+		for (ReportFormat format : values()) {
+			if (format.name().equalsIgnoreCase(name)) {
+				return format;
+			}
+		}
+		throw new IllegalArgumentException("Unknown report format: " + name);
+	}
+
+	/**
+	 * Writes a recommendation in the {@link #TEXT} format, as returned
+	 * by {@link Recommendation#toString()}.
+	 *
+	 * @param recommendation the recommendation
+	 * @param out where to write
+	 * @throws IOException if the output cannot be written
+	 */
+	static void writeText(Recommendation recommendation, Appendable out) throws IOException
+	{
+		if (recommendation.isEmpty()) {
+			out.append("\nAll core requirements are met.");
+			return;
+		}
+		for (CoreRequirement cr : recommendation.getUnmetRequirements()) {
+			out.append("\nTo satisfy the ").append(cr.getTitle())
+				.append(" requirement take any of: ");
+			for (Course c : recommendation.getCourses(cr)) {
+				out.append("\n\t");
+				appendCourse(c, out);
+			}
+		}
+	}
+
+	/**
+	 * Writes a course as {@link Course#toString()} would.
+	 */
+	private static void appendCourse(Course course, Appendable out) throws IOException
+	{
+		out.append(course.getShortName()).append(": ").append(course.getName()).append('(');
+		appendInt(course.getCredits(), out);
+		out.append(')');
+	}
+
+	/**
+	 * Writes a decimal integer without creating a string.
+	 */
+	static void appendInt(int value, Appendable out) throws IOException
+	{
+		if (value < 0) {
+			if (value == Integer.MIN_VALUE) {
+				out.append("-2147483648");
+				return;
+			}
+			out.append('-');
+			value = -value;
+		}
+		int divisor = 1;
+		while (divisor <= value / 10) {
+			divisor *= 10;
+		}
+		for (; divisor > 0; divisor /= 10) {
+			out.append((char) ('0' + value / divisor % 10));
+		}
+	}
+
+	/**
+	 * Writes a CSV field, quoting it if it holds a comma, quote or
+	 * line break.
+	 */
+	private static void appendCsv(String value, Appendable out) throws IOException
+	{
+		boolean quote = false;
+		for (int i = 0; i < value.length() && !quote; i++) {
+			char c = value.charAt(i);
+			quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+		}
+		if (!quote) {
+			out.append(value);
+			return;
+		}
+		out.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"') {
+				out.append('"');
+			}
+			out.append(c);
+		}
+		out.append('"');
+	}
+
+	/**
+	 * Writes a JSON string literal.
+	 */
+	static void appendJson(String value, Appendable out) throws IOException
+	{
+		out.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '"':
+				out.append("\\\"");
+				break;
+			case '\\':
+				out.append("\\\\");
+				break;
+			case '\n':
+				out.append("\\n");
+				break;
+			case '\r':
+				out.append("\\r");
+				break;
+			case '\t':
+				out.append("\\t");
+				break;
+			default:
+				if (c < 0x20) {
+					out.append("\\u00");
+					out.append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+				} else {
+					out.append(c);
+				}
+			}
+		}
+		out.append('"');
+	}
+}
@@ -0,0 +1,54 @@
+package edu.mills.cs64.final_project;
+
+import java.util.EnumSet;
+
+/**
+ * The terms of the academic year in which courses are offered.
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+public enum Term {
+	FALL,
+	SPRING;
+
+	/**
+	 * A mask with the bit of every term set.
+	 */
+	public static final int ALL_MASK = (1 << values().length) - 1;
+
+	/**
+	 * Gets the bit that represents this term in a term mask, such as
+	 * those returned by {@link Course#getTermsMask()}.
+	 *
+	 * @return the mask with only this term's bit set
+	 */
+	public int getMask() {
+		return 1 << ordinal();
+	}
+
+	/**
+	 * Gets the term that follows this one.
+	 *
+	 * @return the next term
+	 */
+	public Term next() {
+		return values()[(ordinal() + 1) % values().length];
+	}
+
+	/**
+	 * Gets the terms whose bits are set in a term mask.
+	 *
+	 * @param mask a term mask
+	 * @return the terms in the mask
+	 */
+	public static EnumSet<Term> fromMask(int mask) {
+		EnumSet<Term> terms = EnumSet.noneOf(Term.class);
+		for (Term term : values()) {
+			if ((mask & term.getMask()) != 0) {
+				terms.add(term);
+			}
+		}
+		return terms;
+	}
+}
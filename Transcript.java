@@ -1,9 +1,16 @@
 package edu.mills.cs64.final_project;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Scanner;
+import java.util.Map;
+import java.util.Set;
 
 
 /**
@@ -19,7 +26,20 @@ public class Transcript
 	private String firstName;
 	private String lastName;
 	private List<GradeRecord> gradeRecords;
+	private CourseCatalog catalog;
 	private int requirementsMet[] = new int[CoreRequirement.values().length];
+	private int satisfiedMask;
+	// How many records of each course are on the transcript.
+	private Map<Course, Integer> courseCounts = new HashMap<Course, Integer>();
+	// In a fork, the counts of the transcript it was forked from, which
+	// are never changed; courseCounts then only holds the counts that
+	// differ from them.
+	private Map<Course, Integer> baseCounts;
+	// Set while forks share gradeRecords and courseCounts, which must
+	// then be copied before this transcript changes them.
+	private boolean shared;
+	private Recommendation recommendation;
+	private List<TranscriptListener> listeners;
 
 	/**
 	 * Constructs a transcript from a file. The first three lines 
@@ -49,38 +69,22 @@ public class Transcript
 	 * A
 	 * </pre>
 	 * Grade records are only added to the transcript if the course
-	 * is found by {@link Course#getClass()}.
+	 * is found by {@link Course#getCourse(String)}. The transcript
+	 * keeps using the catalog that was current when it was read.
 	 * <p>
-	 * Results are undefined if the file is not in the appropriate format.
-	 * (In other words, this method does not do any error checking.)
+	 * If the file holds several students separated by blank lines,
+	 * only the first is read; use {@link TranscriptReader} to read
+	 * them all.
 	 * 
 	 * @param filename the name of the transcript file
 	 * @throws FileNotFoundException if the file cannot be found
+	 * @throws IllegalArgumentException if the file is not in the
+	 *     appropriate format
+	 * @throws UncheckedIOException if the file cannot be read
 	 */
 	public Transcript(String filename) throws FileNotFoundException
 	{
-		File inputFile = new File(filename);
-		Scanner scanner = new Scanner(inputFile);
-		gradeRecords = new ArrayList<GradeRecord>();
-
-		while (scanner.hasNextLine()) {
-			id = scanner.nextLine(); 
-			firstName = scanner.nextLine();
-			lastName = scanner.nextLine();
-
-			while (scanner.hasNextLine()) {
-				Course course = Course.getCourse(scanner.nextLine());
-				int year = Integer.parseInt(scanner.nextLine());
-				String grade = scanner.nextLine();
-				if (course != null) {
-					gradeRecords.add(new GradeRecord(course, year, grade));
-					for (CoreRequirement cr : course.getRequirementsMet()){
-						requirementsMet[cr.ordinal()] += course.getCredits();
-					}
-				}
-			}
-		}
-		scanner.close(); 
+		this(readFirst(filename));
 	}
 
 	/**
@@ -88,12 +92,289 @@ public class Transcript
 	 * as an argument. Its behavior is identical
 	 * to the first constructor. 
 	 * 
-	 * @param file
-	 * @throws FileNotFoundException
+	 * @param file the transcript file
+	 * @throws FileNotFoundException if the file cannot be found
 	 */
 	public Transcript(File file) throws FileNotFoundException 
 	{
-		this(file.getName());
+		this(file.getPath());
+	}
+
+	/**
+	 * Constructs a copy of another transcript.
+	 * 
+	 * @param other the transcript to copy
+	 */
+	private Transcript(Transcript other)
+	{
+		id = other.id;
+		firstName = other.firstName;
+		lastName = other.lastName;
+		catalog = other.catalog;
+		gradeRecords = other.gradeRecords;
+		requirementsMet = other.requirementsMet;
+		satisfiedMask = other.satisfiedMask;
+		courseCounts = other.courseCounts;
+	}
+
+	/**
+	 * Reads the first transcript in a file.
+	 * 
+	 * @param filename the name of the transcript file
+	 * @return the transcript
+	 * @throws FileNotFoundException if the file cannot be found
+	 * @throws IllegalArgumentException if the file holds no transcript
+	 *     or is not in the appropriate format
+	 * @throws UncheckedIOException if the file cannot be read
+	 */
+	private static Transcript readFirst(String filename) throws FileNotFoundException
+	{
+		TranscriptReader reader = new TranscriptReader(filename);
+		try {
+			Transcript transcript = reader.read();
+			if (transcript == null) {
+				throw new IllegalArgumentException(filename + " holds no transcript");
+			}
+			return transcript;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			try {
+				reader.close();
+			} catch (IOException e) {
+				System.err.println(e.toString());
+			}
+		}
+	}
+
+	/**
+	 * Constructs a transcript with no grade records for a student
+	 * whose courses are looked up in the given catalog.
+	 * 
+	 * @param id the Mills id
+	 * @param firstName the first name
+	 * @param lastName the last name
+	 * @param catalog the catalog
+	 */
+	Transcript(String id, String firstName, String lastName, CourseCatalog catalog)
+	{
+		this.id = id;
+		this.firstName = firstName;
+		this.lastName = lastName;
+		this.catalog = catalog;
+		gradeRecords = new ArrayList<GradeRecord>();
+	}
+
+	/**
+	 * Adds a grade record and its credits to this transcript.
+	 * 
+	 * @param gradeRecord the grade record
+	 * @throws IllegalArgumentException if the record's course is not
+	 *     in this transcript's catalog
+	 */
+	public void addGradeRecord(GradeRecord gradeRecord) throws IllegalArgumentException
+	{
+		Course course = gradeRecord.getCourse();
+		if (catalog.getCourse(course.getDepartment(), course.getNumber()) != course) {
+			throw new IllegalArgumentException("Course not in catalog: " + course);
+		}
+		beforeWrite();
+		gradeRecords.add(gradeRecord);
+		updateCredits(course, 1);
+		fireTranscriptChanged(null, gradeRecord, course.getRequirementsMask());
+	}
+
+	/**
+	 * Removes a grade record and its credits from this transcript.
+	 * 
+	 * @param gradeRecord the grade record, as returned by
+	 *     {@link #getGradeRecords()}
+	 * @return true if the record was on this transcript, false otherwise
+	 */
+	public boolean removeGradeRecord(GradeRecord gradeRecord)
+	{
+		int index = gradeRecords.indexOf(gradeRecord);
+		if (index < 0) {
+			return false;
+		}
+		beforeWrite();
+		gradeRecords.remove(index);
+		Course course = gradeRecord.getCourse();
+		updateCredits(course, -1);
+		fireTranscriptChanged(gradeRecord, null, course.getRequirementsMask());
+		return true;
+	}
+
+	/**
+	 * Changes the grade of a record on this transcript. Since grades
+	 * do not affect requirement credits, no tallies change.
+	 * 
+	 * @param gradeRecord the grade record, as returned by
+	 *     {@link #getGradeRecords()}
+	 * @param grade the new grade
+	 * @return the record that replaced the old one
+	 * @throws IllegalArgumentException if the record is not on this
+	 *     transcript or the grade is not legal
+	 */
+	public GradeRecord regrade(GradeRecord gradeRecord, String grade)
+			throws IllegalArgumentException
+	{
+		int index = gradeRecords.indexOf(gradeRecord);
+		if (index < 0) {
+			throw new IllegalArgumentException("Record not on transcript: " + gradeRecord);
+		}
+		GradeRecord regraded = new GradeRecord(gradeRecord.getCourse(),
+				gradeRecord.getYear(), grade);
+		beforeWrite();
+		gradeRecords.set(index, regraded);
+		fireTranscriptChanged(gradeRecord, regraded, 0);
+		return regraded;
+	}
+
+	/**
+	 * Adds or removes the credits of a course from the tally of each
+	 * requirement it meets, updating which requirements are satisfied.
+	 * This touches only the requirements the course meets.
+	 * 
+	 * @param course the course
+	 * @param sign 1 to add the course, -1 to remove it
+	 */
+	private void updateCredits(Course course, int sign)
+	{
+		for (CoreRequirement cr : course.getRequirementsMet()) {
+			requirementsMet[cr.ordinal()] += sign * course.getCredits();
+			if (requirementsMet[cr.ordinal()] >= cr.getCredits()) {
+				satisfiedMask |= cr.getMask();
+			} else {
+				satisfiedMask &= ~cr.getMask();
+			}
+		}
+		Integer count = courseCounts.get(course);
+		if (count == null && baseCounts != null) {
+			count = baseCounts.get(course);
+		}
+		int newCount = (count == null ? 0 : count) + sign;
+		if (newCount == 0 && (baseCounts == null || !baseCounts.containsKey(course))) {
+			courseCounts.remove(course);
+		} else {
+			// In a fork, a count of zero hides the course in baseCounts.
+			courseCounts.put(course, newCount);
+		}
+		recommendation = null;
+	}
+
+	/**
+	 * Copies the records and counts shared with forks, if any, so that
+	 * changing them does not change the forks.
+	 */
+	private void beforeWrite()
+	{
+		if (shared) {
+			gradeRecords = new ArrayList<GradeRecord>(gradeRecords);
+			courseCounts = new HashMap<Course, Integer>(courseCounts);
+			shared = false;
+		}
+	}
+
+	/**
+	 * Creates a copy of this transcript for trying out changes, such as
+	 * courses the student might take. The fork shares this transcript's
+	 * grade records and course counts instead of copying them, and only
+	 * stores the records added to it and the counts that change, so a
+	 * fork costs memory in proportion to its changes rather than to the
+	 * transcript. Removing or regrading one of the shared records makes
+	 * the fork copy the record list.
+	 * <p>
+	 * The fork is a snapshot: if this transcript changes afterward, it
+	 * first copies what it shares, and the fork does not see the change.
+	 * Forks may be read and changed on other threads, one thread per
+	 * fork, while this transcript is not being changed. Listeners are
+	 * not copied.
+	 * 
+	 * @return the fork
+	 */
+	public Transcript fork()
+	{
+		Transcript fork = new Transcript(this);
+		fork.requirementsMet = requirementsMet.clone();
+		fork.recommendation = recommendation;
+		if (baseCounts == null) {
+			shared = true;
+			fork.gradeRecords = new ForkedRecords(gradeRecords);
+			fork.baseCounts = courseCounts;
+			fork.courseCounts = new HashMap<Course, Integer>();
+		} else {
+			// A fork of a fork shares the same base and copies the changes.
+			fork.gradeRecords = new ForkedRecords((ForkedRecords) gradeRecords);
+			fork.baseCounts = baseCounts;
+			fork.courseCounts = new HashMap<Course, Integer>(courseCounts);
+		}
+		return fork;
+	}
+
+	/**
+	 * Gets the courses on this transcript.
+	 * 
+	 * @return the courses with at least one record
+	 */
+	private Set<Course> getCoursesTaken()
+	{
+		if (baseCounts == null) {
+			return courseCounts.keySet();
+		}
+		Set<Course> taken = new HashSet<Course>(baseCounts.keySet());
+		for (Map.Entry<Course, Integer> entry : courseCounts.entrySet()) {
+			if (entry.getValue() == 0) {
+				taken.remove(entry.getKey());
+			} else {
+				taken.add(entry.getKey());
+			}
+		}
+		return taken;
+	}
+
+	/**
+	 * Registers a listener to be notified when grade records change.
+	 * 
+	 * @param listener the listener
+	 */
+	public void addTranscriptListener(TranscriptListener listener)
+	{
+		if (listeners == null) {
+			listeners = new ArrayList<TranscriptListener>();
+		}
+		listeners.add(listener);
+	}
+
+	/**
+	 * Unregisters a listener.
+	 * 
+	 * @param listener the listener
+	 */
+	public void removeTranscriptListener(TranscriptListener listener)
+	{
+		if (listeners != null) {
+			listeners.remove(listener);
+		}
+	}
+
+	/**
+	 * Notifies the listeners of a change.
+	 * 
+	 * @param removed the record removed, or null
+	 * @param added the record added, or null
+	 * @param changedRequirementsMask the requirements whose credits changed
+	 */
+	private void fireTranscriptChanged(GradeRecord removed, GradeRecord added,
+			int changedRequirementsMask)
+	{
+		if (listeners == null || listeners.isEmpty()) {
+			return;
+		}
+		TranscriptEvent event = new TranscriptEvent(this, removed, added, changedRequirementsMask);
+		for (TranscriptListener listener : new ArrayList<TranscriptListener>(listeners)) {
+			listener.transcriptChanged(event);
+		}
 	}
 
 	/**
@@ -105,28 +386,41 @@ public class Transcript
 	 * @return the recommendations or a statement that all are met
 	 */
 	public String recommendCourses() {
-		String recommendedCourses = "";
-		List<Course> coursesTaken = new ArrayList<Course>();
+		return getRecommendation().toString();
+	}
 
-		for (GradeRecord gr : gradeRecords) {
-			coursesTaken.add(gr.getCourse());
-		}
-
-		for (CoreRequirement cr : CoreRequirement.values()) {
-			if (requirementsMet[cr.ordinal()] < cr.getCredits()) {
-				recommendedCourses += "\n" + "To satisfy the " + cr.getTitle() 
-				+ " requirement take any of: " ; 
-				for (Course c : Course.getCoursesMeetingRequirements(cr)) { 
-					if (!coursesTaken.contains(c)){
-						recommendedCourses += "\n" + "\t" + c;
-					}
-				}
-			}
+	/**
+	 * Gets the courses recommended to satisfy the remaining
+	 * requirements. This never recommends courses that are already
+	 * on the transcript.
+	 * 
+	 * @return the recommendation
+	 */
+	public Recommendation getRecommendation() {
+		if (recommendation == null) {
+			long start = Metrics.start();
+			recommendation = Recommendation.recommend(catalog, getUnmetRequirementsMask(),
+					getCoursesTaken());
+			Metrics.RECOMMEND.stop(start);
 		}
-		return recommendedCourses;
+		return recommendation;
 	}
 
 
+	/**
+	 * Finds the sets of courses with the fewest total credits that
+	 * would satisfy all remaining requirements, taking into account
+	 * courses that meet several requirements at once.
+	 * 
+	 * @param maxResults the number of course sets to return
+	 * @param timeBudgetMillis how long the search may run, in milliseconds
+	 * @return the best course sets found within the time budget
+	 * @see CourseSetOptimizer
+	 */
+	public CourseSetOptimizer.Result recommendCourseSets(int maxResults, long timeBudgetMillis) {
+		return new CourseSetOptimizer(maxResults, timeBudgetMillis).optimize(this);
+	}
+
 	/**
 	 * Tests the program by loading in courses from "courses.txt"
 	 * and a transcript from "transcript.txt".
@@ -183,12 +477,104 @@ public class Transcript
 	}
 
 	/**
-	 * Gets the grade records in this transcript. 
+	 * Gets the catalog the courses on this transcript were looked up in.
+	 * 
+	 * @return the catalog
+	 */
+	public CourseCatalog getCatalog() {
+		return catalog;
+	}
+
+	/**
+	 * Gets the grade records in this transcript. The list cannot be
+	 * modified; use {@link #addGradeRecord(GradeRecord)},
+	 * {@link #removeGradeRecord(GradeRecord)} and
+	 * {@link #regrade(GradeRecord, String)} instead.
 	 * 
 	 * @return the grade records
 	 */
 	public List<GradeRecord> getGradeRecords() {
-		return gradeRecords;
+		return Collections.unmodifiableList(gradeRecords);
+	}
+
+	/**
+	 * Gets the number of grade records in this transcript.
+	 * 
+	 * @return the number of records
+	 */
+	public int getGradeRecordCount() {
+		return gradeRecords.size();
+	}
+
+	/**
+	 * Gets a grade record by its position, without the list wrapper
+	 * made by {@link #getGradeRecords()}.
+	 * 
+	 * @param index the position, from 0 to
+	 *     {@link #getGradeRecordCount()} - 1
+	 * @return the grade record
+	 */
+	public GradeRecord getGradeRecord(int index) {
+		return gradeRecords.get(index);
+	}
+
+	/**
+	 * Gets the number of credits earned toward a core requirement.
+	 * 
+	 * @param cr the core requirement
+	 * @return the credits earned toward the requirement
+	 */
+	public int getCreditsMet(CoreRequirement cr) {
+		return requirementsMet[cr.ordinal()];
+	}
+
+	/**
+	 * Gets the cumulative grade point average, weighted by credits.
+	 * 
+	 * @return the GPA, or NaN if there are no grade records
+	 * @see GradeStatistics
+	 */
+	public double getGpa() {
+		long points = 0;
+		long credits = 0;
+		for (GradeRecord gr : gradeRecords) {
+			points += (long) gr.getGradePoints() * gr.getCourse().getCredits();
+			credits += gr.getCourse().getCredits();
+		}
+		return credits == 0 ? Double.NaN : (double) points / credits;
+	}
+
+	/**
+	 * Gets the core requirements satisfied by this transcript as a
+	 * mask in which the bit {@link CoreRequirement#getMask()} is set
+	 * for each satisfied requirement.
+	 * 
+	 * @return the mask of satisfied requirements
+	 */
+	public int getSatisfiedRequirementsMask() {
+		return satisfiedMask;
+	}
+
+	/**
+	 * Gets the core requirements not yet satisfied by this transcript
+	 * as a mask in which the bit {@link CoreRequirement#getMask()} is
+	 * set for each unmet requirement.
+	 * 
+	 * @return the mask of unmet requirements
+	 */
+	public int getUnmetRequirementsMask() {
+		return CoreRequirement.ALL_MASK & ~satisfiedMask;
+	}
+
+	/**
+	 * Checks whether any of the given requirements is still unmet.
+	 * This is intended for filtering large numbers of transcripts.
+	 * 
+	 * @param mask a mask of core requirements
+	 * @return true if any requirement in the mask is unmet, false otherwise
+	 */
+	public boolean hasUnmetRequirements(int mask) {
+		return (getUnmetRequirementsMask() & mask) != 0;
 	}
 
 	/**
@@ -196,29 +582,92 @@ public class Transcript
 	 * 
 	 * @return a string representation of the transcript
 	 * with the full name, id, and a list of grade records
+	 * @see ReportFormat#TEXT
 	 */
 	@Override
 	public String toString()
 	{
-		int count = 0;
-		String coreRequirementMet;
-		String studentCourses = "Transcript for " + firstName 
-				+ " " + lastName + "\n" + "id: " + id;
+		StringBuilder builder = new StringBuilder(256 + 64 * gradeRecords.size());
+		try {
+			ReportFormat.TEXT.writeTranscript(this, builder);
+		} catch (IOException e) {
+			// StringBuilder does not throw.
+			throw new UncheckedIOException(e);
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * The grade records of a fork: the records of the transcript it was
+	 * forked from, which are never changed, followed by its own. The
+	 * shared records are only copied if one of them is replaced or
+	 * removed.
+	 */
+	private static class ForkedRecords extends AbstractList<GradeRecord>
+	{
+		private List<GradeRecord> base;
+		private boolean ownsBase;
+		private List<GradeRecord> added;
+
+		private ForkedRecords(List<GradeRecord> base)
+		{
+			this.base = base;
+			added = new ArrayList<GradeRecord>();
+		}
+
+		private ForkedRecords(ForkedRecords other)
+		{
+			base = other.ownsBase ? new ArrayList<GradeRecord>(other.base) : other.base;
+			ownsBase = other.ownsBase;
+			added = new ArrayList<GradeRecord>(other.added);
+		}
+
+		@Override
+		public GradeRecord get(int index) {
+			int baseSize = base.size();
+			return index < baseSize ? base.get(index) : added.get(index - baseSize);
+		}
 
-		for (GradeRecord gr : this.getGradeRecords()) {
-			studentCourses += "\n" +  gr + " *";
-			for (CoreRequirement cr : gr.getCourse().getRequirementsMet()) {
-				studentCourses += cr + " ";
-			};
+		@Override
+		public int size() {
+			return base.size() + added.size();
 		}
 
-		coreRequirementMet =  "\n" + "\n" + "Core requirements: ";
-		for (CoreRequirement cr : CoreRequirement.values()) {
-			coreRequirementMet += "\n" + cr.getTitle() + " (" + cr 
-					+ "): " + requirementsMet[count] + "/" + cr.getCredits();
-			count++;
+		@Override
+		public boolean add(GradeRecord gradeRecord) {
+			modCount++;
+			return added.add(gradeRecord);
+		}
+
+		@Override
+		public GradeRecord set(int index, GradeRecord gradeRecord) {
+			int baseSize = base.size();
+			if (index >= baseSize) {
+				return added.set(index - baseSize, gradeRecord);
+			}
+			ownBase();
+			return base.set(index, gradeRecord);
 		}
 
-		return studentCourses + coreRequirementMet;
+		@Override
+		public GradeRecord remove(int index) {
+			modCount++;
+			int baseSize = base.size();
+			if (index >= baseSize) {
+				return added.remove(index - baseSize);
+			}
+			ownBase();
+			return base.remove(index);
+		}
+
+		/**
+		 * Copies the shared records before one of them is changed.
+		 */
+		private void ownBase() {
+			if (!ownsBase) {
+				base = new ArrayList<GradeRecord>(base);
+				ownsBase = true;
+			}
+		}
 	}
 }
@@ -0,0 +1,72 @@
+package edu.mills.cs64.final_project;
+import java.util.EventObject;
+
+/**
+ * A change to the grade records of a {@link Transcript}. An added
+ * record has no removed record, a removed record has no added record,
+ * and a regraded record has both.
+ * 
+ * @author B0048993
+ * @version 18 October 2026
+ */
+public class TranscriptEvent extends EventObject
+{
+	private static final long serialVersionUID = 1L;
+
+	private transient GradeRecord removed;
+	private transient GradeRecord added;
+	private int changedRequirementsMask;
+
+	/**
+	 * Constructs an event.
+	 * 
+	 * @param transcript the transcript that changed
+	 * @param removed the record removed, or null
+	 * @param added the record added, or null
+	 * @param changedRequirementsMask the requirements whose credits changed
+	 */
+	TranscriptEvent(Transcript transcript, GradeRecord removed, GradeRecord added,
+			int changedRequirementsMask) {
+		super(transcript);
+		this.removed = removed;
+		this.added = added;
+		this.changedRequirementsMask = changedRequirementsMask;
+	}
+
+	/**
+	 * Gets the transcript that changed.
+	 * 
+	 * @return the transcript
+	 */
+	public Transcript getTranscript() {
+		return (Transcript) getSource();
+	}
+
+	/**
+	 * Gets the grade record that was removed or replaced.
+	 * 
+	 * @return the record, or null if a record was only added
+	 */
+	public GradeRecord getRemoved() {
+		return removed;
+	}
+
+	/**
+	 * Gets the grade record that was added or that replaced another.
+	 * 
+	 * @return the record, or null if a record was only removed
+	 */
+	public GradeRecord getAdded() {
+		return added;
+	}
+
+	/**
+	 * Gets the requirements whose credit tallies changed, as a mask in
+	 * which the bit {@link CoreRequirement#getMask()} is set for each.
+	 * 
+	 * @return the mask of changed requirements
+	 */
+	public int getChangedRequirementsMask() {
+		return changedRequirementsMask;
+	}
+}
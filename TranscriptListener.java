@@ -0,0 +1,19 @@
+package edu.mills.cs64.final_project;
+import java.util.EventListener;
+
+/**
+ * A listener that is notified when the grade records of a
+ * {@link Transcript} change.
+ * 
+ * @author B0048993
+ * @version 18 October 2026
+ */
+public interface TranscriptListener extends EventListener
+{
+	/**
+	 * Called after a grade record has been added, removed or regraded.
+	 * 
+	 * @param event a description of the change
+	 */
+	void transcriptChanged(TranscriptEvent event);
+}
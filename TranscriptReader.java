@@ -0,0 +1,333 @@
+package edu.mills.cs64.final_project;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+
+/**
+ * Reads transcripts one at a time from a file that may hold many
+ * students. Each student's record is in the format described in
+ * {@link Transcript#Transcript(String)}, and records are separated by
+ * one or more blank lines. A file holding a single student needs no
+ * separator.
+ * <p>
+ * Only the current record is held in memory, however large the file.
+ * The reader reports the byte offset of the next unread record through
+ * {@link #getOffset()}, and a new reader can start from such an offset
+ * to resume after a failure. If a record is malformed, it is skipped
+ * and the offset is left at the following record before the error is
+ * thrown, so reading can simply continue.
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+public class TranscriptReader implements Closeable, Iterable<Transcript>
+{
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private String filename;
+	private InputStream in;
+	private CourseCatalog catalog;
+	private UnknownCourses unknownCourses;
+	private byte[] lineBuffer = new byte[128];
+	private long position;
+	private long offset;
+	private String pendingLine;
+	private long pendingLineStart;
+
+	/**
+	 * Constructs a reader for the start of a file, looking up courses
+	 * in the current catalog.
+	 *
+	 * @param filename the name of the transcript file
+	 * @throws FileNotFoundException if the file cannot be found
+	 * @throws IllegalStateException if courses have not yet been loaded
+	 */
+	public TranscriptReader(String filename) throws FileNotFoundException
+	{
+		this(filename, 0, CourseCatalog.getCurrent());
+	}
+
+	/**
+	 * Constructs a reader starting at a record boundary previously
+	 * returned by {@link #getOffset()}.
+	 *
+	 * @param filename the name of the transcript file
+	 * @param offset the byte offset of the first record to read
+	 * @param catalog the catalog to look courses up in
+	 * @throws FileNotFoundException if the file cannot be found
+	 */
+	public TranscriptReader(String filename, long offset, CourseCatalog catalog)
+			throws FileNotFoundException
+	{
+		this.filename = filename;
+		this.catalog = catalog;
+		FileInputStream file = new FileInputStream(filename);
+		try {
+			file.getChannel().position(offset);
+		} catch (IOException e) {
+			try {
+				file.close();
+			} catch (IOException suppressed) {
+				e.addSuppressed(suppressed);
+			}
+			throw new UncheckedIOException(e);
+		}
+		in = new BufferedInputStream(file, BUFFER_SIZE);
+		position = offset;
+		this.offset = offset;
+	}
+
+	/**
+	 * Constructs a reader for a stream of transcripts, such as the
+	 * contents of a file already in memory.
+	 *
+	 * @param in the stream, which the reader closes
+	 * @param name the name of the source, for error messages
+	 * @param catalog the catalog to look courses up in
+	 */
+	TranscriptReader(InputStream in, String name, CourseCatalog catalog)
+	{
+		this.filename = name;
+		this.catalog = catalog;
+		this.in = in;
+	}
+
+	/**
+	 * Sets where to record course codes that are not in the catalog.
+	 * Records with such codes are left out of the transcript either way.
+	 *
+	 * @param unknownCourses the collector, or null to only count them
+	 */
+	public void setUnknownCourses(UnknownCourses unknownCourses) {
+		this.unknownCourses = unknownCourses;
+	}
+
+	/**
+	 * Gets the byte offset of the next record to be read.
+	 *
+	 * @return the offset
+	 */
+	public long getOffset() {
+		return offset;
+	}
+
+	/**
+	 * Reads the next transcript.
+	 *
+	 * @return the transcript, or null at the end of the file
+	 * @throws IOException if the file cannot be read
+	 * @throws IllegalArgumentException if the record is malformed; the
+	 *     reader has moved past it
+	 */
+	public Transcript read() throws IOException
+	{
+		long start = Metrics.start();
+		String line = nextLine();
+		while (line != null && line.isEmpty()) {
+			line = readLine();
+		}
+		if (line == null) {
+			offset = position;
+			return null;
+		}
+		long recordStart = pendingLineStart;
+		try {
+			String firstName = requireLine(recordStart);
+			String lastName = requireLine(recordStart);
+			Transcript transcript = new Transcript(line, firstName, lastName, catalog);
+			while ((line = readLine()) != null && !line.isEmpty()) {
+				Course course = catalog.getCourse(line);
+				int year = parseYear(requireLine(recordStart), recordStart);
+				String grade = requireLine(recordStart);
+				if (course != null) {
+					transcript.addGradeRecord(new GradeRecord(course, year, grade));
+				} else {
+					Metrics.UNKNOWN_COURSE_RECORDS.increment();
+					if (unknownCourses != null) {
+						unknownCourses.record(line, filename + " student " + transcript.getId());
+					}
+				}
+			}
+			offset = position;
+			Metrics.TRANSCRIPT_PARSE.stop(start);
+			return transcript;
+		} catch (IllegalArgumentException e) {
+			skipRecord();
+			throw e;
+		}
+	}
+
+	/**
+	 * Reads the next line that must exist within a record.
+	 *
+	 * @param recordStart the offset of the record, for error messages
+	 * @return the line
+	 * @throws IOException if the file cannot be read
+	 * @throws IllegalArgumentException if the record ends early
+	 */
+	private String requireLine(long recordStart) throws IOException
+	{
+		String line = readLine();
+		if (line == null || line.isEmpty()) {
+			if (line != null) {
+				pendingLine = line;
+			}
+			throw new IllegalArgumentException(filename + " record at byte " + recordStart
+					+ ": record ends unexpectedly");
+		}
+		return line;
+	}
+
+	/**
+	 * Parses a year.
+	 *
+	 * @param line the line holding the year
+	 * @param recordStart the offset of the record, for error messages
+	 * @return the year
+	 * @throws IllegalArgumentException if the line is not a year
+	 */
+	private int parseYear(String line, long recordStart)
+	{
+		try {
+			return Integer.parseInt(line.trim());
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException(filename + " record at byte " + recordStart
+					+ ": expected a year but found \"" + line + "\"");
+		}
+	}
+
+	/**
+	 * Skips the rest of the current record and notes where the next
+	 * one starts.
+	 *
+	 * @throws IOException if the file cannot be read
+	 */
+	private void skipRecord() throws IOException
+	{
+		String line = nextLine();
+		while (line != null && !line.isEmpty()) {
+			line = readLine();
+		}
+		offset = position;
+	}
+
+	/**
+	 * Returns the line pushed back by {@link #requireLine(long)}, if any,
+	 * or else reads a line.
+	 *
+	 * @return the line, or null at the end of the file
+	 * @throws IOException if the file cannot be read
+	 */
+	private String nextLine() throws IOException
+	{
+		if (pendingLine != null) {
+			String line = pendingLine;
+			pendingLine = null;
+			return line;
+		}
+		return readLine();
+	}
+
+	/**
+	 * Reads a line, keeping track of the byte position.
+	 *
+	 * @return the line without its terminator, or null at the end of the file
+	 * @throws IOException if the file cannot be read
+	 */
+	private String readLine() throws IOException
+	{
+		pendingLineStart = position;
+		int length = 0;
+		int b;
+		while ((b = in.read()) >= 0) {
+			position++;
+			if (b == '\n') {
+				break;
+			}
+			if (length == lineBuffer.length) {
+				lineBuffer = Arrays.copyOf(lineBuffer, length * 2);
+			}
+			lineBuffer[length++] = (byte) b;
+		}
+		if (b < 0 && length == 0) {
+			return null;
+		}
+		if (length > 0 && lineBuffer[length - 1] == '\r') {
+			length--;
+		}
+		return new String(lineBuffer, 0, length, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Gets an iterator over the remaining transcripts. Read errors are
+	 * thrown as {@link UncheckedIOException}.
+	 *
+	 * @return the iterator
+	 */
+	@Override
+	public Iterator<Transcript> iterator()
+	{
+		return new Iterator<Transcript>() {
+			private Transcript next;
+
+			@Override
+			public boolean hasNext() {
+				if (next == null) {
+					try {
+						next = read();
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				}
+				return next != null;
+			}
+
+			@Override
+			public Transcript next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				Transcript transcript = next;
+				next = null;
+				return transcript;
+			}
+		};
+	}
+
+	/**
+	 * Gets a stream of the remaining transcripts. The stream may be
+	 * made parallel, in which case transcripts are read in batches on
+	 * the calling thread and processed by the pool.
+	 *
+	 * @return the stream
+	 */
+	public Stream<Transcript> stream()
+	{
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator(),
+				Spliterator.ORDERED | Spliterator.NONNULL), false);
+	}
+
+	/**
+	 * Closes the file.
+	 *
+	 * @throws IOException if the file cannot be closed
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		in.close();
+	}
+}
@@ -0,0 +1,1242 @@
+package edu.mills.cs64.final_project;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+
+/**
+ * A local store of students and their grade records, kept in memory
+ * and made durable with a write-ahead log and snapshots in a directory.
+ * Records can be looked up by course, range of years and grade without
+ * reading any transcript files.
+ * <p>
+ * Each change is a transaction: it is appended to the log as a single
+ * entry before it is applied in memory, so after a crash the store
+ * holds every change that was committed and no part of any other. A
+ * log entry is laid out as follows, in big-endian order:
+ * <pre>
+ *     int     length of the body in bytes
+ *     int     CRC-32 of the body
+ *     body:
+ *         long    sequence number
+ *         byte    type of change
+ *         ...     the change
+ * </pre>
+ * When the log grows past {@value #COMPACT_LOG_BYTES} bytes, the
+ * store is compacted: the live records are written to a new snapshot,
+ * which replaces the old one atomically, and the log is emptied. On
+ * opening, the snapshot is loaded and the log entries after it are
+ * replayed. Replay stops at the first torn or damaged entry, which can
+ * only be the last one written, and the log is cut off there. If
+ * appending an entry fails, the partial entry is cut off before the
+ * error is thrown, so later changes are not lost behind it; if even
+ * that fails, the store refuses further changes until it is reopened.
+ * <p>
+ * Courses are stored by short name, so the store does not depend on a
+ * catalog; {@link #getTranscript(String, CourseCatalog)} reads a
+ * student's records against one. Lookups may run concurrently with
+ * each other; changes are applied one at a time.
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+public class TranscriptStore
+{
+	private static final String SNAPSHOT_FILE = "snapshot";
+	private static final String LOG_FILE = "log";
+	private static final String TEMP_SUFFIX = ".tmp";
+	private static final int SNAPSHOT_MAGIC = 0x4D535453;   // "MSTS"
+	private static final short SNAPSHOT_VERSION = 1;
+	private static final int SNAPSHOT_CRC_OFFSET = 6;
+	private static final int ENTRY_HEADER_SIZE = 8;
+	private static final long COMPACT_LOG_BYTES = 256L << 20;
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private static final byte PUT_STUDENT = 1;
+	private static final byte REMOVE_STUDENT = 2;
+	private static final byte ADD_RECORD = 3;
+	private static final byte REMOVE_RECORD = 4;
+	private static final byte PUT_TRANSCRIPT = 5;
+	private static final byte REGRADE_RECORD = 6;
+
+	private File directory;
+	private boolean sync;
+	private FileChannel log;
+	private long logSize;
+	private long sequence;
+	private State state;
+	// Why the log can no longer be appended to, or null if it can.
+	private IOException failure;
+	private ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/**
+	 * Opens a store, creating it if the directory is empty, and recovers
+	 * its contents from the snapshot and log.
+	 *
+	 * @param directory the directory holding the store
+	 * @param sync true to force each change to the disk before it is
+	 *     applied, which survives power loss; false to leave it to the
+	 *     operating system, which survives only a crash of the program
+	 * @throws IOException if the store cannot be read or the log cannot
+	 *     be opened
+	 */
+	public TranscriptStore(String directory, boolean sync) throws IOException
+	{
+		this.directory = new File(directory);
+		this.sync = sync;
+		if (!this.directory.isDirectory() && !this.directory.mkdirs()) {
+			throw new IOException("Unable to create " + directory);
+		}
+		new File(this.directory, SNAPSHOT_FILE + TEMP_SUFFIX).delete();
+		state = new State();
+		File snapshot = new File(this.directory, SNAPSHOT_FILE);
+		if (snapshot.exists()) {
+			sequence = state.read(snapshot);
+		}
+		log = FileChannel.open(new File(this.directory, LOG_FILE).toPath(),
+				StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		logSize = replay();
+		log.truncate(logSize);
+		log.position(logSize);
+	}
+
+	/**
+	 * Applies the log entries that follow the snapshot.
+	 *
+	 * @return the length of the intact part of the log
+	 * @throws IOException if the log cannot be read
+	 */
+	private long replay() throws IOException
+	{
+		DataInputStream in = new DataInputStream(new BufferedInputStream(
+				new FileInputStream(new File(directory, LOG_FILE)), BUFFER_SIZE));
+		long intact = 0;
+		try {
+			byte[] body = new byte[256];
+			while (true) {
+				int length;
+				int crc;
+				try {
+					length = in.readInt();
+					crc = in.readInt();
+					if (length <= 0 || length > log.size()) {
+						break;
+					}
+					if (body.length < length) {
+						body = new byte[Math.max(length, body.length * 2)];
+					}
+					in.readFully(body, 0, length);
+				} catch (EOFException e) {
+					break;
+				}
+				CRC32 check = new CRC32();
+				check.update(body, 0, length);
+				if ((int) check.getValue() != crc) {
+					break;
+				}
+				DataInputStream entry = new DataInputStream(
+						new ByteArrayInputStream(body, 0, length));
+				long entrySequence = entry.readLong();
+				// Entries already in the snapshot are left from a
+				// compaction that did not finish emptying the log.
+				if (entrySequence > sequence) {
+					apply(entry.readByte(), entry);
+					sequence = entrySequence;
+				}
+				intact += ENTRY_HEADER_SIZE + length;
+			}
+		} finally {
+			in.close();
+		}
+		return intact;
+	}
+
+	/**
+	 * Applies a change read from the log to the in-memory state.
+	 *
+	 * @param type the type of change
+	 * @param in the rest of the entry
+	 * @throws IOException if the entry cannot be read
+	 */
+	private void apply(byte type, DataInputStream in) throws IOException
+	{
+		String id = in.readUTF();
+		switch (type) {
+		case PUT_STUDENT:
+			state.putStudent(id, in.readUTF(), in.readUTF());
+			break;
+		case REMOVE_STUDENT:
+			state.removeStudent(id);
+			break;
+		case ADD_RECORD:
+			state.addRow(state.getStudent(id), state.courseId(in.readUTF()), in.readShort(),
+					in.readByte());
+			break;
+		case REMOVE_RECORD:
+			state.removeRow(state.getStudent(id), state.courseId(in.readUTF()), in.readShort(),
+					in.readByte());
+			break;
+		case REGRADE_RECORD:
+			Student regraded = state.getStudent(id);
+			state.removeRow(regraded, state.courseId(in.readUTF()), in.readShort(),
+					in.readByte());
+			state.addRow(regraded, state.courseId(in.readUTF()), in.readShort(),
+					in.readByte());
+			break;
+		case PUT_TRANSCRIPT:
+			Student student = state.putStudent(id, in.readUTF(), in.readUTF());
+			state.clearRows(student);
+			for (int i = in.readInt(); i > 0; i--) {
+				state.addRow(student, state.courseId(in.readUTF()), in.readShort(),
+						in.readByte());
+			}
+			break;
+		default:
+			throw new IOException("Unknown log entry type " + type);
+		}
+	}
+
+	/**
+	 * Appends a change to the log, forcing it to disk if the store
+	 * syncs, and then applies it. Must be called with the write lock.
+	 * Once the change is applied it is committed: if the compaction
+	 * that may follow fails, the failure is reported on standard error
+	 * and not thrown, so callers do not retry a change that was made.
+	 *
+	 * @param change the change, starting with its type
+	 * @throws IOException if the log cannot be written, or the store
+	 *     has failed; the change was not made
+	 */
+	private void commit(ByteArrayOutputStream change) throws IOException
+	{
+		checkWritable();
+		byte[] bytes = change.toByteArray();
+		ByteBuffer entry = ByteBuffer.allocate(ENTRY_HEADER_SIZE + 8 + bytes.length);
+		entry.putInt(8 + bytes.length).putInt(0).putLong(sequence + 1).put(bytes);
+		CRC32 crc = new CRC32();
+		crc.update(entry.array(), ENTRY_HEADER_SIZE, 8 + bytes.length);
+		entry.putInt(4, (int) crc.getValue());
+		entry.flip();
+		try {
+			while (entry.hasRemaining()) {
+				log.write(entry);
+			}
+			if (sync) {
+				log.force(false);
+			}
+		} catch (IOException | RuntimeException e) {
+			rollBack(e);
+			throw e;
+		}
+		logSize += entry.limit();
+		sequence++;
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+		apply(in.readByte(), in);
+		if (logSize > COMPACT_LOG_BYTES) {
+			try {
+				compactLocked();
+			} catch (IOException | RuntimeException e) {
+				// The log still holds the change; compaction is tried
+				// again after the next one, or the store has failed and
+				// says so then.
+				System.err.println("Compaction failed: " + e);
+			}
+		}
+	}
+
+	/**
+	 * Cuts whatever part of a failed entry was written off the end of
+	 * the log, so that the next entry follows the last complete one;
+	 * replay stops at a torn entry and would lose everything after it.
+	 * If the log cannot be cut, the store is marked failed.
+	 *
+	 * @param cause why the entry could not be written
+	 */
+	private void rollBack(Exception cause)
+	{
+		try {
+			log.truncate(logSize);
+			log.position(logSize);
+		} catch (IOException | RuntimeException e) {
+			cause.addSuppressed(e);
+			failure = new IOException("Log could not be rolled back", cause);
+		}
+	}
+
+	/**
+	 * Checks that the log can still be appended to.
+	 *
+	 * @throws IOException if the store has failed
+	 */
+	private void checkWritable() throws IOException
+	{
+		if (failure != null) {
+			throw new IOException("Store failed and must be reopened", failure);
+		}
+	}
+
+	/**
+	 * Starts the description of a change.
+	 */
+	private static DataOutputStream change(ByteArrayOutputStream bytes, byte type, String id)
+			throws IOException
+	{
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeByte(type);
+		out.writeUTF(id);
+		return out;
+	}
+
+	/**
+	 * Adds a student with no records, or changes a student's name.
+	 *
+	 * @param id the student's Mills id
+	 * @param firstName the first name
+	 * @param lastName the last name
+	 * @throws IOException if the change cannot be logged
+	 */
+	public void putStudent(String id, String firstName, String lastName) throws IOException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = change(bytes, PUT_STUDENT, id);
+		out.writeUTF(firstName);
+		out.writeUTF(lastName);
+		lock.writeLock().lock();
+		try {
+			commit(bytes);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes a student and all of the student's records.
+	 *
+	 * @param id the student's Mills id
+	 * @return true if the student was in the store, false otherwise
+	 * @throws IOException if the change cannot be logged
+	 */
+	public boolean removeStudent(String id) throws IOException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		change(bytes, REMOVE_STUDENT, id);
+		lock.writeLock().lock();
+		try {
+			if (state.students.get(id) == null) {
+				return false;
+			}
+			commit(bytes);
+			return true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Adds a grade record for a student.
+	 *
+	 * @param id the student's Mills id
+	 * @param gradeRecord the record
+	 * @throws IOException if the change cannot be logged
+	 * @throws IllegalArgumentException if the student is not in the
+	 *     store or the year does not fit in a short
+	 */
+	public void addGradeRecord(String id, GradeRecord gradeRecord) throws IOException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		writeRecord(change(bytes, ADD_RECORD, id), gradeRecord);
+		lock.writeLock().lock();
+		try {
+			state.getStudent(id);
+			commit(bytes);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes one grade record for a student with the same course,
+	 * year and grade as the given one.
+	 *
+	 * @param id the student's Mills id
+	 * @param gradeRecord the record
+	 * @return true if such a record was in the store, false otherwise
+	 * @throws IOException if the change cannot be logged
+	 * @throws IllegalArgumentException if the year does not fit in a short
+	 */
+	public boolean removeGradeRecord(String id, GradeRecord gradeRecord) throws IOException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		writeRecord(change(bytes, REMOVE_RECORD, id), gradeRecord);
+		lock.writeLock().lock();
+		try {
+			Student student = state.students.get(id);
+			Integer course = state.courseIds.get(gradeRecord.getCourse().getShortName());
+			if (student == null || course == null || state.findRow(student, course,
+					gradeRecord.getYear(), gradeByte(gradeRecord.getGrade())) < 0) {
+				return false;
+			}
+			commit(bytes);
+			return true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Replaces one grade record for a student with another, as when a
+	 * course is regraded, in a single transaction. If the student has
+	 * no record with the same course, year and grade as the old one,
+	 * the new record is still added.
+	 *
+	 * @param id the student's Mills id
+	 * @param oldRecord the record to remove
+	 * @param newRecord the record to add in its place
+	 * @return true if the old record was in the store, false otherwise
+	 * @throws IOException if the change cannot be logged
+	 * @throws IllegalArgumentException if the student is not in the
+	 *     store or a year does not fit in a short
+	 */
+	public boolean regradeRecord(String id, GradeRecord oldRecord, GradeRecord newRecord)
+			throws IOException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = change(bytes, REGRADE_RECORD, id);
+		writeRecord(out, oldRecord);
+		writeRecord(out, newRecord);
+		lock.writeLock().lock();
+		try {
+			Student student = state.getStudent(id);
+			Integer course = state.courseIds.get(oldRecord.getCourse().getShortName());
+			boolean found = course != null && state.findRow(student, course,
+					oldRecord.getYear(), gradeByte(oldRecord.getGrade())) >= 0;
+			commit(bytes);
+			return found;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Stores a transcript, replacing the student's name and records in
+	 * a single transaction.
+	 *
+	 * @param transcript the transcript
+	 * @throws IOException if the change cannot be logged
+	 * @throws IllegalArgumentException if a year does not fit in a short
+	 */
+	public void putTranscript(Transcript transcript) throws IOException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = change(bytes, PUT_TRANSCRIPT, transcript.getId());
+		out.writeUTF(transcript.getFirstName());
+		out.writeUTF(transcript.getLastName());
+		List<GradeRecord> records = transcript.getGradeRecords();
+		out.writeInt(records.size());
+		for (GradeRecord gr : records) {
+			writeRecord(out, gr);
+		}
+		lock.writeLock().lock();
+		try {
+			commit(bytes);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Keeps the store in step with a transcript: the transcript is
+	 * stored now, and every record later added, removed or regraded is
+	 * logged as it happens, each as one transaction.
+	 *
+	 * @param transcript the transcript
+	 * @throws IOException if the transcript cannot be stored
+	 */
+	public void track(Transcript transcript) throws IOException
+	{
+		putTranscript(transcript);
+		transcript.addTranscriptListener(new TranscriptListener() {
+			@Override
+			public void transcriptChanged(TranscriptEvent event) {
+				String id = event.getTranscript().getId();
+				try {
+					if (event.getRemoved() == null) {
+						addGradeRecord(id, event.getAdded());
+					} else if (event.getAdded() == null) {
+						removeGradeRecord(id, event.getRemoved());
+					} else {
+						regradeRecord(id, event.getRemoved(), event.getAdded());
+					}
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+		});
+	}
+
+	private static void writeRecord(DataOutputStream out, GradeRecord gradeRecord)
+			throws IOException
+	{
+		int year = gradeRecord.getYear();
+		if (year != (short) year) {
+			throw new IllegalArgumentException("Year out of range: " + year);
+		}
+		out.writeUTF(gradeRecord.getCourse().getShortName());
+		out.writeShort(year);
+		out.writeByte(gradeByte(gradeRecord.getGrade()));
+	}
+
+	private static byte gradeByte(String grade)
+	{
+		return (byte) grade.charAt(0);
+	}
+
+	/**
+	 * Writes the live records to a new snapshot and empties the log.
+	 * This happens automatically as the log grows.
+	 *
+	 * @throws IOException if the snapshot cannot be written, or the
+	 *     store has failed
+	 */
+	public void compact() throws IOException
+	{
+		lock.writeLock().lock();
+		try {
+			checkWritable();
+			compactLocked();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void compactLocked() throws IOException
+	{
+		State compacted = state.compact();
+		File snapshot = new File(directory, SNAPSHOT_FILE);
+		File temp = new File(directory, SNAPSHOT_FILE + TEMP_SUFFIX);
+		FileOutputStream file = new FileOutputStream(temp);
+		try {
+			compacted.write(file, sequence);
+			file.getFD().sync();
+		} finally {
+			file.close();
+		}
+		Files.move(temp.toPath(), snapshot.toPath(), StandardCopyOption.REPLACE_EXISTING,
+				StandardCopyOption.ATOMIC_MOVE);
+		if (sync) {
+			// The rename must reach the disk before the log is emptied,
+			// or power loss could keep the empty log and the old
+			// snapshot.
+			syncDirectory();
+		}
+		// If the program stops here, the entries left in the log are
+		// skipped on replay, since the snapshot's sequence covers them.
+		state = compacted;
+		try {
+			log.truncate(0);
+			log.position(0);
+			if (sync) {
+				log.force(true);
+			}
+		} catch (IOException | RuntimeException e) {
+			// The snapshot holds everything, but where the log ends is
+			// no longer known.
+			failure = new IOException("Log could not be emptied", e);
+			throw e;
+		}
+		logSize = 0;
+	}
+
+	/**
+	 * Forces the store's directory entries to disk, so that a snapshot
+	 * moved into place survives power loss.
+	 *
+	 * @throws IOException if the directory cannot be synced
+	 */
+	private void syncDirectory() throws IOException
+	{
+		FileChannel channel = FileChannel.open(directory.toPath(), StandardOpenOption.READ);
+		try {
+			channel.force(true);
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Closes the log. The store must not be used afterward.
+	 *
+	 * @throws IOException if the log cannot be closed
+	 */
+	public void close() throws IOException
+	{
+		lock.writeLock().lock();
+		try {
+			log.close();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Finds grade records. Each condition may be left open. The most
+	 * selective index among course, years and grades is scanned and
+	 * its rows are checked against the other conditions.
+	 *
+	 * @param course the short name of the course, or null for any
+	 * @param fromYear the earliest year, or {@link Integer#MIN_VALUE}
+	 *     for no limit
+	 * @param toYear the latest year, or {@link Integer#MAX_VALUE} for no
+	 *     limit
+	 * @param grades the grades to include, such as "AB", or null for any
+	 * @param limit the most records to return
+	 * @return the records, in no particular order, and the total number
+	 *     found
+	 */
+	public Result find(String course, int fromYear, int toYear, String grades, int limit)
+	{
+		lock.readLock().lock();
+		try {
+			return state.find(course, fromYear, toYear, grades, limit);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Reads a student's transcript against a catalog. Records whose
+	 * course is not in the catalog are left out, as when reading a
+	 * transcript file.
+	 *
+	 * @param id the student's Mills id
+	 * @param catalog the catalog to look courses up in
+	 * @return the transcript, or null if the student is not in the store
+	 */
+	public Transcript getTranscript(String id, CourseCatalog catalog)
+	{
+		lock.readLock().lock();
+		try {
+			Student student = state.students.get(id);
+			if (student == null) {
+				return null;
+			}
+			Transcript transcript = new Transcript(id, student.firstName, student.lastName,
+					catalog);
+			for (int i = 0; i < student.rows.size; i++) {
+				int row = student.rows.values[i];
+				Course course = catalog.getCourse(state.courseNames.get(state.courses[row]));
+				if (course != null) {
+					transcript.addGradeRecord(new GradeRecord(course, state.years[row],
+							String.valueOf((char) state.grades[row])));
+				}
+			}
+			return transcript;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Gets the number of students in the store.
+	 *
+	 * @return the number of students
+	 */
+	public int getStudentCount() {
+		lock.readLock().lock();
+		try {
+			return state.students.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Gets the number of grade records in the store.
+	 *
+	 * @return the number of records
+	 */
+	public int getRecordCount() {
+		lock.readLock().lock();
+		try {
+			return state.liveRows;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Gets the size of the log, which is emptied by compaction.
+	 *
+	 * @return the size in bytes
+	 */
+	public long getLogSize() {
+		lock.readLock().lock();
+		try {
+			return logSize;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * A growable array of ints.
+	 */
+	private static class IntList
+	{
+		private int[] values = new int[4];
+		private int size;
+
+		private void add(int value)
+		{
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = value;
+		}
+	}
+
+	/**
+	 * A student's name and the rows of the student's live records.
+	 */
+	private static class Student
+	{
+		private String id;
+		private String firstName;
+		private String lastName;
+		private IntList rows = new IntList();
+
+		private Student(String id, String firstName, String lastName)
+		{
+			this.id = id;
+			this.firstName = firstName;
+			this.lastName = lastName;
+		}
+	}
+
+	/**
+	 * The contents of the store. Grade records are rows of parallel
+	 * arrays; a removed record keeps its row, with grade 0, until the
+	 * next compaction, and the indexes hold the rows of each course,
+	 * year and grade.
+	 */
+	private static class State
+	{
+		private Map<String, Student> students = new HashMap<String, Student>();
+		private List<String> courseNames = new ArrayList<String>();
+		private Map<String, Integer> courseIds = new HashMap<String, Integer>();
+		private int rows;
+		private int liveRows;
+		private Student[] owners = new Student[16];
+		private int[] courses = new int[16];
+		private short[] years = new short[16];
+		private byte[] grades = new byte[16];
+		private List<IntList> byCourse = new ArrayList<IntList>();
+		private TreeMap<Integer, IntList> byYear = new TreeMap<Integer, IntList>();
+		private IntList[] byGrade = new IntList[GradeStatistics.GRADES.length()];
+
+		private State()
+		{
+			for (int g = 0; g < byGrade.length; g++) {
+				byGrade[g] = new IntList();
+			}
+		}
+
+		private int courseId(String shortName)
+		{
+			Integer id = courseIds.get(shortName);
+			if (id == null) {
+				id = courseNames.size();
+				courseNames.add(shortName);
+				courseIds.put(shortName, id);
+				byCourse.add(new IntList());
+			}
+			return id;
+		}
+
+		private Student getStudent(String id) throws IllegalArgumentException
+		{
+			Student student = students.get(id);
+			if (student == null) {
+				throw new IllegalArgumentException("No such student: " + id);
+			}
+			return student;
+		}
+
+		private Student putStudent(String id, String firstName, String lastName)
+		{
+			Student student = students.get(id);
+			if (student == null) {
+				student = new Student(id, firstName, lastName);
+				students.put(id, student);
+			} else {
+				student.firstName = firstName;
+				student.lastName = lastName;
+			}
+			return student;
+		}
+
+		private void removeStudent(String id)
+		{
+			Student student = students.remove(id);
+			if (student != null) {
+				clearRows(student);
+			}
+		}
+
+		private void clearRows(Student student)
+		{
+			for (int i = 0; i < student.rows.size; i++) {
+				grades[student.rows.values[i]] = 0;
+			}
+			liveRows -= student.rows.size;
+			student.rows = new IntList();
+		}
+
+		private void addRow(Student student, int course, short year, byte grade)
+		{
+			int g = GradeStatistics.GRADES.indexOf(grade);
+			if (g < 0) {
+				throw new IllegalArgumentException("Illegal grade: " + (char) grade);
+			}
+			if (rows == courses.length) {
+				int capacity = rows * 2;
+				owners = Arrays.copyOf(owners, capacity);
+				courses = Arrays.copyOf(courses, capacity);
+				years = Arrays.copyOf(years, capacity);
+				grades = Arrays.copyOf(grades, capacity);
+			}
+			int row = rows++;
+			owners[row] = student;
+			courses[row] = course;
+			years[row] = year;
+			grades[row] = grade;
+			student.rows.add(row);
+			byCourse.get(course).add(row);
+			IntList yearRows = byYear.get((int) year);
+			if (yearRows == null) {
+				yearRows = new IntList();
+				byYear.put((int) year, yearRows);
+			}
+			yearRows.add(row);
+			byGrade[g].add(row);
+			liveRows++;
+		}
+
+		private int findRow(Student student, int course, int year, byte grade)
+		{
+			for (int i = 0; i < student.rows.size; i++) {
+				int row = student.rows.values[i];
+				if (courses[row] == course && years[row] == year && grades[row] == grade) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		private void removeRow(Student student, int course, short year, byte grade)
+		{
+			int i = findRow(student, course, year, grade);
+			if (i >= 0) {
+				IntList list = student.rows;
+				grades[list.values[i]] = 0;
+				System.arraycopy(list.values, i + 1, list.values, i, list.size - i - 1);
+				list.size--;
+				liveRows--;
+			}
+		}
+
+		private Result find(String course, int fromYear, int toYear, String grades, int limit)
+		{
+			// Pick the smallest set of index lists to scan.
+			List<IntList> scan = null;
+			long scanSize = Long.MAX_VALUE;
+			if (course != null) {
+				Integer id = courseIds.get(course);
+				if (id == null) {
+					return new Result(Collections.<Match>emptyList(), 0);
+				}
+				scan = Collections.singletonList(byCourse.get(id));
+				scanSize = byCourse.get(id).size;
+			}
+			if (fromYear > Integer.MIN_VALUE || toYear < Integer.MAX_VALUE) {
+				if (fromYear > toYear) {
+					return new Result(Collections.<Match>emptyList(), 0);
+				}
+				NavigableMap<Integer, IntList> range = byYear.subMap(fromYear, true, toYear, true);
+				long size = 0;
+				for (IntList list : range.values()) {
+					size += list.size;
+				}
+				if (size < scanSize) {
+					scan = new ArrayList<IntList>(range.values());
+					scanSize = size;
+				}
+			}
+			if (grades != null) {
+				List<IntList> lists = new ArrayList<IntList>();
+				long size = 0;
+				for (int g = 0; g < byGrade.length; g++) {
+					if (grades.indexOf(GradeStatistics.GRADES.charAt(g)) >= 0) {
+						lists.add(byGrade[g]);
+						size += byGrade[g].size;
+					}
+				}
+				if (size < scanSize) {
+					scan = lists;
+					scanSize = size;
+				}
+			}
+
+			int courseId = course == null ? -1 : courseIds.get(course);
+			List<Match> matches = new ArrayList<Match>(Math.min(limit, 64));
+			int total = 0;
+			if (scan == null) {
+				for (int row = 0; row < rows; row++) {
+					if (this.grades[row] != 0) {
+						total++;
+						if (matches.size() < limit) {
+							matches.add(match(row));
+						}
+					}
+				}
+			} else {
+				for (IntList list : scan) {
+					for (int i = 0; i < list.size; i++) {
+						int row = list.values[i];
+						byte grade = this.grades[row];
+						if (grade != 0 && (courseId < 0 || courses[row] == courseId)
+								&& years[row] >= fromYear && years[row] <= toYear
+								&& (grades == null || grades.indexOf(grade) >= 0)) {
+							total++;
+							if (matches.size() < limit) {
+								matches.add(match(row));
+							}
+						}
+					}
+				}
+			}
+			return new Result(matches, total);
+		}
+
+		private Match match(int row)
+		{
+			return new Match(owners[row].id, courseNames.get(courses[row]), years[row],
+					(char) grades[row]);
+		}
+
+		/**
+		 * Copies the live records into a new state, in student order.
+		 *
+		 * @return the new state
+		 */
+		private State compact()
+		{
+			State compacted = new State();
+			for (Student student : students.values()) {
+				Student copy = compacted.putStudent(student.id, student.firstName,
+						student.lastName);
+				for (int i = 0; i < student.rows.size; i++) {
+					int row = student.rows.values[i];
+					compacted.addRow(copy, compacted.courseId(courseNames.get(courses[row])),
+							years[row], grades[row]);
+				}
+			}
+			return compacted;
+		}
+
+		/**
+		 * Writes this state as a snapshot. The state must have no
+		 * removed rows, as after {@link #compact()}.
+		 * <pre>
+		 *     int     magic "MSTS"
+		 *     short   version
+		 *     int     CRC-32 of everything that follows
+		 *     long    sequence number of the last change included
+		 *     int     number of courses, then each short name
+		 *     int     number of students, then each:
+		 *         id, first name, last name
+		 *         int     number of records, then each:
+		 *             int     course
+		 *             short   year
+		 *             byte    grade
+		 * </pre>
+		 */
+		private void write(FileOutputStream file, long sequence) throws IOException
+		{
+			DataOutputStream header = new DataOutputStream(file);
+			header.writeInt(SNAPSHOT_MAGIC);
+			header.writeShort(SNAPSHOT_VERSION);
+			header.writeInt(0);
+			// Checksum after buffering, so it is updated a buffer at a
+			// time rather than a byte at a time.
+			CRC32 crc = new CRC32();
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+					new CheckedOutputStream(file, crc), BUFFER_SIZE));
+			out.writeLong(sequence);
+			out.writeInt(courseNames.size());
+			for (String name : courseNames) {
+				out.writeUTF(name);
+			}
+			out.writeInt(students.size());
+			for (Student student : students.values()) {
+				out.writeUTF(student.id);
+				out.writeUTF(student.firstName);
+				out.writeUTF(student.lastName);
+				out.writeInt(student.rows.size);
+				for (int i = 0; i < student.rows.size; i++) {
+					int row = student.rows.values[i];
+					out.writeInt(courses[row]);
+					out.writeShort(years[row]);
+					out.writeByte(grades[row]);
+				}
+			}
+			out.flush();
+			ByteBuffer checksum = ByteBuffer.allocate(4).putInt(0, (int) crc.getValue());
+			file.getChannel().write(checksum, SNAPSHOT_CRC_OFFSET);
+		}
+
+		/**
+		 * Reads a snapshot into this empty state.
+		 *
+		 * @param snapshot the snapshot file
+		 * @return the sequence number of the last change included
+		 * @throws IOException if the snapshot cannot be read or is damaged
+		 */
+		private long read(File snapshot) throws IOException
+		{
+			FileInputStream file = new FileInputStream(snapshot);
+			DataInputStream header = new DataInputStream(file);
+			CRC32 crc = new CRC32();
+			DataInputStream in = new DataInputStream(new BufferedInputStream(
+					new CheckedInputStream(file, crc), BUFFER_SIZE));
+			try {
+				if (header.readInt() != SNAPSHOT_MAGIC) {
+					throw new IOException(snapshot + " is not a transcript store snapshot");
+				}
+				if (header.readShort() != SNAPSHOT_VERSION) {
+					throw new IOException(snapshot + " has an unsupported version");
+				}
+				int expected = header.readInt();
+				long sequence = in.readLong();
+				for (int i = in.readInt(); i > 0; i--) {
+					courseId(in.readUTF());
+				}
+				for (int i = in.readInt(); i > 0; i--) {
+					Student student = putStudent(in.readUTF(), in.readUTF(), in.readUTF());
+					for (int j = in.readInt(); j > 0; j--) {
+						int course = in.readInt();
+						if (course < 0 || course >= courseNames.size()) {
+							throw new IOException(snapshot + " is damaged");
+						}
+						addRow(student, course, in.readShort(), in.readByte());
+					}
+				}
+				if (in.read() != -1 || (int) crc.getValue() != expected) {
+					throw new IOException(snapshot + " is damaged");
+				}
+				return sequence;
+			} catch (EOFException e) {
+				throw new IOException(snapshot + " is truncated");
+			} catch (IllegalArgumentException e) {
+				throw new IOException(snapshot + " is damaged: " + e.getMessage());
+			} finally {
+				in.close();
+			}
+		}
+	}
+
+	/**
+	 * A grade record found in the store.
+	 */
+	public static class Match
+	{
+		private String studentId;
+		private String course;
+		private int year;
+		private char grade;
+
+		private Match(String studentId, String course, int year, char grade)
+		{
+			this.studentId = studentId;
+			this.course = course;
+			this.year = year;
+			this.grade = grade;
+		}
+
+		/**
+		 * Gets the Mills id of the student.
+		 *
+		 * @return the id
+		 */
+		public String getStudentId() {
+			return studentId;
+		}
+
+		/**
+		 * Gets the short name of the course.
+		 *
+		 * @return the short name
+		 */
+		public String getCourse() {
+			return course;
+		}
+
+		/**
+		 * Gets the year the course was taken.
+		 *
+		 * @return the year
+		 */
+		public int getYear() {
+			return year;
+		}
+
+		/**
+		 * Gets the grade earned.
+		 *
+		 * @return the grade
+		 */
+		public char getGrade() {
+			return grade;
+		}
+
+		/**
+		 * Overrides the toString method.
+		 *
+		 * @return the student, course, year and grade
+		 */
+		@Override
+		public String toString()
+		{
+			return studentId + " " + course + " " + year + ": " + grade;
+		}
+	}
+
+	/**
+	 * The records found by {@link TranscriptStore#find}.
+	 */
+	public static class Result
+	{
+		private List<Match> matches;
+		private int total;
+
+		private Result(List<Match> matches, int total)
+		{
+			this.matches = Collections.unmodifiableList(matches);
+			this.total = total;
+		}
+
+		/**
+		 * Gets the records found, up to the limit of the search.
+		 *
+		 * @return the records
+		 */
+		public List<Match> getMatches() {
+			return matches;
+		}
+
+		/**
+		 * Gets the number of records found, which may be more than
+		 * were returned.
+		 *
+		 * @return the number of records
+		 */
+		public int getTotal() {
+			return total;
+		}
+	}
+
+	/**
+	 * Imports transcripts into a store, or queries one, from the
+	 * command line.
+	 *
+	 * @param args the store directory, then either "import" with a
+	 *     courses file and a directory or manifest of transcripts as
+	 *     accepted by {@link BatchAudit}; "find" with a course short
+	 *     name or "-", and optionally the first year, last year and
+	 *     grades; or "compact"
+	 */
+	public static void main(String[] args)
+	{
+		if (args.length < 2) {
+			System.err.println("Usage: TranscriptStore DIRECTORY import COURSES_FILE DIRECTORY|MANIFEST");
+			System.err.println("       TranscriptStore DIRECTORY find COURSE|- [FROM [TO [GRADES]]]");
+			System.err.println("       TranscriptStore DIRECTORY compact");
+			return;
+		}
+		try {
+			TranscriptStore store = new TranscriptStore(args[0], false);
+			try {
+				if (args[1].equals("import") && args.length == 4) {
+					Course.loadCourses(args[2]);
+					int count = 0;
+					for (File file : BatchAudit.listTranscripts(new File(args[3]))) {
+						TranscriptReader reader = new TranscriptReader(file.getPath());
+						try {
+							for (Transcript transcript = reader.read(); transcript != null;
+									transcript = reader.read()) {
+								store.putTranscript(transcript);
+								count++;
+							}
+						} finally {
+							reader.close();
+						}
+					}
+					System.out.println("Imported " + count + " transcripts");
+				} else if (args[1].equals("find") && args.length >= 3) {
+					String course = args[2].equals("-") ? null : args[2];
+					int from = args.length > 3 ? Integer.parseInt(args[3]) : Integer.MIN_VALUE;
+					int to = args.length > 4 ? Integer.parseInt(args[4]) : Integer.MAX_VALUE;
+					String grades = args.length > 5 ? args[5].toUpperCase(Locale.ROOT) : null;
+					long start = System.nanoTime();
+					Result result = store.find(course, from, to, grades, Integer.MAX_VALUE);
+					long elapsed = System.nanoTime() - start;
+					for (Match match : result.getMatches()) {
+						System.out.println(match);
+					}
+					System.out.println(String.format("%d records in %.2f ms", result.getTotal(),
+							elapsed / 1e6));
+				} else if (args[1].equals("compact")) {
+					store.compact();
+					System.out.println(store.getStudentCount() + " students, "
+							+ store.getRecordCount() + " records");
+				} else {
+					System.err.println("Unknown command: " + args[1]);
+				}
+			} finally {
+				store.close();
+			}
+		} catch (IOException e) {
+			System.err.println(e.toString());
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+		}
+	}
+}
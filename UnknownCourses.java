@@ -0,0 +1,270 @@
+package edu.mills.cs64.final_project;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Collects the course codes in transcripts that are not in the catalog,
+ * so the data can be fixed instead of the credits being lost. Each
+ * distinct code is counted once per occurrence and remembers where it
+ * was first seen; the report lists the codes most frequent first, with
+ * a suggested catalog course when the code only differs from one in
+ * case or spacing.
+ * <p>
+ * A collector may be shared by many {@link TranscriptReader}s on
+ * different threads. To bound memory on badly damaged input, at most
+ * a fixed number of distinct codes are kept; further new codes are
+ * only counted in the total.
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+public class UnknownCourses
+{
+	private static final int DEFAULT_MAX_DISTINCT = 100000;
+
+	private int maxDistinct;
+	private Map<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+	private LongAdder total = new LongAdder();
+	private LongAdder dropped = new LongAdder();
+
+	/**
+	 * Constructs an empty collector.
+	 */
+	public UnknownCourses()
+	{
+		this(DEFAULT_MAX_DISTINCT);
+	}
+
+	/**
+	 * Constructs an empty collector that keeps at most the given number
+	 * of distinct codes.
+	 *
+	 * @param maxDistinct the maximum number of distinct codes
+	 * @throws IllegalArgumentException if maxDistinct is not positive
+	 */
+	public UnknownCourses(int maxDistinct) throws IllegalArgumentException
+	{
+		if (maxDistinct <= 0) {
+			throw new IllegalArgumentException("Maximum must be positive: " + maxDistinct);
+		}
+		this.maxDistinct = maxDistinct;
+	}
+
+	/**
+	 * Records an occurrence of a course code that is not in the catalog.
+	 *
+	 * @param code the code as it appeared in the transcript
+	 * @param source where the code was seen, such as the file and student
+	 */
+	public void record(String code, String source)
+	{
+		record(code, source, 1);
+	}
+
+	/**
+	 * Records several occurrences of a course code that is not in the
+	 * catalog, as when replaying codes found earlier.
+	 *
+	 * @param code the code as it appeared in the transcript
+	 * @param source where the code was first seen
+	 * @param count the number of occurrences
+	 */
+	public void record(String code, String source, long count)
+	{
+		total.add(count);
+		Entry entry = entries.get(code);
+		if (entry == null) {
+			if (entries.size() >= maxDistinct) {
+				dropped.add(count);
+				return;
+			}
+			Entry created = new Entry(code, source);
+			entry = entries.putIfAbsent(code, created);
+			if (entry == null) {
+				entry = created;
+			}
+		}
+		entry.count.add(count);
+	}
+
+	/**
+	 * Records every occurrence collected by another collector.
+	 *
+	 * @param other the other collector
+	 */
+	public void addAll(UnknownCourses other)
+	{
+		for (Entry entry : other.entries.values()) {
+			record(entry.code, entry.firstSource, entry.getCount());
+		}
+		long others = other.dropped.sum();
+		total.add(others);
+		dropped.add(others);
+	}
+
+	/**
+	 * Gets the number of occurrences recorded.
+	 *
+	 * @return the number of unknown course records
+	 */
+	public long getTotal() {
+		return total.sum();
+	}
+
+	/**
+	 * Gets the number of distinct codes kept.
+	 *
+	 * @return the number of distinct codes
+	 */
+	public int getDistinct() {
+		return entries.size();
+	}
+
+	/**
+	 * Tells whether any unknown codes have been recorded.
+	 *
+	 * @return true if none have
+	 */
+	public boolean isEmpty() {
+		return getTotal() == 0;
+	}
+
+	/**
+	 * Gets the distinct codes, most frequent first.
+	 *
+	 * @return the entries
+	 */
+	public List<Entry> getEntries()
+	{
+		List<Entry> sorted = new ArrayList<Entry>(entries.values());
+		Collections.sort(sorted, new Comparator<Entry>() {
+			@Override
+			public int compare(Entry a, Entry b) {
+				int byCount = Long.compare(b.getCount(), a.getCount());
+				return byCount != 0 ? byCount : a.code.compareTo(b.code);
+			}
+		});
+		return sorted;
+	}
+
+	/**
+	 * Writes a report of the unknown codes, most frequent first, one
+	 * per line, with the number of occurrences, where the code was
+	 * first seen and any suggested course.
+	 *
+	 * @param catalog the catalog to suggest courses from
+	 * @param out where to write the report
+	 * @throws IOException if the output cannot be written
+	 */
+	public void writeReport(CourseCatalog catalog, Appendable out) throws IOException
+	{
+		out.append(String.format("%d unknown course records, %d distinct codes%n",
+				getTotal(), getDistinct()));
+		for (Entry entry : getEntries()) {
+			out.append(String.format("%8d  %-12s first seen in %s", entry.getCount(),
+					entry.code, entry.firstSource));
+			Course suggestion = suggest(entry.code, catalog);
+			if (suggestion != null) {
+				out.append("; did you mean ").append(suggestion.getShortName()).append('?');
+			}
+			out.append(System.lineSeparator());
+		}
+		long others = dropped.sum();
+		if (others > 0) {
+			out.append(String.format("%8d  records with other codes not kept%n", others));
+		}
+	}
+
+	/**
+	 * Suggests the catalog course a code was probably meant to be, by
+	 * upper-casing it and normalizing the space between department and
+	 * number.
+	 *
+	 * @param code the unknown code
+	 * @param catalog the catalog
+	 * @return the course, or null if none matches
+	 */
+	static Course suggest(String code, CourseCatalog catalog)
+	{
+		String trimmed = code.trim().toUpperCase(Locale.ROOT);
+		int digits = trimmed.length();
+		while (digits > 0 && Character.isDigit(trimmed.charAt(digits - 1))) {
+			digits--;
+		}
+		if (digits == 0 || digits == trimmed.length()) {
+			return null;
+		}
+		String department = trimmed.substring(0, digits).trim().replaceAll("\\s+", " ");
+		return catalog.getCourse(department + " " + trimmed.substring(digits));
+	}
+
+	/**
+	 * Overrides the toString method.
+	 *
+	 * @return the report, without suggestions
+	 */
+	@Override
+	public String toString()
+	{
+		StringBuilder report = new StringBuilder();
+		try {
+			writeReport(new CourseCatalog(Collections.<Course>emptyList()), report);
+		} catch (IOException e) {
+			// StringBuilder does not throw.
+			throw new UncheckedIOException(e);
+		}
+		return report.toString();
+	}
+
+	/**
+	 * A distinct unknown code with its number of occurrences.
+	 */
+	public static class Entry
+	{
+		private String code;
+		private String firstSource;
+		private LongAdder count = new LongAdder();
+
+		private Entry(String code, String firstSource)
+		{
+			this.code = code;
+			this.firstSource = firstSource;
+		}
+
+		/**
+		 * Gets the code.
+		 *
+		 * @return the code as it appeared in the transcript
+		 */
+		public String getCode() {
+			return code;
+		}
+
+		/**
+		 * Gets where the code was first seen.
+		 *
+		 * @return the source
+		 */
+		public String getFirstSource() {
+			return firstSource;
+		}
+
+		/**
+		 * Gets the number of occurrences.
+		 *
+		 * @return the count
+		 */
+		public long getCount() {
+			return count.sum();
+		}
+	}
+}
@@ -0,0 +1,222 @@
+package edu.mills.cs64.final_project;
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+
+/**
+ * Answers "what if the student took these courses?" for one transcript
+ * and many alternatives. Each scenario is a {@link Transcript#fork()}
+ * of the student's transcript with hypothetical grade records added,
+ * so it shares the real records and costs memory only for its own;
+ * thousands of scenarios can be evaluated at once in parallel with
+ * {@link #evaluateAll(List)}.
+ * <p>
+ * The transcript is snapshotted when the audit is constructed, so
+ * later changes to it do not affect the scenarios.
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+public class WhatIfAudit
+{
+	/**
+	 * The grade assumed for planned courses by
+	 * {@link #planned(List, int)}: a passing grade, since requirement
+	 * credits do not depend on the grade.
+	 */
+	public static final String PLANNED_GRADE = "C";
+
+	private Transcript snapshot;
+
+	/**
+	 * Constructs a what-if audit of a transcript.
+	 *
+	 * @param transcript the student's transcript
+	 */
+	public WhatIfAudit(Transcript transcript)
+	{
+		snapshot = transcript.fork();
+		// Computed once here rather than by every scenario that adds
+		// nothing relevant.
+		snapshot.getRecommendation();
+	}
+
+	/**
+	 * Makes grade records for courses the student plans to take.
+	 *
+	 * @param courses the courses
+	 * @param year the year they would be taken
+	 * @return a record of each course with {@link #PLANNED_GRADE}
+	 */
+	public static List<GradeRecord> planned(List<Course> courses, int year)
+	{
+		List<GradeRecord> records = new ArrayList<GradeRecord>(courses.size());
+		for (Course course : courses) {
+			records.add(new GradeRecord(course, year, PLANNED_GRADE));
+		}
+		return records;
+	}
+
+	/**
+	 * Evaluates one scenario.
+	 *
+	 * @param records the hypothetical grade records
+	 * @return the outcome
+	 * @throws IllegalArgumentException if a record's course is not in
+	 *     the transcript's catalog
+	 */
+	public Scenario evaluate(List<GradeRecord> records) throws IllegalArgumentException
+	{
+		Transcript fork = snapshot.fork();
+		for (GradeRecord record : records) {
+			fork.addGradeRecord(record);
+		}
+		fork.getRecommendation();
+		return new Scenario(records, fork, snapshot.getSatisfiedRequirementsMask());
+	}
+
+	/**
+	 * Evaluates many scenarios in parallel.
+	 *
+	 * @param scenarios the hypothetical grade records of each scenario
+	 * @return the outcomes, in the same order
+	 * @throws IllegalArgumentException if a record's course is not in
+	 *     the transcript's catalog
+	 */
+	public List<Scenario> evaluateAll(List<? extends List<GradeRecord>> scenarios)
+			throws IllegalArgumentException
+	{
+		return scenarios.parallelStream().map(this::evaluate).collect(Collectors.toList());
+	}
+
+	/**
+	 * The outcome of one scenario.
+	 */
+	public static class Scenario
+	{
+		private List<GradeRecord> added;
+		private Transcript transcript;
+		private int satisfiedBefore;
+
+		private Scenario(List<GradeRecord> added, Transcript transcript, int satisfiedBefore)
+		{
+			this.added = Collections.unmodifiableList(new ArrayList<GradeRecord>(added));
+			this.transcript = transcript;
+			this.satisfiedBefore = satisfiedBefore;
+		}
+
+		/**
+		 * Gets the hypothetical grade records.
+		 *
+		 * @return the records added in this scenario
+		 */
+		public List<GradeRecord> getAdded() {
+			return added;
+		}
+
+		/**
+		 * Gets the transcript with the hypothetical records added. It
+		 * can be forked again to try further changes.
+		 *
+		 * @return the transcript
+		 */
+		public Transcript getTranscript() {
+			return transcript;
+		}
+
+		/**
+		 * Gets the requirements this scenario would newly satisfy.
+		 *
+		 * @return a mask of the requirements
+		 */
+		public int getNewlySatisfiedMask() {
+			return transcript.getSatisfiedRequirementsMask() & ~satisfiedBefore;
+		}
+
+		/**
+		 * Gets the requirements still unmet in this scenario.
+		 *
+		 * @return a mask of the requirements
+		 */
+		public int getUnmetRequirementsMask() {
+			return transcript.getUnmetRequirementsMask();
+		}
+
+		/**
+		 * Gets the courses recommended for what would remain.
+		 *
+		 * @return the recommendation
+		 */
+		public Recommendation getRecommendation() {
+			return transcript.getRecommendation();
+		}
+
+		/**
+		 * Overrides the toString method.
+		 *
+		 * @return the courses added, the requirements they would
+		 *     satisfy and those still unmet
+		 */
+		@Override
+		public String toString()
+		{
+			StringBuilder builder = new StringBuilder();
+			for (GradeRecord record : added) {
+				if (builder.length() > 0) {
+					builder.append(", ");
+				}
+				builder.append(record.getCourse().getShortName());
+			}
+			builder.append(": satisfies ").append(CoreRequirement.fromMask(getNewlySatisfiedMask()))
+				.append(", still unmet ").append(CoreRequirement.fromMask(getUnmetRequirementsMask()));
+			return builder.toString();
+		}
+	}
+
+	/**
+	 * Evaluates scenarios for a transcript from the command line, each
+	 * a comma-separated list of short names taken the year after the
+	 * last record on the transcript.
+	 *
+	 * @param args the courses file, the transcript file and one or more
+	 *     scenarios, such as "CS 63, MATH 1"
+	 */
+	public static void main(String[] args)
+	{
+		if (args.length < 3) {
+			System.err.println("Usage: WhatIfAudit COURSES_FILE TRANSCRIPT_FILE "
+					+ "\"COURSE, COURSE, ...\"...");
+			return;
+		}
+		try {
+			Course.loadCourses(args[0]);
+			Transcript transcript = new Transcript(args[1]);
+			int year = 0;
+			for (GradeRecord record : transcript.getGradeRecords()) {
+				year = Math.max(year, record.getYear() + 1);
+			}
+			List<List<GradeRecord>> scenarios = new ArrayList<List<GradeRecord>>();
+			for (int i = 2; i < args.length; i++) {
+				List<Course> courses = new ArrayList<Course>();
+				for (String name : args[i].split(",")) {
+					Course course = Course.getCourse(name.trim());
+					if (course == null) {
+						throw new IllegalArgumentException("Unknown course: " + name.trim());
+					}
+					courses.add(course);
+				}
+				scenarios.add(planned(courses, year));
+			}
+			for (Scenario scenario : new WhatIfAudit(transcript).evaluateAll(scenarios)) {
+				System.out.println(scenario);
+			}
+		} catch (FileNotFoundException e) {
+			System.err.println(e.toString());
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package edu.mills.cs64.final_project;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Times one {@link BatchAudit} of {@value #TRANSCRIPTS} transcripts
+ * on all processors, as in a nightly run:
+ * <ul>
+ * <li>uncached: without an {@link AuditCache}</li>
+ * <li>cold: with an empty cache</li>
+ * <li>rerun: with a warm cache after {@value #CHANGED_PERCENT}% of
+ * the transcripts have changed</li>
+ * </ul>
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BatchAuditBenchmark
+{
+	private static final int TRANSCRIPTS = 2000;
+	private static final int CHANGED_PERCENT = 5;
+
+	@Param({ "1000", "10000", "100000" })
+	public int courses;
+
+	@Param({ "uncached", "cold", "rerun" })
+	public String run;
+
+	private File dir;
+	private File transcriptDir;
+	private File cacheDir;
+	private DataGenerator generator;
+	private List<File> files;
+	private int threads = Runtime.getRuntime().availableProcessors();
+	private BatchAudit batch;
+
+	/**
+	 * Writes the catalog and transcripts, and loads the catalog.
+	 *
+	 * @throws IOException if they cannot be written
+	 */
+	@Setup
+	public void setUp() throws IOException
+	{
+		dir = Fixtures.createDirectory("batch-benchmark");
+		transcriptDir = new File(dir, "transcripts");
+		cacheDir = new File(dir, "cache");
+		String catalogFile = new File(dir, "courses.txt").getPath();
+		generator = new DataGenerator(courses, Fixtures.DENSITY);
+		generator.writeCatalog(catalogFile, courses);
+		generator.writeTranscripts(transcriptDir.getPath(), TRANSCRIPTS, Fixtures.RECORDS, courses);
+		Course.loadCourses(catalogFile);
+		files = BatchAudit.listTranscripts(transcriptDir);
+	}
+
+	/**
+	 * Prepares the cache for the next run: none, an empty one, or one
+	 * warmed by a full run before some transcripts are rewritten.
+	 *
+	 * @throws Exception if the warming run fails
+	 */
+	@Setup(Level.Iteration)
+	public void prepare() throws Exception
+	{
+		if ("uncached".equals(run)) {
+			batch = new BatchAudit(threads);
+			return;
+		}
+		Fixtures.delete(cacheDir);
+		if ("rerun".equals(run)) {
+			AuditCache cache = new AuditCache(cacheDir.getPath(), Long.MAX_VALUE);
+			new BatchAudit(threads, ReportFormat.TEXT, cache).run(files, Fixtures.DISCARD);
+			for (int i = 0; i < TRANSCRIPTS; i += 100 / CHANGED_PERCENT) {
+				generator.writeTranscript(Fixtures.transcriptFile(transcriptDir, i), i,
+						Fixtures.RECORDS, courses);
+			}
+		}
+		AuditCache cache = new AuditCache(cacheDir.getPath(), Long.MAX_VALUE);
+		batch = new BatchAudit(threads, ReportFormat.TEXT, cache);
+	}
+
+	/**
+	 * Deletes the generated files.
+	 */
+	@TearDown
+	public void tearDown()
+	{
+		Fixtures.delete(dir);
+	}
+
+	@Benchmark
+	public BatchAudit.Report audit() throws Exception
+	{
+		return batch.run(files, Fixtures.DISCARD);
+	}
+}
@@ -0,0 +1,124 @@
+package edu.mills.cs64.final_project;
+import java.io.File;
+import java.io.IOException;
+import java.util.Hashtable;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Benchmarks of loading and querying a catalog of synthetic courses
+ * from {@link DataGenerator}, at several catalog sizes so that scaling
+ * can be seen. Run with the gc profiler for allocation rates:
+ * <pre>
+ *     java -jar benchmarks/target/benchmarks.jar CatalogBenchmarks -prof gc
+ * </pre>
+ * The workloads are:
+ * <ul>
+ * <li>load: loading the catalog from a file not yet parsed</li>
+ * <li>lookup: {@link Course#getCourse(String)} on known short names</li>
+ * <li>hashtableLookup: the same names in the static Hashtable that
+ * Course used to keep, as the baseline for lookup</li>
+ * <li>search: {@link CourseSearch#search} with a mix of prefix,
+ * multi-word, misspelled and faceted queries</li>
+ * </ul>
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class CatalogBenchmarks
+{
+	private static final int SEARCH_LIMIT = 20;
+
+	@Param({ "1000", "10000", "100000" })
+	public int courses;
+
+	private File dir;
+	private String catalogFile;
+	private String[] shortNames;
+	private Hashtable<String, Course> hashtable;
+	private CourseSearch search;
+	private int next;
+
+	/**
+	 * Writes and loads the catalog.
+	 *
+	 * @throws IOException if the catalog cannot be written
+	 */
+	@Setup
+	public void setUp() throws IOException
+	{
+		dir = Fixtures.createDirectory("catalog-benchmarks");
+		catalogFile = new File(dir, "courses.txt").getPath();
+		new DataGenerator(courses, Fixtures.DENSITY).writeCatalog(catalogFile, courses);
+		Course.loadCourses(catalogFile);
+		shortNames = new String[courses];
+		for (int i = 0; i < courses; i++) {
+			shortNames[i] = DataGenerator.shortName(i);
+		}
+		hashtable = Fixtures.hashtable(CourseCatalog.getCurrent());
+		search = CourseCatalog.getCurrent().getSearch();
+	}
+
+	/**
+	 * Deletes the catalog.
+	 */
+	@TearDown
+	public void tearDown()
+	{
+		Fixtures.delete(dir);
+	}
+
+	@Benchmark
+	public CourseCatalog load() throws IOException
+	{
+		return CourseCatalog.load(catalogFile);
+	}
+
+	@Benchmark
+	public Course lookup()
+	{
+		return Course.getCourse(shortNames[next++ % shortNames.length]);
+	}
+
+	@Benchmark
+	public Course hashtableLookup()
+	{
+		return hashtable.get(shortNames[next++ % shortNames.length]);
+	}
+
+	@Benchmark
+	public CourseSearch.Result search()
+	{
+		switch (next++ % 5) {
+		case 0:
+			return search.search("art", 0, null, 0, SEARCH_LIMIT);
+		case 1:
+			return search.search("intro chem", 0, null, 0, SEARCH_LIMIT);
+		case 2:
+			return search.search("algoritms", 0, null, 0, SEARCH_LIMIT);
+		case 3:
+			return search.search("studies", CoreRequirement.QL.getMask(), null, 3, SEARCH_LIMIT);
+		default:
+			return search.search("", CoreRequirement.CA.getMask(), "ARTH", 0, SEARCH_LIMIT);
+		}
+	}
+}
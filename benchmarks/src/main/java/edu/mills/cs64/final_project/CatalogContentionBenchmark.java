@@ -0,0 +1,109 @@
+package edu.mills.cs64.final_project;
+import java.io.File;
+import java.io.IOException;
+import java.util.Hashtable;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Compares course lookups from {@value #READERS} reader threads at
+ * once, as on the audit hot path of a batch run or the server:
+ * <ul>
+ * <li>catalog: {@link Course#getCourse(String)}, which reads the
+ * published {@link CourseCatalog} snapshot without locking</li>
+ * <li>hashtable: the static Hashtable that Course used to keep, whose
+ * every lookup takes the same monitor</li>
+ * </ul>
+ * The reported throughput is the total over all threads.
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(CatalogContentionBenchmark.READERS)
+public class CatalogContentionBenchmark
+{
+	static final int READERS = 32;
+
+	private static final int COURSES = 10000;
+
+	/**
+	 * The catalog and the baseline table, shared by every reader.
+	 */
+	@State(Scope.Benchmark)
+	public static class Tables
+	{
+		private File dir;
+		private String[] shortNames;
+		private Hashtable<String, Course> hashtable;
+
+		/**
+		 * Writes and loads the catalog and builds the table.
+		 *
+		 * @throws IOException if the catalog cannot be written
+		 */
+		@Setup
+		public void setUp() throws IOException
+		{
+			dir = Fixtures.createDirectory("catalog-contention-benchmark");
+			String catalogFile = new File(dir, "courses.txt").getPath();
+			new DataGenerator(COURSES, Fixtures.DENSITY).writeCatalog(catalogFile, COURSES);
+			Course.loadCourses(catalogFile);
+			hashtable = Fixtures.hashtable(CourseCatalog.getCurrent());
+			shortNames = new String[COURSES];
+			for (int i = 0; i < COURSES; i++) {
+				shortNames[i] = DataGenerator.shortName(i);
+			}
+		}
+
+		/**
+		 * Deletes the catalog.
+		 */
+		@TearDown
+		public void tearDown()
+		{
+			Fixtures.delete(dir);
+		}
+	}
+
+	/**
+	 * Where each reader is in the list of names, so that readers do not
+	 * share a counter.
+	 */
+	@State(Scope.Thread)
+	public static class Reader
+	{
+		private int next = (int) Thread.currentThread().getId() * 7919;
+	}
+
+	@Benchmark
+	public Course catalog(Tables tables, Reader reader)
+	{
+		String[] names = tables.shortNames;
+		return Course.getCourse(names[(reader.next++ & Integer.MAX_VALUE) % names.length]);
+	}
+
+	@Benchmark
+	public Course hashtable(Tables tables, Reader reader)
+	{
+		String[] names = tables.shortNames;
+		return tables.hashtable.get(names[(reader.next++ & Integer.MAX_VALUE) % names.length]);
+	}
+}
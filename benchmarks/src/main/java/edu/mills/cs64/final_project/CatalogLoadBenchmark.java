@@ -0,0 +1,124 @@
+package edu.mills.cs64.final_project;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Compares loading a catalog of {@value #RECORDS} records with the
+ * original Scanner-based loader ("scanner") and with
+ * {@link CourseCatalog#load(String)} ("channel"). Both build the same
+ * {@link CourseCatalog}, so the difference is in reading and parsing.
+ * The records have only the four original lines, which is all the
+ * original loader could read. Run with the gc profiler to compare
+ * allocation:
+ * <pre>
+ *     java -jar benchmarks/target/benchmarks.jar CatalogLoadBenchmark -prof gc
+ * </pre>
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CatalogLoadBenchmark
+{
+	private static final int RECORDS = 1000000;
+
+	@Param({ "scanner", "channel" })
+	public String loader;
+
+	private File dir;
+	private String catalogFile;
+
+	/**
+	 * Writes the catalog.
+	 *
+	 * @throws IOException if it cannot be written
+	 */
+	@Setup
+	public void setUp() throws IOException
+	{
+		dir = Fixtures.createDirectory("catalog-load-benchmark");
+		File generated = new File(dir, "generated.txt");
+		new DataGenerator(RECORDS, Fixtures.DENSITY).writeCatalog(generated.getPath(), RECORDS);
+		Path plain = new File(dir, "courses.txt").toPath();
+		try (Stream<String> lines = Files.lines(generated.toPath(), StandardCharsets.UTF_8)) {
+			Files.write(plain, lines.filter(line -> !line.startsWith("PREREQUISITES:")
+					&& !line.startsWith("TERMS:")).collect(Collectors.toList()),
+					StandardCharsets.UTF_8);
+		}
+		catalogFile = plain.toString();
+	}
+
+	/**
+	 * Deletes the catalog.
+	 */
+	@TearDown
+	public void tearDown()
+	{
+		Fixtures.delete(dir);
+	}
+
+	@Benchmark
+	public CourseCatalog load() throws IOException
+	{
+		return "scanner".equals(loader) ? loadWithScanner(catalogFile)
+				: CourseCatalog.load(catalogFile);
+	}
+
+	/**
+	 * Loads a catalog the way the original Course.loadCourses did,
+	 * splitting each line and looking requirements up by name.
+	 *
+	 * @param filename the name of the file with course information
+	 * @return the catalog
+	 * @throws FileNotFoundException if the file cannot be found
+	 */
+	static CourseCatalog loadWithScanner(String filename) throws FileNotFoundException
+	{
+		List<Course> courseList = new ArrayList<Course>();
+		Scanner scanner = new Scanner(new File(filename));
+		while (scanner.hasNextLine()) {
+			String[] splitLine1 = scanner.nextLine().split(" ");
+			String department = splitLine1[0];
+			int number = Integer.parseInt(splitLine1[1]);
+			String name = scanner.nextLine();
+			int credits = Integer.parseInt(scanner.nextLine());
+			String[] splitLine4 = scanner.nextLine().split(", ");
+			CoreRequirement[] requirementsMet = new CoreRequirement[splitLine4.length];
+			for (int i = 0; i < requirementsMet.length; i++) {
+				requirementsMet[i] = CoreRequirement.valueOf(splitLine4[i]);
+			}
+			courseList.add(new Course(department, number, name, credits, requirementsMet));
+		}
+		scanner.close();
+		return new CourseCatalog(courseList);
+	}
+}
@@ -0,0 +1,114 @@
+package edu.mills.cs64.final_project;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.Hashtable;
+
+
+/**
+ * Temporary files and sinks shared by the benchmarks.
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+final class Fixtures
+{
+	/**
+	 * The number of transcripts in a benchmark's working set.
+	 */
+	static final int TRANSCRIPTS = 200;
+
+	/**
+	 * The number of grade records per generated transcript.
+	 */
+	static final int RECORDS = 12;
+
+	/**
+	 * The probability that a generated course meets each requirement
+	 * beyond its first.
+	 */
+	static final double DENSITY = 0.1;
+
+	/**
+	 * A writer that discards everything, so that output does not
+	 * dominate a measurement.
+	 */
+	static final Writer DISCARD = new Writer() {
+		@Override
+		public void write(char[] buffer, int offset, int length) {
+		}
+
+		@Override
+		public void flush() {
+		}
+
+		@Override
+		public void close() {
+		}
+	};
+
+	private Fixtures()
+	{
+	}
+
+	/**
+	 * Creates an empty temporary directory.
+	 *
+	 * @param prefix the prefix of the directory name
+	 * @return the directory
+	 * @throws IOException if it cannot be created
+	 */
+	static File createDirectory(String prefix) throws IOException
+	{
+		return Files.createTempDirectory(prefix).toFile();
+	}
+
+	/**
+	 * Deletes a file or a directory and everything in it.
+	 *
+	 * @param file the file or directory
+	 */
+	static void delete(File file)
+	{
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+
+	/**
+	 * Builds the table that {@link Course} used to keep before
+	 * {@link CourseCatalog}: a static Hashtable from short name to
+	 * course, every call to which takes the table's monitor. It is the
+	 * baseline for the lookup benchmarks.
+	 *
+	 * @param catalog the courses to put in the table
+	 * @return the table
+	 */
+	static Hashtable<String, Course> hashtable(CourseCatalog catalog)
+	{
+		Hashtable<String, Course> table = new Hashtable<String, Course>();
+		for (int i = 0; i < catalog.size(); i++) {
+			Course course = catalog.getCourse(i);
+			table.put(course.getShortName(), course);
+		}
+		return table;
+	}
+
+	/**
+	 * Gets the name of a transcript file written by
+	 * {@link DataGenerator#writeTranscripts(String, int, int, int)}.
+	 *
+	 * @param dir the directory of transcripts
+	 * @param index the index of the transcript
+	 * @return the file name
+	 */
+	static String transcriptFile(File dir, int index)
+	{
+		return new File(dir, "transcript" + index + ".txt").getPath();
+	}
+}
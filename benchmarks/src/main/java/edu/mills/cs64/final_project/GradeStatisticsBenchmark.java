@@ -0,0 +1,124 @@
+package edu.mills.cs64.final_project;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Benchmarks of {@link GradeStatistics} over a student body of
+ * {@value #STUDENTS} transcripts with {@link Fixtures#RECORDS} grade
+ * records each, built in memory. The workloads are:
+ * <ul>
+ * <li>summarize: {@link GradeStatistics#of}, one parallel pass over
+ * every record</li>
+ * <li>percentileRanks: {@link GradeStatistics#percentileRanks}</li>
+ * <li>update: adding one record to the summary of the whole body and
+ * removing it again, which rescans nothing</li>
+ * </ul>
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class GradeStatisticsBenchmark
+{
+	private static final int STUDENTS = 1000000;
+	private static final int COURSES = 1000;
+	private static final int UPDATES = 1024;
+
+	private File dir;
+	private List<Transcript> transcripts;
+	private GradeStatistics statistics;
+	private GradeRecord[] updates;
+	private int next;
+
+	/**
+	 * Loads a catalog and builds the transcripts and their summary.
+	 *
+	 * @throws IOException if the catalog cannot be written
+	 */
+	@Setup
+	public void setUp() throws IOException
+	{
+		dir = Fixtures.createDirectory("grade-statistics-benchmark");
+		String catalogFile = new File(dir, "courses.txt").getPath();
+		new DataGenerator(COURSES, Fixtures.DENSITY).writeCatalog(catalogFile, COURSES);
+		CourseCatalog catalog = CourseCatalog.load(catalogFile);
+		Random random = new Random(STUDENTS);
+		transcripts = new ArrayList<Transcript>(STUDENTS);
+		for (int s = 0; s < STUDENTS; s++) {
+			Transcript transcript = new Transcript(String.format("B%08d", s), "First", "Last",
+					catalog);
+			for (int r = 0; r < Fixtures.RECORDS; r++) {
+				transcript.addGradeRecord(randomRecord(catalog, random));
+			}
+			transcripts.add(transcript);
+		}
+		statistics = GradeStatistics.of(transcripts);
+		updates = new GradeRecord[UPDATES];
+		for (int i = 0; i < UPDATES; i++) {
+			updates[i] = randomRecord(catalog, random);
+		}
+	}
+
+	private static GradeRecord randomRecord(CourseCatalog catalog, Random random)
+	{
+		return new GradeRecord(catalog.getCourse(random.nextInt(COURSES)),
+				2010 + random.nextInt(10),
+				String.valueOf(GradeStatistics.GRADES.charAt(random.nextInt(5))));
+	}
+
+	/**
+	 * Deletes the catalog.
+	 */
+	@TearDown
+	public void tearDown()
+	{
+		Fixtures.delete(dir);
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public GradeStatistics summarize()
+	{
+		return GradeStatistics.of(transcripts);
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public Map<String, Double> percentileRanks()
+	{
+		return GradeStatistics.percentileRanks(transcripts);
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.NANOSECONDS)
+	public double update()
+	{
+		GradeRecord record = updates[next++ & (UPDATES - 1)];
+		statistics.add(record);
+		double gpa = statistics.getCumulativeGpa();
+		statistics.remove(record);
+		return gpa;
+	}
+}
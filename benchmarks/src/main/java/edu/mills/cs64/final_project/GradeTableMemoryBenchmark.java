@@ -0,0 +1,134 @@
+package edu.mills.cs64.final_project;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Compares the heap retained by {@value #ROWS} grade rows held as a
+ * {@code List<GradeRecord>} ("list") and as a {@link GradeTable}
+ * ("table"). Each invocation builds the rows and reports, as the
+ * secondary result "retainedBytes", how much the used heap grew
+ * between full collections before and after; the primary result is
+ * the time to build them.
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class GradeTableMemoryBenchmark
+{
+	private static final int ROWS = 10000000;
+	private static final int COURSES = 1000;
+
+	@Param({ "list", "table" })
+	public String store;
+
+	private File dir;
+	private CourseCatalog catalog;
+
+	/**
+	 * The heap retained by the rows built in an invocation.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Memory
+	{
+		public long retainedBytes;
+	}
+
+	/**
+	 * Writes and loads the catalog.
+	 *
+	 * @throws IOException if the catalog cannot be written
+	 */
+	@Setup
+	public void setUp() throws IOException
+	{
+		dir = Fixtures.createDirectory("grade-table-benchmark");
+		String catalogFile = new File(dir, "courses.txt").getPath();
+		new DataGenerator(COURSES, Fixtures.DENSITY).writeCatalog(catalogFile, COURSES);
+		catalog = CourseCatalog.load(catalogFile);
+	}
+
+	/**
+	 * Deletes the catalog.
+	 */
+	@TearDown
+	public void tearDown()
+	{
+		Fixtures.delete(dir);
+	}
+
+	@Benchmark
+	public Object build(Memory memory)
+	{
+		long before = usedHeap();
+		Object rows;
+		if (store.equals("table")) {
+			GradeTable table = new GradeTable(catalog, ROWS);
+			for (int i = 0; i < ROWS; i++) {
+				table.add(course(i), year(i), grade(i));
+			}
+			rows = table;
+		} else {
+			List<GradeRecord> list = new ArrayList<GradeRecord>(ROWS);
+			for (int i = 0; i < ROWS; i++) {
+				list.add(new GradeRecord(course(i), year(i), grade(i)));
+			}
+			rows = list;
+		}
+		memory.retainedBytes = usedHeap() - before;
+		return rows;
+	}
+
+	private Course course(int row)
+	{
+		return catalog.getCourse(row % COURSES);
+	}
+
+	private static int year(int row)
+	{
+		return 2000 + row % 20;
+	}
+
+	private static String grade(int row)
+	{
+		return String.valueOf(GradeStatistics.GRADES.charAt(row % 5));
+	}
+
+	/**
+	 * Gets the heap in use after full collections.
+	 *
+	 * @return the used heap in bytes
+	 */
+	private static long usedHeap()
+	{
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
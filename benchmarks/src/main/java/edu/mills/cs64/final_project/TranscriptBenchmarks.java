@@ -0,0 +1,216 @@
+package edu.mills.cs64.final_project;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Benchmarks of reading, auditing and planning transcripts generated
+ * by {@link DataGenerator} against catalogs of several sizes. Each
+ * operation works on the next of {@value Fixtures#TRANSCRIPTS}
+ * transcripts, so no one transcript stays hot in the cache.
+ * <p>
+ * The workloads are:
+ * <ul>
+ * <li>audit: reading a transcript and rendering it with toString</li>
+ * <li>recommend: {@link Transcript#recommendCourses()}</li>
+ * <li>render: rendering a parsed transcript and its recommendations</li>
+ * <li>text, csv, json: writing the same audit with a
+ * {@link ReportFormat} into a reused buffer</li>
+ * <li>enumCheck: tallying a transcript's grade records against the
+ * {@link CoreRequirement} credit thresholds, as {@link Transcript}
+ * does, as the baseline for rules</li>
+ * <li>rules: evaluating the core requirements and the extra rules in
+ * {@link #RULES} with {@link AuditRules}</li>
+ * <li>whatIf: forking a transcript with {@link Transcript#fork()} and
+ * adding {@value #WHAT_IF_COURSES} planned courses</li>
+ * <li>plan: {@link DegreePlanner#plan(Transcript, Term)} with a
+ * {@value #PLAN_CREDITS}-credit cap and a {@value #PLAN_MILLIS} ms
+ * limit</li>
+ * </ul>
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class TranscriptBenchmarks
+{
+	private static final int PLAN_CREDITS = 12;
+	private static final long PLAN_MILLIS = 100;
+	private static final int WHAT_IF_COURSES = 3;
+	private static final int WHAT_IF_YEAR = 2020;
+	private static final CoreRequirement[] REQUIREMENTS = CoreRequirement.values();
+	private static final String[] RULES = {
+		"BREADTH: 9 credits, requirement CA RGP IP, 1 per department",
+		"STEM: 4 courses, department BIO CHEM CS MATH PHYS, grade C",
+		"RECENT_QL: 6 credits, requirement QL, after 2014",
+		"EARLY: 12 credits, before 2013"
+	};
+
+	@Param({ "1000", "10000", "100000" })
+	public int courses;
+
+	private File dir;
+	private CourseCatalog catalog;
+	private List<Transcript> transcripts;
+	private StringBuilder buffer = new StringBuilder();
+	private int[] tallies = new int[REQUIREMENTS.length];
+	private AuditRules.Evaluator evaluator;
+	private DegreePlanner planner = new DegreePlanner(PLAN_CREDITS, PLAN_MILLIS);
+	private int next;
+
+	/**
+	 * Writes the catalog, transcripts and rules, and loads them.
+	 *
+	 * @throws IOException if they cannot be written
+	 */
+	@Setup
+	public void setUp() throws IOException
+	{
+		dir = Fixtures.createDirectory("transcript-benchmarks");
+		String catalogFile = new File(dir, "courses.txt").getPath();
+		DataGenerator generator = new DataGenerator(courses, Fixtures.DENSITY);
+		generator.writeCatalog(catalogFile, courses);
+		generator.writeTranscripts(dir.getPath(), Fixtures.TRANSCRIPTS, Fixtures.RECORDS, courses);
+		Course.loadCourses(catalogFile);
+		catalog = CourseCatalog.getCurrent();
+		transcripts = new ArrayList<Transcript>();
+		for (int i = 0; i < Fixtures.TRANSCRIPTS; i++) {
+			transcripts.add(new Transcript(Fixtures.transcriptFile(dir, i)));
+		}
+
+		List<String> ruleLines = new ArrayList<String>();
+		for (CoreRequirement cr : REQUIREMENTS) {
+			ruleLines.add(cr.name() + ": " + cr.getCredits() + " credits, requirement " + cr.name());
+		}
+		ruleLines.addAll(Arrays.asList(RULES));
+		File rulesFile = new File(dir, "rules.txt");
+		Files.write(rulesFile.toPath(), ruleLines, StandardCharsets.UTF_8);
+		evaluator = AuditRules.load(rulesFile.getPath()).compile(catalog).newEvaluator();
+	}
+
+	/**
+	 * Deletes the generated files.
+	 */
+	@TearDown
+	public void tearDown()
+	{
+		Fixtures.delete(dir);
+	}
+
+	private Transcript nextTranscript()
+	{
+		return transcripts.get(next++ % Fixtures.TRANSCRIPTS);
+	}
+
+	@Benchmark
+	public String audit() throws IOException
+	{
+		return new Transcript(Fixtures.transcriptFile(dir, next++ % Fixtures.TRANSCRIPTS))
+				.toString();
+	}
+
+	@Benchmark
+	public Object recommend()
+	{
+		return nextTranscript().recommendCourses();
+	}
+
+	@Benchmark
+	public String render()
+	{
+		Transcript transcript = nextTranscript();
+		return transcript + "\n" + transcript.recommendCourses();
+	}
+
+	@Benchmark
+	public StringBuilder text() throws IOException
+	{
+		return write(ReportFormat.TEXT);
+	}
+
+	@Benchmark
+	public StringBuilder csv() throws IOException
+	{
+		return write(ReportFormat.CSV);
+	}
+
+	@Benchmark
+	public StringBuilder json() throws IOException
+	{
+		return write(ReportFormat.JSON);
+	}
+
+	private StringBuilder write(ReportFormat format) throws IOException
+	{
+		buffer.setLength(0);
+		format.writeAudit(nextTranscript(), buffer);
+		return buffer;
+	}
+
+	@Benchmark
+	public int enumCheck()
+	{
+		Arrays.fill(tallies, 0);
+		for (GradeRecord record : nextTranscript().getGradeRecords()) {
+			Course course = record.getCourse();
+			for (CoreRequirement cr : course.getRequirementsMet()) {
+				tallies[cr.ordinal()] += course.getCredits();
+			}
+		}
+		int satisfied = 0;
+		for (CoreRequirement cr : REQUIREMENTS) {
+			if (tallies[cr.ordinal()] >= cr.getCredits()) {
+				satisfied |= cr.getMask();
+			}
+		}
+		return satisfied;
+	}
+
+	@Benchmark
+	public long rules()
+	{
+		return evaluator.evaluate(nextTranscript());
+	}
+
+	@Benchmark
+	public int whatIf()
+	{
+		int iteration = next;
+		Transcript fork = nextTranscript().fork();
+		for (int i = 0; i < WHAT_IF_COURSES; i++) {
+			Course course = catalog.getCourse((iteration * 31 + i * 7) % catalog.size());
+			fork.addGradeRecord(new GradeRecord(course, WHAT_IF_YEAR, WhatIfAudit.PLANNED_GRADE));
+		}
+		return fork.getUnmetRequirementsMask();
+	}
+
+	@Benchmark
+	public Object plan()
+	{
+		return planner.plan(nextTranscript(), Term.FALL);
+	}
+}
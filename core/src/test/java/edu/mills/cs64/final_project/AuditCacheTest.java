@@ -0,0 +1,100 @@
+package edu.mills.cs64.final_project;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+/**
+ * Tests storing and replaying audits with an {@link AuditCache}.
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+class AuditCacheTest
+{
+	@TempDir
+	Path dir;
+
+	private CourseCatalog catalog;
+
+	@BeforeEach
+	void loadCatalog() throws IOException
+	{
+		catalog = CourseCatalogTest.load(dir);
+	}
+
+	private String cacheDirectory()
+	{
+		return dir.resolve("cache").toString();
+	}
+
+	@Test
+	void replaysCountsAndUnknownCodes() throws IOException
+	{
+		AuditCache cache = new AuditCache(cacheDirectory(), 1 << 20);
+		byte[] transcript = "two students".getBytes(StandardCharsets.UTF_8);
+		assertNull(cache.get(transcript, catalog, ReportFormat.TEXT, null));
+		UnknownCourses found = new UnknownCourses();
+		found.record("cs 63", "file student B00000005");
+		found.record("cs 63", "file student B00000006");
+		cache.put(transcript, catalog, ReportFormat.TEXT,
+				new AuditCache.Audit("audits", 2, 1), found);
+
+		UnknownCourses replayed = new UnknownCourses();
+		AuditCache.Audit audit = new AuditCache(cacheDirectory(), 1 << 20)
+				.get(transcript, catalog, ReportFormat.TEXT, replayed);
+		assertEquals("audits", audit.getText());
+		assertEquals(2, audit.getTranscripts());
+		assertEquals(1, audit.getFailures());
+		assertEquals(2, replayed.getTotal());
+		assertEquals("file student B00000005", replayed.getEntries().get(0).getFirstSource());
+		assertNull(cache.get(transcript, catalog, ReportFormat.CSV, null));
+	}
+
+	@Test
+	void countsConcurrentPutsOfOneEntryOnce() throws Exception
+	{
+		final AuditCache cache = new AuditCache(cacheDirectory(), Long.MAX_VALUE);
+		final byte[] transcript = "one student".getBytes(StandardCharsets.UTF_8);
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Void>> puts = new ArrayList<Future<Void>>();
+			for (int i = 0; i < 200; i++) {
+				final String text = "audit " + i;
+				puts.add(pool.submit(new Callable<Void>() {
+					@Override
+					public Void call() throws IOException {
+						cache.put(transcript, catalog, ReportFormat.TEXT,
+								new AuditCache.Audit(text, 1, 0), null);
+						return null;
+					}
+				}));
+			}
+			for (Future<Void> put : puts) {
+				put.get();
+			}
+		} finally {
+			pool.shutdown();
+		}
+		long onDisk = 0;
+		for (File file : new File(cacheDirectory()).listFiles()) {
+			onDisk += Files.size(file.toPath());
+		}
+		assertEquals(onDisk, cache.getSize());
+	}
+}
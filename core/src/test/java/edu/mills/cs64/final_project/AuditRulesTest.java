@@ -0,0 +1,98 @@
+package edu.mills.cs64.final_project;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+/**
+ * Tests compiling and evaluating {@link AuditRules}.
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+class AuditRulesTest
+{
+	@TempDir
+	Path dir;
+
+	private CourseCatalog catalog;
+	private Transcript transcript;
+
+	@BeforeEach
+	void loadTranscript() throws IOException
+	{
+		catalog = CourseCatalogTest.publish(dir);
+		transcript = new Transcript(CourseCatalogTest.write(dir, "alice.txt",
+				TranscriptReaderTest.ALICE));
+	}
+
+	private AuditRules.Compiled compile(String rules) throws IOException
+	{
+		return AuditRules.load(CourseCatalogTest.write(dir, "rules.txt", rules)).compile(catalog);
+	}
+
+	@Test
+	void coreRulesMatchTheTranscript()
+	{
+		AuditRules core = AuditRules.core();
+		long satisfied = core.compile(catalog).newEvaluator().evaluate(transcript);
+		for (int rule = 0; rule < core.size(); rule++) {
+			CoreRequirement cr = CoreRequirement.valueOf(core.getName(rule));
+			assertEquals(transcript.getCreditsMet(cr) >= cr.getCredits(),
+					(satisfied & 1L << rule) != 0, cr.name());
+		}
+	}
+
+	@Test
+	void appliesEveryClause() throws IOException
+	{
+		AuditRules.Evaluator evaluator = compile("# comment\n"
+				+ "CS: 4 credits, department CS\n"
+				+ "TWO_CS: 2 courses, department CS\n"
+				+ "GOOD: 2 courses, grade B\n"
+				+ "GREAT: 1 courses, grade A, requirement CA\n"
+				+ "RECENT: 3 credits, after 2015\n"
+				+ "OLD: 1 courses, before 2015\n"
+				+ "SPREAD: 2 courses, 1 per department\n").newEvaluator();
+		long satisfied = evaluator.evaluate(transcript);
+		assertEquals(0b1010101L, satisfied);
+		assertEquals(4, evaluator.getTally(0));
+		assertEquals(1, evaluator.getTally(1));
+	}
+
+	@Test
+	void handlesDistantYears() throws IOException
+	{
+		AuditRules.Evaluator evaluator = compile("EVER: 2 courses, after 0\n"
+				+ "LATEST: 2 courses, before 9999\n"
+				+ "NEVER: 1 courses, after 9999\n"
+				+ "BETWEEN: 1 courses, after 2015, before 2017\n").newEvaluator();
+		assertEquals(0b1011L, evaluator.evaluate(transcript));
+	}
+
+	@Test
+	void rejectsYearsOutOfRange() throws IOException
+	{
+		String file = CourseCatalogTest.write(dir, "bad.txt",
+				"A: 3 credits\nB: 3 credits, before 2000000000\n");
+		IllegalArgumentException e =
+				assertThrows(IllegalArgumentException.class, () -> AuditRules.load(file));
+		assertTrue(e.getMessage().contains("line 2"), e.getMessage());
+	}
+
+	@Test
+	void reportsTheMalformedLine() throws IOException
+	{
+		String file = CourseCatalogTest.write(dir, "bad.txt", "A: 3 credits\n\nB: 3 credits, grade Q\n");
+		IllegalArgumentException e =
+				assertThrows(IllegalArgumentException.class, () -> AuditRules.load(file));
+		assertTrue(e.getMessage().contains("line 3"), e.getMessage());
+	}
+}
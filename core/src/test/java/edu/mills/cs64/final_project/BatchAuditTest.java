@@ -0,0 +1,84 @@
+package edu.mills.cs64.final_project;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+/**
+ * Tests auditing multi-student files with {@link BatchAudit}.
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+class BatchAuditTest
+{
+	private static final String BAD = "B00000004\nDan\nDavis\nCS 63\nlast year\nA\n";
+	private static final String EVE = "B00000005\nEve\nEvans\ncs 63\n2015\nA\nCS 63\n2015\nB\n";
+
+	@TempDir
+	Path dir;
+
+	private List<File> files;
+
+	@BeforeEach
+	void writeFiles() throws IOException
+	{
+		CourseCatalogTest.publish(dir);
+		files = Arrays.asList(
+				new File(CourseCatalogTest.write(dir, "all.txt", TranscriptReaderTest.ALICE
+						+ "\n" + TranscriptReaderTest.BOB + "\n" + TranscriptReaderTest.CAROL)),
+				new File(CourseCatalogTest.write(dir, "bad.txt",
+						TranscriptReaderTest.ALICE + "\n" + BAD + "\n" + TranscriptReaderTest.BOB)),
+				new File(CourseCatalogTest.write(dir, "carol.txt", TranscriptReaderTest.CAROL)),
+				new File(CourseCatalogTest.write(dir, "eve.txt", EVE)));
+	}
+
+	@Test
+	void auditsEveryStudent() throws Exception
+	{
+		StringWriter out = new StringWriter();
+		BatchAudit.Report report = new BatchAudit(2).run(files, out);
+		assertEquals(4, report.getFiles());
+		assertEquals(7, report.getTranscripts());
+		assertEquals(1, report.getFailures());
+		assertEquals(2, count(out.toString(), "Bob"));
+		assertEquals(2, count(out.toString(), "Carol"));
+	}
+
+	@Test
+	void countsTheSameFromTheCache() throws Exception
+	{
+		AuditCache cache = new AuditCache(dir.resolve("cache").toString(), 1 << 20);
+		for (int run = 0; run < 2; run++) {
+			StringWriter out = new StringWriter();
+			BatchAudit.Report report = new BatchAudit(2, ReportFormat.TEXT, cache).run(files, out);
+			assertEquals(7, report.getTranscripts());
+			assertEquals(1, report.getFailures());
+			assertEquals(2, count(out.toString(), "Bob"));
+			UnknownCourses unknown = report.getUnknownCourses();
+			assertEquals(1, unknown.getTotal());
+			assertEquals("cs 63", unknown.getEntries().get(0).getCode());
+		}
+		// Every file, including the ones with several students or a
+		// malformed record, comes from the cache the second time.
+		assertEquals(files.size(), cache.getHits());
+	}
+
+	private static int count(String text, String word)
+	{
+		int count = 0;
+		for (int i = text.indexOf(word); i >= 0; i = text.indexOf(word, i + 1)) {
+			count++;
+		}
+		return count;
+	}
+}
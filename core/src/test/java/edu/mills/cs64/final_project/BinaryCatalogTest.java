@@ -0,0 +1,150 @@
+package edu.mills.cs64.final_project;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+/**
+ * Tests that a {@link BinaryCatalog} holds the same catalog as the
+ * text file it was converted from.
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+class BinaryCatalogTest
+{
+	// Not in department and number order, unlike the binary records.
+	static final String COURSES =
+			"MATH 1\nCalculus\n4\nQL\n"
+			+ "CS 64\nComputer Concepts\n4\nQL, CIE\nPREREQUISITES: CS 15, MATH 1\n"
+			+ "TERMS: SPRING\nALIASES: COMP 64\n"
+			+ "ARTH 10\nIntro to Art History\n3\nCA, IP\n"
+			+ "CS 15\nIntro to Programming\n3\nQL\nALIASES: CS 5, COMP 15\n";
+
+	@TempDir
+	Path dir;
+
+	/**
+	 * Loads a text catalog, writes it in the binary format and reads
+	 * it back.
+	 *
+	 * @param text the text catalog
+	 * @return the catalog read back
+	 * @throws IOException if a file cannot be read or written
+	 */
+	private CourseCatalog roundTrip(CourseCatalog text) throws IOException
+	{
+		String file = dir.resolve("courses.bin").toString();
+		BinaryCatalog.write(text, file);
+		return BinaryCatalog.open(file).toCatalog();
+	}
+
+	@Test
+	void keepsCatalogOrderAndVersion() throws IOException
+	{
+		CourseCatalog text = CourseCatalog.load(CourseCatalogTest.write(dir, "courses.txt", COURSES));
+		CourseCatalog binary = roundTrip(text);
+		assertEquals(text.size(), binary.size());
+		for (int i = 0; i < text.size(); i++) {
+			assertEquals(text.getCourse(i).getShortName(), binary.getCourse(i).getShortName());
+		}
+		assertEquals(text.getVersion(), binary.getVersion());
+	}
+
+	@Test
+	void keepsEveryCourse() throws IOException
+	{
+		String textFile = dir.resolve("generated.txt").toString();
+		new DataGenerator(7, 0.3).writeCatalog(textFile, 2000);
+		CourseCatalog text = CourseCatalog.load(textFile);
+		String file = dir.resolve("generated.bin").toString();
+		BinaryCatalog.write(text, file);
+		BinaryCatalog mapped = BinaryCatalog.open(file);
+		CourseCatalog binary = mapped.toCatalog();
+
+		assertEquals(text.size(), mapped.size());
+		assertEquals(text.size(), binary.size());
+		for (int i = 0; i < text.size(); i++) {
+			Course expected = text.getCourse(i);
+			assertSameCourse(expected, binary.getCourse(i));
+			assertSameCourse(expected, mapped.getCourse(expected.getShortName()));
+			assertSameCourse(expected, mapped.getCourse(expected.getDepartment(),
+					expected.getNumber()));
+		}
+		assertNull(mapped.getCourse("NONE 1"));
+		assertNull(mapped.getCourse(text.getCourse(0).getDepartment(), 99999));
+		assertEquals(text.getVersion(), binary.getVersion());
+	}
+
+	/**
+	 * Checks that two courses have the same fields.
+	 *
+	 * @param expected the course written
+	 * @param actual the course read back
+	 */
+	private static void assertSameCourse(Course expected, Course actual)
+	{
+		String name = expected.getShortName();
+		assertEquals(name, actual.getShortName());
+		assertEquals(expected.getName(), actual.getName(), name);
+		assertEquals(expected.getCredits(), actual.getCredits(), name);
+		assertArrayEquals(expected.getRequirementsMet(), actual.getRequirementsMet(), name);
+		assertEquals(expected.getTermsMask(), actual.getTermsMask(), name);
+		assertArrayEquals(expected.getPrerequisites(), actual.getPrerequisites(), name);
+	}
+
+	@Test
+	void rejectsOtherFiles() throws IOException
+	{
+		String file = CourseCatalogTest.write(dir, "courses.txt", COURSES);
+		assertThrows(IllegalArgumentException.class, () -> BinaryCatalog.open(file));
+	}
+
+	@Test
+	void rejectsCreditsThatDoNotFit() throws IOException
+	{
+		CourseCatalog text = CourseCatalog.load(CourseCatalogTest.write(dir, "courses.txt",
+				"CS 1\nEverything\n40000\nQL\n"));
+		String file = dir.resolve("courses.bin").toString();
+		assertThrows(IllegalArgumentException.class, () -> BinaryCatalog.write(text, file));
+	}
+
+	@Test
+	void keepsPrerequisites() throws IOException
+	{
+		CourseCatalog text = CourseCatalog.load(CourseCatalogTest.write(dir, "courses.txt", COURSES));
+		CourseCatalog binary = roundTrip(text);
+		Course cs64 = binary.getCourse("CS 64");
+		assertArrayEquals(new String[] { "CS 15", "MATH 1" }, cs64.getPrerequisites());
+		assertEquals(Arrays.asList(binary.getCourse("CS 15"), binary.getCourse("MATH 1")),
+				binary.getPrerequisites(cs64));
+		assertEquals(0, binary.getCourse("MATH 1").getPrerequisites().length);
+	}
+
+	@Test
+	void keepsAliases() throws IOException
+	{
+		CourseCatalog text = CourseCatalog.load(CourseCatalogTest.write(dir, "courses.txt", COURSES));
+		String file = dir.resolve("courses.bin").toString();
+		BinaryCatalog.write(text, file);
+		BinaryCatalog mapped = BinaryCatalog.open(file);
+		assertEquals("CS 15", mapped.getCourse("COMP 15").getShortName());
+		assertEquals("CS 64", mapped.getCourse("COMP 64").getShortName());
+
+		CourseCatalog binary = mapped.toCatalog();
+		assertEquals(new ArrayList<String>(text.getAliases().keySet()),
+				new ArrayList<String>(binary.getAliases().keySet()));
+		assertSame(binary.getCourse("CS 15"), binary.getCourse("CS 5"));
+		assertSame(binary.getCourse("CS 64"), binary.getCourse("COMP 64"));
+	}
+}
@@ -0,0 +1,83 @@
+package edu.mills.cs64.final_project;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+/**
+ * Tests that {@link BinaryTranscripts} holds the same grade records as
+ * the transcript files it was converted from, and refuses records it
+ * cannot hold.
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+class BinaryTranscriptsTest
+{
+	private static final int COURSES = 500;
+	private static final int STUDENTS = 60;
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void keepsEveryRecord() throws IOException
+	{
+		String catalogFile = dir.resolve("courses.txt").toString();
+		DataGenerator generator = new DataGenerator(11, 0.2);
+		generator.writeCatalog(catalogFile, COURSES);
+		File transcriptDir = dir.resolve("transcripts").toFile();
+		generator.writeTranscripts(transcriptDir.getPath(), STUDENTS, 15, COURSES);
+		CourseCatalog catalog = CourseCatalog.load(catalogFile);
+		CourseCatalog.publish(catalog);
+
+		List<Transcript> transcripts = new ArrayList<Transcript>();
+		for (File file : BatchAudit.listTranscripts(transcriptDir)) {
+			transcripts.add(new Transcript(file));
+		}
+		String file = dir.resolve("transcripts.bin").toString();
+		BinaryTranscripts.write(transcripts, file);
+		BinaryTranscripts binary = BinaryTranscripts.open(file);
+
+		assertEquals(STUDENTS, binary.size());
+		for (Transcript expected : transcripts) {
+			Transcript actual = binary.getTranscript(expected.getId(), catalog);
+			assertEquals(expected.getFirstName(), actual.getFirstName());
+			assertEquals(expected.getLastName(), actual.getLastName());
+			assertEquals(expected.getGradeRecordCount(), actual.getGradeRecordCount(),
+					expected.getId());
+			for (int i = 0; i < expected.getGradeRecordCount(); i++) {
+				GradeRecord record = expected.getGradeRecord(i);
+				GradeRecord read = actual.getGradeRecord(i);
+				assertEquals(record.getCourse(), read.getCourse(), expected.getId());
+				assertEquals(record.getYear(), read.getYear(), expected.getId());
+				assertEquals(record.getGrade(), read.getGrade(), expected.getId());
+			}
+			assertEquals(expected.getSatisfiedRequirementsMask(),
+					actual.getSatisfiedRequirementsMask());
+			assertEquals(expected.getGpa(), actual.getGpa());
+		}
+		assertNull(binary.getTranscript("B99999999", catalog));
+	}
+
+	@Test
+	void rejectsYearsThatDoNotFit() throws IOException
+	{
+		CourseCatalog catalog = CourseCatalogTest.load(dir);
+		Transcript transcript = new Transcript("B00000001", "Alice", "Adams", catalog);
+		transcript.addGradeRecord(new GradeRecord(catalog.getCourse("CS 63"), 70000, "A"));
+		String file = dir.resolve("transcripts.bin").toString();
+		assertThrows(IllegalArgumentException.class,
+				() -> BinaryTranscripts.write(Collections.singletonList(transcript), file));
+	}
+}
@@ -0,0 +1,223 @@
+package edu.mills.cs64.final_project;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+/**
+ * Tests loading and querying a {@link CourseCatalog}.
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+class CourseCatalogTest
+{
+	static final String COURSES =
+			"CS 63\nData Structures\n4\nQL\nPREREQUISITES: CS 64\nTERMS: FALL\n"
+			+ "\n"
+			+ "CS 64\nComputer Concepts\n4\nQL, CIE\nALIASES: COMP 64, CS64\n"
+			+ "ARTH 10\nIntro to Art History\n3\nCA, IP\n";
+
+	@TempDir
+	Path dir;
+
+	/**
+	 * Writes a file in the temporary directory.
+	 *
+	 * @param dir the directory
+	 * @param name the name of the file
+	 * @param contents the contents
+	 * @return the path of the file
+	 * @throws IOException if it cannot be written
+	 */
+	static String write(Path dir, String name, String contents) throws IOException
+	{
+		Path file = dir.resolve(name);
+		Files.write(file, contents.getBytes(StandardCharsets.UTF_8));
+		return file.toString();
+	}
+
+	/**
+	 * Writes {@link #COURSES} to courses.txt in a directory and loads
+	 * it.
+	 *
+	 * @param dir the directory
+	 * @return the catalog
+	 * @throws IOException if it cannot be written
+	 */
+	static CourseCatalog load(Path dir) throws IOException
+	{
+		return CourseCatalog.load(write(dir, "courses.txt", COURSES));
+	}
+
+	/**
+	 * Loads {@link #COURSES} as {@link #load(Path)} does and publishes
+	 * it as the current catalog, for the classes that look courses up
+	 * there.
+	 *
+	 * @param dir the directory
+	 * @return the catalog
+	 * @throws IOException if it cannot be written
+	 */
+	static CourseCatalog publish(Path dir) throws IOException
+	{
+		CourseCatalog catalog = load(dir);
+		CourseCatalog.publish(catalog);
+		return catalog;
+	}
+
+	@Test
+	void loadsCoursesInOrder() throws IOException
+	{
+		CourseCatalog catalog = load(dir);
+		assertEquals(3, catalog.size());
+		assertEquals("CS 63", catalog.getCourse(0).getShortName());
+		assertEquals("CS 64", catalog.getCourse(1).getShortName());
+		assertEquals("ARTH 10", catalog.getCourse(2).getShortName());
+
+		Course course = catalog.getCourse("ARTH 10");
+		assertEquals("ARTH", course.getDepartment());
+		assertEquals(10, course.getNumber());
+		assertEquals("Intro to Art History", course.getName());
+		assertEquals(3, course.getCredits());
+		assertArrayEquals(new CoreRequirement[] { CoreRequirement.CA, CoreRequirement.IP },
+				course.getRequirementsMet());
+		assertEquals(CoreRequirement.CA.getMask() | CoreRequirement.IP.getMask(),
+				course.getRequirementsMask());
+		assertEquals(2, catalog.indexOf(course));
+		assertNull(catalog.getCourse("ARTH 11"));
+	}
+
+	@Test
+	void loadsPrerequisitesTermsAndAliases() throws IOException
+	{
+		CourseCatalog catalog = load(dir);
+		Course cs63 = catalog.getCourse("CS 63");
+		Course cs64 = catalog.getCourse("CS 64");
+		assertEquals(Arrays.asList(cs64), catalog.getPrerequisites(cs63));
+		assertTrue(cs63.isOfferedIn(Term.FALL));
+		assertTrue(!cs63.isOfferedIn(Term.SPRING));
+		assertTrue(cs64.isOfferedIn(Term.SPRING));
+		assertSame(cs64, catalog.getCourse("COMP 64"));
+		assertSame(cs64, catalog.getCourse("CS64"));
+		assertEquals(2, catalog.getAliases().size());
+	}
+
+	@Test
+	void versionDependsOnContent() throws IOException
+	{
+		long version = CourseCatalog.load(write(dir, "a.txt", COURSES)).getVersion();
+		assertEquals(version, CourseCatalog.load(write(dir, "b.txt", COURSES)).getVersion());
+		assertNotEquals(version, CourseCatalog.load(
+				write(dir, "c.txt", COURSES.replace("Intro to", "Introduction to"))).getVersion());
+		assertNotEquals(version, CourseCatalog.load(
+				write(dir, "d.txt", COURSES.replace("ALIASES: COMP 64, CS64", "ALIASES: COMP 64")))
+				.getVersion());
+	}
+
+	@Test
+	void reportsTheMalformedLine() throws IOException
+	{
+		String bad = COURSES.replace("CA, IP", "CA, XX");
+		String file = write(dir, "bad.txt", bad);
+		IllegalArgumentException e =
+				assertThrows(IllegalArgumentException.class, () -> CourseCatalog.load(file));
+		assertTrue(e.getMessage().startsWith(file + " line 16: "), e.getMessage());
+		assertTrue(e.getMessage().contains("XX"), e.getMessage());
+
+		String truncated = write(dir, "truncated.txt", "CS 63\nData Structures\n");
+		e = assertThrows(IllegalArgumentException.class, () -> CourseCatalog.load(truncated));
+		assertTrue(e.getMessage().startsWith(truncated + " line 3: "), e.getMessage());
+
+		String credits = write(dir, "credits.txt", "CS 63\nData Structures\nfour\nQL\n");
+		e = assertThrows(IllegalArgumentException.class, () -> CourseCatalog.load(credits));
+		assertTrue(e.getMessage().startsWith(credits + " line 3: "), e.getMessage());
+	}
+
+	@Test
+	void rejectsDuplicateAliases() throws IOException
+	{
+		String file = write(dir, "duplicate.txt", COURSES + "MATH 1\nCalculus\n4\nQL\nALIASES: CS64\n");
+		IllegalArgumentException e =
+				assertThrows(IllegalArgumentException.class, () -> CourseCatalog.load(file));
+		assertTrue(e.getMessage().contains("line 21"), e.getMessage());
+	}
+
+	@Test
+	void loadsLinesLongerThanTheBuffer() throws IOException
+	{
+		StringBuilder name = new StringBuilder();
+		StringBuilder prerequisites = new StringBuilder("PREREQUISITES: CS 64");
+		while (name.length() < 200000) {
+			name.append("Very Long Name ");
+			prerequisites.append(", GONE ").append(name.length());
+		}
+		String file = write(dir, "long.txt", COURSES + "MATH 1\n" + name + "\n4\nQL\n"
+				+ prerequisites + "\nTERMS: SPRING\n");
+		CourseCatalog catalog = CourseCatalog.load(file);
+		Course math = catalog.getCourse("MATH 1");
+		assertEquals(name.toString(), math.getName());
+		assertTrue(math.isOfferedIn(Term.SPRING));
+		assertTrue(!math.isOfferedIn(Term.FALL));
+		assertEquals(Arrays.asList(catalog.getCourse("CS 64")), catalog.getPrerequisites(math));
+	}
+
+	@Test
+	void loadsRecordsAcrossBufferBoundaries() throws IOException
+	{
+		StringBuilder contents = new StringBuilder();
+		for (int i = 0; i < 20000; i++) {
+			contents.append("DEPT").append(i % 7).append(' ').append(i).append("\r\nCourse ")
+					.append(i).append("\r\n").append(1 + i % 4).append("\r\nCA, QL\r\n");
+		}
+		CourseCatalog catalog = CourseCatalog.load(write(dir, "large.txt", contents.toString()));
+		assertEquals(20000, catalog.size());
+		for (int i = 0; i < 20000; i++) {
+			Course course = catalog.getCourse(i);
+			assertEquals("DEPT" + (i % 7) + " " + i, course.getShortName());
+			assertEquals("Course " + i, course.getName());
+			assertEquals(1 + i % 4, course.getCredits());
+		}
+		Course first = catalog.getCourse(0);
+		Course last = catalog.getCourse(19999);
+		assertSame(first.getDepartment(), catalog.getCourse(7).getDepartment());
+		assertSame(first.getRequirementsMet(), last.getRequirementsMet());
+	}
+
+	@Test
+	void listsRequirementsInDeclarationOrder() throws IOException
+	{
+		CourseCatalog catalog = CourseCatalog.load(write(dir, "order.txt",
+				"ARTH 10\nIntro\n3\nIP, CA, IP\n"));
+		assertArrayEquals(new CoreRequirement[] { CoreRequirement.CA, CoreRequirement.IP },
+				catalog.getCourse("ARTH 10").getRequirementsMet());
+	}
+
+	@Test
+	void loadsNothingFromAnEmptyFile() throws IOException
+	{
+		assertEquals(0, CourseCatalog.load(write(dir, "empty.txt", "")).size());
+		assertEquals(0, CourseCatalog.load(write(dir, "blank.txt", "\n\n")).size());
+	}
+
+	@Test
+	void missingFileIsNotFound()
+	{
+		assertThrows(IOException.class,
+				() -> CourseCatalog.load(new File(dir.toFile(), "missing.txt").getPath()));
+	}
+}
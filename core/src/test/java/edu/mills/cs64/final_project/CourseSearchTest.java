@@ -0,0 +1,132 @@
+package edu.mills.cs64.final_project;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+/**
+ * Tests searching a {@link CourseCatalog} with a {@link CourseSearch}.
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+class CourseSearchTest
+{
+	@TempDir
+	Path dir;
+
+	private CourseSearch search;
+
+	@BeforeEach
+	void loadCatalog() throws IOException
+	{
+		search = CourseCatalogTest.load(dir).getSearch();
+	}
+
+	@Test
+	void matchesPrefixesOfEveryToken()
+	{
+		CourseSearch.Result result = search.search("dat struct", 0, null, 0, 10);
+		assertEquals(1, result.getTotal());
+		assertEquals("CS 63", result.getCourses().get(0).getShortName());
+		assertFalse(result.isCorrected());
+
+		assertEquals(2, search.search("cs", 0, null, 0, 10).getTotal());
+		assertEquals(0, search.search("cs 6", 0, null, 3, 10).getTotal());
+		assertEquals(0, search.search("data art", 0, null, 0, 10).getTotal());
+		assertEquals(3, search.search("", 0, null, 0, 10).getTotal());
+		assertEquals(1, search.search("", 0, null, 0, 1).getCourses().size());
+	}
+
+	@Test
+	void allowsOneTypo()
+	{
+		CourseSearch.Result result = search.search("strcut", 0, null, 0, 10);
+		assertEquals(1, result.getTotal());
+		assertTrue(result.isCorrected());
+		// Short tokens are never corrected.
+		assertEquals(0, search.search("arx", 0, null, 0, 10).getTotal());
+	}
+
+	@Test
+	void countsEachFacetWithoutItsOwnFilter()
+	{
+		CourseSearch.Result result = search.search("", 0, "arth", 0, 10);
+		assertEquals(1, result.getTotal());
+		assertEquals(counts("ARTH", 1, "CS", 2), result.getDepartmentCounts());
+		assertEquals(counts(3, 1), result.getCreditCounts());
+		assertEquals(counts(CoreRequirement.CA, 1, CoreRequirement.IP, 1),
+				result.getRequirementCounts());
+
+		result = search.search("", CoreRequirement.QL.getMask(), null, 0, 10);
+		assertEquals(2, result.getTotal());
+		assertEquals(counts(CoreRequirement.CA, 1, CoreRequirement.IP, 1,
+				CoreRequirement.QL, 2, CoreRequirement.CIE, 1), result.getRequirementCounts());
+		assertEquals(counts("CS", 2), result.getDepartmentCounts());
+		assertEquals(counts(4, 2), result.getCreditCounts());
+
+		// Nothing matches, but each facet still counts the courses the
+		// other filter allows.
+		result = search.search("", 0, "CS", 3, 10);
+		assertEquals(0, result.getTotal());
+		assertEquals(Collections.emptyList(), result.getCourses());
+		assertEquals(counts("ARTH", 1), result.getDepartmentCounts());
+		assertEquals(counts(4, 2), result.getCreditCounts());
+		assertEquals(Collections.emptyMap(), result.getRequirementCounts());
+	}
+
+	@Test
+	void findsQueriesNearAPrefix()
+	{
+		assertTrue(CourseSearch.isNearPrefix("struct", "structures"));
+		assertTrue(CourseSearch.isNearPrefix("structures", "structures"));
+		assertTrue(CourseSearch.isNearPrefix("strvct", "structures"));   // substitution
+		assertTrue(CourseSearch.isNearPrefix("strucct", "structures"));  // extra character
+		assertTrue(CourseSearch.isNearPrefix("strct", "structures"));    // missing character
+		assertTrue(CourseSearch.isNearPrefix("strcut", "structures"));   // swap
+		assertTrue(CourseSearch.isNearPrefix("structuresx", "structures"));
+		assertTrue(CourseSearch.isNearPrefix("xtruct", "structures"));
+
+		assertFalse(CourseSearch.isNearPrefix("strxxt", "structures"));
+		assertFalse(CourseSearch.isNearPrefix("stcrut", "structures"));
+		assertFalse(CourseSearch.isNearPrefix("structuresxx", "structures"));
+		assertFalse(CourseSearch.isNearPrefix("concepts", "structures"));
+	}
+
+	@Test
+	void tokenizesLettersAndDigits()
+	{
+		assertEquals(Arrays.asList("intro", "to", "art", "history"),
+				CourseSearch.tokenize("Intro to Art History"));
+		assertEquals(Arrays.asList("cs", "63"), CourseSearch.tokenize("CS 63"));
+		assertEquals(Arrays.asList("cs64", "data", "structures", "ii"),
+				CourseSearch.tokenize("  CS64: Data-Structures (II)!"));
+		assertEquals(Arrays.asList("café"), CourseSearch.tokenize("Café"));
+		assertEquals(Collections.emptyList(), CourseSearch.tokenize(""));
+		assertEquals(Collections.emptyList(), CourseSearch.tokenize(" -- "));
+	}
+
+	/**
+	 * Builds a map of facet counts from alternating keys and counts.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <K> Map<K, Integer> counts(Object... keysAndCounts)
+	{
+		Map<K, Integer> counts = new TreeMap<K, Integer>();
+		for (int i = 0; i < keysAndCounts.length; i += 2) {
+			counts.put((K) keysAndCounts[i], (Integer) keysAndCounts[i + 1]);
+		}
+		return counts;
+	}
+}
@@ -0,0 +1,255 @@
+package edu.mills.cs64.final_project;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+/**
+ * Tests finding the cheapest course sets with a
+ * {@link CourseSetOptimizer}, on small catalogs where the answer can be
+ * worked out by hand or by brute force.
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+class CourseSetOptimizerTest
+{
+	// A course every transcript has taken, which meets every requirement
+	// but QL, CA and SI.
+	private static final String CORE =
+			"CORE 1\nCore Seminar\n7\nWOC, RGP, LOTE, IP, CE, CIE\n";
+
+	private static final CoreRequirement[] UNMET =
+			{ CoreRequirement.QL, CoreRequirement.CA, CoreRequirement.SI };
+
+	@TempDir
+	Path dir;
+
+	/**
+	 * Builds a transcript that has taken CORE 1 and some other courses.
+	 *
+	 * @param courses the catalog entries besides CORE 1
+	 * @param taken the short names of the other courses taken
+	 * @return the transcript
+	 * @throws IOException if the catalog cannot be written
+	 */
+	private Transcript transcript(String courses, String... taken) throws IOException
+	{
+		CourseCatalog catalog = CourseCatalog.load(CourseCatalogTest.write(dir, "courses.txt",
+				CORE + courses));
+		Transcript transcript = new Transcript("B00000001", "Alice", "Adams", catalog);
+		transcript.addGradeRecord(new GradeRecord(catalog.getCourse("CORE 1"), 2015, "A"));
+		for (String name : taken) {
+			transcript.addGradeRecord(new GradeRecord(catalog.getCourse(name), 2016, "B"));
+		}
+		return transcript;
+	}
+
+	@Test
+	void findsTheFewestCredits() throws IOException
+	{
+		Transcript transcript = transcript(
+				"MATH 1\nAlgebra\n3\nQL\n"
+				+ "ARTH 1\nDrawing\n3\nCA\n"
+				+ "STAT 1\nStatistics and Society\n3\nQL, CA\n"
+				+ "MATH 2\nCalculus\n4\nQL\n"
+				+ "BIO 1\nBiology\n3\nSI\n");
+		CourseSetOptimizer.Result result = new CourseSetOptimizer(3, 10000).optimize(transcript);
+		assertTrue(result.isComplete());
+		List<CourseSetOptimizer.CourseSet> sets = result.getCourseSets();
+		assertEquals(3, sets.size());
+		assertEquals(6, sets.get(0).getCredits());
+		assertEquals(names("BIO 1", "STAT 1"), names(sets.get(0)));
+		// STAT 1 with ARTH 1 or MATH 1 would only add credits to the
+		// cheapest set, so it is not offered again.
+		assertEquals(9, sets.get(1).getCredits());
+		assertEquals(names("ARTH 1", "BIO 1", "MATH 1"), names(sets.get(1)));
+		assertEquals(10, sets.get(2).getCredits());
+		assertEquals(names("ARTH 1", "BIO 1", "MATH 2"), names(sets.get(2)));
+		for (CourseSetOptimizer.CourseSet set : sets) {
+			assertMeetsDeficits(transcript, set);
+		}
+	}
+
+	@Test
+	void neverRetakesCourses() throws IOException
+	{
+		// HIST 1 leaves 1 credit of CA to go.
+		Transcript transcript = transcript(
+				"HIST 1\nWorld History\n2\nCA\n"
+				+ "HIST 2\nHistory Lab\n1\nCA\n"
+				+ "MATH 1\nAlgebra\n3\nQL\n"
+				+ "BIO 1\nBiology\n3\nSI\n",
+				"HIST 1");
+		CourseSetOptimizer.Result result = new CourseSetOptimizer(5, 10000).optimize(transcript);
+		assertTrue(result.isComplete());
+		assertEquals(1, result.getCourseSets().size());
+		CourseSetOptimizer.CourseSet set = result.getCourseSets().get(0);
+		assertEquals(7, set.getCredits());
+		assertEquals(names("BIO 1", "HIST 2", "MATH 1"), names(set));
+	}
+
+	@Test
+	void returnsNothingWhenTheCatalogFallsShort() throws IOException
+	{
+		Transcript transcript = transcript(
+				"MATH 1\nAlgebra\n3\nQL\n"
+				+ "ARTH 1\nDrawing\n2\nCA\n"
+				+ "BIO 1\nBiology\n3\nSI\n");
+		CourseSetOptimizer.Result result = new CourseSetOptimizer(3, 10000).optimize(transcript);
+		assertTrue(result.isComplete());
+		assertEquals(0, result.getCourseSets().size());
+	}
+
+	@Test
+	void prunesInterchangeableCourses() throws IOException
+	{
+		// Without pruning there are a million sets of equal cost.
+		StringBuilder courses = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			courses.append("MATH ").append(i).append("\nAlgebra\n3\nQL\n");
+			courses.append("ARTH ").append(i).append("\nDrawing\n3\nCA\n");
+			courses.append("BIO ").append(i).append("\nBiology\n3\nSI\n");
+		}
+		Transcript transcript = transcript(courses.toString());
+		CourseSetOptimizer.Result result = new CourseSetOptimizer(4, 10000).optimize(transcript);
+		assertTrue(result.isComplete());
+		assertEquals(4, result.getCourseSets().size());
+		Set<List<String>> distinct = new HashSet<List<String>>();
+		for (CourseSetOptimizer.CourseSet set : result.getCourseSets()) {
+			assertEquals(9, set.getCredits());
+			assertEquals(3, set.getCourses().size());
+			assertTrue(distinct.add(names(set)), set.toString());
+		}
+	}
+
+	@Test
+	void matchesBruteForce() throws IOException
+	{
+		Random random = new Random(42);
+		for (int round = 0; round < 20; round++) {
+			int n = 8 + random.nextInt(7);
+			StringBuilder courses = new StringBuilder();
+			int[] credits = new int[n];
+			int[] masks = new int[n];
+			for (int i = 0; i < n; i++) {
+				credits[i] = 1 + random.nextInt(4);
+				masks[i] = 1 + random.nextInt(7);
+				courses.append("X ").append(i).append("\nCourse ").append(i).append('\n')
+					.append(credits[i]).append('\n');
+				String separator = "";
+				for (int r = 0; r < UNMET.length; r++) {
+					if ((masks[i] & (1 << r)) != 0) {
+						courses.append(separator).append(UNMET[r].name());
+						separator = ", ";
+					}
+				}
+				courses.append('\n');
+			}
+			Transcript transcript = transcript(courses.toString());
+
+			int cheapest = Integer.MAX_VALUE;
+			for (int subset = 0; subset < 1 << n; subset++) {
+				int[] met = new int[UNMET.length];
+				int total = 0;
+				for (int i = 0; i < n; i++) {
+					if ((subset & (1 << i)) != 0) {
+						total += credits[i];
+						for (int r = 0; r < UNMET.length; r++) {
+							if ((masks[i] & (1 << r)) != 0) {
+								met[r] += credits[i];
+							}
+						}
+					}
+				}
+				boolean meets = true;
+				for (int r = 0; r < UNMET.length; r++) {
+					meets &= met[r] >= UNMET[r].getCredits();
+				}
+				if (meets) {
+					cheapest = Math.min(cheapest, total);
+				}
+			}
+
+			CourseSetOptimizer.Result result =
+					new CourseSetOptimizer(3, 10000).optimize(transcript);
+			assertTrue(result.isComplete());
+			List<CourseSetOptimizer.CourseSet> sets = result.getCourseSets();
+			if (cheapest == Integer.MAX_VALUE) {
+				assertEquals(0, sets.size(), "round " + round);
+				continue;
+			}
+			assertEquals(cheapest, sets.get(0).getCredits(), "round " + round + ": " + result);
+			for (int i = 0; i < sets.size(); i++) {
+				assertMeetsDeficits(transcript, sets.get(i));
+				if (i > 0) {
+					assertFalse(sets.get(i).compareTo(sets.get(i - 1)) < 0, result.toString());
+				}
+			}
+		}
+	}
+
+	@Test
+	void rejectsBadSettings()
+	{
+		assertThrows(IllegalArgumentException.class, () -> new CourseSetOptimizer(0, 1000));
+		assertThrows(IllegalArgumentException.class, () -> new CourseSetOptimizer(1, -1));
+	}
+
+	/**
+	 * Checks that a course set makes up every deficit on a transcript,
+	 * from courses not already on it.
+	 */
+	private static void assertMeetsDeficits(Transcript transcript,
+			CourseSetOptimizer.CourseSet set)
+	{
+		int credits = 0;
+		for (Course course : set.getCourses()) {
+			credits += course.getCredits();
+			for (GradeRecord gr : transcript.getGradeRecords()) {
+				assertFalse(gr.getCourse() == course, set.toString());
+			}
+		}
+		assertEquals(credits, set.getCredits());
+		for (CoreRequirement cr : CoreRequirement.values()) {
+			int met = transcript.getCreditsMet(cr);
+			for (Course course : set.getCourses()) {
+				if ((course.getRequirementsMask() & cr.getMask()) != 0) {
+					met += course.getCredits();
+				}
+			}
+			assertTrue(met >= cr.getCredits(), cr + " in " + set);
+		}
+	}
+
+	private static List<String> names(String... names)
+	{
+		return Arrays.asList(names);
+	}
+
+	/**
+	 * Gets the short names of the courses in a set, sorted.
+	 */
+	private static List<String> names(CourseSetOptimizer.CourseSet set)
+	{
+		List<String> names = new ArrayList<String>();
+		for (Course course : set.getCourses()) {
+			names.add(course.getShortName());
+		}
+		names.sort(null);
+		return names;
+	}
+}
@@ -0,0 +1,183 @@
+package edu.mills.cs64.final_project;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+/**
+ * Tests planning terms with a {@link DegreePlanner}, on small catalogs
+ * where the best plan can be worked out by hand.
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+class DegreePlannerTest
+{
+	// A course every transcript has taken, which meets every requirement
+	// but QL and CA.
+	private static final String CORE =
+			"CORE 1\nCore Seminar\n7\nWOC, RGP, SI, LOTE, IP, CE, CIE\n";
+
+	// A chain of prerequisites ending in a course that meets QL and CA.
+	private static final String CHAIN =
+			"CS 0\nComputing Basics\n1\nCE\n"
+			+ "CS 1\nIntro to Programming\n1\nCE\nPREREQUISITES: CS 0\n"
+			+ "CS 2\nData Structures\n3\nQL, CA\nPREREQUISITES: CS 1\n";
+
+	@TempDir
+	Path dir;
+
+	/**
+	 * Builds a transcript that has taken CORE 1 and some other courses.
+	 *
+	 * @param courses the catalog entries besides CORE 1
+	 * @param taken the short names of the other courses taken
+	 * @return the transcript
+	 * @throws IOException if the catalog cannot be written
+	 */
+	private Transcript transcript(String courses, String... taken) throws IOException
+	{
+		CourseCatalog catalog = CourseCatalog.load(CourseCatalogTest.write(dir, "courses.txt",
+				CORE + courses));
+		Transcript transcript = new Transcript("B00000001", "Alice", "Adams", catalog);
+		transcript.addGradeRecord(new GradeRecord(catalog.getCourse("CORE 1"), 2015, "A"));
+		for (String name : taken) {
+			transcript.addGradeRecord(new GradeRecord(catalog.getCourse(name), 2016, "B"));
+		}
+		return transcript;
+	}
+
+	@Test
+	void schedulesPrerequisitesFirst() throws IOException
+	{
+		DegreePlanner.Plan plan = new DegreePlanner(12, 10000).plan(transcript(CHAIN), Term.FALL);
+		assertTrue(plan.isComplete());
+		assertEquals(3, plan.getTermCount());
+		assertEquals(names("CS 0"), names(plan.getCourses(0)));
+		assertEquals(names("CS 1"), names(plan.getCourses(1)));
+		assertEquals(names("CS 2"), names(plan.getCourses(2)));
+		assertEquals(Term.FALL, plan.getTerm(0));
+		assertEquals(Term.SPRING, plan.getTerm(1));
+		assertEquals(Term.FALL, plan.getTerm(2));
+		assertEquals(5, plan.getCredits());
+	}
+
+	@Test
+	void skipsPrerequisitesAlreadyTaken() throws IOException
+	{
+		DegreePlanner.Plan plan = new DegreePlanner(12, 10000).plan(
+				transcript(CHAIN, "CS 0", "CS 1"), Term.SPRING);
+		assertEquals(1, plan.getTermCount());
+		assertEquals(names("CS 2"), names(plan.getCourses(0)));
+		assertEquals(3, plan.getCredits());
+	}
+
+	@Test
+	void waitsForTheTermsACourseIsOffered() throws IOException
+	{
+		Transcript transcript = transcript(CHAIN.replace("PREREQUISITES: CS 1\n",
+				"PREREQUISITES: CS 1\nTERMS: SPRING\n"));
+		DegreePlanner planner = new DegreePlanner(12, 10000);
+
+		// CS 2 would be ready in the fall, but is only offered in the
+		// spring.
+		DegreePlanner.Plan plan = planner.plan(transcript, Term.FALL);
+		assertEquals(4, plan.getTermCount());
+		assertEquals(Collections.emptyList(), plan.getCourses(2));
+		assertEquals(names("CS 2"), names(plan.getCourses(3)));
+		assertEquals(Term.SPRING, plan.getTerm(3));
+
+		plan = planner.plan(transcript, Term.SPRING);
+		assertEquals(3, plan.getTermCount());
+		assertEquals(names("CS 2"), names(plan.getCourses(2)));
+	}
+
+	@Test
+	void keepsUnderTheCreditCap() throws IOException
+	{
+		Transcript transcript = transcript(
+				"MATH 1\nAlgebra\n3\nQL\n"
+				+ "ARTH 1\nDrawing\n3\nCA\n");
+
+		DegreePlanner.Plan plan = new DegreePlanner(6, 10000).plan(transcript, Term.FALL);
+		assertEquals(1, plan.getTermCount());
+		assertEquals(names("ARTH 1", "MATH 1"), names(plan.getCourses(0)));
+
+		plan = new DegreePlanner(5, 10000).plan(transcript, Term.FALL);
+		assertEquals(2, plan.getTermCount());
+		assertEquals(1, plan.getCourses(0).size());
+		assertEquals(1, plan.getCourses(1).size());
+
+		// A course larger than the cap is taken on its own.
+		plan = new DegreePlanner(2, 10000).plan(transcript, Term.FALL);
+		assertEquals(2, plan.getTermCount());
+		assertEquals(6, plan.getCredits());
+	}
+
+	@Test
+	void prefersFewerTermsToFewerCredits() throws IOException
+	{
+		// MATH 2 alone is the cheapest set, but needs MATH 1 first.
+		Transcript transcript = transcript(
+				"MATH 1\nPrecalculus\n1\nCE\n"
+				+ "MATH 2\nCalculus\n3\nQL, CA\nPREREQUISITES: MATH 1\n"
+				+ "STAT 1\nStatistics\n4\nQL\n"
+				+ "ARTH 1\nDrawing\n3\nCA\n");
+		DegreePlanner.Plan plan = new DegreePlanner(12, 10000).plan(transcript, Term.FALL);
+		assertEquals(1, plan.getTermCount());
+		assertEquals(names("ARTH 1", "STAT 1"), names(plan.getCourses(0)));
+		assertEquals(7, plan.getCredits());
+
+		plan = new DegreePlanner(6, 10000).plan(transcript, Term.FALL);
+		assertEquals(2, plan.getTermCount());
+		assertEquals(4, plan.getCredits());
+	}
+
+	@Test
+	void plansNothingWhenNothingIsLeft() throws IOException
+	{
+		DegreePlanner.Plan plan = new DegreePlanner(12, 10000).plan(
+				transcript(CHAIN, "CS 0", "CS 1", "CS 2"), Term.FALL);
+		assertEquals(0, plan.getTermCount());
+		assertEquals(0, plan.getCredits());
+
+		assertNull(new DegreePlanner(12, 10000).plan(
+				transcript("MATH 1\nAlgebra\n3\nQL\n"), Term.FALL));
+	}
+
+	@Test
+	void rejectsBadSettings()
+	{
+		assertThrows(IllegalArgumentException.class, () -> new DegreePlanner(0, 1000));
+		assertThrows(IllegalArgumentException.class, () -> new DegreePlanner(12, -1));
+	}
+
+	private static List<String> names(String... names)
+	{
+		return Arrays.asList(names);
+	}
+
+	/**
+	 * Gets the short names of some courses, sorted.
+	 */
+	private static List<String> names(List<Course> courses)
+	{
+		List<String> names = new ArrayList<String>();
+		for (Course course : courses) {
+			names.add(course.getShortName());
+		}
+		names.sort(null);
+		return names;
+	}
+}
@@ -0,0 +1,102 @@
+package edu.mills.cs64.final_project;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+/**
+ * Tests reading multi-student files with {@link TranscriptReader}.
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+class TranscriptReaderTest
+{
+	static final String ALICE = "B00000001\nAlice\nAdams\nCS 63\n2015\nA\nARTH 10\n2016\nB\n";
+	static final String BOB = "B00000002\nBob\nBrown\nCS 64\n2015\nC\n";
+	static final String CAROL = "B00000003\nCarol\nClark\nCOMP 64\n2017\nA\n";
+
+	@TempDir
+	Path dir;
+
+	private CourseCatalog catalog;
+
+	@BeforeEach
+	void loadCatalog() throws IOException
+	{
+		catalog = CourseCatalogTest.publish(dir);
+	}
+
+	@Test
+	void readsEveryStudent() throws IOException
+	{
+		String file = CourseCatalogTest.write(dir, "students.txt",
+				ALICE + "\n" + BOB + "\n\n" + CAROL);
+		List<Transcript> transcripts = new ArrayList<Transcript>();
+		try (TranscriptReader reader = new TranscriptReader(file, 0, catalog)) {
+			for (Transcript transcript : reader) {
+				transcripts.add(transcript);
+			}
+		}
+		assertEquals(3, transcripts.size());
+		assertEquals("B00000001", transcripts.get(0).getId());
+		assertEquals(2, transcripts.get(0).getGradeRecordCount());
+		assertEquals("Bob", transcripts.get(1).getFirstName());
+		assertEquals("Clark", transcripts.get(2).getLastName());
+		assertEquals(catalog.getCourse("CS 64"),
+				transcripts.get(2).getGradeRecord(0).getCourse());
+	}
+
+	@Test
+	void resumesFromAnOffset() throws IOException
+	{
+		String file = CourseCatalogTest.write(dir, "students.txt", ALICE + "\n" + BOB + "\n" + CAROL);
+		long offset;
+		try (TranscriptReader reader = new TranscriptReader(file, 0, catalog)) {
+			assertEquals("B00000001", reader.read().getId());
+			offset = reader.getOffset();
+		}
+		try (TranscriptReader reader = new TranscriptReader(file, offset, catalog)) {
+			assertEquals("B00000002", reader.read().getId());
+			assertEquals("B00000003", reader.read().getId());
+			assertNull(reader.read());
+		}
+	}
+
+	@Test
+	void skipsAMalformedRecord() throws IOException
+	{
+		String bad = "B00000004\nDan\nDavis\nCS 63\nlast year\nA\n";
+		String file = CourseCatalogTest.write(dir, "students.txt", ALICE + "\n" + bad + "\n" + BOB);
+		try (TranscriptReader reader = new TranscriptReader(file, 0, catalog)) {
+			assertEquals("B00000001", reader.read().getId());
+			assertThrows(IllegalArgumentException.class, reader::read);
+			assertEquals("B00000002", reader.read().getId());
+			assertNull(reader.read());
+		}
+	}
+
+	@Test
+	void recordsUnknownCourses() throws IOException
+	{
+		String file = CourseCatalogTest.write(dir, "students.txt",
+				"B00000005\nEve\nEvans\ncs 63\n2015\nA\nCS 63\n2015\nB\n");
+		UnknownCourses unknown = new UnknownCourses();
+		try (TranscriptReader reader = new TranscriptReader(file, 0, catalog)) {
+			reader.setUnknownCourses(unknown);
+			assertEquals(1, reader.read().getGradeRecordCount());
+		}
+		assertEquals(1, unknown.getTotal());
+		assertEquals("cs 63", unknown.getEntries().get(0).getCode());
+		assertEquals(catalog.getCourse("CS 63"), UnknownCourses.suggest("cs 63", catalog));
+	}
+}
@@ -0,0 +1,393 @@
+package edu.mills.cs64.final_project;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+/**
+ * Tests that a {@link TranscriptStore} finds records by each index and
+ * recovers what was committed, from its log and from a compacted
+ * snapshot, including after a write to its log fails part-way.
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+class TranscriptStoreTest
+{
+	@TempDir
+	Path dir;
+
+	private CourseCatalog catalog;
+
+	@BeforeEach
+	void loadCatalog() throws IOException
+	{
+		catalog = CourseCatalogTest.publish(dir);
+	}
+
+	private String storeDirectory()
+	{
+		return dir.resolve("store").toString();
+	}
+
+	/**
+	 * Replaces a store's log with one that fails as configured.
+	 *
+	 * @param store the store
+	 * @return the failing log
+	 * @throws ReflectiveOperationException if the log cannot be replaced
+	 */
+	private static FailingChannel failLog(TranscriptStore store)
+			throws ReflectiveOperationException
+	{
+		Field field = TranscriptStore.class.getDeclaredField("log");
+		field.setAccessible(true);
+		FailingChannel channel = new FailingChannel((FileChannel) field.get(store));
+		field.set(store, channel);
+		return channel;
+	}
+
+	@Test
+	void recoversCommittedChanges() throws IOException
+	{
+		TranscriptStore store = new TranscriptStore(storeDirectory(), true);
+		store.putStudent("B00000001", "Alice", "Adams");
+		store.addGradeRecord("B00000001", new GradeRecord(catalog.getCourse("CS 63"), 2015, "A"));
+		store.putStudent("B00000002", "Bob", "Brown");
+		store.removeStudent("B00000002");
+		store.close();
+
+		store = new TranscriptStore(storeDirectory(), true);
+		assertEquals(1, store.getStudentCount());
+		assertEquals(1, store.getRecordCount());
+		Transcript transcript = store.getTranscript("B00000001", catalog);
+		assertEquals("Alice", transcript.getFirstName());
+		assertEquals("CS 63", transcript.getGradeRecord(0).getCourse().getShortName());
+		store.close();
+	}
+
+	@Test
+	void logsARegradeAsOneEntry() throws IOException
+	{
+		TranscriptStore store = new TranscriptStore(storeDirectory(), true);
+		Transcript transcript = new Transcript(CourseCatalogTest.write(dir, "alice.txt",
+				TranscriptReaderTest.ALICE));
+		store.track(transcript);
+		long logSize = store.getLogSize();
+		transcript.regrade(transcript.getGradeRecord(1), "A");
+		long regrade = store.getLogSize() - logSize;
+		store.addGradeRecord("B00000001", new GradeRecord(catalog.getCourse("CS 64"), 2017, "C"));
+		// A remove entry and an add entry would each be as long as this.
+		assertTrue(regrade < 2 * (store.getLogSize() - logSize - regrade));
+		store.close();
+
+		store = new TranscriptStore(storeDirectory(), true);
+		assertEquals(3, store.getRecordCount());
+		assertEquals(0, store.find("ARTH 10", Integer.MIN_VALUE, Integer.MAX_VALUE, "B",
+				Integer.MAX_VALUE).getTotal());
+		assertEquals(1, store.find("ARTH 10", Integer.MIN_VALUE, Integer.MAX_VALUE, "A",
+				Integer.MAX_VALUE).getTotal());
+		store.close();
+	}
+
+	/**
+	 * Fills a store with random records for a few students, removing
+	 * some of them again.
+	 *
+	 * @param store the store
+	 * @return the records left, each as "id course year grade"
+	 * @throws IOException if the store cannot be written
+	 */
+	private List<String> fill(TranscriptStore store) throws IOException
+	{
+		Random random = new Random(42);
+		List<String> kept = new ArrayList<String>();
+		for (int s = 0; s < 20; s++) {
+			String id = String.format("B%08d", s);
+			store.putStudent(id, "First" + s, "Last" + s);
+			for (int r = 0; r < 30; r++) {
+				Course course = catalog.getCourse(random.nextInt(catalog.size()));
+				GradeRecord record = new GradeRecord(course, 2000 + random.nextInt(20),
+						String.valueOf("ABCDF".charAt(random.nextInt(5))));
+				store.addGradeRecord(id, record);
+				if (random.nextInt(4) == 0) {
+					assertTrue(store.removeGradeRecord(id, record));
+				} else {
+					kept.add(id + " " + course.getShortName() + " " + record.getYear() + " "
+							+ record.getGrade());
+				}
+			}
+		}
+		return kept;
+	}
+
+	/**
+	 * Checks that a store finds the same records as filtering them by
+	 * hand, for queries that favor each index in turn.
+	 *
+	 * @param store the store
+	 * @param kept the records the store should hold
+	 */
+	private void assertFinds(TranscriptStore store, List<String> kept)
+	{
+		String[][] queries = {
+				{ null, null, null, null },
+				{ "CS 63", null, null, null },
+				{ null, "2005", "2005", null },
+				{ null, null, null, "F" },
+				{ "ARTH 10", "2003", "2012", null },
+				{ "CS 64", "2010", "2019", "AB" },
+				{ null, "2000", "2019", "CD" },
+				{ "CS 63", null, null, "ABCDF" },
+				{ "MATH 1", null, null, null },
+				{ null, "2010", "2009", null },
+		};
+		for (String[] query : queries) {
+			int from = query[1] == null ? Integer.MIN_VALUE : Integer.parseInt(query[1]);
+			int to = query[2] == null ? Integer.MAX_VALUE : Integer.parseInt(query[2]);
+			List<String> expected = new ArrayList<String>();
+			for (String record : kept) {
+				String[] fields = record.split(" ");
+				String course = fields[1] + " " + fields[2];
+				int year = Integer.parseInt(fields[3]);
+				if ((query[0] == null || query[0].equals(course)) && year >= from && year <= to
+						&& (query[3] == null || query[3].contains(fields[4]))) {
+					expected.add(record);
+				}
+			}
+			TranscriptStore.Result result = store.find(query[0], from, to, query[3],
+					Integer.MAX_VALUE);
+			List<String> found = new ArrayList<String>();
+			for (TranscriptStore.Match match : result.getMatches()) {
+				found.add(match.getStudentId() + " " + match.getCourse() + " " + match.getYear()
+						+ " " + match.getGrade());
+			}
+			Collections.sort(expected);
+			Collections.sort(found);
+			String description = Arrays.toString(query);
+			assertEquals(expected, found, description);
+			assertEquals(expected.size(), result.getTotal(), description);
+			if (expected.size() > 1) {
+				TranscriptStore.Result limited = store.find(query[0], from, to, query[3], 1);
+				assertEquals(1, limited.getMatches().size(), description);
+				assertEquals(expected.size(), limited.getTotal(), description);
+			}
+		}
+	}
+
+	@Test
+	void findsRecordsByEveryIndex() throws IOException
+	{
+		TranscriptStore store = new TranscriptStore(storeDirectory(), false);
+		List<String> kept = fill(store);
+		assertEquals(kept.size(), store.getRecordCount());
+		assertFinds(store, kept);
+		store.close();
+	}
+
+	@Test
+	void reopensFromACompactedSnapshot() throws IOException
+	{
+		TranscriptStore store = new TranscriptStore(storeDirectory(), true);
+		List<String> kept = fill(store);
+		store.compact();
+		assertEquals(0, store.getLogSize());
+		assertFinds(store, kept);
+		store.addGradeRecord("B00000000", new GradeRecord(catalog.getCourse("CS 63"), 2030, "A"));
+		kept.add("B00000000 CS 63 2030 A");
+		store.close();
+
+		store = new TranscriptStore(storeDirectory(), true);
+		assertEquals(20, store.getStudentCount());
+		assertEquals(kept.size(), store.getRecordCount());
+		assertFinds(store, kept);
+		assertEquals("First3", store.getTranscript("B00000003", catalog).getFirstName());
+		store.compact();
+		store.close();
+
+		store = new TranscriptStore(storeDirectory(), true);
+		assertFinds(store, kept);
+		store.close();
+	}
+
+	@Test
+	void cutsOffAPartialEntry() throws Exception
+	{
+		TranscriptStore store = new TranscriptStore(storeDirectory(), false);
+		store.putStudent("B00000001", "Alice", "Adams");
+		long logSize = store.getLogSize();
+		failLog(store).failWrites = 1;
+		assertThrows(IOException.class, () -> store.putStudent("B00000002", "Bob", "Brown"));
+		assertEquals(logSize, store.getLogSize());
+		assertEquals(1, store.getStudentCount());
+		store.putStudent("B00000003", "Carol", "Clark");
+		store.close();
+
+		TranscriptStore reopened = new TranscriptStore(storeDirectory(), false);
+		assertEquals(2, reopened.getStudentCount());
+		assertNotNull(reopened.getTranscript("B00000001", catalog));
+		assertNull(reopened.getTranscript("B00000002", catalog));
+		assertNotNull(reopened.getTranscript("B00000003", catalog));
+		reopened.close();
+	}
+
+	@Test
+	void refusesChangesIfTheLogCannotBeCut() throws Exception
+	{
+		TranscriptStore store = new TranscriptStore(storeDirectory(), false);
+		store.putStudent("B00000001", "Alice", "Adams");
+		FailingChannel log = failLog(store);
+		log.failWrites = 1;
+		log.failTruncate = true;
+		assertThrows(IOException.class, () -> store.putStudent("B00000002", "Bob", "Brown"));
+		log.failTruncate = false;
+		assertThrows(IOException.class, () -> store.putStudent("B00000003", "Carol", "Clark"));
+		assertThrows(IOException.class, store::compact);
+		store.close();
+
+		TranscriptStore reopened = new TranscriptStore(storeDirectory(), false);
+		assertEquals(1, reopened.getStudentCount());
+		reopened.putStudent("B00000003", "Carol", "Clark");
+		assertEquals(2, reopened.getStudentCount());
+		reopened.close();
+	}
+
+	/**
+	 * A log that can fail a write after writing half of it, as when
+	 * the disk fills, and can fail to truncate.
+	 */
+	private static class FailingChannel extends FileChannel
+	{
+		private FileChannel channel;
+		private int failWrites;
+		private boolean failTruncate;
+
+		private FailingChannel(FileChannel channel)
+		{
+			this.channel = channel;
+		}
+
+		@Override
+		public int write(ByteBuffer src) throws IOException
+		{
+			if (failWrites > 0) {
+				failWrites--;
+				ByteBuffer half = src.duplicate();
+				half.limit(src.position() + src.remaining() / 2);
+				channel.write(half);
+				src.position(half.position());
+				throw new IOException("No space left on device");
+			}
+			return channel.write(src);
+		}
+
+		@Override
+		public FileChannel truncate(long size) throws IOException
+		{
+			if (failTruncate) {
+				throw new IOException("Input/output error");
+			}
+			channel.truncate(size);
+			return this;
+		}
+
+		@Override
+		public int read(ByteBuffer dst) throws IOException {
+			return channel.read(dst);
+		}
+
+		@Override
+		public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+			return channel.read(dsts, offset, length);
+		}
+
+		@Override
+		public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+			return channel.write(srcs, offset, length);
+		}
+
+		@Override
+		public long position() throws IOException {
+			return channel.position();
+		}
+
+		@Override
+		public FileChannel position(long newPosition) throws IOException {
+			channel.position(newPosition);
+			return this;
+		}
+
+		@Override
+		public long size() throws IOException {
+			return channel.size();
+		}
+
+		@Override
+		public void force(boolean metaData) throws IOException {
+			channel.force(metaData);
+		}
+
+		@Override
+		public long transferTo(long position, long count, WritableByteChannel target)
+				throws IOException {
+			return channel.transferTo(position, count, target);
+		}
+
+		@Override
+		public long transferFrom(ReadableByteChannel src, long position, long count)
+				throws IOException {
+			return channel.transferFrom(src, position, count);
+		}
+
+		@Override
+		public int read(ByteBuffer dst, long position) throws IOException {
+			return channel.read(dst, position);
+		}
+
+		@Override
+		public int write(ByteBuffer src, long position) throws IOException {
+			return channel.write(src, position);
+		}
+
+		@Override
+		public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+			return channel.map(mode, position, size);
+		}
+
+		@Override
+		public FileLock lock(long position, long size, boolean shared) throws IOException {
+			return channel.lock(position, size, shared);
+		}
+
+		@Override
+		public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+			return channel.tryLock(position, size, shared);
+		}
+
+		@Override
+		protected void implCloseChannel() throws IOException {
+			channel.close();
+		}
+	}
+}
@@ -0,0 +1,108 @@
+package edu.mills.cs64.final_project;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+/**
+ * Tests requirement tallies as a {@link Transcript} changes, and
+ * copy-on-write forks.
+ *
+ * @author B0048993
+ * @version 18 October 2026
+ */
+class TranscriptTest
+{
+	@TempDir
+	Path dir;
+
+	private CourseCatalog catalog;
+	private Transcript transcript;
+
+	@BeforeEach
+	void loadTranscript() throws IOException
+	{
+		catalog = CourseCatalogTest.publish(dir);
+		transcript = new Transcript(CourseCatalogTest.write(dir, "alice.txt",
+				TranscriptReaderTest.ALICE));
+	}
+
+	@Test
+	void talliesRequirementsFromTheFile()
+	{
+		assertEquals("Alice", transcript.getFirstName());
+		assertEquals(4, transcript.getCreditsMet(CoreRequirement.QL));
+		assertEquals(3, transcript.getCreditsMet(CoreRequirement.CA));
+		assertEquals(0, transcript.getCreditsMet(CoreRequirement.WOC));
+		int satisfied = transcript.getSatisfiedRequirementsMask();
+		assertEquals(CoreRequirement.QL.getMask() | CoreRequirement.CA.getMask()
+				| CoreRequirement.IP.getMask(), satisfied);
+		assertEquals(0, satisfied & transcript.getUnmetRequirementsMask());
+	}
+
+	@Test
+	void updatesTalliesInPlace()
+	{
+		GradeRecord record = new GradeRecord(catalog.getCourse("CS 64"), 2017, "A");
+		transcript.addGradeRecord(record);
+		assertEquals(8, transcript.getCreditsMet(CoreRequirement.QL));
+		assertEquals(4, transcript.getCreditsMet(CoreRequirement.CIE));
+		assertTrue((transcript.getSatisfiedRequirementsMask() & CoreRequirement.CIE.getMask()) != 0);
+
+		GradeRecord regraded = transcript.regrade(record, "B");
+		assertEquals("B", regraded.getGrade());
+		assertEquals(4, transcript.getCreditsMet(CoreRequirement.CIE));
+
+		assertTrue(transcript.removeGradeRecord(regraded));
+		assertFalse(transcript.removeGradeRecord(regraded));
+		assertEquals(4, transcript.getCreditsMet(CoreRequirement.QL));
+		assertEquals(0, transcript.getCreditsMet(CoreRequirement.CIE));
+	}
+
+	@Test
+	void rejectsCoursesFromAnotherCatalog() throws IOException
+	{
+		CourseCatalog other = CourseCatalog.load(CourseCatalogTest.write(dir, "other.txt",
+				CourseCatalogTest.COURSES));
+		assertThrows(IllegalArgumentException.class, () -> transcript.addGradeRecord(
+				new GradeRecord(other.getCourse("CS 64"), 2017, "A")));
+	}
+
+	@Test
+	void forksAreIndependent()
+	{
+		Transcript fork = transcript.fork();
+		fork.addGradeRecord(new GradeRecord(catalog.getCourse("CS 64"), 2017, "A"));
+		assertEquals(3, fork.getGradeRecordCount());
+		assertEquals(8, fork.getCreditsMet(CoreRequirement.QL));
+		assertEquals(2, transcript.getGradeRecordCount());
+		assertEquals(4, transcript.getCreditsMet(CoreRequirement.QL));
+
+		transcript.removeGradeRecord(transcript.getGradeRecord(0));
+		assertEquals(0, transcript.getCreditsMet(CoreRequirement.QL));
+		assertEquals(3, fork.getGradeRecordCount());
+		assertEquals(8, fork.getCreditsMet(CoreRequirement.QL));
+		assertEquals("CS 63", fork.getGradeRecord(0).getCourse().getShortName());
+	}
+
+	@Test
+	void removingAMissingRecordChangesNothing()
+	{
+		Transcript fork = transcript.fork();
+		GradeRecord missing = new GradeRecord(catalog.getCourse("CS 64"), 2017, "A");
+		assertFalse(fork.removeGradeRecord(missing));
+		assertFalse(transcript.removeGradeRecord(missing));
+		assertEquals(2, fork.getGradeRecordCount());
+		assertEquals(4, fork.getCreditsMet(CoreRequirement.QL));
+		assertEquals(2, transcript.getGradeRecordCount());
+		assertEquals(4, transcript.getCreditsMet(CoreRequirement.QL));
+	}
+}